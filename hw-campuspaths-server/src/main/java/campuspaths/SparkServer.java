@@ -33,7 +33,8 @@ public class SparkServer {
         // You should leave these two lines at the very beginning of main().
 
         // TODO: Create all the Spark Java routes you need here.
-        CampusMap UWMap = new CampusMap();
+        // the campus graph is loaded from a snapshot written on the first start
+        CampusMap UWMap = new CampusMap(java.nio.file.Paths.get("campus_paths.graph"));
         Spark.get("/find-path", new Route() {
            @Override
            public Object handle(Request request, Response response) throws Exception {
@@ -42,8 +43,14 @@ public class SparkServer {
                if (startBuilding == null || endBuilding == null) {
                    Spark.halt(400, "must have start and end");
                }
-               //creates the shortest path between two buildings through Djikstra's Algorithm
-               Path<Point> shortestPath = UWMap.findShortestPath(startBuilding, endBuilding);
+               // looks the path up in the route table unless a search is asked for; all find the same path
+               String search = request.queryParams("search");
+               SearchMode mode = "dijkstra".equals(search) ? SearchMode.DIJKSTRA
+                       : "astar".equals(search) ? SearchMode.A_STAR : SearchMode.ROUTE_TABLE;
+               SearchStats stats = new SearchStats();
+               Path<Point> shortestPath = UWMap.findShortestPath(startBuilding, endBuilding, mode, stats);
+               response.header("X-Expanded-Nodes", String.valueOf(stats.getExpandedNodes()));
+               response.header("X-Search-Micros", String.valueOf(stats.getNanos() / 1000));
                //creates a list of PathInfo objects representing every point within the path
                List<PathInfo> path = new ArrayList<>();
                for (Path<Point>.Segment p: shortestPath) {
@@ -59,6 +66,25 @@ public class SparkServer {
            }
         });
 
+        Spark.get("/route-cache-stats", new Route() {
+           @Override
+           public Object handle(Request request, Response response) throws Exception {
+               // the counters of the cache in front of /find-path, empty if the cache is disabled
+               Map<String, Object> stats = new LinkedHashMap<>();
+               RouteCache<Point> cache = UWMap.getRouteCache();
+               if (cache != null) {
+                   stats.put("size", cache.size());
+                   stats.put("maxSize", cache.getMaxSize());
+                   stats.put("policy", cache.getPolicy());
+                   stats.put("hits", cache.getHits());
+                   stats.put("misses", cache.getMisses());
+                   stats.put("evictions", cache.getEvictions());
+               }
+               Gson gson = new Gson();
+               return gson.toJson(stats);
+           }
+        });
+
         Spark.get("/get-buildings", new Route() {
            @Override
            public Object handle(Request request, Response response) throws Exception {
@@ -0,0 +1,745 @@
+package graph;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * This class represents a mutable, directed, labeled graph that can be read and changed by many
+ * threads at once. The graph is kept as a series of immutable versions: every change copies the
+ * set of Edges of the one Node it changes and the path to that Node in a persistent hash trie of
+ * the Nodes, sharing the rest of the trie with the previous version, and then publishes the copy
+ * as the new version. Readers therefore never take a lock and never wait for writers, and a reader
+ * that needs a consistent graph for a whole query (for instance a shortest path search) takes a
+ * snapshot() first and reads it instead of this graph. Writers are serialized with one another.
+ *
+ * Each change costs time proportional to the log of the number of Nodes plus the degree of
+ * the changed Node, so building a graph one Node and one Edge at a time stays fast, while a
+ * Node with many Edges should get them with a single call to addEdges, which copies its set
+ * of Edges once. This graph suits graphs that are read far more often than they are changed,
+ * such as a campus map receiving occasional path closures.
+ *
+ * Specification fields:
+ * @spec.specfield graph : Map of Nodes with each Node corresponding to a Set of Edges
+ *                         that connect each Node with another Node.
+ * @spec.specfield version : long // The number of changes made to the graph.
+ *
+ * Abstract Invariant:
+ * Same as DLGraph. version never decreases.
+ */
+public class ConcurrentGraph<N, E> implements Graph<N, E> {
+
+    /**
+     * Holds the current version of the graph. It is replaced, never modified, by writers.
+     */
+    private volatile Snapshot<N, E> current;
+
+    /**
+     * Holds the lock writers take so that no change is lost to a concurrent change.
+     */
+    private final Object writeLock = new Object();
+
+    // Abstraction Function (this):
+    // ConcurrentGraph, g, represents the graph current represents, with version current.version.
+
+    // Representation Invariant for every graph g:
+    // current != null and current satisfies the representation invariant of Snapshot
+
+    /**
+     * @spec.effects Constructs a new, empty ConcurrentGraph (no Nodes or sets of Edges).
+     */
+    public ConcurrentGraph() {
+        this((Comparator<? super Edge<E,N>>) null);
+    }
+
+    /**
+     * @param edgeOrder the order the Edges of every Node are kept in, or null to keep them in
+     *                  no particular order
+     * @spec.requires edgeOrder is null or is consistent with Edge.equals
+     * @spec.effects Constructs a new, empty ConcurrentGraph whose Edges are kept in the given order
+     */
+    public ConcurrentGraph(Comparator<? super Edge<E,N>> edgeOrder) {
+        current = new Snapshot<>(TrieMap.empty(), edgeOrder, 0);
+        checkRep();
+    }
+
+    /**
+     * @param g the graph copied
+     * @spec.requires g != null and g is not modified during this call
+     * @spec.effects Constructs a new ConcurrentGraph with the same Nodes, Edges and edge order
+     *               as g
+     */
+    public ConcurrentGraph(Graph<N, E> g) {
+        this(g.getEdgeOrder());
+        TrieMap<Node<N>, Set<Edge<E,N>>> graph = TrieMap.empty();
+        for (Node<N> n: g.getNodeView()) graph = graph.with(n, Collections.unmodifiableSet(copy(g.getEdgeView(n))));
+        current = new Snapshot<>(graph, g.getEdgeOrder(), 0);
+        checkRep();
+    }
+
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert (current != null) : "graph must have a current version";
+        if (DLGraph.DEBUG) current.checkRep();
+    }
+
+    /**
+     * Returns the current version of this graph. Later changes to this graph are not reflected
+     * in the snapshot, so every read of it sees the same Nodes and Edges.
+     *
+     * @return an immutable snapshot of this graph
+     */
+    public Graph<N, E> snapshot() {
+        return current;
+    }
+
+    /**
+     * Returns the number of changes made to this graph
+     *
+     * @return the version of this graph, which increases by one with every successful change
+     */
+    public long version() {
+        return current.version;
+    }
+
+    /**
+     * Adds the given Node to the graph if the graph doesn't already contain Node
+     *
+     * @param n Node to add to the graph
+     * @spec.requires n != null
+     * @spec.modifies this
+     * @spec.effects Adds given node to this graph
+     * @return true if Node can be added to graph, false otherwise
+     */
+    public boolean addNode(Node<N> n) {
+        synchronized (writeLock) {
+            Snapshot<N, E> old = current;
+            if (old.graph.containsKey(n)) return false;
+            publish(old.graph.with(n, Collections.unmodifiableSet(copy(Collections.emptySet()))), old);
+            return true;
+        }
+    }
+
+    /**
+     * Adds an Edge to the graph for the parent Node 'from' pointing toward the child Node 'target'
+     *
+     * @param from the parent Node that the edge is added to in the graph
+     * @param target the child Node that the Edge points to
+     * @param label the label of the Edge
+     * @spec.requires from != null, target != null, label != null
+     * @spec.modifies this
+     * @spec.effects adds an Edge to the set of Edges for the parent Node
+     * @return true if the Edge was added to the graph, false if it was already in the graph
+     * @throws IllegalArgumentException if graph does not contain the parent or child node
+     */
+    public boolean addEdge(Node<N> from, Node<N> target, E label) {
+        return addEdges(from, Collections.singleton(new Edge<>(label, target)));
+    }
+
+    /**
+     * Adds all the given Edges to the graph for the parent Node 'from' as one change.
+     *
+     * @param from the parent Node that the edges are added to in the graph
+     * @param edges the Edges added, each pointing toward its child Node
+     * @spec.requires from != null, edges != null and edges contains no null Edges
+     * @spec.modifies this
+     * @spec.effects adds the given Edges to the set of Edges for the parent Node
+     * @return true if any Edge was added to the graph
+     * @throws IllegalArgumentException if graph does not contain the parent node or the child
+     *                                  node of any given edge
+     */
+    public boolean addEdges(Node<N> from, Collection<? extends Edge<E,N>> edges) {
+        synchronized (writeLock) {
+            Snapshot<N, E> old = current;
+            Set<Edge<E,N>> parentEdges = old.graph.get(from);
+            if (parentEdges == null) throw new IllegalArgumentException("Parent node is not in graph.");
+            for (Edge<E,N> e: edges) {
+                if (!old.graph.containsKey(e.getChild())) {
+                    throw new IllegalArgumentException("Child node is not in the graph");
+                }
+            }
+            if (parentEdges.containsAll(edges)) return false;
+            Set<Edge<E,N>> changed = copy(parentEdges);
+            changed.addAll(edges);
+            replaceEdges(old, from, changed);
+            return true;
+        }
+    }
+
+    /**
+     * Removes the Edge with the given label from the parent Node 'from' to the child Node
+     * 'target', for instance to close a path.
+     *
+     * @param from the parent Node of the removed Edge
+     * @param target the child Node of the removed Edge
+     * @param label the label of the removed Edge
+     * @spec.requires from != null, target != null, label != null
+     * @spec.modifies this
+     * @spec.effects removes the Edge from the set of Edges for the parent Node
+     * @return true if the Edge was removed, false if it was not in the graph
+     * @throws IllegalArgumentException if graph does not contain the parent node
+     */
+    public boolean removeEdge(Node<N> from, Node<N> target, E label) {
+        synchronized (writeLock) {
+            Snapshot<N, E> old = current;
+            Set<Edge<E,N>> parentEdges = old.graph.get(from);
+            if (parentEdges == null) throw new IllegalArgumentException("Parent node is not in graph.");
+            Edge<E,N> removed = new Edge<>(label, target);
+            if (!parentEdges.contains(removed)) return false;
+            Set<Edge<E,N>> changed = copy(parentEdges);
+            changed.remove(removed);
+            replaceEdges(old, from, changed);
+            return true;
+        }
+    }
+
+    /**
+     * Publishes a new version of the graph in which the given Node has the given Edges.
+     *
+     * @param old the current version
+     * @param n the Node whose Edges are replaced
+     * @param edges the new Edges of n
+     * @spec.requires the caller holds writeLock, old == current and n is in old
+     */
+    private void replaceEdges(Snapshot<N, E> old, Node<N> n, Set<Edge<E,N>> edges) {
+        publish(old.graph.with(n, Collections.unmodifiableSet(edges)), old);
+    }
+
+    /**
+     * Publishes the given map as the next version of the graph.
+     *
+     * @param graph the Nodes and Edges of the next version
+     * @param old the current version
+     * @spec.requires the caller holds writeLock and old == current
+     */
+    private void publish(TrieMap<Node<N>, Set<Edge<E,N>>> graph, Snapshot<N, E> old) {
+        current = new Snapshot<>(graph, old.edgeOrder, old.version + 1);
+        checkRep();
+    }
+
+    /**
+     * Returns a modifiable copy of the given Edges kept in the edge order of this graph.
+     *
+     * @param edges the Edges copied
+     * @return a new set holding the given Edges
+     */
+    private Set<Edge<E,N>> copy(Set<Edge<E,N>> edges) {
+        Comparator<? super Edge<E,N>> edgeOrder = current.edgeOrder;
+        if (edgeOrder == null) return new HashSet<>(edges);
+        Set<Edge<E,N>> sorted = new TreeSet<>(edgeOrder);
+        sorted.addAll(edges);
+        return sorted;
+    }
+
+    @Override
+    public boolean containsNode(Node<N> n) {
+        return current.containsNode(n);
+    }
+
+    @Override
+    public Set<Node<N>> getAllNodes() {
+        return current.getAllNodes();
+    }
+
+    @Override
+    public Set<Edge<E,N>> getAllEdges(Node<N> n) {
+        return current.getAllEdges(n);
+    }
+
+    @Override
+    public Comparator<? super Edge<E,N>> getEdgeOrder() {
+        return current.edgeOrder;
+    }
+
+    /**
+     * Returns a read-only view of the Nodes of the current version of this graph. Later
+     * changes to this graph are not visible through the view.
+     *
+     * @return unmodifiable set of the Nodes in graph
+     */
+    @Override
+    public Set<Node<N>> getNodeView() {
+        return current.getNodeView();
+    }
+
+    /**
+     * Returns a read-only view of the Edges of the given Node in the current version of this
+     * graph. Later changes to this graph are not visible through the view.
+     *
+     * @param n Node to get all the Edges from
+     * @spec.requires n != null
+     * @return unmodifiable set of all Edges for the given Node in the graph
+     * @throws IllegalArgumentException if graph doesn't contain given node
+     */
+    @Override
+    public Set<Edge<E,N>> getEdgeView(Node<N> n) {
+        return current.getEdgeView(n);
+    }
+
+    @Override
+    public void forEachEdge(Node<N> n, Consumer<? super Edge<E,N>> action) {
+        current.forEachEdge(n, action);
+    }
+
+    @Override
+    public Set<Node<N>> getAllChildren(Node<N> n) {
+        return current.getAllChildren(n);
+    }
+
+    @Override
+    public int size() {
+        return current.size();
+    }
+
+    @Override
+    public int numEdges(Node<N> from, Node<N> target) {
+        return current.numEdges(from, target);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return current.isEmpty();
+    }
+
+    /**
+     * This class represents one immutable version of a ConcurrentGraph.
+     */
+    private static final class Snapshot<N, E> implements Graph<N, E> {
+
+        /**
+         * Holds all the Nodes and the unmodifiable set of Edges of each Node.
+         */
+        private final TrieMap<Node<N>, Set<Edge<E,N>>> graph;
+
+        /**
+         * Holds a read-only view of the Nodes of the graph.
+         */
+        private final Set<Node<N>> nodeView;
+
+        /**
+         * Holds the order the Edges of every Node are kept in, or null if they are kept in no
+         * particular order.
+         */
+        private final Comparator<? super Edge<E,N>> edgeOrder;
+
+        /**
+         * Holds the number of changes made to the graph before this version.
+         */
+        private final long version;
+
+        // Abstraction Function (this):
+        // Snapshot, s, represents the graph graph, as in DLGraph, after version changes.
+
+        // Representation Invariant for every snapshot s:
+        // graph != null and graph satisfies the representation invariant of DLGraph
+        // every set of Edges in graph is unmodifiable
+        // if edgeOrder != null, every set of Edges iterates in edgeOrder
+
+        /**
+         * @param graph the Nodes and Edges of this version
+         * @param edgeOrder the order the Edges of every Node are kept in, or null
+         * @param version the number of changes made before this version
+         * @spec.effects Constructs a new Snapshot of the given graph
+         */
+        Snapshot(TrieMap<Node<N>, Set<Edge<E,N>>> graph, Comparator<? super Edge<E,N>> edgeOrder, long version) {
+            this.graph = graph;
+            this.nodeView = Collections.unmodifiableSet(graph.keySet());
+            this.edgeOrder = edgeOrder;
+            this.version = version;
+        }
+
+        /**
+         * Throws an exception if the representation invariant is violated.
+         */
+        void checkRep() {
+            for (Map.Entry<Node<N>, Set<Edge<E,N>>> entry: graph.entrySet()) {
+                assert (entry.getKey() != null && entry.getValue() != null) : "nodes and edge sets cannot be null";
+                for (Edge<E,N> e: entry.getValue()) {
+                    assert (graph.containsKey(e.getChild())) : "child node must be in graph";
+                }
+            }
+        }
+
+        /**
+         * Returns the Edges of the given Node
+         *
+         * @param n Node to get the Edges of
+         * @return unmodifiable set of the Edges of n
+         * @throws IllegalArgumentException if graph doesn't contain given node
+         */
+        private Set<Edge<E,N>> edgesOf(Node<N> n) {
+            Set<Edge<E,N>> edges = graph.get(n);
+            if (edges == null) throw new IllegalArgumentException("Given node is not in graph.");
+            return edges;
+        }
+
+        @Override
+        public boolean containsNode(Node<N> n) {
+            return graph.containsKey(n);
+        }
+
+        @Override
+        public Set<Node<N>> getAllNodes() {
+            return new HashSet<>(graph.keySet());
+        }
+
+        @Override
+        public Set<Edge<E,N>> getAllEdges(Node<N> n) {
+            Set<Edge<E,N>> edges = edgesOf(n);
+            if (edgeOrder == null) return new HashSet<>(edges);
+            Set<Edge<E,N>> sorted = new TreeSet<>(edgeOrder);
+            sorted.addAll(edges);
+            return sorted;
+        }
+
+        @Override
+        public Comparator<? super Edge<E,N>> getEdgeOrder() {
+            return edgeOrder;
+        }
+
+        @Override
+        public Set<Node<N>> getNodeView() {
+            return nodeView;
+        }
+
+        @Override
+        public Set<Edge<E,N>> getEdgeView(Node<N> n) {
+            return edgesOf(n);
+        }
+
+        @Override
+        public void forEachEdge(Node<N> n, Consumer<? super Edge<E,N>> action) {
+            edgesOf(n).forEach(action);
+        }
+
+        @Override
+        public Set<Node<N>> getAllChildren(Node<N> n) {
+            Set<Node<N>> children = new HashSet<>();
+            for (Edge<E,N> e: edgesOf(n)) children.add(e.getChild());
+            return children;
+        }
+
+        @Override
+        public int size() {
+            return graph.size();
+        }
+
+        @Override
+        public int numEdges(Node<N> from, Node<N> target) {
+            if (!graph.containsKey(target)) throw new IllegalArgumentException("Child node is not in graph.");
+            int edges = 0;
+            for (Edge<E,N> e: edgesOf(from)) {
+                if (e.getChild().equals(target)) edges++;
+            }
+            return edges;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return graph.isEmpty();
+        }
+    }
+
+    /**
+     * This class represents an immutable map kept as a hash array mapped trie. with returns a
+     * new map that shares every branch of the trie but the path to the changed key with this
+     * map, so a change copies O(log n) small arrays instead of the whole map. Keys cannot be
+     * removed, as a ConcurrentGraph never removes a Node.
+     */
+    private static final class TrieMap<K, V> extends AbstractMap<K, V> {
+
+        /**
+         * Holds the number of hash bits consumed by each level of the trie.
+         */
+        private static final int BITS = 5;
+
+        /**
+         * Holds the greatest depth of the trie: the levels that consume hash bits, plus one
+         * level of collision nodes for keys whose hash codes are equal.
+         */
+        private static final int MAX_DEPTH = (Integer.SIZE + BITS - 1) / BITS + 1;
+
+        /**
+         * Holds the empty map, shared by every key and value type.
+         */
+        private static final TrieMap<?, ?> EMPTY = new TrieMap<>(new Trie(0, new Object[0]), 0);
+
+        /**
+         * Holds the root of the trie.
+         */
+        private final Trie root;
+
+        /**
+         * Holds the number of keys in the map.
+         */
+        private final int size;
+
+        // Abstraction Function (this):
+        // TrieMap, m, maps the key of every entry held in a leaf of the trie under root to the
+        // value of that entry.
+
+        // Representation Invariant for every map m:
+        // root != null, size is the number of entries under root, and no two entries have
+        // equal keys
+        // a Trie at a depth d below MAX_DEPTH - 1 holds an entry or a child Trie for every bit
+        // of its bitmap, in the order of the bits, and every key under that bit has hash code
+        // bits d * BITS up to (d + 1) * BITS equal to the index of the bit
+        // a Trie at depth MAX_DEPTH - 1 has a bitmap of 0 and holds only entries
+
+        /**
+         * One level of the trie: an array of slots, each holding an entry or a Trie one level
+         * deeper, with the hash bits of the slots held in a bitmap.
+         */
+        private static final class Trie {
+
+            /**
+             * Holds a bit for every slot held.
+             */
+            final int bitmap;
+
+            /**
+             * Holds the entries and Tries of the slots, in the order of their bits.
+             */
+            final Object[] slots;
+
+            /**
+             * @param bitmap the bits of the slots held
+             * @param slots the entries and Tries of the slots, not modified after this call
+             * @spec.effects Constructs a new level of a trie
+             */
+            Trie(int bitmap, Object[] slots) {
+                this.bitmap = bitmap;
+                this.slots = slots;
+            }
+        }
+
+        /**
+         * @param root the root of the trie
+         * @param size the number of entries under root
+         * @spec.effects Constructs a new map of the entries under root
+         */
+        private TrieMap(Trie root, int size) {
+            this.root = root;
+            this.size = size;
+        }
+
+        /**
+         * Returns the empty map
+         *
+         * @param <K> the type of the keys
+         * @param <V> the type of the values
+         * @return a map with no keys
+         */
+        @SuppressWarnings("unchecked")
+        static <K, V> TrieMap<K, V> empty() {
+            return (TrieMap<K, V>) EMPTY;
+        }
+
+        /**
+         * Returns a map with the given key mapped to the given value and every other key mapped
+         * as in this map, taking time proportional to the depth of the trie
+         *
+         * @param key the key mapped
+         * @param value the value mapped to key
+         * @spec.requires key != null
+         * @return the new map; this map is not changed
+         */
+        TrieMap<K, V> with(K key, V value) {
+            boolean[] added = new boolean[1];
+            Trie changed = insert(root, new SimpleImmutableEntry<>(key, value), key.hashCode(), 0, added);
+            return new TrieMap<>(changed, added[0] ? size + 1 : size);
+        }
+
+        @Override
+        public V get(Object key) {
+            Map.Entry<K, V> entry = find(key);
+            return entry == null ? null : entry.getValue();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return find(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Set<Map.Entry<K, V>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<K, V>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+
+        /**
+         * Returns the entry of the given key
+         *
+         * @param key the key looked up
+         * @return the entry whose key equals key, or null if there is none
+         */
+        @SuppressWarnings("unchecked")
+        private Map.Entry<K, V> find(Object key) {
+            if (key == null) return null;
+            int hash = key.hashCode();
+            Trie trie = root;
+            for (int depth = 0; ; depth++) {
+                if (depth == MAX_DEPTH - 1) {
+                    for (Object slot: trie.slots) {
+                        if (((Map.Entry<K, V>) slot).getKey().equals(key)) return (Map.Entry<K, V>) slot;
+                    }
+                    return null;
+                }
+                int bit = 1 << ((hash >>> (depth * BITS)) & 31);
+                if ((trie.bitmap & bit) == 0) return null;
+                Object slot = trie.slots[Integer.bitCount(trie.bitmap & (bit - 1))];
+                if (!(slot instanceof Trie)) {
+                    Map.Entry<K, V> entry = (Map.Entry<K, V>) slot;
+                    return entry.getKey().equals(key) ? entry : null;
+                }
+                trie = (Trie) slot;
+            }
+        }
+
+        /**
+         * Returns a copy of the given level of a trie with the given entry put in it.
+         *
+         * @param trie the level changed
+         * @param entry the entry put in the trie
+         * @param hash the hash code of the key of entry
+         * @param depth the depth of trie
+         * @param added set to true if the key of entry was not in the trie
+         * @return the new level, sharing every unchanged slot with trie
+         */
+        @SuppressWarnings("unchecked")
+        private static Trie insert(Trie trie, Map.Entry<?, ?> entry, int hash, int depth, boolean[] added) {
+            if (depth == MAX_DEPTH - 1) {
+                for (int i = 0; i < trie.slots.length; i++) {
+                    if (((Map.Entry<?, ?>) trie.slots[i]).getKey().equals(entry.getKey())) {
+                        return new Trie(0, replaced(trie.slots, i, entry));
+                    }
+                }
+                added[0] = true;
+                Object[] slots = Arrays.copyOf(trie.slots, trie.slots.length + 1);
+                slots[trie.slots.length] = entry;
+                return new Trie(0, slots);
+            }
+            int bit = 1 << ((hash >>> (depth * BITS)) & 31);
+            int index = Integer.bitCount(trie.bitmap & (bit - 1));
+            if ((trie.bitmap & bit) == 0) {
+                added[0] = true;
+                Object[] slots = new Object[trie.slots.length + 1];
+                System.arraycopy(trie.slots, 0, slots, 0, index);
+                slots[index] = entry;
+                System.arraycopy(trie.slots, index, slots, index + 1, trie.slots.length - index);
+                return new Trie(trie.bitmap | bit, slots);
+            }
+            Object slot = trie.slots[index];
+            if (slot instanceof Trie) {
+                return new Trie(trie.bitmap, replaced(trie.slots, index, insert((Trie) slot, entry, hash, depth + 1, added)));
+            }
+            Map.Entry<?, ?> existing = (Map.Entry<?, ?>) slot;
+            if (existing.getKey().equals(entry.getKey())) return new Trie(trie.bitmap, replaced(trie.slots, index, entry));
+            added[0] = true;
+            Trie split = insert(insert(new Trie(0, new Object[0]), existing, existing.getKey().hashCode(), depth + 1,
+                    new boolean[1]), entry, hash, depth + 1, new boolean[1]);
+            return new Trie(trie.bitmap, replaced(trie.slots, index, split));
+        }
+
+        /**
+         * Returns a copy of the given slots with one slot replaced
+         *
+         * @param slots the slots copied
+         * @param index the index of the slot replaced
+         * @param slot the new slot
+         * @return new array holding slots with slot at index
+         */
+        private static Object[] replaced(Object[] slots, int index, Object slot) {
+            Object[] copy = slots.clone();
+            copy[index] = slot;
+            return copy;
+        }
+
+        /**
+         * Iterates over the entries of the trie depth first, keeping the path to the current
+         * entry in two arrays, one level per element.
+         */
+        private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+
+            /**
+             * Holds the level of the trie at every depth of the path.
+             */
+            private final Trie[] path = new Trie[MAX_DEPTH];
+
+            /**
+             * Holds the index of the next slot visited at every depth of the path.
+             */
+            private final int[] next = new int[MAX_DEPTH];
+
+            /**
+             * Holds the depth of the deepest level of the path, or -1 once every entry was visited.
+             */
+            private int depth;
+
+            /**
+             * Holds the entry returned next, or null if there is none.
+             */
+            private Map.Entry<K, V> entry;
+
+            /**
+             * @spec.effects Constructs a new iterator before the first entry of the trie
+             */
+            EntryIterator() {
+                path[0] = root;
+                advance();
+            }
+
+            @Override
+            public boolean hasNext() {
+                return entry != null;
+            }
+
+            @Override
+            public Map.Entry<K, V> next() {
+                if (entry == null) throw new NoSuchElementException();
+                Map.Entry<K, V> result = entry;
+                advance();
+                return result;
+            }
+
+            /**
+             * Moves entry to the next entry of the trie, or to null if there is none.
+             */
+            @SuppressWarnings("unchecked")
+            private void advance() {
+                while (depth >= 0) {
+                    Trie trie = path[depth];
+                    if (next[depth] == trie.slots.length) {
+                        depth--;
+                        continue;
+                    }
+                    Object slot = trie.slots[next[depth]++];
+                    if (slot instanceof Trie) {
+                        depth++;
+                        path[depth] = (Trie) slot;
+                        next[depth] = 0;
+                    } else {
+                        entry = (Map.Entry<K, V>) slot;
+                        return;
+                    }
+                }
+                entry = null;
+            }
+        }
+    }
+}
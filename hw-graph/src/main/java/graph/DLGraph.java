@@ -1,6 +1,8 @@
 package graph;
 
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * This class represents a mutable, directed, labeled graph. This graph consists of
@@ -17,7 +19,7 @@ import java.util.*;
  * contain null Nodes or any null Edges within the set of Edges for that given Node.
  */
 
-public class DLGraph<N, E> {
+public class DLGraph<N, E> implements MutableGraph<N, E> {
 
     /**
      * Holds the boolean value of whether large tests is checkRep() will be performed
@@ -29,6 +31,28 @@ public class DLGraph<N, E> {
      */
     private Map<Node<N>, Set<Edge<E,N>>> graph;
 
+    /**
+     * Holds a read-only view of the Nodes of the graph, shared by every call to getNodeView.
+     */
+    private final Set<Node<N>> nodeView;
+
+    /**
+     * Holds the order the Edges of every Node are kept in, or null if they are kept in no
+     * particular order.
+     */
+    private final Comparator<? super Edge<E,N>> edgeOrder;
+
+    /**
+     * Holds, for every Node, the Edges pointing to it paired with their parent Nodes, or null
+     * if the graph keeps no index of incoming Edges. The Edges are the same Edge objects held
+     * in the edge sets of the parents, and each Node keeps its pairs in two flat arrays, so the
+     * index holds two references per Edge, plus a map from each pair to its position for Nodes
+     * with many Edges pointing to them, so that any pair is removed in constant time. The index is only kept by graphs constructed with
+     * one, so graphs that never look at incoming Edges don't pay for it, and it is only changed
+     * by the operations that change the graph.
+     */
+    private final Map<Node<N>, Incoming<N,E>> incoming;
+
     // Abstraction Function (this):
     // DLGraph, g, represents a map of Nodes with each node having
     // a set of edges connecting them to other nodes within the graph.
@@ -38,12 +62,61 @@ public class DLGraph<N, E> {
     // for all Nodes in graph, nodes are never null and there are no duplicate nodes
     // for all Edges in each Node in graph, no Edges are null, no two edges are the same
     // and child node of edge must be in graph
+    // if edgeOrder != null, the set of Edges of every Node is a TreeSet ordered by edgeOrder
+    // if incoming != null, incoming has a key for every Node in graph, and for every Node c
+    // incoming.get(c) holds the pair (p, e) exactly once for every Node p and Edge e of p
+    // whose child is c
 
     /**
      * @spec.effects Constructs a new, empty DLGraph (no Nodes or sets of Edges).
      */
     public DLGraph() {
-        graph = new HashMap<>();
+        this(null, false);
+    }
+
+    /**
+     * @param edgeOrder the order the Edges of every Node are kept in, or null to keep them in
+     *                  no particular order
+     * @spec.requires edgeOrder is null or is consistent with Edge.equals (it returns 0 exactly
+     *                when the two Edges are equal)
+     * @spec.effects Constructs a new, empty DLGraph (no Nodes or sets of Edges) whose Edges
+     * are kept in the given order, so the edge sets and views returned for a Node iterate
+     * in that order without being sorted by the client.
+     */
+    public DLGraph(Comparator<? super Edge<E,N>> edgeOrder) {
+        this(edgeOrder, false);
+    }
+
+    /**
+     * @param edgeOrder the order the Edges of every Node are kept in, or null to keep them in
+     *                  no particular order
+     * @param indexIncoming true to keep an index of the Edges pointing to every Node, so that
+     *                      removeNode, getAllParents and forEachIncoming take time proportional
+     *                      to the number of Edges of the Node and pointing to it, at the cost of
+     *                      memory and of time spent updating the index on every change
+     * @spec.requires edgeOrder is null or is consistent with Edge.equals
+     * @spec.effects Constructs a new, empty DLGraph (no Nodes or sets of Edges) whose Edges
+     * are kept in the given order, with an index of incoming Edges if indexIncoming is true.
+     */
+    public DLGraph(Comparator<? super Edge<E,N>> edgeOrder, boolean indexIncoming) {
+        this(new HashMap<>(), edgeOrder, indexIncoming);
+    }
+
+    /**
+     * @param graph the Nodes of the graph, each mapped to its set of Edges
+     * @param edgeOrder the order the Edges of every Node are kept in, or null
+     * @param indexIncoming true to keep an index of incoming Edges
+     * @spec.requires graph satisfies the representation invariant and is not used by the
+     *                caller after this call
+     * @spec.effects Constructs a new DLGraph holding the given Nodes and Edges
+     */
+    private DLGraph(Map<Node<N>, Set<Edge<E,N>>> graph, Comparator<? super Edge<E,N>> edgeOrder,
+                    boolean indexIncoming) {
+        this.graph = graph;
+        nodeView = Collections.unmodifiableSet(graph.keySet());
+        this.edgeOrder = edgeOrder;
+        incoming = indexIncoming ? new HashMap<>() : null;
+        if (indexIncoming) indexIncoming();
         checkRep();
     }
 
@@ -82,7 +155,8 @@ public class DLGraph<N, E> {
     public boolean addNode(Node<N> n) {
         checkRep();
         if (graph.containsKey(n)) return false; // Node n already exists in graph
-        graph.put(n, new HashSet<>());
+        graph.put(n, edgeOrder == null ? new HashSet<>() : new TreeSet<>(edgeOrder));
+        if (incoming != null) incoming.put(n, new Incoming<>());
         checkRep();
         return true;
 
@@ -107,11 +181,207 @@ public class DLGraph<N, E> {
         } else if (!graph.containsKey(target))  {
             throw new IllegalArgumentException("Child node is not in the graph");
         }
-        graph.get(from).add(new Edge<E,N>(label, target));
+        Edge<E,N> edge = new Edge<>(label, target);
+        if (graph.get(from).add(edge)) indexEdge(from, edge);
+        checkRep();
+        return true;
+    }
+
+    /**
+     * Adds every Edge in the given collection to the graph for the parent Node 'from'. When the
+     * parent has no Edges yet and the collection is a SortedSet in this graph's edge order, the
+     * Edges are copied over in linear time without being compared again, so edge sets built
+     * separately (for instance by several threads) can be added to the graph cheaply.
+     *
+     * @param from the parent Node that the edges are added to in the graph
+     * @param edges the Edges added, each pointing toward its child Node
+     * @spec.requires from != null, edges != null and edges contains no null Edges
+     * @spec.modifies this
+     * @spec.effects adds the given Edges to the set of Edges for the parent Node
+     * @return true if any Edge was added to the graph
+     * @throws IllegalArgumentException if graph does not contain the parent node or the child
+     *                                  node of any given edge
+     */
+    public boolean addEdges(Node<N> from, Collection<? extends Edge<E,N>> edges) {
+        checkRep();
+        Set<Edge<E,N>> parentEdges = graph.get(from);
+        if (parentEdges == null) throw new IllegalArgumentException("Parent node is not in graph.");
+        for (Edge<E,N> e: edges) {
+            if (!graph.containsKey(e.getChild())) throw new IllegalArgumentException("Child node is not in the graph");
+        }
+        boolean added;
+        if (incoming == null) {
+            added = parentEdges.addAll(edges);
+        } else {
+            added = false;
+            for (Edge<E,N> e: edges) {
+                if (parentEdges.add(e)) {
+                    indexEdge(from, e);
+                    added = true;
+                }
+            }
+        }
+        checkRep();
+        return added;
+    }
+
+    /**
+     * Removes the Edge with the given label from the parent Node 'from' to the child Node
+     * 'target', if the graph contains it. Takes time proportional to the log of the number of
+     * Edges of the parent Node at most, plus expected constant time to update the index of
+     * incoming Edges if this graph keeps one.
+     *
+     * @param from the parent Node of the removed Edge
+     * @param target the child Node of the removed Edge
+     * @param label the label of the removed Edge
+     * @spec.requires from != null, target != null, label != null
+     * @spec.modifies this
+     * @spec.effects removes the given Edge from the set of Edges for the parent Node
+     * @return true if the Edge was removed, false if the graph did not contain it
+     * @throws IllegalArgumentException if graph does not contain either given node
+     */
+    public boolean removeEdge(Node<N> from, Node<N> target, E label) {
+        checkRep();
+        if (!graph.containsKey(from)) {
+            throw new IllegalArgumentException("Parent node is not in graph.");
+        } else if (!graph.containsKey(target))  {
+            throw new IllegalArgumentException("Child node is not in the graph");
+        }
+        boolean removed = graph.get(from).remove(new Edge<E,N>(label, target));
+        if (removed) unindexEdge(from, new Edge<>(label, target));
+        checkRep();
+        return removed;
+    }
+
+    /**
+     * Removes the given Node from the graph, together with its Edges and every Edge pointing to
+     * it. If this graph keeps an index of incoming Edges, only the Edges of the Node, the Edges
+     * pointing to it and the index entries of its children are visited; otherwise the Edges of
+     * every Node are scanned, taking time proportional to the size of the graph.
+     *
+     * @param n the Node removed
+     * @spec.requires n != null
+     * @spec.modifies this
+     * @spec.effects removes n, the Edges of n and every Edge whose child is n from this graph
+     * @return true if the Node was removed, false if the graph did not contain it
+     */
+    public boolean removeNode(Node<N> n) {
+        checkRep();
+        Set<Edge<E,N>> edges = graph.get(n);
+        if (edges == null) return false;
+        if (incoming != null) {
+            Incoming<N,E> parents = incoming.remove(n);
+            for (Edge<E,N> e: edges) {
+                if (!e.getChild().equals(n)) incoming.get(e.getChild()).remove(n, e);
+            }
+            for (int k = 0; k < parents.size; k++) {
+                if (!parents.parents[k].equals(n)) graph.get(parents.parents[k]).remove(parents.edges[k]);
+            }
+        } else {
+            for (Set<Edge<E,N>> parentEdges: graph.values()) parentEdges.removeIf(e -> e.getChild().equals(n));
+        }
+        graph.remove(n);
         checkRep();
         return true;
     }
 
+    /**
+     * Returns the set of all parent Nodes of the given Node within the graph, that is every Node
+     * with an Edge pointing to it. If this graph keeps an index of incoming Edges, this takes
+     * time proportional to the number of Edges pointing to the Node; otherwise the Edges of
+     * every Node are scanned, taking time proportional to the size of the graph. Either way
+     * this graph is only read, so a graph that is not being changed can be read by several
+     * threads at once.
+     *
+     * @param n Node to get all the parent Nodes of
+     * @spec.requires n != null
+     * @return set of all parent Nodes of the given Node in the graph, empty set if no parents
+     * @throws IllegalArgumentException if graph doesn't contain given node
+     */
+    public Set<Node<N>> getAllParents(Node<N> n) {
+        checkRep();
+        if (!graph.containsKey(n)) throw new IllegalArgumentException("Given node is not in graph.");
+        Set<Node<N>> parents = new HashSet<>();
+        forEachIncoming(n, (parent, e) -> parents.add(parent));
+        return parents;
+    }
+
+    /**
+     * Performs the given action on every Edge pointing to the given Node within the graph,
+     * together with the parent Node of the Edge. The Edges passed to the action are the Edges
+     * held by the parents, so nothing is copied. Like getAllParents, this uses the index of
+     * incoming Edges if this graph keeps one and scans the Edges of every Node otherwise, and
+     * never changes this graph.
+     *
+     * @param n Node whose incoming Edges are visited
+     * @param action the action to perform on each parent Node and its Edge whose child is n
+     * @spec.requires n != null, action != null, action does not modify this graph
+     * @throws IllegalArgumentException if graph doesn't contain given node
+     */
+    public void forEachIncoming(Node<N> n, BiConsumer<? super Node<N>, ? super Edge<E,N>> action) {
+        checkRep();
+        if (!graph.containsKey(n)) throw new IllegalArgumentException("Given node is not in graph.");
+        if (incoming != null) {
+            Incoming<N,E> parents = incoming.get(n);
+            for (int k = 0; k < parents.size; k++) action.accept(parents.parents[k], parents.edges[k]);
+            return;
+        }
+        for (Map.Entry<Node<N>, Set<Edge<E,N>>> entry: graph.entrySet()) {
+            for (Edge<E,N> e: entry.getValue()) {
+                if (e.getChild().equals(n)) action.accept(entry.getKey(), e);
+            }
+        }
+    }
+
+    /**
+     * Returns whether this graph keeps an index of the Edges pointing to every Node
+     *
+     * @return true if this graph was constructed with an index of incoming Edges
+     */
+    public boolean hasIncomingIndex() {
+        return incoming != null;
+    }
+
+    /**
+     * Adds every Edge of the graph to the empty index of incoming Edges.
+     *
+     * @spec.requires incoming != null and is empty
+     * @spec.effects sets incoming to the index of the Edges of the graph
+     */
+    private void indexIncoming() {
+        for (Node<N> n: graph.keySet()) incoming.put(n, new Incoming<>());
+        for (Map.Entry<Node<N>, Set<Edge<E,N>>> entry: graph.entrySet()) {
+            for (Edge<E,N> e: entry.getValue()) indexEdge(entry.getKey(), e);
+        }
+    }
+
+    /**
+     * Adds the given Edge, just added to the graph, to the index of incoming Edges if this
+     * graph keeps one.
+     *
+     * @param parent the parent Node of the Edge
+     * @param edge the Edge held in the edge set of parent
+     * @spec.requires parent and the child of edge are in graph
+     * @spec.effects adds (parent, edge) to incoming.get(edge.getChild())
+     */
+    private void indexEdge(Node<N> parent, Edge<E,N> edge) {
+        if (incoming == null) return;
+        incoming.get(edge.getChild()).add(parent, edge);
+    }
+
+    /**
+     * Removes the given Edge, just removed from the graph, from the index of incoming Edges if
+     * this graph keeps one.
+     *
+     * @param parent the parent Node of the Edge
+     * @param edge an Edge equal to the removed Edge
+     * @spec.requires parent and the child of edge are in graph
+     * @spec.effects removes (parent, edge) from incoming.get(edge.getChild())
+     */
+    private void unindexEdge(Node<N> parent, Edge<E,N> edge) {
+        if (incoming == null) return;
+        incoming.get(edge.getChild()).remove(parent, edge);
+    }
 
     /**
      * Checks if the given Node is contained within the graph
@@ -146,9 +416,67 @@ public class DLGraph<N, E> {
     public Set<Edge<E,N>> getAllEdges(Node<N> n) {
         checkRep();
         if (!graph.containsKey(n)) throw new IllegalArgumentException("Given node is not in graph.");
+        if (edgeOrder != null) {
+            Set<Edge<E,N>> edges = new TreeSet<>(edgeOrder);
+            edges.addAll(graph.get(n));
+            return edges;
+        }
         return new HashSet<>(graph.get(n));
     }
 
+    /**
+     * Returns the order the Edges of every Node in this graph are kept in. If it is not null,
+     * getAllEdges, getEdgeView and forEachEdge visit the Edges of a Node in this order.
+     *
+     * @return the order of the Edges of each Node, or null if they are kept in no particular order
+     */
+    public Comparator<? super Edge<E,N>> getEdgeOrder() {
+        return edgeOrder;
+    }
+
+    /**
+     * Returns a read-only view of all the Nodes within the graph. Unlike getAllNodes, no copy
+     * is made, so changes to this graph are visible through the view.
+     *
+     * @return unmodifiable view of the set of Nodes in graph
+     */
+    public Set<Node<N>> getNodeView() {
+        checkRep();
+        return nodeView;
+    }
+
+    /**
+     * Returns a read-only view of the set of all the Edges for the given Node within the graph.
+     * Unlike getAllEdges, no copy is made, so changes to this graph are visible through the view.
+     *
+     * @param n Node to get all the Edges from
+     * @spec.requires n != null
+     * @return unmodifiable view of the set of all Edges for the given Node in the graph
+     * @throws IllegalArgumentException if graph doesn't contain given node
+     */
+    public Set<Edge<E,N>> getEdgeView(Node<N> n) {
+        checkRep();
+        Set<Edge<E,N>> edges = graph.get(n);
+        if (edges == null) throw new IllegalArgumentException("Given node is not in graph.");
+        return Collections.unmodifiableSet(edges);
+    }
+
+    /**
+     * Performs the given action on every Edge of the given Node within the graph, without
+     * copying the set of Edges.
+     *
+     * @param n Node whose Edges are visited
+     * @param action the action to perform on each Edge
+     * @spec.requires n != null, action != null, action does not modify this graph
+     * @throws IllegalArgumentException if graph doesn't contain given node
+     */
+    public void forEachEdge(Node<N> n, Consumer<? super Edge<E,N>> action) {
+        checkRep();
+        Set<Edge<E,N>> edges = graph.get(n);
+        if (edges == null) throw new IllegalArgumentException("Given node is not in graph.");
+        edges.forEach(action);
+    }
+
     /**
      * Returns the set of all child Nodes for the given Node within the graph
      *
@@ -214,6 +542,20 @@ public class DLGraph<N, E> {
         return graph.isEmpty();
     }
 
+    /**
+     * Returns an immutable snapshot of this graph that interns every Node to a dense integer id
+     * and packs the Edges of all Nodes into flat arrays. The snapshot supports the same read
+     * operations as this graph while using much less memory, so graphs that are built once and
+     * then only read should be frozen after they are built.
+     *
+     * @return a FrozenGraph with the same Nodes and Edges as this graph. Later changes to this
+     *         graph are not reflected in the snapshot.
+     */
+    public FrozenGraph<N, E> freeze() {
+        checkRep();
+        return new FrozenGraph<>(this);
+    }
+
     /**
      * Clears this graph (removes all Nodes and all Edges)
      *
@@ -223,6 +565,512 @@ public class DLGraph<N, E> {
     public void clearGraph() {
         checkRep();
         graph.clear();
+        if (incoming != null) incoming.clear();
         checkRep();
     }
+
+    /**
+     * This class builds a DLGraph from many Nodes and Edges at once. A Builder holds Edges in
+     * flat arrays while they are added, without a hash set per Node and without checking the
+     * representation invariant after every Edge, and then builds the set of Edges of every Node
+     * in one pass: sets in an edge order are sorted once and copied into their TreeSets in
+     * linear time, and other sets are created with the capacity they need. All the maps are
+     * sized from the expected counts given to the constructor.
+     *
+     * Nodes are given dense integer ids in the order they are added, so clients adding many
+     * Edges between Nodes they already added can add them by id without hashing the Nodes.
+     * A Builder can only build one graph.
+     *
+     * Specification fields:
+     * @spec.specfield nodes : sequence of Nodes // The Nodes added, indexed by id.
+     * @spec.specfield edges : set of (Node, Edge) // The parent Node and Edge of every Edge added.
+     */
+    public static class Builder<N, E> {
+
+        /**
+         * Holds the order the Edges of every Node of the graph are kept in, or null.
+         */
+        private final Comparator<? super Edge<E,N>> edgeOrder;
+
+        /**
+         * Maps every Node added to its id.
+         */
+        private final Map<Node<N>, Integer> ids;
+
+        /**
+         * Holds every Node added, indexed by its id.
+         */
+        private final List<Node<N>> nodes;
+
+        /**
+         * Holds the id of the parent Node of every Edge added. Only the first edgeCount
+         * elements are used.
+         */
+        private int[] parents;
+
+        /**
+         * Holds every Edge added, in the order it was added. Only the first edgeCount elements
+         * are used.
+         */
+        private Edge<E,N>[] edges;
+
+        /**
+         * Holds the number of Edges added, counting duplicates.
+         */
+        private int edgeCount;
+
+        /**
+         * Holds whether the graph built keeps an index of incoming Edges.
+         */
+        private final boolean indexIncoming;
+
+        /**
+         * Holds whether build() has been called.
+         */
+        private boolean built;
+
+        // Abstraction Function (this):
+        // Builder, b, represents the nodes nodes and the edges (nodes.get(parents[k]), edges[k])
+        // for every k with 0 <= k < edgeCount.
+
+        // Representation Invariant for every builder b:
+        // ids, nodes, parents and edges are not null, and parents.length == edges.length >= edgeCount
+        // ids.get(nodes.get(i)) == i for every i, and nodes contains no null Nodes
+        // parents[k] is in [0, nodes.size()) and edges[k] is not null and its child is in nodes
+        // for every k < edgeCount
+
+        /**
+         * @param expectedNodes the number of Nodes the graph is expected to have
+         * @param expectedEdges the number of Edges that are expected to be added
+         * @param edgeOrder the order the Edges of every Node of the graph are kept in, or null
+         *                  to keep them in no particular order
+         * @spec.requires edgeOrder is null or is consistent with Edge.equals
+         * @spec.effects Constructs a new Builder with no Nodes or Edges
+         * @throws IllegalArgumentException if either expected count is negative
+         */
+        public Builder(int expectedNodes, int expectedEdges, Comparator<? super Edge<E,N>> edgeOrder) {
+            this(expectedNodes, expectedEdges, edgeOrder, false);
+        }
+
+        /**
+         * @param expectedNodes the number of Nodes the graph is expected to have
+         * @param expectedEdges the number of Edges that are expected to be added
+         * @param edgeOrder the order the Edges of every Node of the graph are kept in, or null
+         *                  to keep them in no particular order
+         * @param indexIncoming true to build a graph that keeps an index of incoming Edges (see
+         *                      DLGraph(Comparator, boolean))
+         * @spec.requires edgeOrder is null or is consistent with Edge.equals
+         * @spec.effects Constructs a new Builder with no Nodes or Edges
+         * @throws IllegalArgumentException if either expected count is negative
+         */
+        @SuppressWarnings("unchecked")
+        public Builder(int expectedNodes, int expectedEdges, Comparator<? super Edge<E,N>> edgeOrder,
+                       boolean indexIncoming) {
+            if (expectedNodes < 0 || expectedEdges < 0) {
+                throw new IllegalArgumentException("Expected counts cannot be negative.");
+            }
+            this.edgeOrder = edgeOrder;
+            this.indexIncoming = indexIncoming;
+            ids = new HashMap<>(capacityFor(expectedNodes));
+            nodes = new ArrayList<>(expectedNodes);
+            parents = new int[Math.max(expectedEdges, 16)];
+            edges = (Edge<E,N>[]) new Edge<?,?>[parents.length];
+            edgeCount = 0;
+            checkRep();
+        }
+
+        /**
+         * Throws an exception if the representation invariant is violated.
+         */
+        private void checkRep() {
+            assert (ids != null && nodes != null && parents != null && edges != null);
+            assert (parents.length == edges.length && edges.length >= edgeCount);
+            assert (ids.size() == nodes.size()) : "every node must have one id";
+        }
+
+        /**
+         * Adds the given Node to the graph if it has not been added already
+         *
+         * @param n Node to add to the graph
+         * @spec.requires n != null
+         * @spec.modifies this
+         * @spec.effects adds n to the end of nodes if it is not in nodes
+         * @return the id of n
+         * @throws IllegalStateException if the graph has already been built
+         */
+        public int addNode(Node<N> n) {
+            if (built) throw new IllegalStateException("Graph has already been built.");
+            Integer id = ids.putIfAbsent(n, nodes.size());
+            if (id != null) return id;
+            nodes.add(n);
+            return nodes.size() - 1;
+        }
+
+        /**
+         * Adds an Edge from the Node with id 'from' to the Node with id 'target'. Adding an
+         * Edge twice has the same effect as adding it once.
+         *
+         * @param from id of the parent Node
+         * @param target id of the child Node
+         * @param label the label of the Edge
+         * @spec.requires label != null
+         * @spec.modifies this
+         * @spec.effects adds the Edge to edges
+         * @throws IllegalArgumentException if either id is not the id of a Node added
+         */
+        public void addEdge(int from, int target, E label) {
+            if (from < 0 || from >= nodes.size()) {
+                throw new IllegalArgumentException("Parent node is not in graph.");
+            } else if (target < 0 || target >= nodes.size()) {
+                throw new IllegalArgumentException("Child node is not in the graph");
+            }
+            append(from, new Edge<>(label, nodes.get(target)));
+        }
+
+        /**
+         * Adds an Edge from the parent Node 'from' pointing toward the child Node 'target'.
+         * Adding an Edge twice has the same effect as adding it once.
+         *
+         * @param from the parent Node of the Edge
+         * @param target the child Node of the Edge
+         * @param label the label of the Edge
+         * @spec.requires from != null, target != null, label != null
+         * @spec.modifies this
+         * @spec.effects adds the Edge to edges
+         * @throws IllegalArgumentException if either Node has not been added
+         */
+        public void addEdge(Node<N> from, Node<N> target, E label) {
+            addEdges(from, Collections.singletonList(new Edge<>(label, target)));
+        }
+
+        /**
+         * Adds every given Edge from the parent Node 'from'. The Edges may come from any
+         * collection, or from a stream through stream::iterator. Adding an Edge twice has the
+         * same effect as adding it once.
+         *
+         * @param from the parent Node of the Edges
+         * @param batch the Edges added, each pointing toward its child Node
+         * @spec.requires from != null, batch != null and contains no null Edges
+         * @spec.modifies this
+         * @spec.effects adds the given Edges to edges
+         * @throws IllegalArgumentException if the parent Node or the child of any Edge has not
+         *                                  been added; the Edges before it are still added
+         */
+        public void addEdges(Node<N> from, Iterable<? extends Edge<E,N>> batch) {
+            Integer parent = ids.get(from);
+            if (parent == null) throw new IllegalArgumentException("Parent node is not in graph.");
+            for (Edge<E,N> e: batch) {
+                if (!ids.containsKey(e.getChild())) throw new IllegalArgumentException("Child node is not in the graph");
+                append(parent, e);
+            }
+        }
+
+        /**
+         * Appends the given Edge to the arrays of Edges, growing them if they are full.
+         *
+         * @param parent id of the parent Node of the Edge
+         * @param e the Edge
+         * @spec.requires parent is the id of a Node added and the child of e has been added
+         * @spec.modifies this
+         * @spec.effects adds the Edge to edges
+         */
+        private void append(int parent, Edge<E,N> e) {
+            if (built) throw new IllegalStateException("Graph has already been built.");
+            if (edgeCount == edges.length) {
+                parents = Arrays.copyOf(parents, 2 * edgeCount);
+                edges = Arrays.copyOf(edges, 2 * edgeCount);
+            }
+            parents[edgeCount] = parent;
+            edges[edgeCount] = e;
+            edgeCount++;
+        }
+
+        /**
+         * Builds the graph holding every Node and Edge added. The Edges are grouped by parent
+         * with a counting sort, and the set of Edges of every Node is then built in one pass.
+         *
+         * @spec.modifies this
+         * @spec.effects releases the Edges held by this Builder, which cannot be used again
+         * @return a new DLGraph holding the Nodes and Edges added, in the edge order given to
+         *         the constructor, with an index of incoming Edges if one was asked for
+         * @throws IllegalStateException if the graph has already been built
+         */
+        public DLGraph<N, E> build() {
+            if (built) throw new IllegalStateException("Graph has already been built.");
+            built = true;
+            int[] starts = new int[nodes.size() + 1];
+            for (int k = 0; k < edgeCount; k++) starts[parents[k] + 1]++;
+            for (int i = 0; i < nodes.size(); i++) starts[i + 1] += starts[i];
+            @SuppressWarnings("unchecked")
+            Edge<E,N>[] grouped = (Edge<E,N>[]) new Edge<?,?>[edgeCount];
+            int[] next = Arrays.copyOf(starts, nodes.size());
+            for (int k = 0; k < edgeCount; k++) grouped[next[parents[k]]++] = edges[k];
+            parents = null;
+            edges = null;
+
+            Map<Node<N>, Set<Edge<E,N>>> graph = new HashMap<>(capacityFor(nodes.size()));
+            for (int i = 0; i < nodes.size(); i++) {
+                Set<Edge<E,N>> nodeEdges;
+                if (edgeOrder == null) {
+                    nodeEdges = new HashSet<>(capacityFor(starts[i + 1] - starts[i]));
+                    for (int k = starts[i]; k < starts[i + 1]; k++) nodeEdges.add(grouped[k]);
+                } else {
+                    Arrays.sort(grouped, starts[i], starts[i + 1], edgeOrder);
+                    nodeEdges = new TreeSet<>(new SortedRun<>(grouped, starts[i], starts[i + 1], edgeOrder));
+                }
+                graph.put(nodes.get(i), nodeEdges);
+            }
+            return new DLGraph<>(graph, edgeOrder, indexIncoming);
+        }
+
+        /**
+         * Returns the initial capacity a HashMap or HashSet needs to hold the given number of
+         * elements without being resized.
+         *
+         * @param size the number of elements
+         * @return the capacity for size elements at the default load factor
+         */
+        private static int capacityFor(int size) {
+            return (int) (size / 0.75f) + 1;
+        }
+    }
+
+    /**
+     * The Edges pointing to one Node, held as pairs of parent Node and Edge in two parallel
+     * arrays, in no particular order. Removing a pair moves the last pair into its place. Once
+     * there are more than a few pairs, the position of every pair is also kept in a map, so a
+     * pair is found without scanning the arrays.
+     */
+    private static class Incoming<N, E> {
+
+        /**
+         * Holds the number of pairs first given room for.
+         */
+        private static final int INITIAL_CAPACITY = 2;
+
+        /**
+         * Holds the number of pairs above which their positions are kept in a map.
+         */
+        private static final int SCAN_LIMIT = 8;
+
+        /**
+         * Holds the parent Node of every pair, followed by unused room.
+         */
+        private Node<N>[] parents;
+
+        /**
+         * Holds the Edge of every pair, followed by unused room.
+         */
+        private Edge<E,N>[] edges;
+
+        /**
+         * Holds the number of pairs.
+         */
+        private int size;
+
+        /**
+         * Holds the index of every pair within the arrays, or null if there have never been
+         * more than SCAN_LIMIT pairs.
+         */
+        private Map<Map.Entry<Node<N>, Edge<E,N>>, Integer> positions;
+
+        /**
+         * @spec.effects Constructs a new set of pairs with no pairs
+         */
+        @SuppressWarnings("unchecked")
+        Incoming() {
+            parents = (Node<N>[]) new Node<?>[INITIAL_CAPACITY];
+            edges = (Edge<E,N>[]) new Edge<?,?>[INITIAL_CAPACITY];
+        }
+
+        /**
+         * Adds a pair
+         *
+         * @param parent the parent Node of the Edge
+         * @param edge the Edge
+         * @spec.requires the pair is not already held
+         * @spec.modifies this
+         * @spec.effects adds (parent, edge) to the pairs
+         */
+        void add(Node<N> parent, Edge<E,N> edge) {
+            if (size == parents.length) {
+                parents = Arrays.copyOf(parents, 2 * size);
+                edges = Arrays.copyOf(edges, 2 * size);
+            }
+            parents[size] = parent;
+            edges[size] = edge;
+            size++;
+            if (positions != null) {
+                positions.put(Map.entry(parent, edge), size - 1);
+            } else if (size > SCAN_LIMIT) {
+                positions = new HashMap<>();
+                for (int k = 0; k < size; k++) positions.put(Map.entry(parents[k], edges[k]), k);
+            }
+        }
+
+        /**
+         * Removes a pair, taking expected constant time
+         *
+         * @param parent the parent Node of the Edge
+         * @param edge an Edge equal to the Edge of the pair
+         * @spec.modifies this
+         * @spec.effects removes (parent, edge) from the pairs if it is held
+         */
+        void remove(Node<N> parent, Edge<E,N> edge) {
+            int k;
+            if (positions != null) {
+                Integer position = positions.remove(Map.entry(parent, edge));
+                if (position == null) return;
+                k = position;
+            } else {
+                k = 0;
+                while (k < size && (!edges[k].equals(edge) || !parents[k].equals(parent))) k++;
+                if (k == size) return;
+            }
+            size--;
+            parents[k] = parents[size];
+            edges[k] = edges[size];
+            parents[size] = null;
+            edges[size] = null;
+            if (positions != null && k != size) positions.put(Map.entry(parents[k], edges[k]), k);
+        }
+    }
+
+    /**
+     * A read-only sorted set over a sorted run of an array, skipping elements equal to the one
+     * before them. It exists so that a TreeSet can be built from the run in linear time
+     * (TreeSet does so for any SortedSet in its own order). Its subsets are the runs over the
+     * ranges of the array between the given elements, found by binary search.
+     */
+    private static class SortedRun<T> extends AbstractSet<T> implements SortedSet<T> {
+
+        /**
+         * Holds the array holding the run.
+         */
+        private final T[] array;
+
+        /**
+         * Holds the index of the first element of the run.
+         */
+        private final int from;
+
+        /**
+         * Holds the index just past the last element of the run.
+         */
+        private final int to;
+
+        /**
+         * Holds the number of distinct elements of the run.
+         */
+        private final int size;
+
+        /**
+         * Holds the order the elements are sorted in.
+         */
+        private final Comparator<? super T> order;
+
+        /**
+         * @param array the array holding the run
+         * @param from index of the first element of the run
+         * @param to index just past the last element of the run
+         * @param order the order the run is sorted in
+         * @spec.requires array[from..to) is sorted by order and is not modified while this set
+         *                is used
+         * @spec.effects Constructs a set of the distinct elements of array[from..to)
+         */
+        SortedRun(T[] array, int from, int to, Comparator<? super T> order) {
+            this.array = array;
+            this.from = from;
+            this.to = to;
+            this.order = order;
+            int distinct = 0;
+            for (int k = from; k < to; k++) {
+                if (k == from || order.compare(array[k - 1], array[k]) != 0) distinct++;
+            }
+            size = distinct;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<>() {
+
+                private int next = from;
+
+                @Override
+                public boolean hasNext() {
+                    return next < to;
+                }
+
+                @Override
+                public T next() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    T element = array[next++];
+                    while (next < to && order.compare(element, array[next]) == 0) next++;
+                    return element;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Comparator<? super T> comparator() {
+            return order;
+        }
+
+        @Override
+        public T first() {
+            if (size == 0) throw new NoSuchElementException();
+            return array[from];
+        }
+
+        @Override
+        public T last() {
+            if (size == 0) throw new NoSuchElementException();
+            return array[to - 1];
+        }
+
+        @Override
+        public SortedSet<T> subSet(T fromElement, T toElement) {
+            if (order.compare(fromElement, toElement) > 0) {
+                throw new IllegalArgumentException("fromElement cannot be greater than toElement.");
+            }
+            return new SortedRun<>(array, lowerBound(fromElement), lowerBound(toElement), order);
+        }
+
+        @Override
+        public SortedSet<T> headSet(T toElement) {
+            return new SortedRun<>(array, from, lowerBound(toElement), order);
+        }
+
+        @Override
+        public SortedSet<T> tailSet(T fromElement) {
+            return new SortedRun<>(array, lowerBound(fromElement), to, order);
+        }
+
+        /**
+         * Returns the index of the first element of the run that is not less than the given
+         * element, taking time proportional to the log of the length of the run
+         *
+         * @param element the element searched for
+         * @return the least index k in [from, to] such that every element of array[from..k) is
+         *         less than element
+         */
+        private int lowerBound(T element) {
+            int low = from;
+            int high = to;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (order.compare(array[mid], element) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
 }
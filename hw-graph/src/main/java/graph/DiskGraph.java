@@ -0,0 +1,627 @@
+package graph;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * This class represents an immutable, directed, labeled graph that is read from a snapshot
+ * file written by GraphSnapshot without loading its Edges into memory. Only the Nodes, the
+ * distinct edge labels and the position of every Node's Edges in the file are held in memory;
+ * the Edges of a Node are read from the file when they are first asked for and kept in a
+ * least-recently-used cache that holds at most a given number of Edges, so the memory a
+ * DiskGraph takes is bounded no matter how many Edges the graph has.
+ *
+ * A DiskGraph implements only the read operations of Graph, so algorithms written against
+ * Graph run on it unchanged. The incoming Edges of a Node are read from the section of the
+ * snapshot that groups the Edges by child Node, without going through the cache. Reading a
+ * DiskGraph updates its cache, so, like DLGraph, it must not be used by several threads at
+ * once. A DiskGraph holds the snapshot file open until it is closed.
+ *
+ * Specification fields:
+ * @spec.specfield graph : Map of Nodes with each Node corresponding to a Set of Edges
+ *                         that connect each Node with another Node.
+ * @spec.specfield maxCachedEdges : long // The most Edges the graph keeps in memory at once.
+ *
+ * Abstract Invariant:
+ * Same as DLGraph.
+ */
+public class DiskGraph<N, E> implements Graph<N, E>, Closeable {
+
+    /**
+     * Holds the channel the Edges are read from.
+     */
+    private final FileChannel file;
+
+    /**
+     * Holds every Node in the graph, indexed by its id.
+     */
+    private final Node<N>[] nodes;
+
+    /**
+     * Maps every Node in the graph to its id.
+     */
+    private final Map<Node<N>, Integer> ids;
+
+    /**
+     * Holds every distinct edge label of the graph, indexed by its id.
+     */
+    private final E[] labels;
+
+    /**
+     * Holds, for every Node id i, the position in the file of the Edges of that Node.
+     * positions[size()] is the position just past the Edges of the last Node.
+     */
+    private final long[] positions;
+
+    /**
+     * Holds, for every Node id i, the position in the file of the Edges pointing to that Node.
+     * incomingPositions[size()] is the position just past the Edges pointing to the last Node.
+     */
+    private final long[] incomingPositions;
+
+    /**
+     * Holds the order the Edges of every Node are in, or null if they are in no particular order.
+     */
+    private final Comparator<? super Edge<E, N>> edgeOrder;
+
+    /**
+     * Holds the most Edges kept in the cache at once.
+     */
+    private final long maxCachedEdges;
+
+    /**
+     * Holds the Edges of recently used Nodes by id, least recently used first.
+     */
+    private final LinkedHashMap<Integer, Adjacency> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Holds the total number of Edges in the cache.
+     */
+    private long cachedEdges;
+
+    /**
+     * Holds the number of times the Edges of a Node were found in the cache, and read from the file.
+     */
+    private long hits, misses;
+
+    /**
+     * Holds a read-only view of the Nodes of the graph, shared by every call to getNodeView.
+     */
+    private final Set<Node<N>> nodeView;
+
+    // Abstraction Function (this):
+    // DiskGraph, g, represents a graph where node i is nodes[i] and the edges of node i are the
+    // edges labeled labels[l] pointing to nodes[t] for every pair (t, l) written in the file
+    // between positions[i] and positions[i + 1]. The edges pointing to node i are the edges
+    // labeled labels[l] from nodes[p] for every pair (p, l) written in the file between
+    // incomingPositions[i] and incomingPositions[i + 1].
+
+    // Representation Invariant for every graph g:
+    // file, nodes, ids, labels, positions, cache and nodeView are not null
+    // nodes contains no null or duplicate Nodes and ids.get(nodes[i]) == i for every i
+    // positions.length == incomingPositions.length == nodes.length + 1, both are increasing,
+    // and positions[nodes.length] == incomingPositions[0]
+    // 0 <= cachedEdges <= maxCachedEdges, and cachedEdges is the number of Edges in the cache
+
+    /**
+     * @param file the open snapshot file
+     * @param nodes every Node of the graph, indexed by id
+     * @param labels every edge label of the graph, indexed by id
+     * @param positions the position of the Edges of every Node in the file
+     * @param incomingPositions the position of the Edges pointing to every Node in the file
+     * @param edgeOrder the order the Edges of each Node are in, or null
+     * @param maxCachedEdges the most Edges kept in memory at once
+     * @spec.requires the arguments satisfy the representation invariant
+     * @spec.effects Constructs a new DiskGraph reading its Edges from file
+     */
+    private DiskGraph(FileChannel file, Node<N>[] nodes, E[] labels, long[] positions, long[] incomingPositions,
+                      Comparator<? super Edge<E, N>> edgeOrder, long maxCachedEdges) {
+        this.file = file;
+        this.nodes = nodes;
+        this.labels = labels;
+        this.positions = positions;
+        this.incomingPositions = incomingPositions;
+        this.edgeOrder = edgeOrder;
+        this.maxCachedEdges = maxCachedEdges;
+        ids = new HashMap<>();
+        for (int i = 0; i < nodes.length; i++) ids.put(nodes[i], i);
+        nodeView = new NodeView();
+        checkDiskRep();
+    }
+
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkDiskRep() {
+        assert (file != null && nodes != null && ids != null && labels != null && positions != null);
+        assert (positions.length == nodes.length + 1) : "positions must cover every node";
+        assert (incomingPositions.length == nodes.length + 1) : "incoming positions must cover every node";
+        assert (positions[nodes.length] == incomingPositions[0]) : "incoming edges must follow the edges";
+        assert (cachedEdges >= 0 && cachedEdges <= maxCachedEdges) : "cache must stay within its bound";
+        if (DLGraph.DEBUG) {
+            long edges = 0;
+            for (Adjacency a: cache.values()) edges += a.targets.length;
+            assert (edges == cachedEdges) : "cached edges must be counted";
+        }
+    }
+
+    /**
+     * Opens the graph in the given snapshot file. The file is read once from start to end to
+     * check its checksum and to find where the Edges of every Node, and the Edges pointing to
+     * every Node, are, but no Edge is kept.
+     *
+     * @param path the file written by GraphSnapshot.write
+     * @param nodeCodec decodes the data of the Nodes of the graph
+     * @param labelCodec decodes the labels of the Edges of the graph
+     * @param edgeOrder the order of the Edges of each Node in the snapshot, or null if they
+     *                  are in no particular order
+     * @param maxCachedEdges the most Edges the graph keeps in memory at once
+     * @param <N> represents the type of the data in the Nodes of the graph
+     * @param <E> represents the label type of the Edges of the graph
+     * @spec.requires the Edges of each Node were in edgeOrder when the snapshot was written
+     * @return graph reading its Edges from the file
+     * @throws IOException if the file cannot be read, or is not a valid snapshot
+     * @throws IllegalArgumentException if path or either codec is null, or maxCachedEdges &lt; 0
+     */
+    @SuppressWarnings("unchecked")
+    public static <N, E> DiskGraph<N, E> open(Path path, GraphSnapshot.Codec<N> nodeCodec,
+                                             GraphSnapshot.Codec<E> labelCodec,
+                                             Comparator<? super Edge<E, N>> edgeOrder,
+                                             long maxCachedEdges) throws IOException {
+        if (path == null || nodeCodec == null || labelCodec == null) {
+            throw new IllegalArgumentException("Arguments cannot be null.");
+        }
+        if (maxCachedEdges < 0) throw new IllegalArgumentException("Cache size cannot be negative.");
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < 12) throw new IOException(path + " is not a graph snapshot");
+
+            // the node and label tables come first, and must fit in a single mapped buffer
+            ByteBuffer tables = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size - 4, Integer.MAX_VALUE));
+            if (tables.getInt() != GraphSnapshot.MAGIC) throw new IOException(path + " is not a graph snapshot");
+            int version = tables.getInt();
+            if (version != GraphSnapshot.VERSION) throw new IOException("unsupported graph snapshot version " + version);
+            Node<N>[] nodes;
+            E[] labels;
+            try {
+                nodes = (Node<N>[]) new Node<?>[GraphSnapshot.readVarint(tables)];
+                for (int i = 0; i < nodes.length; i++) nodes[i] = new Node<>(nodeCodec.read(tables));
+                labels = (E[]) new Object[GraphSnapshot.readVarint(tables)];
+                for (int i = 0; i < labels.length; i++) labels[i] = labelCodec.read(tables);
+            } catch (RuntimeException e) {
+                throw new IOException(path + " is corrupt or its tables are too large", e);
+            }
+
+            long[] positions = new long[nodes.length + 1];
+            long[] incomingPositions = new long[nodes.length + 1];
+            CRC32 checksum = new CRC32();
+            InputStream in = new CheckedInputStream(new BufferedInputStream(
+                    Channels.newInputStream(channel.position(0)), 1 << 16), checksum);
+            long position = tables.position();
+            skipFully(in, position);
+            position = scanBlocks(in, position, positions);
+            position = scanBlocks(in, position, incomingPositions);
+            if (position != size - 4) throw new IOException(path + " is corrupt: unexpected length");
+            int expected = (int) checksum.getValue();
+            int stored = 0;
+            for (int i = 0; i < 4; i++) stored = (stored << 8) | readByte(in);
+            if (stored != expected) throw new IOException(path + " is corrupt: checksum mismatch");
+
+            return new DiskGraph<>(channel, nodes, labels, positions, incomingPositions, edgeOrder, maxCachedEdges);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the blocks of varint pairs that follow each other in a snapshot, one per Node,
+     * each starting with its number of pairs, and records where each block starts.
+     *
+     * @param in the stream read from, positioned at the first block
+     * @param position the position of the first block in the file
+     * @param starts the array the position of every block is stored in, with the position
+     *               just past the last block stored last
+     * @return the position just past the last block
+     * @throws IOException if the stream cannot be read or has ended
+     */
+    private static long scanBlocks(InputStream in, long position, long[] starts) throws IOException {
+        for (int i = 0; i < starts.length - 1; i++) {
+            starts[i] = position;
+            int degree = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = readByte(in);
+                degree |= (b & 0x7F) << shift;
+                shift += 7;
+                position++;
+            } while ((b & 0x80) != 0);
+            for (int varints = 2 * degree; varints > 0; varints--) {
+                do {
+                    b = readByte(in);
+                    position++;
+                } while ((b & 0x80) != 0);
+            }
+        }
+        starts[starts.length - 1] = position;
+        return position;
+    }
+
+    /**
+     * Reads one byte of a snapshot.
+     *
+     * @param in the stream read from
+     * @return the byte read, in [0, 255]
+     * @throws IOException if the stream cannot be read or has ended
+     */
+    private static int readByte(InputStream in) throws IOException {
+        int b = in.read();
+        if (b < 0) throw new EOFException("graph snapshot ends early");
+        return b;
+    }
+
+    /**
+     * Reads and discards the given number of bytes of a snapshot.
+     *
+     * @param in the stream read from
+     * @param count the number of bytes skipped
+     * @throws IOException if the stream cannot be read or has ended
+     */
+    private static void skipFully(InputStream in, long count) throws IOException {
+        while (count > 0) {
+            long skipped = in.skip(count);
+            if (skipped <= 0) throw new EOFException("graph snapshot ends early");
+            count -= skipped;
+        }
+    }
+
+    /**
+     * Closes the snapshot file. The graph cannot read Edges that are not cached once closed.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    /**
+     * Returns the most Edges this graph keeps in memory at once
+     *
+     * @return the bound on the number of cached Edges
+     */
+    public long getMaxCachedEdges() {
+        return maxCachedEdges;
+    }
+
+    /**
+     * Returns the number of Edges currently kept in memory
+     *
+     * @return number of cached Edges
+     */
+    public long cachedEdgeCount() {
+        return cachedEdges;
+    }
+
+    /**
+     * Returns the number of times the Edges of a Node were asked for and found in the cache
+     *
+     * @return number of cache hits
+     */
+    public long cacheHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of times the Edges of a Node were asked for and read from the file
+     *
+     * @return number of cache misses
+     */
+    public long cacheMisses() {
+        return misses;
+    }
+
+    @Override
+    public boolean containsNode(Node<N> n) {
+        return ids.containsKey(n);
+    }
+
+    @Override
+    public Set<Node<N>> getAllNodes() {
+        return new HashSet<>(Arrays.asList(nodes));
+    }
+
+    @Override
+    public Set<Edge<E, N>> getAllEdges(Node<N> n) {
+        Set<Edge<E, N>> edges = edgeOrder == null ? new HashSet<>() : new TreeSet<>(edgeOrder);
+        edges.addAll(getEdgeView(n));
+        return edges;
+    }
+
+    @Override
+    public Comparator<? super Edge<E, N>> getEdgeOrder() {
+        return edgeOrder;
+    }
+
+    @Override
+    public Set<Node<N>> getNodeView() {
+        return nodeView;
+    }
+
+    /**
+     * Returns a read-only view of the set of all the Edges for the given Node within the graph,
+     * reading them from the file if they are not cached. The view keeps the Edges it was
+     * created with even after they are evicted from the cache, and iterating it creates a new
+     * Edge for every Edge visited.
+     *
+     * @param n Node to get all the Edges from
+     * @spec.requires n != null
+     * @return unmodifiable view of the set of all Edges for the given Node in the graph
+     * @throws IllegalArgumentException if graph doesn't contain given node
+     * @throws UncheckedIOException if the Edges cannot be read from the file
+     */
+    @Override
+    public Set<Edge<E, N>> getEdgeView(Node<N> n) {
+        return new EdgeView(adjacency(checkedId(n, "Given node is not in graph.")));
+    }
+
+    @Override
+    public void forEachEdge(Node<N> n, Consumer<? super Edge<E, N>> action) {
+        Adjacency a = adjacency(checkedId(n, "Given node is not in graph."));
+        for (int k = 0; k < a.targets.length; k++) action.accept(a.edge(k));
+    }
+
+    @Override
+    public Set<Node<N>> getAllChildren(Node<N> n) {
+        Adjacency a = adjacency(checkedId(n, "Given node is not in graph."));
+        Set<Node<N>> children = new HashSet<>();
+        for (int target: a.targets) children.add(nodes[target]);
+        return children;
+    }
+
+    @Override
+    public int size() {
+        return nodes.length;
+    }
+
+    @Override
+    public int numEdges(Node<N> from, Node<N> target) {
+        int parent = checkedId(from, "Parent node is not in graph.");
+        int child = checkedId(target, "Child node is not in graph.");
+        int edges = 0;
+        for (int t: adjacency(parent).targets) {
+            if (t == child) edges++;
+        }
+        return edges;
+    }
+
+    /**
+     * Returns the set of all parent Nodes of the given Node within the graph. The Edges pointing
+     * to the Node are read from the file in time proportional to their number, without going
+     * through the cache, so reading them neither evicts nor caches the Edges of any Node.
+     *
+     * @param n Node to get all the parent Nodes of
+     * @spec.requires n != null
+     * @return set of all parent Nodes of the given Node in the graph, empty set if no parents
+     * @throws IllegalArgumentException if graph doesn't contain given node
+     * @throws UncheckedIOException if the Edges cannot be read from the snapshot file
+     */
+    public Set<Node<N>> getAllParents(Node<N> n) {
+        Set<Node<N>> parents = new HashSet<>();
+        forEachIncoming(n, (parent, e) -> parents.add(parent));
+        return parents;
+    }
+
+    /**
+     * Performs the given action on every Edge pointing to the given Node within the graph,
+     * together with the parent Node of the Edge, reading them from the file the same way
+     * getAllParents does.
+     *
+     * @param n Node whose incoming Edges are visited
+     * @param action the action to perform on each parent Node and its Edge whose child is n
+     * @spec.requires n != null, action != null, action does not modify this graph
+     * @throws IllegalArgumentException if graph doesn't contain given node
+     * @throws UncheckedIOException if the Edges cannot be read from the snapshot file
+     */
+    public void forEachIncoming(Node<N> n, BiConsumer<? super Node<N>, ? super Edge<E,N>> action) {
+        Adjacency incoming = read(incomingPositions, checkedId(n, "Given node is not in graph."));
+        for (int k = 0; k < incoming.targets.length; k++) {
+            action.accept(nodes[incoming.targets[k]], new Edge<>(labels[incoming.labelIds[k]], n));
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return nodes.length == 0;
+    }
+
+    /**
+     * Returns the Edges of the Node with the given id, from the cache if they are in it, or
+     * else read from the file and added to the cache, evicting the least recently used Nodes
+     * until the cache is within its bound. Edges of a Node with more Edges than the bound are
+     * read but not cached.
+     *
+     * @param id id of the Node
+     * @return the Edges of the Node
+     * @throws UncheckedIOException if the Edges cannot be read from the file
+     */
+    private Adjacency adjacency(int id) {
+        Adjacency a = cache.get(id);
+        if (a != null) {
+            hits++;
+            return a;
+        }
+        misses++;
+        a = read(positions, id);
+        if (a.targets.length <= maxCachedEdges) {
+            cache.put(id, a);
+            cachedEdges += a.targets.length;
+            Iterator<Adjacency> eldest = cache.values().iterator();
+            while (cachedEdges > maxCachedEdges) {
+                cachedEdges -= eldest.next().targets.length;
+                eldest.remove();
+            }
+        }
+        checkDiskRep();
+        return a;
+    }
+
+    /**
+     * Reads the Edges of the Node with the given id, or the Edges pointing to it, from the file.
+     *
+     * @param starts positions to read the Edges of the Nodes from, or incomingPositions to read
+     *               the Edges pointing to them
+     * @param id id of the Node
+     * @return the Edges of the Node, or the Edges pointing to it with the id of their parent
+     *         Node in place of the id of their child Node
+     * @throws UncheckedIOException if the Edges cannot be read from the file
+     */
+    private Adjacency read(long[] starts, int id) {
+        ByteBuffer block = ByteBuffer.allocate((int) (starts[id + 1] - starts[id]));
+        try {
+            long position = starts[id];
+            while (block.hasRemaining()) {
+                int read = file.read(block, position);
+                if (read < 0) throw new EOFException("graph snapshot ends early");
+                position += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        block.flip();
+        int degree = GraphSnapshot.readVarint(block);
+        int[] targets = new int[degree];
+        int[] labelIds = new int[degree];
+        for (int k = 0; k < degree; k++) {
+            targets[k] = GraphSnapshot.readVarint(block);
+            labelIds[k] = GraphSnapshot.readVarint(block);
+        }
+        return new Adjacency(targets, labelIds);
+    }
+
+    /**
+     * Returns the id of the given Node, throwing if it is not in this graph.
+     *
+     * @param n Node to look up
+     * @param message message of the exception thrown if n is not in this graph
+     * @return id of n
+     * @throws IllegalArgumentException if this graph doesn't contain n
+     */
+    private int checkedId(Node<N> n, String message) {
+        Integer id = ids.get(n);
+        if (id == null) throw new IllegalArgumentException(message);
+        return id;
+    }
+
+    /**
+     * The Edges of one Node, as the ids of their child Nodes and labels.
+     */
+    private final class Adjacency {
+
+        /**
+         * Holds the id of the child Node of every Edge, or of the parent Node of every Edge
+         * when the Edges were read as the Edges pointing to a Node.
+         */
+        private final int[] targets;
+
+        /**
+         * Holds the id of the label of every Edge.
+         */
+        private final int[] labelIds;
+
+        /**
+         * @param targets the id of the child Node of every Edge
+         * @param labelIds the id of the label of every Edge
+         * @spec.effects Constructs the Edges with the given child Nodes and labels
+         */
+        Adjacency(int[] targets, int[] labelIds) {
+            this.targets = targets;
+            this.labelIds = labelIds;
+        }
+
+        /**
+         * Returns the Edge with the given index as an Edge object
+         *
+         * @param k index of the Edge
+         * @return a new Edge with the label and child Node of the given Edge
+         */
+        Edge<E, N> edge(int k) {
+            return new Edge<>(labels[labelIds[k]], nodes[targets[k]]);
+        }
+    }
+
+    /**
+     * A read-only view of the Nodes of this graph backed by the nodes array.
+     */
+    private class NodeView extends AbstractSet<Node<N>> {
+
+        @Override
+        public boolean contains(Object o) {
+            return ids.containsKey(o);
+        }
+
+        @Override
+        public Iterator<Node<N>> iterator() {
+            return Collections.unmodifiableList(Arrays.asList(nodes)).iterator();
+        }
+
+        @Override
+        public int size() {
+            return nodes.length;
+        }
+    }
+
+    /**
+     * A read-only view of the Edges of one Node of this graph.
+     */
+    private class EdgeView extends AbstractSet<Edge<E, N>> {
+
+        /**
+         * Holds the Edges viewed.
+         */
+        private final Adjacency adjacency;
+
+        /**
+         * @param adjacency the Edges viewed
+         * @spec.effects Constructs a view of the given Edges
+         */
+        EdgeView(Adjacency adjacency) {
+            this.adjacency = adjacency;
+        }
+
+        @Override
+        public Iterator<Edge<E, N>> iterator() {
+            return new Iterator<>() {
+                private int k = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return k < adjacency.targets.length;
+                }
+
+                @Override
+                public Edge<E, N> next() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    return adjacency.edge(k++);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return adjacency.targets.length;
+        }
+    }
+}
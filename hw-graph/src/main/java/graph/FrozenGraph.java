@@ -0,0 +1,500 @@
+package graph;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * This class represents an immutable, directed, labeled graph that is a frozen snapshot of
+ * another graph, such as a DLGraph. Every Node in the graph is interned to a dense integer id
+ * in [0, size()) and the Edges of all Nodes are packed into flat arrays in
+ * compressed-sparse-row form, so a graph that is built once and then only read takes far less
+ * memory and can be scanned by id without hashing.
+ *
+ * A FrozenGraph implements only the read operations of Graph, so code holding one cannot
+ * change it, and it can be read by many threads at once.
+ *
+ * Specification fields:
+ * @spec.specfield graph : Map of Nodes with each Node corresponding to a Set of Edges
+ *                         that connect each Node with another Node.
+ * @spec.specfield ids : Map of each Node in the graph to its integer id
+ *
+ * Abstract Invariant:
+ * Same as DLGraph. In addition, every Node has a distinct id in [0, size()) and the Edges of
+ * a Node with id i have the edge indices edgeStart(i) up to (but not including) edgeEnd(i).
+ */
+public class FrozenGraph<N, E> implements Graph<N, E> {
+
+    /**
+     * Holds every Node in the graph, indexed by its id.
+     */
+    private final Node<N>[] nodes;
+
+    /**
+     * Maps every Node in the graph to its id.
+     */
+    private final Map<Node<N>, Integer> ids;
+
+    /**
+     * Holds, for every Node id i, the index of the first Edge of that Node in targets and
+     * labels. offsets[size()] is the total number of Edges in the graph.
+     */
+    private final int[] offsets;
+
+    /**
+     * Holds the id of the child Node of every Edge in the graph.
+     */
+    private final int[] targets;
+
+    /**
+     * Holds the label of every Edge in the graph.
+     */
+    private final E[] labels;
+
+    /**
+     * Holds a read-only view of the Nodes of the graph, shared by every call to getNodeView.
+     */
+    private final Set<Node<N>> nodeView;
+
+    /**
+     * Holds the order the Edges of every Node are in, or null if they are in no particular order.
+     */
+    private final Comparator<? super Edge<E,N>> edgeOrder;
+
+    /**
+     * Holds the incoming Edges of every Node in compressed-sparse-row form, or null until they
+     * are first asked for: incoming[0] holds, for every Node id i, the index in incoming[1] of
+     * the first Edge pointing to that Node, followed by the total number of Edges, and
+     * incoming[1] holds the index of every Edge in targets and labels, grouped by child Node.
+     * The Edges themselves are not copied.
+     */
+    private volatile int[][] incoming;
+
+    // Abstraction Function (this):
+    // FrozenGraph, g, represents a graph where node i is nodes[i] and the edges of node i are
+    // the edges labeled labels[k] pointing to nodes[targets[k]] for every k with
+    // offsets[i] <= k < offsets[i + 1].
+
+    // Representation Invariant for every graph g:
+    // nodes, ids, offsets, targets, labels and nodeView are not null
+    // nodes contains no null or duplicate Nodes and ids.get(nodes[i]) == i for every i
+    // offsets.length == nodes.length + 1, offsets[0] == 0 and offsets is non-decreasing
+    // targets.length == labels.length == offsets[nodes.length]
+    // every element of targets is in [0, nodes.length) and no element of labels is null
+    // if incoming != null, incoming[1][incoming[0][i]] up to incoming[1][incoming[0][i + 1]]
+    // are the indices of exactly the Edges whose target is i, in increasing order
+
+    /**
+     * @param g the graph to take a snapshot of
+     * @spec.requires g != null
+     * @spec.effects Constructs a new FrozenGraph holding the same Nodes and Edges as g, with
+     * the Edges of each Node in the same order as g and the same edge order as g.
+     * Later changes to g are not reflected in this graph.
+     */
+    @SuppressWarnings("unchecked")
+    FrozenGraph(Graph<N, E> g) {
+        edgeOrder = g.getEdgeOrder();
+        Set<Node<N>> allNodes = g.getNodeView();
+        nodes = (Node<N>[]) new Node<?>[allNodes.size()];
+        ids = new HashMap<>();
+        for (Node<N> n: allNodes) {
+            ids.put(n, ids.size());
+            nodes[ids.size() - 1] = n;
+        }
+
+        offsets = new int[nodes.length + 1];
+        for (int i = 0; i < nodes.length; i++) {
+            offsets[i + 1] = offsets[i] + g.getEdgeView(nodes[i]).size();
+        }
+
+        targets = new int[offsets[nodes.length]];
+        labels = (E[]) new Object[offsets[nodes.length]];
+        for (int i = 0; i < nodes.length; i++) {
+            int k = offsets[i];
+            for (Edge<E, N> e: g.getEdgeView(nodes[i])) {
+                targets[k] = ids.get(e.getChild());
+                labels[k] = e.getLabel();
+                k++;
+            }
+        }
+        nodeView = new NodeView();
+        checkFrozenRep();
+    }
+
+    /**
+     * @param nodes every Node of the graph, indexed by id
+     * @param offsets the index of the first Edge of every Node in targets and labels, followed
+     *                by the total number of Edges
+     * @param targets the id of the child Node of every Edge
+     * @param labels the label of every Edge
+     * @param edgeOrder the order the Edges of each Node are in, or null if they are in no
+     *                  particular order
+     * @spec.requires the arrays satisfy the representation invariant, the Edges of each Node
+     *                are in edgeOrder if it is not null, and the arrays are not modified after
+     *                this call
+     * @spec.effects Constructs a new FrozenGraph holding the given Nodes and Edges
+     */
+    FrozenGraph(Node<N>[] nodes, int[] offsets, int[] targets, E[] labels, Comparator<? super Edge<E,N>> edgeOrder) {
+        this.edgeOrder = edgeOrder;
+        this.nodes = nodes;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.labels = labels;
+        ids = new HashMap<>();
+        for (int i = 0; i < nodes.length; i++) ids.put(nodes[i], i);
+        nodeView = new NodeView();
+        checkFrozenRep();
+    }
+
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkFrozenRep() {
+        assert (nodes != null && ids != null && offsets != null && targets != null && labels != null);
+        assert (offsets.length == nodes.length + 1 && offsets[0] == 0) : "offsets must cover every node";
+        assert (targets.length == labels.length && targets.length == offsets[nodes.length]);
+        if (DLGraph.DEBUG) {
+            for (int i = 0; i < nodes.length; i++) {
+                assert (nodes[i] != null && ids.get(nodes[i]) == i) : "ids must match node indices";
+                assert (offsets[i] <= offsets[i + 1]) : "offsets must be non-decreasing";
+            }
+            for (int k = 0; k < targets.length; k++) {
+                assert (targets[k] >= 0 && targets[k] < nodes.length) : "child node must be in graph";
+                assert (labels[k] != null) : "graph cannot have null edges";
+            }
+        }
+    }
+
+    /**
+     * Returns this graph, since it is already frozen.
+     *
+     * @return this
+     */
+    public FrozenGraph<N, E> freeze() {
+        return this;
+    }
+
+    @Override
+    public boolean containsNode(Node<N> n) {
+        return ids.containsKey(n);
+    }
+
+    @Override
+    public Set<Node<N>> getAllNodes() {
+        return new HashSet<>(Arrays.asList(nodes));
+    }
+
+    @Override
+    public Set<Edge<E, N>> getAllEdges(Node<N> n) {
+        int id = checkedId(n, "Given node is not in graph.");
+        Set<Edge<E, N>> edges = edgeOrder == null ? new HashSet<>() : new TreeSet<>(edgeOrder);
+        for (int k = offsets[id]; k < offsets[id + 1]; k++) edges.add(edge(k));
+        return edges;
+    }
+
+    @Override
+    public Comparator<? super Edge<E, N>> getEdgeOrder() {
+        return edgeOrder;
+    }
+
+    @Override
+    public Set<Node<N>> getNodeView() {
+        return nodeView;
+    }
+
+    /**
+     * Returns a read-only view of the set of all the Edges for the given Node within the graph.
+     * No set is copied, but since a FrozenGraph does not store Edge objects, iterating the view
+     * creates a new Edge for every Edge visited. Use the id-based accessors to scan the Edges
+     * of a Node without allocating.
+     *
+     * @param n Node to get all the Edges from
+     * @spec.requires n != null
+     * @return unmodifiable view of the set of all Edges for the given Node in the graph
+     * @throws IllegalArgumentException if graph doesn't contain given node
+     */
+    @Override
+    public Set<Edge<E, N>> getEdgeView(Node<N> n) {
+        return new EdgeView(checkedId(n, "Given node is not in graph."));
+    }
+
+    @Override
+    public void forEachEdge(Node<N> n, Consumer<? super Edge<E, N>> action) {
+        int id = checkedId(n, "Given node is not in graph.");
+        for (int k = offsets[id]; k < offsets[id + 1]; k++) action.accept(edge(k));
+    }
+
+    @Override
+    public Set<Node<N>> getAllChildren(Node<N> n) {
+        int id = checkedId(n, "Given node is not in graph.");
+        Set<Node<N>> children = new HashSet<>();
+        for (int k = offsets[id]; k < offsets[id + 1]; k++) children.add(nodes[targets[k]]);
+        return children;
+    }
+
+    @Override
+    public int size() {
+        return nodes.length;
+    }
+
+    @Override
+    public int numEdges(Node<N> from, Node<N> target) {
+        int parent = checkedId(from, "Parent node is not in graph.");
+        int child = checkedId(target, "Child node is not in graph.");
+        int edges = 0;
+        for (int k = offsets[parent]; k < offsets[parent + 1]; k++) {
+            if (targets[k] == child) edges++;
+        }
+        return edges;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return nodes.length == 0;
+    }
+
+    /**
+     * Returns the set of all parent Nodes of the given Node within the graph. The first call to
+     * getAllParents or forEachIncoming builds an array index of the incoming Edges of every Node
+     * in time proportional to the size of the graph, holding one int per Edge.
+     *
+     * @param n Node to get all the parent Nodes of
+     * @spec.requires n != null
+     * @return set of all parent Nodes of the given Node in the graph, empty set if no parents
+     * @throws IllegalArgumentException if graph doesn't contain given node
+     */
+    public Set<Node<N>> getAllParents(Node<N> n) {
+        Set<Node<N>> parents = new HashSet<>();
+        forEachIncoming(n, (parent, e) -> parents.add(parent));
+        return parents;
+    }
+
+    /**
+     * Performs the given action on every Edge pointing to the given Node within the graph,
+     * together with the parent Node of the Edge, building the array index of incoming Edges
+     * first if needed (see getAllParents).
+     *
+     * @param n Node whose incoming Edges are visited
+     * @param action the action to perform on each parent Node and its Edge whose child is n
+     * @spec.requires n != null, action != null
+     * @throws IllegalArgumentException if graph doesn't contain given node
+     */
+    public void forEachIncoming(Node<N> n, BiConsumer<? super Node<N>, ? super Edge<E,N>> action) {
+        int id = checkedId(n, "Given node is not in graph.");
+        int[][] index = incomingIndex();
+        for (int i = index[0][id]; i < index[0][id + 1]; i++) {
+            int k = index[1][i];
+            action.accept(nodes[parentOf(k)], edge(k));
+        }
+    }
+
+    /**
+     * Returns the id of the parent Node of the Edge with the given index, by binary search
+     * over the offsets of the Nodes.
+     *
+     * @param edge index of the Edge
+     * @spec.requires 0 &lt;= edge &lt; edgeCount()
+     * @return id of the Node i with edgeStart(i) &lt;= edge &lt; edgeEnd(i)
+     */
+    private int parentOf(int edge) {
+        int low = 0;
+        int high = nodes.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (offsets[mid] <= edge) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of incoming Edges, building it if it has not been built yet. Since
+     * FrozenGraphs may be read by several threads, two threads may both build the index; both
+     * build the same arrays, and each publishes them only once they are complete.
+     *
+     * @return the index of incoming Edges described by the incoming field
+     */
+    private int[][] incomingIndex() {
+        int[][] index = incoming;
+        if (index != null) return index;
+        int[] starts = new int[nodes.length + 1];
+        for (int target: targets) starts[target + 1]++;
+        for (int i = 0; i < nodes.length; i++) starts[i + 1] += starts[i];
+        int[] edges = new int[targets.length];
+        int[] next = Arrays.copyOf(starts, nodes.length);
+        for (int k = 0; k < targets.length; k++) edges[next[targets[k]]++] = k;
+        index = new int[][] {starts, edges};
+        incoming = index;
+        return index;
+    }
+
+    /**
+     * Returns the id of the given Node within this graph
+     *
+     * @param n Node to look up
+     * @spec.requires n != null
+     * @return id of n in [0, size()), or -1 if n is not in this graph
+     */
+    public int idOf(Node<N> n) {
+        Integer id = ids.get(n);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the Node with the given id
+     *
+     * @param id id of the Node
+     * @spec.requires 0 &lt;= id &lt; size()
+     * @return the Node whose id is the given id
+     */
+    public Node<N> nodeOf(int id) {
+        return nodes[id];
+    }
+
+    /**
+     * Returns the total number of Edges in this graph
+     *
+     * @return number of Edges between all Nodes of this graph
+     */
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Returns the index of the first Edge of the Node with the given id. The Edges of that
+     * Node have the indices edgeStart(id) up to (but not including) edgeEnd(id).
+     *
+     * @param id id of the parent Node
+     * @spec.requires 0 &lt;= id &lt; size()
+     * @return index of the first Edge of the given Node
+     */
+    public int edgeStart(int id) {
+        return offsets[id];
+    }
+
+    /**
+     * Returns one past the index of the last Edge of the Node with the given id.
+     *
+     * @param id id of the parent Node
+     * @spec.requires 0 &lt;= id &lt; size()
+     * @return index just past the last Edge of the given Node
+     */
+    public int edgeEnd(int id) {
+        return offsets[id + 1];
+    }
+
+    /**
+     * Returns the id of the child Node of the Edge with the given index
+     *
+     * @param edge index of the Edge
+     * @spec.requires 0 &lt;= edge &lt; edgeCount()
+     * @return id of the child Node the Edge points to
+     */
+    public int edgeTarget(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * Returns the label of the Edge with the given index
+     *
+     * @param edge index of the Edge
+     * @spec.requires 0 &lt;= edge &lt; edgeCount()
+     * @return label of the Edge
+     */
+    public E edgeLabel(int edge) {
+        return labels[edge];
+    }
+
+    /**
+     * Returns the Edge with the given index as an Edge object
+     *
+     * @param edge index of the Edge
+     * @spec.requires 0 &lt;= edge &lt; edgeCount()
+     * @return a new Edge with the label and child Node of the given Edge
+     */
+    public Edge<E, N> edge(int edge) {
+        return new Edge<>(labels[edge], nodes[targets[edge]]);
+    }
+
+    /**
+     * Returns the id of the given Node, throwing if it is not in this graph.
+     *
+     * @param n Node to look up
+     * @param message message of the exception thrown if n is not in this graph
+     * @return id of n
+     * @throws IllegalArgumentException if this graph doesn't contain n
+     */
+    private int checkedId(Node<N> n, String message) {
+        Integer id = ids.get(n);
+        if (id == null) throw new IllegalArgumentException(message);
+        return id;
+    }
+
+    /**
+     * A read-only view of the Nodes of this graph backed by the nodes array.
+     */
+    private class NodeView extends AbstractSet<Node<N>> {
+
+        @Override
+        public boolean contains(Object o) {
+            return ids.containsKey(o);
+        }
+
+        @Override
+        public Iterator<Node<N>> iterator() {
+            return Collections.unmodifiableList(Arrays.asList(nodes)).iterator();
+        }
+
+        @Override
+        public int size() {
+            return nodes.length;
+        }
+    }
+
+    /**
+     * A read-only view of the Edges of one Node of this graph backed by the edge arrays.
+     */
+    private class EdgeView extends AbstractSet<Edge<E, N>> {
+
+        /**
+         * Holds the id of the parent Node whose Edges are viewed.
+         */
+        private final int id;
+
+        /**
+         * @param id id of the parent Node
+         * @spec.requires 0 &lt;= id &lt; size()
+         * @spec.effects Constructs a view of the Edges of the Node with the given id
+         */
+        EdgeView(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public Iterator<Edge<E, N>> iterator() {
+            return new Iterator<>() {
+
+                private int next = offsets[id];
+
+                @Override
+                public boolean hasNext() {
+                    return next < offsets[id + 1];
+                }
+
+                @Override
+                public Edge<E, N> next() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    return edge(next++);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return offsets[id + 1] - offsets[id];
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package graph;
+
+import java.util.Comparator;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * This interface represents the read operations of a directed, labeled graph. The graph
+ * consists of Nodes that are represented by type N in them and Edges that connect Nodes
+ * together and have labels represented by type E. Algorithms that only read a graph should
+ * take a Graph, so they run unchanged on every implementation: the mutable DLGraph and
+ * IntGraph (see MutableGraph), the array-backed FrozenGraph and the file-backed DiskGraph.
+ *
+ * Specification fields:
+ * @spec.specfield graph : Map of Nodes with each Node corresponding to a Set of Edges
+ *                         that connect each Node with another Node.
+ *
+ * Abstract Invariant:
+ * Graph cannot contain identical Nodes. No two Edges with the same parent and child Nodes
+ * will have the same edge label. An Edge can start and end on the same Node. Graph cannot
+ * contain null Nodes or any null Edges within the set of Edges for that given Node.
+ */
+public interface Graph<N, E> {
+
+    /**
+     * Checks if the given Node is contained within the graph
+     *
+     * @param n Node to check if it is in the graph
+     * @spec.requires n != null
+     * @return true if Node is in graph, false otherwise
+     */
+    boolean containsNode(Node<N> n);
+
+    /**
+     * Returns a set of all the Nodes within the graph
+     *
+     * @return new set of Nodes in graph, empty set if no nodes
+     */
+    Set<Node<N>> getAllNodes();
+
+    /**
+     * Returns the set of all the Edges for the given Node within the graph
+     *
+     * @param n Node to get all the Edges from
+     * @spec.requires n != null
+     * @return new set of all Edges for the given Node in the graph, empty set if no edges for
+     *         given node
+     * @throws IllegalArgumentException if graph doesn't contain given node
+     */
+    Set<Edge<E,N>> getAllEdges(Node<N> n);
+
+    /**
+     * Returns the order the Edges of every Node in this graph are kept in. If it is not null,
+     * getAllEdges, getEdgeView and forEachEdge visit the Edges of a Node in this order.
+     *
+     * @return the order of the Edges of each Node, or null if they are kept in no particular order
+     */
+    Comparator<? super Edge<E,N>> getEdgeOrder();
+
+    /**
+     * Returns a read-only view of all the Nodes within the graph. Unlike getAllNodes, no copy
+     * is made.
+     *
+     * @return unmodifiable view of the set of Nodes in graph
+     */
+    Set<Node<N>> getNodeView();
+
+    /**
+     * Returns a read-only view of the set of all the Edges for the given Node within the graph.
+     * Unlike getAllEdges, no copy is made.
+     *
+     * @param n Node to get all the Edges from
+     * @spec.requires n != null
+     * @return unmodifiable view of the set of all Edges for the given Node in the graph
+     * @throws IllegalArgumentException if graph doesn't contain given node
+     */
+    Set<Edge<E,N>> getEdgeView(Node<N> n);
+
+    /**
+     * Performs the given action on every Edge of the given Node within the graph, without
+     * copying the set of Edges. This is the cheapest way to visit the neighbors of a Node.
+     *
+     * @param n Node whose Edges are visited
+     * @param action the action to perform on each Edge
+     * @spec.requires n != null, action != null, action does not modify this graph
+     * @throws IllegalArgumentException if graph doesn't contain given node
+     */
+    void forEachEdge(Node<N> n, Consumer<? super Edge<E,N>> action);
+
+    /**
+     * Returns the set of all child Nodes for the given Node within the graph
+     *
+     * @param n Node to get all the children Nodes from
+     * @spec.requires n != null
+     * @return new set of all children Nodes of the given Node in the graph, empty set if no
+     *         children
+     * @throws IllegalArgumentException if graph doesn't contain given node
+     */
+    Set<Node<N>> getAllChildren(Node<N> n);
+
+    /**
+     * Returns the number of Nodes present within the graph
+     *
+     * @return number of Nodes in this graph
+     */
+    int size();
+
+    /**
+     * Returns the number of Edges connecting the first given Node (parent) to the
+     * second given Node (child).
+     *
+     * @param from parent Node
+     * @param target child Node
+     * @spec.requires from != null, target != null
+     * @return number of Edges from 'from' to 'target'
+     * @throws IllegalArgumentException if graph doesn't contain given parent or child node
+     */
+    int numEdges(Node<N> from, Node<N> target);
+
+    /**
+     * Returns whether this graph contains any Nodes
+     *
+     * @return true if this graph has no Nodes, false otherwise
+     */
+    boolean isEmpty();
+}
@@ -0,0 +1,302 @@
+package graph;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * This class splits a graph into shards that can each be served by its own process, for
+ * graphs whose Edges do not fit in one process. Nodes are assigned to shards either by the
+ * hash of their data, which needs no state to look up, or by community, which keeps densely
+ * connected Nodes on the same shard so that a search crosses fewer shards. Each shard holds
+ * the Nodes it owns with all their Edges, plus every child of those Edges that another shard
+ * owns as a Node without Edges, so that each shard is a valid graph on its own. The Edges of
+ * every Node keep the order of the original graph. ShardedGraphSearch searches the shards.
+ */
+public final class GraphPartitioner {
+
+    // This class is not an ADT
+
+    /**
+     * Holds the default number of label propagation rounds used to find communities.
+     */
+    public static final int COMMUNITY_ROUNDS = 10;
+
+    /**
+     * Not meant to be instantiated.
+     */
+    private GraphPartitioner() {
+    }
+
+    /**
+     * Returns a partition that assigns every Node to a shard by the hash code of its data.
+     * The hash codes of the Node data must be the same in every process, as they are for
+     * Strings and boxed primitives.
+     *
+     * @param shards the number of shards
+     * @param <N> represents the type of the data in the Nodes
+     * @return a partition over the given number of shards
+     * @throws IllegalArgumentException if shards &lt; 1
+     */
+    public static <N> Partition<N> byHash(int shards) {
+        if (shards < 1) throw new IllegalArgumentException("Must have at least one shard.");
+        return new HashPartition<>(shards);
+    }
+
+    /**
+     * Returns a partition that keeps communities of densely connected Nodes on the same shard.
+     * Communities are found with COMMUNITY_ROUNDS rounds of label propagation: every Node
+     * starts in its own community, and each round moves every Node, in the order of the Node
+     * view, into the community most of its children are in, preferring the community that
+     * was created first on ties. Whole communities are then given to the shard with the fewest
+     * Edges so far, largest community first. Nodes not in the graph are assigned by hash.
+     *
+     * @param g the graph partitioned
+     * @param shards the number of shards
+     * @param <N> represents the type of the data in the Nodes
+     * @param <E> represents the label type of the Edges
+     * @return a partition of the Nodes of g over the given number of shards
+     * @throws IllegalArgumentException if g is null or shards &lt; 1
+     */
+    public static <N, E> Partition<N> byCommunity(Graph<N, E> g, int shards) {
+        if (g == null) throw new IllegalArgumentException("Graph cannot be null.");
+        if (shards < 1) throw new IllegalArgumentException("Must have at least one shard.");
+
+        List<Node<N>> nodes = new ArrayList<>(g.getNodeView());
+        Map<Node<N>, Integer> ids = new HashMap<>();
+        for (Node<N> n: nodes) ids.put(n, ids.size());
+        int[] community = new int[nodes.size()];
+        for (int i = 0; i < community.length; i++) community[i] = i;
+
+        Map<Integer, Integer> votes = new HashMap<>();
+        for (int round = 0; round < COMMUNITY_ROUNDS; round++) {
+            boolean changed = false;
+            for (int i = 0; i < nodes.size(); i++) {
+                votes.clear();
+                g.forEachEdge(nodes.get(i), e -> votes.merge(community[ids.get(e.getChild())], 1, Integer::sum));
+                int best = community[i];
+                int bestVotes = votes.getOrDefault(best, 0);
+                for (Map.Entry<Integer, Integer> vote: votes.entrySet()) {
+                    if (vote.getValue() > bestVotes || (vote.getValue() == bestVotes && vote.getKey() < best)) {
+                        best = vote.getKey();
+                        bestVotes = vote.getValue();
+                    }
+                }
+                if (best != community[i]) {
+                    community[i] = best;
+                    changed = true;
+                }
+            }
+            if (!changed) break;
+        }
+
+        // weighs every community by its Edges, counting each Node once even without Edges
+        long[] weight = new long[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) weight[community[i]] += 1 + g.getEdgeView(nodes.get(i)).size();
+        List<Integer> communities = new ArrayList<>();
+        for (int c = 0; c < weight.length; c++) {
+            if (weight[c] > 0) communities.add(c);
+        }
+        communities.sort((c1, c2) -> weight[c1] != weight[c2] ? Long.compare(weight[c2], weight[c1]) : c1 - c2);
+        long[] load = new long[shards];
+        int[] shardOfCommunity = new int[nodes.size()];
+        for (int c: communities) {
+            int lightest = 0;
+            for (int s = 1; s < shards; s++) {
+                if (load[s] < load[lightest]) lightest = s;
+            }
+            shardOfCommunity[c] = lightest;
+            load[lightest] += weight[c];
+        }
+
+        Map<N, Integer> owners = new HashMap<>();
+        for (int i = 0; i < nodes.size(); i++) owners.put(nodes.get(i).getData(), shardOfCommunity[community[i]]);
+        return new MapPartition<>(owners, shards);
+    }
+
+    /**
+     * Splits the given graph into one graph per shard of the given partition. Shard i holds
+     * every Node p.shardOf assigns to i, with all of its Edges in the order g keeps them, and
+     * the children of those Edges owned by other shards as Nodes without Edges.
+     *
+     * @param g the graph split
+     * @param p the partition of the Nodes of g
+     * @param <N> represents the type of the data in the Nodes
+     * @param <E> represents the label type of the Edges
+     * @return list of the graphs of the shards, indexed by shard id, with the edge order of g
+     * @throws IllegalArgumentException if g or p is null
+     */
+    public static <N, E> List<DLGraph<N, E>> split(Graph<N, E> g, Partition<N> p) {
+        if (g == null || p == null) throw new IllegalArgumentException("Arguments cannot be null.");
+        List<List<Node<N>>> owned = new ArrayList<>();
+        for (int s = 0; s < p.shardCount(); s++) owned.add(new ArrayList<>());
+        for (Node<N> n: g.getNodeView()) owned.get(p.shardOf(n.getData())).add(n);
+
+        List<DLGraph<N, E>> shards = new ArrayList<>();
+        for (List<Node<N>> nodes: owned) {
+            int edgeCount = 0;
+            for (Node<N> n: nodes) edgeCount += g.getEdgeView(n).size();
+            DLGraph.Builder<N, E> builder = new DLGraph.Builder<>(nodes.size(), edgeCount, g.getEdgeOrder());
+            for (Node<N> n: nodes) builder.addNode(n);
+            for (Node<N> n: nodes) {
+                g.forEachEdge(n, e -> builder.addNode(e.getChild()));
+                builder.addEdges(n, g.getEdgeView(n));
+            }
+            shards.add(builder.build());
+        }
+        return shards;
+    }
+
+    /**
+     * Splits the given graph as split does and writes the graph of every shard to its own
+     * snapshot file in the given directory, named shard-i.graph for shard i, so that every
+     * shard can be loaded and served by ShardServer in its own process. The data of the Nodes
+     * each shard owns is written next to its snapshot, to the file named by ownersFile, so a
+     * server loading the shard can tell them from the copies of children owned by other shards.
+     *
+     * @param g the graph split
+     * @param p the partition of the Nodes of g
+     * @param directory the directory the snapshot files are written to
+     * @param nodeCodec encodes the data of the Nodes of g
+     * @param labelCodec encodes the labels of the Edges of g
+     * @param <N> represents the type of the data in the Nodes
+     * @param <E> represents the label type of the Edges
+     * @return list of the snapshot files written, indexed by shard id
+     * @throws IOException if a snapshot file cannot be written
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public static <N, E> List<Path> writeShards(Graph<N, E> g, Partition<N> p, Path directory,
+                                               GraphSnapshot.Codec<N> nodeCodec,
+                                               GraphSnapshot.Codec<E> labelCodec) throws IOException {
+        if (directory == null) throw new IllegalArgumentException("Arguments cannot be null.");
+        List<DLGraph<N, E>> shards = split(g, p);
+        List<Path> files = new ArrayList<>();
+        for (int s = 0; s < shards.size(); s++) {
+            Path file = directory.resolve("shard-" + s + ".graph");
+            GraphSnapshot.write(shards.get(s), file, nodeCodec, labelCodec);
+            writeOwners(shards.get(s), p, s, ownersFile(file), nodeCodec);
+            files.add(file);
+        }
+        return files;
+    }
+
+    /**
+     * Returns the file writeShards writes the owned Nodes of a shard to
+     *
+     * @param snapshot the snapshot file of the shard
+     * @return the file named after snapshot with .owned appended, in the same directory
+     * @throws IllegalArgumentException if snapshot is null
+     */
+    public static Path ownersFile(Path snapshot) {
+        if (snapshot == null) throw new IllegalArgumentException("Snapshot cannot be null.");
+        return snapshot.resolveSibling(snapshot.getFileName() + ".owned");
+    }
+
+    /**
+     * Loads the data of the Nodes a shard owns, written by writeShards next to the snapshot of
+     * the shard.
+     *
+     * @param snapshot the snapshot file of the shard
+     * @param nodeCodec decodes the data of the Nodes
+     * @param <N> represents the type of the data in the Nodes
+     * @return set of the data of every Node the shard owns
+     * @throws IOException if the file of owned Nodes cannot be read or is corrupt
+     * @throws IllegalArgumentException if either argument is null
+     */
+    public static <N> Set<N> loadOwners(Path snapshot, GraphSnapshot.Codec<N> nodeCodec) throws IOException {
+        if (nodeCodec == null) throw new IllegalArgumentException("Arguments cannot be null.");
+        Path file = ownersFile(snapshot);
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file));
+        try {
+            int count = GraphSnapshot.readVarint(in);
+            Set<N> owned = new HashSet<>();
+            for (int i = 0; i < count; i++) owned.add(nodeCodec.read(in));
+            if (in.hasRemaining()) throw new IOException(file + " is corrupt: unexpected trailing bytes");
+            return owned;
+        } catch (RuntimeException e) {
+            throw new IOException(file + " is corrupt", e);
+        }
+    }
+
+    /**
+     * Writes the data of the Nodes of a shard that the partition assigns to it.
+     *
+     * @param shard the graph of the shard
+     * @param p the partition the shard was split by
+     * @param shardId the id of the shard in p
+     * @param file the file written to
+     * @param nodeCodec encodes the data of the Nodes
+     * @throws IOException if the file cannot be written
+     */
+    private static <N, E> void writeOwners(Graph<N, E> shard, Partition<N> p, int shardId, Path file,
+                                           GraphSnapshot.Codec<N> nodeCodec) throws IOException {
+        List<N> owned = new ArrayList<>();
+        for (Node<N> n: shard.getNodeView()) {
+            if (p.shardOf(n.getData()) == shardId) owned.add(n.getData());
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            GraphSnapshot.writeVarint(out, owned.size());
+            for (N data: owned) nodeCodec.write(out, data);
+        }
+    }
+
+    /**
+     * A partition by the hash codes of the Node data.
+     */
+    private static class HashPartition<N> implements Partition<N> {
+
+        /**
+         * Holds the number of shards.
+         */
+        private final int shards;
+
+        /**
+         * @param shards the number of shards
+         * @spec.requires shards &gt;= 1
+         * @spec.effects Constructs a new partition over the given number of shards
+         */
+        HashPartition(int shards) {
+            this.shards = shards;
+        }
+
+        @Override
+        public int shardCount() {
+            return shards;
+        }
+
+        @Override
+        public int shardOf(N data) {
+            return Math.floorMod(data.hashCode(), shards);
+        }
+    }
+
+    /**
+     * A partition by an explicit map of Node data to shards, assigning other Nodes by hash.
+     */
+    private static class MapPartition<N> extends HashPartition<N> {
+
+        /**
+         * Holds the shard of every Node assigned explicitly.
+         */
+        private final Map<N, Integer> owners;
+
+        /**
+         * @param owners the shard of every Node assigned explicitly, not modified after this call
+         * @param shards the number of shards
+         * @spec.requires shards &gt;= 1 and every shard in owners is in [0, shards)
+         * @spec.effects Constructs a new partition over the given number of shards
+         */
+        MapPartition(Map<N, Integer> owners, int shards) {
+            super(shards);
+            this.owners = owners;
+        }
+
+        @Override
+        public int shardOf(N data) {
+            Integer shard = owners.get(data);
+            return shard != null ? shard : super.shardOf(data);
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package graph;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * This class writes graphs to compact binary snapshot files and loads them back as read-only
+ * FrozenGraphs, so a graph built once from its source data can be loaded again without
+ * rebuilding it.
+ *
+ * A snapshot holds a table of the distinct Nodes and a table of the distinct edge labels of
+ * the graph, each value written once by a Codec, followed by the Edges of every Node as
+ * varint-encoded pairs of node and label table indices, and then by the Edges pointing to every
+ * Node as varint-encoded pairs of parent node and label table indices, so that readers that do
+ * not load the whole graph, such as DiskGraph, can find the incoming Edges of a Node without
+ * reading every Edge. The file starts with a magic number
+ * and a format version and ends with a CRC32 checksum of everything before it, so truncated,
+ * corrupt or incompatible files are rejected when loaded. A snapshot is loaded by
+ * memory-mapping the whole file and decoding it in one sequential pass.
+ */
+public final class GraphSnapshot {
+
+    // This is not an ADT
+
+    /**
+     * Holds the number that starts every snapshot file.
+     */
+    static final int MAGIC = 0x444C4753; // "DLGS"
+
+    /**
+     * Holds the version of the file format written by this class.
+     */
+    static final int VERSION = 2;
+
+    /**
+     * Encodes and decodes the Strings of a snapshot as a varint byte length followed by their
+     * UTF-8 bytes.
+     */
+    public static final Codec<String> STRINGS = new Codec<>() {
+        @Override
+        public void write(DataOutput out, String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(out, bytes.length);
+            out.write(bytes);
+        }
+
+        @Override
+        public String read(ByteBuffer in) {
+            byte[] bytes = new byte[readVarint(in)];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    /**
+     * Encodes and decodes the Doubles of a snapshot as their 8 IEEE 754 bytes.
+     */
+    public static final Codec<Double> DOUBLES = new Codec<>() {
+        @Override
+        public void write(DataOutput out, Double value) throws IOException {
+            out.writeDouble(value);
+        }
+
+        @Override
+        public Double read(ByteBuffer in) {
+            return in.getDouble();
+        }
+    };
+
+    /**
+     * This class only has static methods.
+     */
+    private GraphSnapshot() {
+    }
+
+    /**
+     * Writes a snapshot of the given graph to the given file, replacing the file if it exists.
+     * The snapshot is written to a temporary file next to the given file first and then moved
+     * over it, so the file never holds a partly written snapshot.
+     *
+     * @param g the graph written
+     * @param file the file the snapshot is written to
+     * @param nodeCodec encodes the data of the Nodes of g
+     * @param labelCodec encodes the labels of the Edges of g
+     * @param <N> represents the type of the data in the Nodes of the graph
+     * @param <E> represents the label type of the Edges of the graph
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public static <N, E> void write(Graph<N, E> g, Path file, Codec<N> nodeCodec, Codec<E> labelCodec)
+            throws IOException {
+        if (g == null || file == null || nodeCodec == null || labelCodec == null) {
+            throw new IllegalArgumentException("Arguments cannot be null.");
+        }
+        Map<Node<N>, Integer> nodeIds = new HashMap<>();
+        for (Node<N> n: g.getNodeView()) nodeIds.put(n, nodeIds.size());
+        Map<E, Integer> labelIds = new HashMap<>();
+        List<E> labels = new ArrayList<>();
+        int[] inStarts = new int[nodeIds.size() + 1];
+        for (Node<N> n: g.getNodeView()) {
+            for (Edge<E, N> e: g.getEdgeView(n)) {
+                if (labelIds.putIfAbsent(e.getLabel(), labels.size()) == null) labels.add(e.getLabel());
+                inStarts[nodeIds.get(e.getChild()) + 1]++;
+            }
+        }
+        for (int i = 0; i < nodeIds.size(); i++) inStarts[i + 1] += inStarts[i];
+        // the incoming Edges of every Node, grouped by child Node and ordered by parent Node
+        int[] inParents = new int[inStarts[nodeIds.size()]];
+        int[] inLabels = new int[inParents.length];
+        int[] next = Arrays.copyOf(inStarts, nodeIds.size());
+
+        Path absolute = file.toAbsolutePath();
+        Path temporary = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            CRC32 checksum = new CRC32();
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new CheckedOutputStream(Files.newOutputStream(temporary), checksum)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                writeVarint(out, nodeIds.size());
+                for (Node<N> n: g.getNodeView()) nodeCodec.write(out, n.getData());
+                writeVarint(out, labels.size());
+                for (E label: labels) labelCodec.write(out, label);
+                for (Node<N> n: g.getNodeView()) {
+                    Set<Edge<E, N>> edges = g.getEdgeView(n);
+                    int parent = nodeIds.get(n);
+                    writeVarint(out, edges.size());
+                    for (Edge<E, N> e: edges) {
+                        int child = nodeIds.get(e.getChild());
+                        int label = labelIds.get(e.getLabel());
+                        writeVarint(out, child);
+                        writeVarint(out, label);
+                        inParents[next[child]] = parent;
+                        inLabels[next[child]++] = label;
+                    }
+                }
+                for (int i = 0; i < nodeIds.size(); i++) {
+                    writeVarint(out, inStarts[i + 1] - inStarts[i]);
+                    for (int k = inStarts[i]; k < inStarts[i + 1]; k++) {
+                        writeVarint(out, inParents[k]);
+                        writeVarint(out, inLabels[k]);
+                    }
+                }
+                out.flush();
+                out.writeInt((int) checksum.getValue());
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Loads the graph in the given snapshot file, with the Edges of each Node in the order they
+     * were in when the snapshot was written.
+     *
+     * @param file the file written by write
+     * @param nodeCodec decodes the data of the Nodes of the graph
+     * @param labelCodec decodes the labels of the Edges of the graph
+     * @param <N> represents the type of the data in the Nodes of the graph
+     * @param <E> represents the label type of the Edges of the graph
+     * @return read-only graph holding the Nodes and Edges in the snapshot
+     * @throws IOException if the file cannot be read, or is not a valid snapshot
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public static <N, E> FrozenGraph<N, E> load(Path file, Codec<N> nodeCodec, Codec<E> labelCodec)
+            throws IOException {
+        return load(file, nodeCodec, labelCodec, null);
+    }
+
+    /**
+     * Loads the graph in the given snapshot file, written from a graph that kept its Edges in
+     * the given order. The loaded graph keeps its Edges in the same order and reports it from
+     * getEdgeOrder, so clients that rely on the order find it without sorting again.
+     *
+     * @param file the file written by write
+     * @param nodeCodec decodes the data of the Nodes of the graph
+     * @param labelCodec decodes the labels of the Edges of the graph
+     * @param edgeOrder the order of the Edges of each Node in the snapshot, or null if they
+     *                  are in no particular order
+     * @param <N> represents the type of the data in the Nodes of the graph
+     * @param <E> represents the label type of the Edges of the graph
+     * @spec.requires the Edges of each Node were in edgeOrder when the snapshot was written
+     * @return read-only graph holding the Nodes and Edges in the snapshot
+     * @throws IOException if the file cannot be read, or is not a valid snapshot
+     * @throws IllegalArgumentException if file or either codec is null
+     */
+    @SuppressWarnings("unchecked")
+    public static <N, E> FrozenGraph<N, E> load(Path file, Codec<N> nodeCodec, Codec<E> labelCodec,
+                                               Comparator<? super Edge<E, N>> edgeOrder) throws IOException {
+        if (file == null || nodeCodec == null || labelCodec == null) {
+            throw new IllegalArgumentException("Arguments cannot be null.");
+        }
+        ByteBuffer in;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException(file + " is too large to be a snapshot");
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (in.remaining() < 12 || in.getInt(0) != MAGIC) throw new IOException(file + " is not a graph snapshot");
+        if (in.getInt(4) != VERSION) throw new IOException("unsupported graph snapshot version " + in.getInt(4));
+        CRC32 checksum = new CRC32();
+        checksum.update(in.duplicate().limit(in.limit() - 4));
+        if ((int) checksum.getValue() != in.getInt(in.limit() - 4)) {
+            throw new IOException(file + " is corrupt: checksum mismatch");
+        }
+
+        try {
+            in.position(8).limit(in.limit() - 4);
+            Node<N>[] nodes = (Node<N>[]) new Node<?>[readVarint(in)];
+            for (int i = 0; i < nodes.length; i++) nodes[i] = new Node<>(nodeCodec.read(in));
+            E[] labelTable = (E[]) new Object[readVarint(in)];
+            for (int i = 0; i < labelTable.length; i++) labelTable[i] = labelCodec.read(in);
+
+            int[] offsets = new int[nodes.length + 1];
+            int[] targets = new int[16];
+            E[] labels = (E[]) new Object[16];
+            for (int i = 0; i < nodes.length; i++) {
+                int degree = readVarint(in);
+                int end = offsets[i] + degree;
+                if (end > targets.length) {
+                    targets = Arrays.copyOf(targets, Math.max(2 * targets.length, end));
+                    labels = Arrays.copyOf(labels, targets.length);
+                }
+                for (int k = offsets[i]; k < end; k++) {
+                    targets[k] = checkIndex(readVarint(in), nodes.length);
+                    labels[k] = labelTable[checkIndex(readVarint(in), labelTable.length)];
+                }
+                offsets[i + 1] = end;
+            }
+            // the incoming Edges are only read by DiskGraph, so they are checked and skipped
+            int incoming = 0;
+            for (int i = 0; i < nodes.length; i++) {
+                int degree = readVarint(in);
+                for (int k = 0; k < degree; k++) {
+                    checkIndex(readVarint(in), nodes.length);
+                    checkIndex(readVarint(in), labelTable.length);
+                }
+                incoming += degree;
+            }
+            if (incoming != offsets[nodes.length]) throw new IOException(file + " is corrupt: incoming edges do not match");
+            if (in.hasRemaining()) throw new IOException(file + " is corrupt: unexpected trailing bytes");
+            int edges = offsets[nodes.length];
+            return new FrozenGraph<>(nodes, offsets, Arrays.copyOf(targets, edges), Arrays.copyOf(labels, edges),
+                                     edgeOrder);
+        } catch (RuntimeException e) {
+            // a valid checksum over bytes this class did not write
+            throw new IOException(file + " is corrupt", e);
+        }
+    }
+
+    /**
+     * Checks that an index read from a snapshot is within its table
+     *
+     * @param index the index read
+     * @param size the size of the table
+     * @return index
+     * @throws IndexOutOfBoundsException if index is not in [0, size)
+     */
+    private static int checkIndex(int index, int size) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("index " + index + " of " + size);
+        return index;
+    }
+
+    /**
+     * Writes a non-negative int in 1 to 5 bytes, 7 bits at a time starting with the lowest,
+     * with the high bit of each byte set if more bytes follow.
+     *
+     * @param out the output written to
+     * @param value the value written
+     * @throws IOException if the output cannot be written
+     */
+    static void writeVarint(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Reads an int written by writeVarint.
+     *
+     * @param in the buffer read from
+     * @return the value read
+     * @throws java.nio.BufferUnderflowException if the buffer ends before the value does
+     */
+    static int readVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+
+    /**
+     * Encodes values into a snapshot and decodes them back.
+     *
+     * @param <T> the type of the values
+     */
+    public interface Codec<T> {
+        /**
+         * Writes a value.
+         *
+         * @param out the output written to
+         * @param value the value written
+         * @throws IOException if the output cannot be written
+         */
+        void write(DataOutput out, T value) throws IOException;
+
+        /**
+         * Reads a value written by write, advancing the position of the buffer past it.
+         *
+         * @param in the buffer read from
+         * @return the value read
+         */
+        T read(ByteBuffer in);
+    }
+}
@@ -0,0 +1,972 @@
+package graph;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * This class represents a mutable, directed, labeled graph that stores its Nodes and Edges as
+ * primitive ints. Node data and Edge labels are mapped through symbol tables to dense integer
+ * ids, and the Edges of every Node are kept in a growable int array of (child id, label id)
+ * pairs, so no Edge objects and no per-Edge hash entries are kept in memory. This makes
+ * large graphs with few distinct labels, such as the Marvel graph, far cheaper to build and
+ * to hold than a DLGraph.
+ *
+ * An IntGraph supports every operation of MutableGraph. Removing a Node retires its id rather
+ * than reusing it, so the ids of the other Nodes never change. Clients building a graph in
+ * bulk can also intern Node data and labels once and add Edges by id. A graph constructed
+ * with an index of incoming Edges also keeps the Edges pointing to every Node as (parent id,
+ * label id) pairs, so it finds the parents of a Node without scanning the whole graph.
+ *
+ * Specification fields:
+ * @spec.specfield graph : Map of Nodes with each Node corresponding to a Set of Edges
+ *                         that connect each Node with another Node.
+ * @spec.specfield ids : Map of each Node in the graph to its integer id
+ * @spec.specfield labelIds : Map of each interned label to its integer id
+ *
+ * Abstract Invariant:
+ * Same as DLGraph. In addition, every Node has a distinct id in [0, idBound()) assigned in the
+ * order the Nodes were added, and every interned label has a distinct id in [0, labelCount()).
+ */
+public class IntGraph<N, E> implements MutableGraph<N, E> {
+
+    /**
+     * Holds the initial capacity of the Edge array of a Node.
+     */
+    private static final int INITIAL_DEGREE = 4;
+
+    /**
+     * Maps the data of every Node in the graph to its id.
+     */
+    private final Map<N, Integer> nodeIds;
+
+    /**
+     * Holds every Node in the graph, indexed by its id, with null at the ids of removed Nodes.
+     */
+    private final List<Node<N>> nodes;
+
+    /**
+     * Maps every interned label to its id.
+     */
+    private final Map<E, Integer> labelIds;
+
+    /**
+     * Holds every interned label, indexed by its id.
+     */
+    private final List<E> labels;
+
+    /**
+     * Holds, for every Node id, the Edges of that Node as consecutive (child id, label id)
+     * pairs. Only the first 2 * degree[id] elements of each array are used.
+     */
+    private int[][] adjacency;
+
+    /**
+     * Holds the number of Edges of every Node, indexed by Node id.
+     */
+    private int[] degree;
+
+    /**
+     * Holds an open-addressing hash table of every Edge in the graph, used to reject duplicate
+     * Edges in constant time. A slot holds 0 if empty, or 1 + (parent id &lt;&lt; 32 | position)
+     * where position is the index of the Edge within the parent's Edges. The table is null
+     * after trimToSize() until the next Edge is added.
+     */
+    private long[] edgeTable;
+
+    /**
+     * Holds the total number of Edges in the graph.
+     */
+    private int edgeCount;
+
+    /**
+     * Holds, for every Node id, the Edges pointing to that Node as consecutive (parent id,
+     * position) pairs, where position is the index of the Edge within the parent's Edges, or
+     * null if the graph keeps no index of incoming Edges. Only the first 2 * inDegree[id]
+     * elements of each array are used.
+     */
+    private int[][] reverse;
+
+    /**
+     * Holds, for every Node id, the index of the pair of each Edge of that Node within the
+     * pairs of its child, or null if the graph keeps no index of incoming Edges. Only the
+     * first degree[id] elements of each array are used. Together with the positions held in
+     * reverse, this lets an Edge be removed from the index without searching for it.
+     */
+    private int[][] reverseIndex;
+
+    /**
+     * Holds the number of Edges pointing to every Node, indexed by Node id, or null if the
+     * graph keeps no index of incoming Edges.
+     */
+    private int[] inDegree;
+
+    // Abstraction Function (this):
+    // IntGraph, g, represents a graph where node i is nodes.get(i) for every i with
+    // nodes.get(i) != null, and the edges of node i are the edges labeled
+    // labels.get(adjacency[i][2k + 1]) pointing to nodes.get(adjacency[i][2k]) for every k
+    // with 0 <= k < degree[i].
+
+    // Representation Invariant for every graph g:
+    // nodeIds, nodes, labelIds, labels, adjacency and degree are not null
+    // nodeIds.get(nodes.get(i).getData()) == i for every i with nodes.get(i) != null, and
+    // nodeIds.size() is the number of such i
+    // degree[i] == 0 for every i with nodes.get(i) == null
+    // labels.size() == labelIds.size() and labelIds.get(labels.get(i)) == i for every i
+    // adjacency.length == degree.length >= nodes.size()
+    // every child id is the id of a Node in the graph and every label id is in [0, labels.size())
+    // no Node has two Edges with the same child id and label id
+    // edgeCount is the sum of degree[i] over every Node id i
+    // if edgeTable != null, it holds exactly one slot for every Edge and is at most half full
+    // reverse, reverseIndex and inDegree are all null, or reverse.length == inDegree.length ==
+    // reverseIndex.length == degree.length and the first inDegree[c] pairs of reverse[c] are
+    // exactly the (parent id, position) of every Edge whose child id is c
+    // if reverse != null, for every Edge k of Node i with child c, reverse[c] holds the pair
+    // (i, k) at index reverseIndex[i][k]
+
+    /**
+     * @spec.effects Constructs a new, empty IntGraph (no Nodes or Edges).
+     */
+    public IntGraph() {
+        this(false);
+    }
+
+    /**
+     * @param indexIncoming true to keep an index of the Edges pointing to every Node, so that
+     *                      removeNode, getAllParents and forEachIncoming take time proportional
+     *                      to the number of Edges of the Node and pointing to it, at the cost of
+     *                      three more ints per Edge
+     * @spec.effects Constructs a new, empty IntGraph (no Nodes or Edges), with an index of
+     * incoming Edges if indexIncoming is true.
+     */
+    public IntGraph(boolean indexIncoming) {
+        nodeIds = new HashMap<>();
+        nodes = new ArrayList<>();
+        labelIds = new HashMap<>();
+        labels = new ArrayList<>();
+        adjacency = new int[INITIAL_DEGREE][];
+        degree = new int[INITIAL_DEGREE];
+        edgeTable = new long[16];
+        edgeCount = 0;
+        reverse = indexIncoming ? new int[INITIAL_DEGREE][] : null;
+        reverseIndex = indexIncoming ? new int[INITIAL_DEGREE][] : null;
+        inDegree = indexIncoming ? new int[INITIAL_DEGREE] : null;
+        checkIntRep();
+    }
+
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkIntRep() {
+        assert (nodeIds != null && nodes != null && labelIds != null && labels != null);
+        assert (adjacency != null && degree != null && adjacency.length == degree.length);
+        assert (nodes.size() >= nodeIds.size() && labels.size() == labelIds.size());
+        assert (reverse == null ? inDegree == null && reverseIndex == null
+                : inDegree != null && reverseIndex != null && reverse.length == degree.length
+                && inDegree.length == degree.length && reverseIndex.length == degree.length);
+        if (DLGraph.DEBUG) {
+            int edges = 0;
+            for (int i = 0; i < nodes.size(); i++) {
+                assert (nodes.get(i) != null || degree[i] == 0) : "removed nodes cannot have edges";
+                assert (nodes.get(i) == null || nodeIds.get(nodes.get(i).getData()) == i)
+                        : "ids must match node indices";
+                for (int k = 0; k < degree[i]; k++) {
+                    assert (isNode(adjacency[i][2 * k])) : "child node must be in graph";
+                    assert (adjacency[i][2 * k + 1] >= 0 && adjacency[i][2 * k + 1] < labels.size())
+                            : "graph cannot have null edges";
+                    for (int j = 0; j < k; j++) {
+                        assert (adjacency[i][2 * j] != adjacency[i][2 * k]
+                                || adjacency[i][2 * j + 1] != adjacency[i][2 * k + 1])
+                                : "graph can't have duplicated edges (same parent, same child, same label)";
+                    }
+                }
+                edges += degree[i];
+            }
+            assert (edges == edgeCount) : "edgeCount must match the number of edges";
+            if (inDegree != null) {
+                int incomingEdges = 0;
+                for (int i = 0; i < nodes.size(); i++) incomingEdges += inDegree[i];
+                assert (incomingEdges == edgeCount) : "index must hold every edge";
+                for (int i = 0; i < nodes.size(); i++) {
+                    for (int k = 0; k < degree[i]; k++) {
+                        int[] pairs = reverse[adjacency[i][2 * k]];
+                        int j = reverseIndex[i][k];
+                        assert (pairs[2 * j] == i && pairs[2 * j + 1] == k) : "index must point back at every edge";
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the id of the given Node data, adding a new Node holding it to the graph if the
+     * graph doesn't already contain one
+     *
+     * @param data data of the Node
+     * @spec.requires data != null
+     * @spec.modifies this
+     * @spec.effects adds a Node holding data to this graph if it is not already in the graph
+     * @return id of the Node holding data
+     */
+    public int intern(N data) {
+        Integer id = nodeIds.get(data);
+        if (id != null) return id;
+        int newId = nodes.size();
+        nodeIds.put(data, newId);
+        nodes.add(new Node<>(data));
+        if (newId == degree.length) {
+            adjacency = Arrays.copyOf(adjacency, 2 * newId);
+            degree = Arrays.copyOf(degree, 2 * newId);
+            if (reverse != null) {
+                reverse = Arrays.copyOf(reverse, 2 * newId);
+                reverseIndex = Arrays.copyOf(reverseIndex, 2 * newId);
+                inDegree = Arrays.copyOf(inDegree, 2 * newId);
+            }
+        }
+        return newId;
+    }
+
+    /**
+     * Returns the id of the given label, adding it to the symbol table of labels if it is not
+     * already in it
+     *
+     * @param label the label of an Edge
+     * @spec.requires label != null
+     * @spec.modifies this
+     * @spec.effects adds label to the labels of this graph if it is not already interned
+     * @return id of label
+     */
+    public int internLabel(E label) {
+        Integer id = labelIds.get(label);
+        if (id != null) return id;
+        int newId = labels.size();
+        labelIds.put(label, newId);
+        labels.add(label);
+        return newId;
+    }
+
+    /**
+     * Adds an Edge with the given label id from the Node with id 'from' to the Node with id
+     * 'target', unless the graph already contains that Edge
+     *
+     * @param from id of the parent Node
+     * @param target id of the child Node
+     * @param label id of the label of the Edge
+     * @spec.modifies this
+     * @spec.effects adds the given Edge to the Edges of the parent Node
+     * @return true if the Edge was added, false if the graph already contained it
+     * @throws IllegalArgumentException if either id is not the id of a Node in this graph or
+     *                                  label is not the id of an interned label
+     */
+    public boolean addEdge(int from, int target, int label) {
+        if (!isNode(from)) {
+            throw new IllegalArgumentException("Parent node is not in graph.");
+        } else if (!isNode(target)) {
+            throw new IllegalArgumentException("Child node is not in the graph");
+        } else if (label < 0 || label >= labels.size()) {
+            throw new IllegalArgumentException("Label is not interned in the graph");
+        }
+        if (edgeTable == null) rebuildEdgeTable();
+        int slot = findSlot(from, target, label);
+        if (edgeTable[slot] != 0) return false;
+
+        adjacency[from] = addPair(adjacency[from], degree[from], target, label);
+        edgeTable[slot] = 1 + ((long) from << 32 | degree[from]);
+        if (reverse != null) {
+            reverse[target] = addPair(reverse[target], inDegree[target], from, degree[from]);
+            reverseIndex[from] = addInt(reverseIndex[from], degree[from], inDegree[target]);
+            inDegree[target]++;
+        }
+        degree[from]++;
+        edgeCount++;
+        if (2 * edgeCount > edgeTable.length) growEdgeTable(2 * edgeTable.length);
+        return true;
+    }
+
+    /**
+     * Removes the Edge with the given label id from the Node with id 'from' to the Node with
+     * id 'target', if the graph contains it. The Edge is found through the table of Edges in
+     * expected constant time, and the last Edge of the parent Node takes the position of the
+     * removed Edge. After trimToSize() dropped the table, the Edge is found by scanning the
+     * Edges of the parent Node instead. The index of incoming Edges, if this graph keeps one,
+     * is updated in constant time.
+     *
+     * @param from id of the parent Node
+     * @param target id of the child Node
+     * @param label id of the label of the Edge
+     * @spec.modifies this
+     * @spec.effects removes the given Edge from the Edges of the parent Node
+     * @return true if the Edge was removed, false if the graph did not contain it
+     * @throws IllegalArgumentException if either id is not the id of a Node in this graph
+     */
+    public boolean removeEdge(int from, int target, int label) {
+        if (!isNode(from)) {
+            throw new IllegalArgumentException("Parent node is not in graph.");
+        } else if (!isNode(target)) {
+            throw new IllegalArgumentException("Child node is not in the graph");
+        }
+        int[] edges = adjacency[from];
+        int removedSlot = -1;
+        int k;
+        if (edgeTable != null) {
+            removedSlot = findSlot(from, target, label);
+            if (edgeTable[removedSlot] == 0) return false;
+            k = (int) (edgeTable[removedSlot] - 1);
+        } else {
+            k = 0;
+            while (k < degree[from] && (edges[2 * k] != target || edges[2 * k + 1] != label)) k++;
+            if (k == degree[from]) return false;
+        }
+
+        removeEdgeAt(from, k, removedSlot);
+        return true;
+    }
+
+    /**
+     * Removes the Edge at the given position within the Edges of the Node with id 'from',
+     * moving the last Edge of the Node into its place.
+     *
+     * @param from id of the parent Node
+     * @param k position of the Edge within the Edges of the parent Node
+     * @param removedSlot the slot of edgeTable holding the Edge, or -1 if edgeTable is null
+     * @spec.requires from is the id of a Node in this graph and 0 &lt;= k &lt; degree[from]
+     * @spec.modifies this
+     * @spec.effects removes the Edge from the Edges of the parent Node and from the index of
+     * incoming Edges if this graph keeps one
+     */
+    private void removeEdgeAt(int from, int k, int removedSlot) {
+        int[] edges = adjacency[from];
+        int last = degree[from] - 1;
+        int movedSlot = edgeTable == null || k == last ? -1 : findSlot(from, edges[2 * last], edges[2 * last + 1]);
+        if (reverse != null) {
+            removeIncoming(edges[2 * k], reverseIndex[from][k]);
+            if (k != last) {
+                reverseIndex[from][k] = reverseIndex[from][last];
+                reverse[edges[2 * last]][2 * reverseIndex[from][k] + 1] = k;
+            }
+        }
+        edges[2 * k] = edges[2 * last];
+        edges[2 * k + 1] = edges[2 * last + 1];
+        degree[from]--;
+        edgeCount--;
+        if (movedSlot >= 0) edgeTable[movedSlot] = 1 + ((long) from << 32 | k);
+        if (removedSlot >= 0) deleteSlot(removedSlot);
+    }
+
+    /**
+     * Removes a pair from the index of incoming Edges of the Node with id 'target', moving the
+     * last pair into its place and pointing the Edge of the moved pair at its new index.
+     *
+     * @param target id of the child Node
+     * @param j index of the removed pair within the pairs of target
+     * @spec.requires reverse != null and 0 &lt;= j &lt; inDegree[target]
+     * @spec.modifies this
+     * @spec.effects removes the j-th pair of reverse[target]
+     */
+    private void removeIncoming(int target, int j) {
+        int[] pairs = reverse[target];
+        int last = --inDegree[target];
+        if (j == last) return;
+        pairs[2 * j] = pairs[2 * last];
+        pairs[2 * j + 1] = pairs[2 * last + 1];
+        reverseIndex[pairs[2 * j]][pairs[2 * j + 1]] = j;
+    }
+
+    /**
+     * Appends a pair of ints to the used part of an array of pairs, growing the array if it is
+     * full.
+     *
+     * @param pairs the array of pairs, or null if there is none yet (it may also be empty,
+     *              after trimToSize())
+     * @param count the number of pairs in use
+     * @param first the first int of the pair
+     * @param second the second int of the pair
+     * @return the array holding the pairs and the new pair, which is pairs unless it grew
+     */
+    private static int[] addPair(int[] pairs, int count, int first, int second) {
+        if (pairs == null || pairs.length == 0) {
+            pairs = new int[2 * INITIAL_DEGREE];
+        } else if (2 * count == pairs.length) {
+            pairs = Arrays.copyOf(pairs, 2 * pairs.length);
+        }
+        pairs[2 * count] = first;
+        pairs[2 * count + 1] = second;
+        return pairs;
+    }
+
+    /**
+     * Appends an int to the used part of an array, growing the array if it is full.
+     *
+     * @param ints the array, or null if there is none yet (it may also be empty, after
+     *             trimToSize())
+     * @param count the number of ints in use
+     * @param value the int appended
+     * @return the array holding the ints and the new int, which is ints unless it grew
+     */
+    private static int[] addInt(int[] ints, int count, int value) {
+        if (ints == null || ints.length == 0) {
+            ints = new int[INITIAL_DEGREE];
+        } else if (count == ints.length) {
+            ints = Arrays.copyOf(ints, 2 * ints.length);
+        }
+        ints[count] = value;
+        return ints;
+    }
+
+    /**
+     * Releases the memory this graph only needs while Edges are being added, trimming every
+     * Edge array to its size and dropping the table used to reject duplicate Edges. The table
+     * is rebuilt if another Edge is added later. Call this once a graph is fully built.
+     *
+     * @spec.modifies this
+     * @spec.effects none to the abstract state of this graph
+     */
+    public void trimToSize() {
+        for (int i = 0; i < nodes.size(); i++) {
+            if (adjacency[i] != null && adjacency[i].length > 2 * degree[i]) {
+                adjacency[i] = Arrays.copyOf(adjacency[i], 2 * degree[i]);
+            }
+            if (reverse != null && reverse[i] != null && reverse[i].length > 2 * inDegree[i]) {
+                reverse[i] = Arrays.copyOf(reverse[i], 2 * inDegree[i]);
+            }
+            if (reverse != null && reverseIndex[i] != null && reverseIndex[i].length > degree[i]) {
+                reverseIndex[i] = Arrays.copyOf(reverseIndex[i], degree[i]);
+            }
+        }
+        adjacency = Arrays.copyOf(adjacency, Math.max(nodes.size(), 1));
+        degree = Arrays.copyOf(degree, Math.max(nodes.size(), 1));
+        if (reverse != null) {
+            reverse = Arrays.copyOf(reverse, Math.max(nodes.size(), 1));
+            reverseIndex = Arrays.copyOf(reverseIndex, Math.max(nodes.size(), 1));
+            inDegree = Arrays.copyOf(inDegree, Math.max(nodes.size(), 1));
+        }
+        edgeTable = null;
+        checkIntRep();
+    }
+
+    @Override
+    public boolean addNode(Node<N> n) {
+        int before = nodes.size();
+        intern(n.getData());
+        checkIntRep();
+        return nodes.size() > before;
+    }
+
+    @Override
+    public boolean addEdge(Node<N> from, Node<N> target, E label) {
+        Integer parent = nodeIds.get(from.getData());
+        Integer child = nodeIds.get(target.getData());
+        if (parent == null) {
+            throw new IllegalArgumentException("Parent node is not in graph.");
+        } else if (child == null)  {
+            throw new IllegalArgumentException("Child node is not in the graph");
+        }
+        addEdge(parent, child, internLabel(label));
+        checkIntRep();
+        return true;
+    }
+
+    @Override
+    public boolean addEdges(Node<N> from, Collection<? extends Edge<E,N>> edges) {
+        Integer parent = nodeIds.get(from.getData());
+        if (parent == null) throw new IllegalArgumentException("Parent node is not in graph.");
+        for (Edge<E,N> e: edges) {
+            if (!nodeIds.containsKey(e.getChild().getData())) {
+                throw new IllegalArgumentException("Child node is not in the graph");
+            }
+        }
+        boolean added = false;
+        for (Edge<E,N> e: edges) {
+            added |= addEdge(parent, nodeIds.get(e.getChild().getData()), internLabel(e.getLabel()));
+        }
+        checkIntRep();
+        return added;
+    }
+
+    @Override
+    public boolean removeEdge(Node<N> from, Node<N> target, E label) {
+        int parent = checkedId(from, "Parent node is not in graph.");
+        int child = checkedId(target, "Child node is not in the graph");
+        Integer id = labelIds.get(label);
+        boolean removed = id != null && removeEdge(parent, child, id);
+        checkIntRep();
+        return removed;
+    }
+
+    /**
+     * Removes the given Node from the graph, together with its Edges and every Edge pointing to
+     * it. The id of the Node is retired: idOf no longer finds it and it is never given to
+     * another Node, so the ids of the other Nodes, which clients may hold, do not change. If
+     * this graph keeps an index of incoming Edges, only the Edges of the Node and pointing to
+     * it are visited, each removed in expected constant time; otherwise the Edges of every
+     * Node are scanned, taking time proportional to the size of the graph.
+     *
+     * @param n the Node removed
+     * @spec.requires n != null
+     * @spec.modifies this
+     * @spec.effects removes n, the Edges of n and every Edge whose child is n from this graph
+     * @return true if the Node was removed, false if the graph did not contain it
+     */
+    @Override
+    public boolean removeNode(Node<N> n) {
+        Integer id = nodeIds.get(n.getData());
+        if (id == null) return false;
+        if (reverse != null) {
+            // removing a pair moves the last pair, already visited, into its place
+            for (int j = inDegree[id] - 1; j >= 0; j--) {
+                int parent = reverse[id][2 * j];
+                int k = reverse[id][2 * j + 1];
+                if (parent == id) continue;
+                int slot = edgeTable == null ? -1 : findSlot(parent, id, adjacency[parent][2 * k + 1]);
+                removeEdgeAt(parent, k, slot);
+            }
+            for (int k = 0; k < degree[id]; k++) {
+                int child = adjacency[id][2 * k];
+                if (child != id) removeIncoming(child, reverseIndex[id][k]);
+            }
+            reverse[id] = null;
+            reverseIndex[id] = null;
+            inDegree[id] = 0;
+        } else {
+            for (int parent = 0; parent < nodes.size(); parent++) {
+                if (parent == id) continue;
+                // removeEdge moves the last Edge into the removed position, which was already scanned
+                for (int k = degree[parent] - 1; k >= 0; k--) {
+                    if (adjacency[parent][2 * k] == id) removeEdge(parent, id, adjacency[parent][2 * k + 1]);
+                }
+            }
+        }
+        if (edgeTable != null) {
+            for (int k = degree[id] - 1; k >= 0; k--) {
+                deleteSlot(findSlot(id, adjacency[id][2 * k], adjacency[id][2 * k + 1]));
+            }
+        }
+        edgeCount -= degree[id];
+        degree[id] = 0;
+        adjacency[id] = null;
+        nodeIds.remove(n.getData());
+        nodes.set(id, null);
+        checkIntRep();
+        return true;
+    }
+
+    @Override
+    public boolean containsNode(Node<N> n) {
+        return nodeIds.containsKey(n.getData());
+    }
+
+    @Override
+    public Set<Node<N>> getAllNodes() {
+        return new HashSet<>(getNodeView());
+    }
+
+    @Override
+    public Set<Node<N>> getNodeView() {
+        return new AbstractSet<>() {
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Node<?> && nodeIds.containsKey(((Node<?>) o).getData());
+            }
+
+            @Override
+            public Iterator<Node<N>> iterator() {
+                if (nodeIds.size() == nodes.size()) return Collections.unmodifiableList(nodes).iterator();
+                return nodes.stream().filter(Objects::nonNull).iterator();
+            }
+
+            @Override
+            public int size() {
+                return nodeIds.size();
+            }
+        };
+    }
+
+    @Override
+    public Set<Edge<E, N>> getAllEdges(Node<N> n) {
+        return new HashSet<>(getEdgeView(n));
+    }
+
+    /**
+     * Returns null, since an IntGraph keeps the Edges of a Node in the order they were added,
+     * with removals moving the last Edge into the place of the removed one.
+     *
+     * @return null
+     */
+    @Override
+    public Comparator<? super Edge<E, N>> getEdgeOrder() {
+        return null;
+    }
+
+    /**
+     * Returns a read-only view of the set of all the Edges for the given Node within the graph.
+     * No set is copied, but since an IntGraph does not store Edge objects, iterating the view
+     * creates a new Edge for every Edge visited. Use the id-based accessors to scan the Edges
+     * of a Node without allocating.
+     *
+     * @param n Node to get all the Edges from
+     * @spec.requires n != null
+     * @return unmodifiable view of the set of all Edges for the given Node in the graph
+     * @throws IllegalArgumentException if graph doesn't contain given node
+     */
+    @Override
+    public Set<Edge<E, N>> getEdgeView(Node<N> n) {
+        int id = checkedId(n, "Given node is not in graph.");
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Edge<E, N>> iterator() {
+                return new Iterator<>() {
+
+                    private int next = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < degree[id];
+                    }
+
+                    @Override
+                    public Edge<E, N> next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        return edge(id, next++);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return degree[id];
+            }
+        };
+    }
+
+    @Override
+    public void forEachEdge(Node<N> n, Consumer<? super Edge<E, N>> action) {
+        int id = checkedId(n, "Given node is not in graph.");
+        for (int k = 0; k < degree[id]; k++) action.accept(edge(id, k));
+    }
+
+    @Override
+    public Set<Node<N>> getAllChildren(Node<N> n) {
+        int id = checkedId(n, "Given node is not in graph.");
+        Set<Node<N>> children = new HashSet<>();
+        for (int k = 0; k < degree[id]; k++) children.add(nodes.get(adjacency[id][2 * k]));
+        return children;
+    }
+
+    @Override
+    public int size() {
+        return nodeIds.size();
+    }
+
+    @Override
+    public int numEdges(Node<N> from, Node<N> target) {
+        int parent = checkedId(from, "Parent node is not in graph.");
+        int child = checkedId(target, "Child node is not in graph.");
+        int edges = 0;
+        for (int k = 0; k < degree[parent]; k++) {
+            if (adjacency[parent][2 * k] == child) edges++;
+        }
+        return edges;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return nodeIds.isEmpty();
+    }
+
+    /**
+     * Returns the set of all parent Nodes of the given Node within the graph. If this graph
+     * keeps an index of incoming Edges, this takes time proportional to the number of Edges
+     * pointing to the Node; otherwise the Edges of every Node are scanned, taking time
+     * proportional to the size of the graph.
+     *
+     * @param n Node to get all the parent Nodes of
+     * @spec.requires n != null
+     * @return set of all parent Nodes of the given Node in the graph, empty set if no parents
+     * @throws IllegalArgumentException if graph doesn't contain given node
+     */
+    public Set<Node<N>> getAllParents(Node<N> n) {
+        Set<Node<N>> parents = new HashSet<>();
+        forEachIncoming(n, (parent, e) -> parents.add(parent));
+        return parents;
+    }
+
+    /**
+     * Performs the given action on every Edge pointing to the given Node within the graph,
+     * together with the parent Node of the Edge. Like getAllParents, this uses the index of
+     * incoming Edges if this graph keeps one and scans the Edges of every Node otherwise.
+     *
+     * @param n Node whose incoming Edges are visited
+     * @param action the action to perform on each parent Node and its Edge whose child is n
+     * @spec.requires n != null, action != null, action does not modify this graph
+     * @throws IllegalArgumentException if graph doesn't contain given node
+     */
+    public void forEachIncoming(Node<N> n, BiConsumer<? super Node<N>, ? super Edge<E,N>> action) {
+        int id = checkedId(n, "Given node is not in graph.");
+        if (reverse != null) {
+            for (int j = 0; j < inDegree[id]; j++) {
+                int parent = reverse[id][2 * j];
+                action.accept(nodes.get(parent), edge(parent, reverse[id][2 * j + 1]));
+            }
+            return;
+        }
+        for (int parent = 0; parent < nodes.size(); parent++) {
+            for (int k = 0; k < degree[parent]; k++) {
+                if (adjacency[parent][2 * k] == id) action.accept(nodes.get(parent), edge(parent, k));
+            }
+        }
+    }
+
+    /**
+     * Returns whether this graph keeps an index of the Edges pointing to every Node
+     *
+     * @return true if this graph was constructed with an index of incoming Edges
+     */
+    public boolean hasIncomingIndex() {
+        return reverse != null;
+    }
+
+    @Override
+    public void clearGraph() {
+        nodeIds.clear();
+        nodes.clear();
+        labelIds.clear();
+        labels.clear();
+        adjacency = new int[INITIAL_DEGREE][];
+        degree = new int[INITIAL_DEGREE];
+        edgeTable = new long[16];
+        edgeCount = 0;
+        if (reverse != null) {
+            reverse = new int[INITIAL_DEGREE][];
+            reverseIndex = new int[INITIAL_DEGREE][];
+            inDegree = new int[INITIAL_DEGREE];
+        }
+        checkIntRep();
+    }
+
+    /**
+     * Returns the id of the given Node within this graph
+     *
+     * @param n Node to look up
+     * @spec.requires n != null
+     * @return id of n in [0, idBound()), or -1 if n is not in this graph
+     */
+    public int idOf(Node<N> n) {
+        Integer id = nodeIds.get(n.getData());
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the Node with the given id
+     *
+     * @param id id of the Node
+     * @spec.requires id is the id of a Node in this graph
+     * @return the Node whose id is the given id
+     */
+    public Node<N> nodeOf(int id) {
+        return nodes.get(id);
+    }
+
+    /**
+     * Returns one more than the largest id given to a Node of this graph. The ids of the Nodes
+     * in the graph are the ids in [0, idBound()) that do not belong to removed Nodes, so
+     * idBound() equals size() as long as no Node has been removed.
+     *
+     * @return bound on the ids of the Nodes of this graph
+     */
+    public int idBound() {
+        return nodes.size();
+    }
+
+    /**
+     * Returns the number of distinct labels interned in this graph
+     *
+     * @return number of interned labels
+     */
+    public int labelCount() {
+        return labels.size();
+    }
+
+    /**
+     * Returns the label with the given id
+     *
+     * @param label id of the label
+     * @spec.requires 0 &lt;= label &lt; labelCount()
+     * @return the label whose id is the given id
+     */
+    public E labelOf(int label) {
+        return labels.get(label);
+    }
+
+    /**
+     * Returns the total number of Edges in this graph
+     *
+     * @return number of Edges between all Nodes of this graph
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Returns the number of Edges of the Node with the given id. Its Edges have the positions
+     * 0 up to (but not including) degree(id).
+     *
+     * @param id id of the parent Node
+     * @spec.requires id is the id of a Node in this graph
+     * @return number of Edges of the given Node
+     */
+    public int degree(int id) {
+        return degree[id];
+    }
+
+    /**
+     * Returns the id of the child Node of an Edge
+     *
+     * @param id id of the parent Node
+     * @param k position of the Edge among the Edges of the parent Node
+     * @spec.requires id is the id of a Node in this graph, 0 &lt;= k &lt; degree(id)
+     * @return id of the child Node the Edge points to
+     */
+    public int edgeTarget(int id, int k) {
+        return adjacency[id][2 * k];
+    }
+
+    /**
+     * Returns the label id of an Edge
+     *
+     * @param id id of the parent Node
+     * @param k position of the Edge among the Edges of the parent Node
+     * @spec.requires id is the id of a Node in this graph, 0 &lt;= k &lt; degree(id)
+     * @return id of the label of the Edge
+     */
+    public int edgeLabel(int id, int k) {
+        return adjacency[id][2 * k + 1];
+    }
+
+    /**
+     * Returns an Edge as an Edge object
+     *
+     * @param id id of the parent Node
+     * @param k position of the Edge among the Edges of the parent Node
+     * @spec.requires id is the id of a Node in this graph, 0 &lt;= k &lt; degree(id)
+     * @return a new Edge with the label and child Node of the given Edge
+     */
+    public Edge<E, N> edge(int id, int k) {
+        return new Edge<>(labels.get(adjacency[id][2 * k + 1]), nodes.get(adjacency[id][2 * k]));
+    }
+
+    /**
+     * Returns whether the given id is the id of a Node in this graph
+     *
+     * @param id the id checked
+     * @return true if id is in [0, idBound()) and its Node has not been removed
+     */
+    private boolean isNode(int id) {
+        return id >= 0 && id < nodes.size() && nodes.get(id) != null;
+    }
+
+    /**
+     * Returns the id of the given Node, throwing if it is not in this graph.
+     *
+     * @param n Node to look up
+     * @param message message of the exception thrown if n is not in this graph
+     * @return id of n
+     * @throws IllegalArgumentException if this graph doesn't contain n
+     */
+    private int checkedId(Node<N> n, String message) {
+        Integer id = nodeIds.get(n.getData());
+        if (id == null) throw new IllegalArgumentException(message);
+        return id;
+    }
+
+    /**
+     * Returns the slot of edgeTable holding the given Edge, or the empty slot where it belongs
+     * if the graph doesn't contain it.
+     *
+     * @param from id of the parent Node
+     * @param target id of the child Node
+     * @param label id of the label
+     * @spec.requires edgeTable != null and has at least one empty slot
+     * @return index of the slot in edgeTable
+     */
+    private int findSlot(int from, int target, int label) {
+        int mask = edgeTable.length - 1;
+        int slot = hash(from, target, label) & mask;
+        while (edgeTable[slot] != 0) {
+            long entry = edgeTable[slot] - 1;
+            int parent = (int) (entry >>> 32);
+            int k = (int) entry;
+            if (parent == from && adjacency[from][2 * k] == target && adjacency[from][2 * k + 1] == label) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Empties the given slot of edgeTable, moving later Edges of the same probe sequence back
+     * so that findSlot still finds every Edge.
+     *
+     * @param slot index of the slot emptied
+     * @spec.requires edgeTable != null and every other slot refers to an Edge of the graph
+     */
+    private void deleteSlot(int slot) {
+        int mask = edgeTable.length - 1;
+        int empty = slot;
+        int next = (empty + 1) & mask;
+        while (edgeTable[next] != 0) {
+            long entry = edgeTable[next] - 1;
+            int parent = (int) (entry >>> 32);
+            int k = (int) entry;
+            int home = hash(parent, adjacency[parent][2 * k], adjacency[parent][2 * k + 1]) & mask;
+            if (((next - home) & mask) >= ((next - empty) & mask)) {
+                edgeTable[empty] = edgeTable[next];
+                empty = next;
+            }
+            next = (next + 1) & mask;
+        }
+        edgeTable[empty] = 0;
+    }
+
+    /**
+     * Rehashes every Edge into a new edgeTable with the given capacity.
+     *
+     * @param capacity the new capacity
+     * @spec.requires capacity is a power of two and more than twice the number of Edges
+     */
+    private void growEdgeTable(int capacity) {
+        edgeTable = new long[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < nodes.size(); i++) {
+            for (int k = 0; k < degree[i]; k++) {
+                int slot = hash(i, adjacency[i][2 * k], adjacency[i][2 * k + 1]) & mask;
+                while (edgeTable[slot] != 0) slot = (slot + 1) & mask;
+                edgeTable[slot] = 1 + ((long) i << 32 | k);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the edgeTable dropped by trimToSize().
+     */
+    private void rebuildEdgeTable() {
+        int capacity = 16;
+        while (capacity <= 2 * edgeCount + 2) capacity *= 2;
+        growEdgeTable(capacity);
+    }
+
+    /**
+     * Hashes an Edge given by ids.
+     *
+     * @param from id of the parent Node
+     * @param target id of the child Node
+     * @param label id of the label
+     * @return well-mixed hash of the three ids
+     */
+    private static int hash(int from, int target, int label) {
+        long h = ((long) from * 0x9E3779B97F4A7C15L) ^ ((long) target * 0xC2B2AE3D27D4EB4FL) ^ label;
+        h ^= h >>> 29;
+        h *= 0xBF58476D1CE4E5B9L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
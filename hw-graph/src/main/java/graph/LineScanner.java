@@ -0,0 +1,168 @@
+package graph;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * This class reads the lines of the data files graphs are built from without creating a String
+ * per line. A file on the file system is memory-mapped a window at a time, so the fields of its
+ * lines can be tokenized in place in the mapped buffer; any other file, such as one inside a
+ * jar, is read through its stream a buffer at a time.
+ *
+ * Parsers resolve their data files on their own classpath and hand the resulting URL to this
+ * class, so that every parser reads its files the same way.
+ */
+public final class LineScanner {
+
+    // This is not an ADT
+
+    /**
+     * Holds the number of bytes read from a file at a time when it is not on the file system.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Holds the number of bytes of a file mapped into memory at a time.
+     */
+    private static final int MAP_WINDOW = 1 << 28;
+
+    /**
+     * This class only has static methods.
+     */
+    private LineScanner() {
+    }
+
+    /**
+     * Receives the lines of a data file.
+     */
+    public interface LineHandler {
+        /**
+         * Handles a line of the file.
+         *
+         * @param bytes the buffer holding the line, only valid until this method returns
+         * @param start the index of the first byte of the line
+         * @param end one past the index of the last byte of the line, excluding its terminator
+         */
+        void line(ByteBuffer bytes, int start, int end);
+    }
+
+    /**
+     * Passes every non-empty line of the file at the given URL to the handler, in order and
+     * without the line terminator. Lines end with "\n" or "\r\n", and the last line of the
+     * file need not end with either. Exceptions thrown by the handler are not caught.
+     *
+     * @param url the location of the file
+     * @param handler the handler given each line
+     * @throws IOException if the file can't be read, or has a line longer than Integer.MAX_VALUE bytes
+     * @throws IllegalArgumentException if url or handler is null
+     */
+    public static void forEachLine(URL url, LineHandler handler) throws IOException {
+        if (url == null || handler == null) throw new IllegalArgumentException("Arguments cannot be null.");
+        if (url.getProtocol().equals("file")) {
+            try (FileChannel channel = FileChannel.open(toPath(url), StandardOpenOption.READ)) {
+                long size = channel.size();
+                long position = 0;
+                long window = MAP_WINDOW;
+                while (position < size) {
+                    int length = (int) Math.min(window, size - position);
+                    ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                    int consumed = scanLines(bytes, length, position + length == size, handler);
+                    if (consumed > 0) {
+                        position += consumed;
+                        window = MAP_WINDOW;
+                    } else if (window < Integer.MAX_VALUE) {
+                        window = Math.min(2 * window, Integer.MAX_VALUE); // line longer than the window
+                    } else {
+                        throw new IOException("Line too long in " + url);
+                    }
+                }
+            }
+        } else {
+            try (InputStream stream = url.openStream()) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int length = 0;
+                boolean done = false;
+                while (!done) {
+                    int read = stream.read(buffer, length, buffer.length - length);
+                    if (read < 0) {
+                        done = true;
+                    } else {
+                        length += read;
+                    }
+                    int consumed = scanLines(ByteBuffer.wrap(buffer), length, done, handler);
+                    // keep the unfinished line at the start of the buffer, growing it for long lines
+                    length -= consumed;
+                    System.arraycopy(buffer, consumed, buffer, 0, length);
+                    if (length == buffer.length) buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns when the file at the given URL was last modified, so that data derived from it
+     * can be checked for being out of date.
+     *
+     * @param url the location of the file
+     * @return the time the file was last modified, in milliseconds since the epoch, or 0 if
+     *         it is not known
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if url is null
+     */
+    public static long lastModified(URL url) throws IOException {
+        if (url == null) throw new IllegalArgumentException("URL cannot be null.");
+        URLConnection connection = url.openConnection();
+        connection.setUseCaches(false);
+        long modified = connection.getLastModified();
+        connection.getInputStream().close();
+        return modified;
+    }
+
+    /**
+     * Passes every complete non-empty line in the first length bytes of the buffer to the
+     * handler. A line is complete if it ends with a newline, or if it is the last line of the file.
+     *
+     * @param bytes the buffer holding the lines
+     * @param length the number of bytes of the buffer holding lines
+     * @param last true if the buffer holds the end of the file
+     * @param handler the handler given each line
+     * @return the number of bytes of the complete lines, including their newlines
+     */
+    private static int scanLines(ByteBuffer bytes, int length, boolean last, LineHandler handler) {
+        int lineStart = 0;
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && bytes.get(lineEnd) != '\n') lineEnd++;
+            if (lineEnd == length && !last) break;
+            int next = Math.min(lineEnd + 1, length);
+            if (lineEnd > lineStart && bytes.get(lineEnd - 1) == '\r') lineEnd--;
+            if (lineEnd > lineStart) handler.line(bytes, lineStart, lineEnd);
+            lineStart = next;
+        }
+        return lineStart;
+    }
+
+    /**
+     * Returns the path of the file at a file URL
+     *
+     * @param url a URL with the file protocol
+     * @return the path of the file
+     * @throws IOException if url does not name a valid path
+     */
+    private static Path toPath(URL url) throws IOException {
+        try {
+            return Paths.get(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            throw new IOException("Invalid file URL: " + url, e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package graph;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class connects a ShardedGraphSearch to a shard held in the same process, so that a
+ * sharded search can be run and tested without starting any ShardServer. The graph of a shard
+ * made by GraphPartitioner.split also holds copies, without Edges, of the children its Nodes
+ * point to in other shards, so a LocalShard checks the partition to only answer for the Nodes
+ * its shard owns.
+ *
+ * @param <N> represents the type of the data in the Nodes
+ * @param <E> represents the label type of the Edges
+ */
+public class LocalShard<N, E> implements ShardTransport<N, E> {
+
+    /**
+     * Holds the graph of the shard.
+     */
+    private final Graph<N, E> shard;
+
+    /**
+     * Holds the partition the shard was split by.
+     */
+    private final Partition<N> partition;
+
+    /**
+     * Holds the id of the shard in the partition.
+     */
+    private final int shardId;
+
+    /**
+     * @param shard the graph of the shard
+     * @param partition the partition the shard was split by
+     * @param shardId the id of the shard in the partition
+     * @spec.requires shard holds every Node partition assigns to shardId that is in the graph
+     *                split, with all of its Edges
+     * @spec.effects Constructs a new transport reading the Nodes of the given shard that the
+     *               shard owns
+     * @throws IllegalArgumentException if shard or partition is null, or shardId is not in
+     *                                  [0, partition.shardCount())
+     */
+    public LocalShard(Graph<N, E> shard, Partition<N> partition, int shardId) {
+        if (shard == null || partition == null) throw new IllegalArgumentException("Arguments cannot be null.");
+        if (shardId < 0 || shardId >= partition.shardCount()) {
+            throw new IllegalArgumentException("Shard id is not in the partition.");
+        }
+        this.shard = shard;
+        this.partition = partition;
+        this.shardId = shardId;
+    }
+
+    @Override
+    public boolean containsNode(N data) {
+        return owns(data);
+    }
+
+    @Override
+    public List<List<Edge<E, N>>> expand(List<N> nodes) throws IOException {
+        List<List<Edge<E, N>>> edges = new ArrayList<>(nodes.size());
+        for (N data: nodes) {
+            if (!owns(data)) throw new IOException("Shard does not own node " + data);
+            edges.add(new ArrayList<>(shard.getEdgeView(new Node<>(data))));
+        }
+        return edges;
+    }
+
+    /**
+     * Returns whether the shard owns the Node holding the given data, rather than holding no
+     * copy of it or only a copy of a child owned by another shard
+     *
+     * @param data the data of the Node
+     * @return true if the partition assigns the Node to this shard and the shard holds it
+     */
+    private boolean owns(N data) {
+        return partition.shardOf(data) == shardId && shard.containsNode(new Node<>(data));
+    }
+
+    /**
+     * Does nothing, as a shard in the same process holds no resources.
+     */
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,104 @@
+package graph;
+
+import java.util.Collection;
+
+/**
+ * This interface represents a directed, labeled graph that can be changed, adding the
+ * operations that add and remove Nodes and Edges to the read operations of Graph. Code that
+ * builds a graph without depending on how it is stored should take a MutableGraph, so it runs
+ * unchanged on both mutable implementations: the hash-based DLGraph and the int-array-based
+ * IntGraph. Read-only graphs, such as FrozenGraph and DiskGraph, implement only Graph.
+ *
+ * Specification fields:
+ * @spec.specfield graph : Map of Nodes with each Node corresponding to a Set of Edges
+ *                         that connect each Node with another Node.
+ *
+ * Abstract Invariant:
+ * Same as Graph.
+ */
+public interface MutableGraph<N, E> extends Graph<N, E> {
+
+    /**
+     * Adds the given Node to the graph if the graph doesn't already contain Node
+     *
+     * @param n Node to add to the graph
+     * @spec.requires n != null
+     * @spec.modifies this
+     * @spec.effects Adds given node to this graph
+     * @return true if Node can be added to graph, false otherwise
+     */
+    boolean addNode(Node<N> n);
+
+    /**
+     * Adds an Edge to the graph for the parent Node 'from' pointing toward the child Node 'target'
+     *
+     * @param from the parent Node that the edge is added to in the graph
+     * @param target the child Node that the Edge points to
+     * @param label the label of the Edge
+     * @spec.requires from != null, target != null, label != null
+     * @spec.modifies this
+     * @spec.effects adds the given Edge to the set of Edges for the parent Node
+     * @return true if Edge was added to the graph
+     * @throws IllegalArgumentException if graph does not contain either given node
+     */
+    boolean addEdge(Node<N> from, Node<N> target, E label);
+
+    /**
+     * Adds every Edge in the given collection to the graph for the parent Node 'from'
+     *
+     * @param from the parent Node that the edges are added to in the graph
+     * @param edges the Edges added, each pointing toward its child Node
+     * @spec.requires from != null, edges != null and edges contains no null Edges
+     * @spec.modifies this
+     * @spec.effects adds the given Edges to the set of Edges for the parent Node
+     * @return true if any Edge was added to the graph
+     * @throws IllegalArgumentException if graph does not contain the parent node or the child
+     *                                  node of any given edge
+     */
+    boolean addEdges(Node<N> from, Collection<? extends Edge<E,N>> edges);
+
+    /**
+     * Removes the Edge with the given label from the parent Node 'from' to the child Node
+     * 'target', if the graph contains it
+     *
+     * @param from the parent Node of the removed Edge
+     * @param target the child Node of the removed Edge
+     * @param label the label of the removed Edge
+     * @spec.requires from != null, target != null, label != null
+     * @spec.modifies this
+     * @spec.effects removes the given Edge from the set of Edges for the parent Node
+     * @return true if the Edge was removed, false if the graph did not contain it
+     * @throws IllegalArgumentException if graph does not contain either given node
+     */
+    boolean removeEdge(Node<N> from, Node<N> target, E label);
+
+    /**
+     * Removes the given Node from the graph, together with its Edges and every Edge pointing to it
+     *
+     * @param n the Node removed
+     * @spec.requires n != null
+     * @spec.modifies this
+     * @spec.effects removes n, the Edges of n and every Edge whose child is n from this graph
+     * @return true if the Node was removed, false if the graph did not contain it
+     */
+    boolean removeNode(Node<N> n);
+
+    /**
+     * Clears this graph (removes all Nodes and all Edges)
+     *
+     * @spec.modifies this
+     * @spec.effects clears all Nodes and Edges within this graph
+     */
+    void clearGraph();
+
+    /**
+     * Returns an immutable snapshot of this graph that packs its Nodes and Edges into flat
+     * arrays, for graphs that are built once and then only read.
+     *
+     * @return a FrozenGraph with the same Nodes and Edges as this graph. Later changes to this
+     *         graph are not reflected in the snapshot.
+     */
+    default FrozenGraph<N, E> freeze() {
+        return new FrozenGraph<>(this);
+    }
+}
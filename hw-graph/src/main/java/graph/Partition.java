@@ -0,0 +1,31 @@
+package graph;
+
+/**
+ * This interface represents an assignment of the Nodes of a graph to a fixed number of shards,
+ * as made by GraphPartitioner. Every Node is owned by exactly one shard, which holds the Edges
+ * of that Node. A Partition must give the same answer for the same Node data every time it is
+ * asked, including in other processes, so that a coordinator can find the shard that owns a
+ * Node without asking the shards.
+ *
+ * Specification fields:
+ * @spec.specfield shardCount : int // The number of shards.
+ * @spec.specfield owner : function from Node data to [0, shardCount) // The shard of each Node.
+ */
+public interface Partition<N> {
+
+    /**
+     * Returns the number of shards of this partition
+     *
+     * @return the number of shards, at least 1
+     */
+    int shardCount();
+
+    /**
+     * Returns the shard that owns the Node holding the given data
+     *
+     * @param data the data of a Node
+     * @spec.requires data != null
+     * @return the id of the shard owning the Node, in [0, shardCount())
+     */
+    int shardOf(N data);
+}
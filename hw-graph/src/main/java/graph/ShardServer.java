@@ -0,0 +1,415 @@
+package graph;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * This class serves one shard of a graph split by GraphPartitioner to SocketShards over
+ * localhost sockets, so that each shard can be held by its own process. Every connection is
+ * served by its own thread, one request at a time.
+ *
+ * Requests and responses are frames of a 4 byte length followed by that many bytes. A request
+ * is an operation byte followed by a varint count of Nodes and the data of each Node written
+ * by the node Codec. A response starts with a status byte. An OK response to CONTAINS is
+ * followed by one byte, 1 if the shard has the Node; an OK response to EXPAND is followed, for
+ * every Node asked for, by a varint count of its Edges and the child and label of each Edge.
+ * An ERROR response is followed by its message written by GraphSnapshot.STRINGS.
+ *
+ * A server given the partition its shard was split by, or the set of Nodes its shard owns,
+ * only answers for the Nodes the shard owns, not for the copies of children owned by other
+ * shards that GraphPartitioner.split adds; a server given neither answers for every Node of
+ * its graph.
+ *
+ * @param <N> represents the type of the data in the Nodes
+ * @param <E> represents the label type of the Edges
+ */
+public class ShardServer<N, E> implements Closeable {
+
+    /**
+     * Holds the operation asking whether the shard has a Node.
+     */
+    static final byte CONTAINS = 1;
+
+    /**
+     * Holds the operation asking for the Edges of Nodes.
+     */
+    static final byte EXPAND = 2;
+
+    /**
+     * Holds the status of a response that answers its request.
+     */
+    static final byte OK = 0;
+
+    /**
+     * Holds the status of a response to a request that failed.
+     */
+    static final byte ERROR = 1;
+
+    /**
+     * Holds the largest frame read, so a corrupt length cannot exhaust the heap.
+     */
+    static final int MAX_FRAME = 1 << 28;
+
+    /**
+     * Holds the graph of the shard served.
+     */
+    private final Graph<N, E> shard;
+
+    /**
+     * Holds the test of whether the shard owns the Node holding some data, or null if every
+     * Node of the graph is served as owned by the shard.
+     */
+    private final Predicate<N> owner;
+
+    /**
+     * Holds the codec of the data in the Nodes.
+     */
+    private final GraphSnapshot.Codec<N> nodeCodec;
+
+    /**
+     * Holds the codec of the labels of the Edges.
+     */
+    private final GraphSnapshot.Codec<E> labelCodec;
+
+    /**
+     * Holds the socket connections are accepted on.
+     */
+    private final ServerSocket server;
+
+    /**
+     * Holds the thread accepting connections, or null if start has not been called.
+     */
+    private volatile Thread acceptor;
+
+    /**
+     * @param shard the graph of the shard served
+     * @param port the localhost port listened on, or 0 for any free port
+     * @param nodeCodec encodes the data of the Nodes
+     * @param labelCodec encodes the labels of the Edges
+     * @spec.effects Constructs a new server listening on the given port, which serves no
+     *               connections until start is called
+     * @throws IOException if the port cannot be listened on
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public ShardServer(Graph<N, E> shard, int port, GraphSnapshot.Codec<N> nodeCodec,
+                       GraphSnapshot.Codec<E> labelCodec) throws IOException {
+        this(shard, null, 0, port, nodeCodec, labelCodec);
+    }
+
+    /**
+     * @param shard the graph of the shard served
+     * @param partition the partition the shard was split by, or null to serve every Node of
+     *                  the graph
+     * @param shardId the id of the shard in the partition
+     * @param port the localhost port listened on, or 0 for any free port
+     * @param nodeCodec encodes the data of the Nodes
+     * @param labelCodec encodes the labels of the Edges
+     * @spec.requires shard holds every Node partition assigns to shardId that is in the graph
+     *                split, with all of its Edges
+     * @spec.effects Constructs a new server listening on the given port, serving the Nodes the
+     *               shard owns, which serves no connections until start is called
+     * @throws IOException if the port cannot be listened on
+     * @throws IllegalArgumentException if shard or a codec is null, or partition is not null
+     *                                  and shardId is not in [0, partition.shardCount())
+     */
+    public ShardServer(Graph<N, E> shard, Partition<N> partition, int shardId, int port,
+                       GraphSnapshot.Codec<N> nodeCodec, GraphSnapshot.Codec<E> labelCodec) throws IOException {
+        this(shard, ownerOf(partition, shardId), port, nodeCodec, labelCodec);
+    }
+
+    /**
+     * @param shard the graph of the shard served
+     * @param owned the data of the Nodes the shard owns
+     * @param port the localhost port listened on, or 0 for any free port
+     * @param nodeCodec encodes the data of the Nodes
+     * @param labelCodec encodes the labels of the Edges
+     * @spec.requires owned is not modified while this server is open
+     * @spec.effects Constructs a new server listening on the given port, serving the Nodes of
+     *               the shard whose data is in owned, which serves no connections until start
+     *               is called
+     * @throws IOException if the port cannot be listened on
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public ShardServer(Graph<N, E> shard, Set<N> owned, int port, GraphSnapshot.Codec<N> nodeCodec,
+                       GraphSnapshot.Codec<E> labelCodec) throws IOException {
+        this(shard, checkedOwner(owned), port, nodeCodec, labelCodec);
+    }
+
+    /**
+     * @param shard the graph of the shard served
+     * @param owner the test of whether the shard owns the Node holding some data, or null to
+     *              serve every Node of the graph
+     * @param port the localhost port listened on, or 0 for any free port
+     * @param nodeCodec encodes the data of the Nodes
+     * @param labelCodec encodes the labels of the Edges
+     * @spec.effects Constructs a new server listening on the given port
+     * @throws IOException if the port cannot be listened on
+     * @throws IllegalArgumentException if shard or a codec is null
+     */
+    private ShardServer(Graph<N, E> shard, Predicate<N> owner, int port, GraphSnapshot.Codec<N> nodeCodec,
+                        GraphSnapshot.Codec<E> labelCodec) throws IOException {
+        if (shard == null || nodeCodec == null || labelCodec == null) {
+            throw new IllegalArgumentException("Arguments cannot be null.");
+        }
+        this.shard = shard;
+        this.owner = owner;
+        this.nodeCodec = nodeCodec;
+        this.labelCodec = labelCodec;
+        this.server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+    }
+
+    /**
+     * Returns the test of whether a partition assigns the Node holding some data to a shard
+     *
+     * @param partition the partition, or null
+     * @param shardId the id of the shard in the partition
+     * @return the test, or null if partition is null
+     * @throws IllegalArgumentException if partition is not null and shardId is not in
+     *                                  [0, partition.shardCount())
+     */
+    private static <N> Predicate<N> ownerOf(Partition<N> partition, int shardId) {
+        if (partition == null) return null;
+        if (shardId < 0 || shardId >= partition.shardCount()) {
+            throw new IllegalArgumentException("Shard id is not in the partition.");
+        }
+        return data -> partition.shardOf(data) == shardId;
+    }
+
+    /**
+     * Returns the test of whether some data is in a set of owned Node data
+     *
+     * @param owned the data of the owned Nodes
+     * @return the test
+     * @throws IllegalArgumentException if owned is null
+     */
+    private static <N> Predicate<N> checkedOwner(Set<N> owned) {
+        if (owned == null) throw new IllegalArgumentException("Arguments cannot be null.");
+        return owned::contains;
+    }
+
+    /**
+     * Loads the snapshot of a shard and constructs a server for it. If the snapshot was written
+     * by GraphPartitioner.writeShards, the server only answers for the Nodes the shard owns, as
+     * read from the file named by GraphPartitioner.ownersFile; otherwise it answers for every
+     * Node of the snapshot.
+     *
+     * @param snapshot the snapshot file of the shard
+     * @param port the localhost port listened on, or 0 for any free port
+     * @param nodeCodec decodes the data of the Nodes
+     * @param labelCodec decodes the labels of the Edges
+     * @param <N> represents the type of the data in the Nodes
+     * @param <E> represents the label type of the Edges
+     * @return a server of the shard, which serves no connections until start is called
+     * @throws IOException if the snapshot or its owned Nodes cannot be loaded, or the port
+     *                     cannot be listened on
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public static <N, E> ShardServer<N, E> load(Path snapshot, int port, GraphSnapshot.Codec<N> nodeCodec,
+                                                GraphSnapshot.Codec<E> labelCodec) throws IOException {
+        FrozenGraph<N, E> shard = GraphSnapshot.load(snapshot, nodeCodec, labelCodec);
+        if (!Files.exists(GraphPartitioner.ownersFile(snapshot))) {
+            return new ShardServer<>(shard, port, nodeCodec, labelCodec);
+        }
+        return new ShardServer<>(shard, GraphPartitioner.loadOwners(snapshot, nodeCodec), port, nodeCodec, labelCodec);
+    }
+
+    /**
+     * Serves the snapshot of a shard with String Nodes and labels, as written by
+     * GraphPartitioner.writeShards, until the process is killed.
+     *
+     * @param args the snapshot file of the shard and the port listened on
+     * @throws IOException if the snapshot cannot be loaded or the port cannot be listened on
+     * @throws InterruptedException if the main thread is interrupted while serving
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 2) {
+            System.err.println("Usage: ShardServer <snapshot file> <port>");
+            System.exit(1);
+        }
+        Path snapshot = Paths.get(args[0]);
+        ShardServer<String, String> server = load(snapshot, Integer.parseInt(args[1]),
+                GraphSnapshot.STRINGS, GraphSnapshot.STRINGS);
+        System.out.println("Serving " + server.shard.size() + " nodes of " + snapshot + " on port " + server.getPort());
+        server.start();
+        // the threads serving the shard are daemons, so the process lives as long as main does
+        server.awaitClose();
+    }
+
+    /**
+     * Returns the port this server listens on
+     *
+     * @return the localhost port connections are accepted on
+     */
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Starts accepting connections on a daemon thread, serving each on its own daemon thread.
+     *
+     * @spec.effects starts serving the shard
+     */
+    public void start() {
+        Thread thread = new Thread(this::acceptAll, "shard-server-" + getPort());
+        thread.setDaemon(true);
+        acceptor = thread;
+        thread.start();
+    }
+
+    /**
+     * Waits until this server is closed and stops accepting connections. Returns at once if
+     * start has not been called.
+     *
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public void awaitClose() throws InterruptedException {
+        Thread thread = acceptor;
+        if (thread != null) thread.join();
+    }
+
+    /**
+     * Stops accepting connections. Connections already accepted are served until their
+     * clients close them.
+     *
+     * @throws IOException if the socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        server.close();
+    }
+
+    /**
+     * Accepts connections until this server is closed.
+     */
+    private void acceptAll() {
+        try {
+            while (true) {
+                Socket client = server.accept();
+                Thread worker = new Thread(() -> serve(client), "shard-connection-" + client.getPort());
+                worker.setDaemon(true);
+                worker.start();
+            }
+        } catch (IOException e) {
+            // the server was closed
+        }
+    }
+
+    /**
+     * Answers the requests of one client until it closes the connection.
+     *
+     * @param client the connection served
+     */
+    private void serve(Socket client) {
+        try (Socket socket = client;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            socket.setTcpNoDelay(true);
+            while (true) {
+                ByteBuffer request;
+                try {
+                    request = readFrame(in);
+                } catch (EOFException e) {
+                    return;
+                }
+                writeFrame(out, answer(request));
+            }
+        } catch (SocketException e) {
+            // the client went away
+        } catch (IOException e) {
+            System.err.println("Shard connection failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns whether the shard owns the given Node
+     *
+     * @param n the Node looked for
+     * @return true if the graph holds n and the partition or set of owned Nodes, if any,
+     *         assigns it to this shard
+     */
+    private boolean owns(Node<N> n) {
+        return (owner == null || owner.test(n.getData())) && shard.containsNode(n);
+    }
+
+    /**
+     * Answers one request.
+     *
+     * @param request the request read
+     * @return the response to the request
+     * @throws IOException if the response cannot be written
+     */
+    private byte[] answer(ByteBuffer request) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            byte op = request.get();
+            List<Node<N>> nodes = new ArrayList<>();
+            for (int i = GraphSnapshot.readVarint(request); i > 0; i--) nodes.add(new Node<>(nodeCodec.read(request)));
+            if (op == CONTAINS && nodes.size() == 1) {
+                out.writeByte(OK);
+                out.writeByte(owns(nodes.get(0)) ? 1 : 0);
+            } else if (op == EXPAND) {
+                ByteArrayOutputStream edgeBytes = new ByteArrayOutputStream();
+                DataOutputStream edges = new DataOutputStream(edgeBytes);
+                for (Node<N> n: nodes) {
+                    if (!owns(n)) throw new IllegalArgumentException("Shard does not own node " + n.getData());
+                    GraphSnapshot.writeVarint(edges, shard.getEdgeView(n).size());
+                    for (Edge<E, N> e: shard.getEdgeView(n)) {
+                        nodeCodec.write(edges, e.getChild().getData());
+                        labelCodec.write(edges, e.getLabel());
+                    }
+                }
+                out.writeByte(OK);
+                edgeBytes.writeTo(out);
+            } else {
+                throw new IllegalArgumentException("Unknown request " + op);
+            }
+        } catch (RuntimeException e) {
+            bytes.reset();
+            out.writeByte(ERROR);
+            GraphSnapshot.STRINGS.write(out, String.valueOf(e.getMessage()));
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes a frame and flushes it.
+     *
+     * @param out the output written to
+     * @param frame the bytes of the frame
+     * @throws IOException if the output cannot be written
+     */
+    static void writeFrame(DataOutputStream out, byte[] frame) throws IOException {
+        out.writeInt(frame.length);
+        out.write(frame);
+        out.flush();
+    }
+
+    /**
+     * Reads a frame written by writeFrame.
+     *
+     * @param in the input read from
+     * @return the bytes of the frame
+     * @throws EOFException if the input ends before a frame starts
+     * @throws IOException if the input cannot be read or the frame is longer than MAX_FRAME
+     */
+    static ByteBuffer readFrame(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_FRAME) throw new IOException("Bad frame length " + length);
+        byte[] frame = new byte[length];
+        in.readFully(frame);
+        return ByteBuffer.wrap(frame);
+    }
+}
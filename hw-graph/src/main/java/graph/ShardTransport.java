@@ -0,0 +1,37 @@
+package graph;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * This interface represents the connection of a ShardedGraphSearch to one shard of a graph
+ * split by GraphPartitioner, which may be held in the same process, as by LocalShard, or be
+ * served by another process, as by SocketShard. A shard is only asked about the Nodes it owns.
+ *
+ * @param <N> represents the type of the data in the Nodes
+ * @param <E> represents the label type of the Edges
+ */
+public interface ShardTransport<N, E> extends Closeable {
+
+    /**
+     * Returns whether the shard owns a Node holding the given data
+     *
+     * @param data the data of the Node looked for
+     * @spec.requires data != null
+     * @return true if the shard owns the Node, false if it does not hold the Node or only
+     *         holds a copy of it as the child of an Edge of a Node it owns
+     * @throws IOException if the shard cannot be reached
+     */
+    boolean containsNode(N data) throws IOException;
+
+    /**
+     * Returns the Edges of each of the given Nodes, in the edge order of the shard
+     *
+     * @param nodes the data of the Nodes expanded
+     * @spec.requires nodes != null and the shard owns every Node in nodes
+     * @return list holding, at index i, the list of the Edges of the Node holding nodes.get(i)
+     * @throws IOException if the shard cannot be reached or does not own one of the Nodes
+     */
+    List<List<Edge<E, N>>> expand(List<N> nodes) throws IOException;
+}
@@ -0,0 +1,190 @@
+package graph;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * This class finds shortest paths in a graph split into shards by GraphPartitioner, with a
+ * breadth-first search run one level at a time. Each level, the Nodes of the frontier are
+ * grouped by the shard that owns them, every shard is asked once for the Edges of its group,
+ * and the Edges are then visited in frontier order, so the path found is the same path a
+ * breadth-first search of the whole graph finds: each Node is reached from the first Node of
+ * the level before it that has an Edge to it, through the first such Edge in the edge order.
+ *
+ * The shards hold no search state; the Nodes reached by a search are only kept by this class
+ * until the search returns, so one set of shards can serve any number of searches.
+ *
+ * @param <N> represents the type of the data in the Nodes
+ * @param <E> represents the label type of the Edges
+ */
+public class ShardedGraphSearch<N, E> {
+
+    /**
+     * Holds the partition the shards were split by.
+     */
+    private final Partition<N> partition;
+
+    /**
+     * Holds the transport to each shard, indexed by shard id.
+     */
+    private final List<ShardTransport<N, E>> shards;
+
+    /**
+     * Holds the order the Edges of each Node are visited in, or null for the order of the shards.
+     */
+    private final Comparator<? super Edge<E, N>> edgeOrder;
+
+    // Abstraction Function:
+    //  A ShardedGraphSearch searches the graph whose Nodes are the Nodes owned by the shards,
+    //  where the Node holding n is owned by shards.get(partition.shardOf(n)), and whose Edges
+    //  are the Edges of those Nodes, visited in edgeOrder, or in the order of the shards if
+    //  edgeOrder is null.
+    //
+    // Representation Invariant:
+    //  partition != null && shards != null && shards.size() == partition.shardCount()
+    //  && no element of shards is null
+
+    /**
+     * @param partition the partition the shards were split by
+     * @param shards the transport to each shard, indexed by shard id
+     * @param edgeOrder the order the Edges of each Node are visited in, or null to visit them
+     *                  in the order the shards return them
+     * @spec.effects Constructs a new search over the given shards
+     * @throws IllegalArgumentException if partition or shards is null, if shards has a null
+     *                                  element or if it does not have one transport per shard
+     */
+    public ShardedGraphSearch(Partition<N> partition, List<? extends ShardTransport<N, E>> shards,
+                              Comparator<? super Edge<E, N>> edgeOrder) {
+        if (partition == null || shards == null) throw new IllegalArgumentException("Arguments cannot be null.");
+        if (shards.size() != partition.shardCount() || shards.contains(null)) {
+            throw new IllegalArgumentException("Must have one transport per shard.");
+        }
+        this.partition = partition;
+        this.shards = new ArrayList<>(shards);
+        this.edgeOrder = edgeOrder;
+        checkRep();
+    }
+
+    /**
+     * Returns whether the shard owning the given Node has it
+     *
+     * @param data the data of the Node looked for
+     * @return true if the Node is in the graph, false otherwise
+     * @throws IOException if the owning shard cannot be reached
+     * @throws IllegalArgumentException if data is null
+     */
+    public boolean containsNode(N data) throws IOException {
+        if (data == null) throw new IllegalArgumentException("Node data cannot be null.");
+        return shards.get(partition.shardOf(data)).containsNode(data);
+    }
+
+    /**
+     * Finds the shortest path between two Nodes
+     *
+     * @param start the data of the starting Node
+     * @param dest the data of the destination Node
+     * @return list of the Edges of the shortest path from start to dest, empty if start equals
+     *         dest, null if there is no path between them
+     * @throws IOException if a shard cannot be reached
+     * @throws IllegalArgumentException if either argument is null or is not in the graph
+     */
+    public List<Edge<E, N>> shortestPath(N start, N dest) throws IOException {
+        if (start == null || dest == null) throw new IllegalArgumentException("Cannot give null nodes.");
+        if (!(containsNode(start) && containsNode(dest))) {
+            throw new IllegalArgumentException("Graph must contain start and destination nodes.");
+        }
+        Node<N> startNode = new Node<>(start);
+        Node<N> destNode = new Node<>(dest);
+        if (startNode.equals(destNode)) return new ArrayList<>();
+
+        Map<Node<N>, Node<N>> parents = new HashMap<>();
+        Map<Node<N>, Edge<E, N>> parentEdges = new HashMap<>();
+        parents.put(startNode, startNode);
+        List<Node<N>> frontier = Collections.singletonList(startNode);
+
+        while (!frontier.isEmpty()) {
+            List<List<Edge<E, N>>> edges = expandLevel(frontier);
+            List<Node<N>> next = new ArrayList<>();
+            for (int i = 0; i < frontier.size(); i++) {
+                Node<N> parent = frontier.get(i);
+                for (Edge<E, N> e: edges.get(i)) {
+                    if (!parents.containsKey(e.getChild())) {
+                        parents.put(e.getChild(), parent);
+                        parentEdges.put(e.getChild(), e);
+                        // nothing visited later can change how the destination was reached
+                        if (e.getChild().equals(destNode)) return pathTo(destNode, startNode, parents, parentEdges);
+                        next.add(e.getChild());
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return null;
+    }
+
+    /**
+     * Asks every shard owning a Node of the frontier for the Edges of its Nodes
+     *
+     * @param frontier the Nodes expanded
+     * @return list holding, at index i, the Edges of frontier.get(i) in the order they are visited
+     * @throws IOException if a shard cannot be reached
+     */
+    private List<List<Edge<E, N>>> expandLevel(List<Node<N>> frontier) throws IOException {
+        List<List<N>> batches = new ArrayList<>();
+        List<List<Integer>> positions = new ArrayList<>();
+        for (int s = 0; s < shards.size(); s++) {
+            batches.add(new ArrayList<>());
+            positions.add(new ArrayList<>());
+        }
+        for (int i = 0; i < frontier.size(); i++) {
+            N data = frontier.get(i).getData();
+            int shard = partition.shardOf(data);
+            batches.get(shard).add(data);
+            positions.get(shard).add(i);
+        }
+
+        List<List<Edge<E, N>>> edges = new ArrayList<>(Collections.nCopies(frontier.size(), null));
+        for (int s = 0; s < shards.size(); s++) {
+            if (batches.get(s).isEmpty()) continue;
+            List<List<Edge<E, N>>> answer = shards.get(s).expand(batches.get(s));
+            if (answer.size() != batches.get(s).size()) throw new IOException("Shard " + s + " skipped nodes");
+            for (int k = 0; k < answer.size(); k++) {
+                List<Edge<E, N>> nodeEdges = answer.get(k);
+                if (edgeOrder != null) {
+                    nodeEdges = new ArrayList<>(nodeEdges);
+                    nodeEdges.sort(edgeOrder);
+                }
+                edges.set(positions.get(s).get(k), nodeEdges);
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * Builds the path found by a search
+     *
+     * @param dest the destination Node
+     * @param start the starting Node
+     * @param parents the Node each reached Node was reached from
+     * @param parentEdges the Edge each reached Node was reached through
+     * @param <N> represents the type of the data in the Nodes
+     * @param <E> represents the label type of the Edges
+     * @return list of the Edges from start to dest
+     */
+    private static <N, E> List<Edge<E, N>> pathTo(Node<N> dest, Node<N> start, Map<Node<N>, Node<N>> parents,
+                                                  Map<Node<N>, Edge<E, N>> parentEdges) {
+        List<Edge<E, N>> path = new ArrayList<>();
+        for (Node<N> n = dest; !n.equals(start); n = parents.get(n)) path.add(parentEdges.get(n));
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert partition != null && shards != null : "Fields cannot be null";
+        assert shards.size() == partition.shardCount() : "Must have one transport per shard";
+        assert !shards.contains(null) : "Transports cannot be null";
+    }
+}
@@ -0,0 +1,133 @@
+package graph;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class connects a ShardedGraphSearch to a shard served by a ShardServer on localhost,
+ * over one socket connection that is kept open until this transport is closed. Requests are
+ * sent one at a time; the methods are synchronized so a transport can be shared by threads.
+ *
+ * @param <N> represents the type of the data in the Nodes
+ * @param <E> represents the label type of the Edges
+ */
+public class SocketShard<N, E> implements ShardTransport<N, E> {
+
+    /**
+     * Holds the connection to the server.
+     */
+    private final Socket socket;
+
+    /**
+     * Holds the stream responses are read from.
+     */
+    private final DataInputStream in;
+
+    /**
+     * Holds the stream requests are written to.
+     */
+    private final DataOutputStream out;
+
+    /**
+     * Holds the codec of the data in the Nodes.
+     */
+    private final GraphSnapshot.Codec<N> nodeCodec;
+
+    /**
+     * Holds the codec of the labels of the Edges.
+     */
+    private final GraphSnapshot.Codec<E> labelCodec;
+
+    /**
+     * @param port the localhost port the ShardServer listens on
+     * @param nodeCodec encodes the data of the Nodes, as the server does
+     * @param labelCodec encodes the labels of the Edges, as the server does
+     * @spec.effects Constructs a new transport connected to the server on the given port
+     * @throws IOException if the server cannot be connected to
+     * @throws IllegalArgumentException if either codec is null
+     */
+    public SocketShard(int port, GraphSnapshot.Codec<N> nodeCodec, GraphSnapshot.Codec<E> labelCodec)
+            throws IOException {
+        if (nodeCodec == null || labelCodec == null) throw new IllegalArgumentException("Codecs cannot be null.");
+        this.nodeCodec = nodeCodec;
+        this.labelCodec = labelCodec;
+        this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        socket.setTcpNoDelay(true);
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    @Override
+    public synchronized boolean containsNode(N data) throws IOException {
+        ByteBuffer response = request(ShardServer.CONTAINS, Collections.singletonList(data));
+        try {
+            return response.get() == 1;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated response", e);
+        }
+    }
+
+    @Override
+    public synchronized List<List<Edge<E, N>>> expand(List<N> nodes) throws IOException {
+        ByteBuffer response = request(ShardServer.EXPAND, nodes);
+        List<List<Edge<E, N>>> edges = new ArrayList<>(nodes.size());
+        try {
+            for (int i = 0; i < nodes.size(); i++) {
+                int degree = GraphSnapshot.readVarint(response);
+                List<Edge<E, N>> nodeEdges = new ArrayList<>(degree);
+                for (int k = 0; k < degree; k++) {
+                    Node<N> child = new Node<>(nodeCodec.read(response));
+                    nodeEdges.add(new Edge<>(labelCodec.read(response), child));
+                }
+                edges.add(nodeEdges);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated response", e);
+        }
+        return edges;
+    }
+
+    /**
+     * Sends a request and reads its response.
+     *
+     * @param op the operation requested
+     * @param nodes the data of the Nodes of the request
+     * @return the response, positioned after its status byte
+     * @throws IOException if the server cannot be reached or answers with an error
+     */
+    private ByteBuffer request(byte op, List<N> nodes) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream request = new DataOutputStream(bytes);
+        request.writeByte(op);
+        GraphSnapshot.writeVarint(request, nodes.size());
+        for (N data: nodes) nodeCodec.write(request, data);
+        request.flush();
+        ShardServer.writeFrame(out, bytes.toByteArray());
+
+        ByteBuffer response = ShardServer.readFrame(in);
+        try {
+            if (response.get() != ShardServer.OK) {
+                throw new IOException("Shard failed: " + GraphSnapshot.STRINGS.read(response));
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated response", e);
+        }
+        return response;
+    }
+
+    /**
+     * Closes the connection to the server.
+     *
+     * @throws IOException if the connection cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,140 @@
+package graph.junitTests;
+
+import graph.*;
+import org.junit.*;
+import org.junit.rules.Timeout;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * ConcurrentGraph class.
+ */
+public class ConcurrentGraphTest {
+
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private ConcurrentGraph<String,String> graph1;
+    private final Node<String> a = new Node<>("a");
+    private final Node<String> b = new Node<>("b");
+    private final Node<String> c = new Node<>("c");
+
+    @Before
+    public void setUp() throws Exception {
+        graph1 = new ConcurrentGraph<>();
+        graph1.addNode(a);
+        graph1.addNode(b);
+        graph1.addEdge(a, b, "AB");
+    }
+
+    @Test
+    public void testAddNodeAndEdge() {
+        assertEquals(2, graph1.size());
+        assertFalse(graph1.addNode(a));
+        assertTrue(graph1.addNode(c));
+        assertTrue(graph1.addEdge(a, c, "AC"));
+        assertFalse(graph1.addEdge(a, c, "AC"));
+        assertEquals(new HashSet<>(Arrays.asList(b, c)), graph1.getAllChildren(a));
+        assertEquals(1, graph1.numEdges(a, c));
+    }
+
+    @Test
+    public void testRemoveEdge() {
+        assertFalse(graph1.removeEdge(a, b, "BA"));
+        assertTrue(graph1.removeEdge(a, b, "AB"));
+        assertTrue(graph1.getAllEdges(a).isEmpty());
+        assertTrue(graph1.containsNode(b));
+    }
+
+    @Test
+    public void testVersionCountsChanges() {
+        long version = graph1.version();
+        graph1.addNode(a);
+        graph1.removeEdge(a, b, "BA");
+        assertEquals(version, graph1.version());
+        graph1.addEdge(b, a, "BA");
+        assertEquals(version + 1, graph1.version());
+    }
+
+    @Test
+    public void testSnapshotIgnoresLaterChanges() {
+        Graph<String,String> snapshot = graph1.snapshot();
+        Set<Edge<String,String>> view = graph1.getEdgeView(a);
+        graph1.addNode(c);
+        graph1.addEdge(a, c, "AC");
+        graph1.removeEdge(a, b, "AB");
+        assertEquals(2, snapshot.size());
+        assertFalse(snapshot.containsNode(c));
+        assertEquals(Collections.singleton(new Edge<>("AB", b)), snapshot.getAllEdges(a));
+        assertEquals(Collections.singleton(new Edge<>("AB", b)), view);
+    }
+
+    @Test
+    public void testManyNodesKeepEveryVersion() {
+        List<Graph<String,String>> versions = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Node<String> n = new Node<>("n" + i);
+            graph1.addNode(n);
+            graph1.addEdge(n, a, "NA" + i);
+            if (i % 1000 == 0) versions.add(graph1.snapshot());
+        }
+        assertEquals(5002, graph1.size());
+        assertEquals(5002, graph1.getAllNodes().size());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(Set.of(new Edge<>("NA" + i, a)), graph1.getAllEdges(new Node<>("n" + i)));
+        }
+        for (int v = 0; v < versions.size(); v++) {
+            Graph<String,String> version = versions.get(v);
+            assertEquals(1000 * v + 3, version.size());
+            assertEquals(version.size(), new HashSet<>(version.getNodeView()).size());
+            assertFalse(version.containsNode(new Node<>("n" + (1000 * v + 1))));
+        }
+    }
+
+    @Test
+    public void testNodesWithEqualHashCodes() {
+        // "Aa" and "BB" have the same hash code, as do "AaAa", "AaBB", "BBAa" and "BBBB"
+        List<String> names = List.of("Aa", "BB", "AaAa", "AaBB", "BBAa", "BBBB");
+        for (String name: names) assertTrue(graph1.addNode(new Node<>(name)));
+        for (String name: names) assertFalse(graph1.addNode(new Node<>(name)));
+        graph1.addEdge(new Node<>("Aa"), new Node<>("BB"), "AaBB");
+        graph1.addEdge(new Node<>("BB"), new Node<>("Aa"), "BBAa");
+        assertEquals(Set.of(new Edge<>("AaBB", new Node<>("BB"))), graph1.getAllEdges(new Node<>("Aa")));
+        assertEquals(Set.of(new Edge<>("BBAa", new Node<>("Aa"))), graph1.getAllEdges(new Node<>("BB")));
+        Set<Node<String>> nodes = new HashSet<>(List.of(a, b));
+        for (String name: names) nodes.add(new Node<>(name));
+        assertEquals(nodes, graph1.getAllNodes());
+        assertEquals(8, graph1.size());
+    }
+
+    @Test
+    public void testCopyKeepsEdgeOrder() {
+        DLGraph<String,String> ordered = new DLGraph<>(Comparator.comparing(Edge<String,String>::getLabel));
+        ordered.addNode(a);
+        ordered.addNode(b);
+        ordered.addEdge(a, b, "2");
+        ordered.addEdge(a, b, "1");
+        ConcurrentGraph<String,String> copy = new ConcurrentGraph<>(ordered);
+        copy.addEdge(a, b, "0");
+        List<String> labels = new ArrayList<>();
+        copy.forEachEdge(a, e -> labels.add(e.getLabel()));
+        assertEquals(Arrays.asList("0", "1", "2"), labels);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testEdgeViewIsReadOnly() {
+        graph1.getEdgeView(a).clear();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddEdgeNoChild() {
+        graph1.addEdge(a, c, "AC");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRemoveEdgeNoParent() {
+        graph1.removeEdge(c, a, "CA");
+    }
+}
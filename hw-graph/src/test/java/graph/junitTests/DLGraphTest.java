@@ -178,4 +178,291 @@ public class DLGraphTest {
         graph1.addEdge(a, c, "AC1");
         graph1.numEdges(a, b);
     }
+
+    @Test
+    public void orderedGraphIteratesEdgesInOrder() {
+        Comparator<Edge<String,String>> order = Comparator.comparing((Edge<String,String> e) -> e.getChild().getData())
+                                                          .thenComparing(Edge::getLabel);
+        DLGraph<String,String> ordered = new DLGraph<>(order);
+        ordered.addNode(a);
+        ordered.addNode(b);
+        ordered.addNode(c);
+        ordered.addEdge(a, c, "AC2");
+        ordered.addEdge(a, b, "AB1");
+        ordered.addEdge(a, c, "AC1");
+        List<String> labels = new ArrayList<>();
+        for (Edge<String,String> e: ordered.getEdgeView(a)) labels.add(e.getLabel());
+        assertEquals(Arrays.asList("AB1", "AC1", "AC2"), labels);
+        assertEquals(order, ordered.getEdgeOrder());
+        assertNull(graph1.getEdgeOrder());
+    }
+
+    @Test
+    public void orderedGraphKeepsOrderWhenFrozen() {
+        Comparator<Edge<String,String>> order = Comparator.comparing(Edge::getLabel);
+        DLGraph<String,String> ordered = new DLGraph<>(order.reversed());
+        ordered.addNode(a);
+        ordered.addNode(b);
+        ordered.addEdge(a, b, "AB1");
+        ordered.addEdge(a, b, "AB3");
+        ordered.addEdge(a, b, "AB2");
+        List<String> labels = new ArrayList<>();
+        ordered.freeze().forEachEdge(a, e -> labels.add(e.getLabel()));
+        assertEquals(Arrays.asList("AB3", "AB2", "AB1"), labels);
+    }
+
+    @Test
+    public void addEdgesAddsEveryEdge() {
+        graph1.addNode(a);
+        graph1.addNode(b);
+        graph1.addNode(c);
+        graph1.addEdge(a, b, "AB1");
+        assertTrue(graph1.addEdges(a, List.of(new Edge<>("AB1", b), new Edge<>("AC1", c))));
+        assertEquals(Set.of(new Edge<>("AB1", b), new Edge<>("AC1", c)), graph1.getAllEdges(a));
+        assertFalse(graph1.addEdges(a, List.of(new Edge<>("AC1", c))));
+    }
+
+    @Test
+    public void addEdgesCopiesSortedSets() {
+        Comparator<Edge<String,String>> order = Comparator.comparing(Edge::getLabel);
+        DLGraph<String,String> ordered = new DLGraph<>(order);
+        ordered.addNode(a);
+        ordered.addNode(b);
+        SortedSet<Edge<String,String>> edges = new TreeSet<>(order);
+        edges.add(new Edge<>("AB2", b));
+        edges.add(new Edge<>("AB1", b));
+        ordered.addEdges(a, edges);
+        edges.clear();
+        assertEquals(List.of(new Edge<>("AB1", b), new Edge<>("AB2", b)), new ArrayList<>(ordered.getEdgeView(a)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addEdgesNoChild() {
+        graph1.addNode(a);
+        graph1.addEdges(a, List.of(new Edge<>("AB1", b)));
+    }
+
+    @Test
+    public void removeEdgeRemovesOnlyThatEdge() {
+        graph1.addNode(a);
+        graph1.addNode(b);
+        graph1.addEdge(a, b, "AB1");
+        graph1.addEdge(a, b, "AB2");
+        assertTrue(graph1.removeEdge(a, b, "AB1"));
+        assertFalse(graph1.removeEdge(a, b, "AB1"));
+        assertEquals(Set.of(new Edge<>("AB2", b)), graph1.getAllEdges(a));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void removeEdgeNoChild() {
+        graph1.addNode(a);
+        graph1.removeEdge(a, b, "AB1");
+    }
+
+    @Test
+    public void removeNodeRemovesEdgesToAndFromIt() {
+        graph1.addNode(a);
+        graph1.addNode(b);
+        graph1.addNode(c);
+        graph1.addEdge(a, b, "AB1");
+        graph1.addEdge(a, c, "AC1");
+        graph1.addEdge(b, b, "BB1");
+        graph1.addEdge(b, c, "BC1");
+        graph1.addEdge(c, b, "CB1");
+        assertTrue(graph1.removeNode(b));
+        assertFalse(graph1.removeNode(b));
+        assertEquals(Set.of(a, c), graph1.getAllNodes());
+        assertEquals(Set.of(new Edge<>("AC1", c)), graph1.getAllEdges(a));
+        assertTrue(graph1.getAllEdges(c).isEmpty());
+    }
+
+    @Test
+    public void removeNodeKeepsIndexUpToDate() {
+        DLGraph<String,String> indexed = new DLGraph<>(null, true);
+        assertTrue(indexed.hasIncomingIndex());
+        assertFalse(graph1.hasIncomingIndex());
+        indexed.addNode(a);
+        indexed.addNode(b);
+        indexed.removeNode(b);
+        indexed.addNode(b);
+        indexed.addNode(c);
+        indexed.addEdge(a, c, "AC1");
+        indexed.addEdges(b, List.of(new Edge<>("BC1", c), new Edge<>("BC2", c)));
+        indexed.removeEdge(b, c, "BC1");
+        assertEquals(Set.of(a, b), indexed.getAllParents(c));
+        indexed.removeNode(c);
+        assertTrue(indexed.getAllEdges(a).isEmpty());
+        assertTrue(indexed.getAllEdges(b).isEmpty());
+        indexed.addNode(c);
+        indexed.addEdge(c, a, "CA1");
+        assertEquals(Set.of(c), indexed.getAllParents(a));
+        assertTrue(indexed.removeNode(a));
+        assertTrue(indexed.getAllEdges(c).isEmpty());
+        indexed.clearGraph();
+        indexed.addNode(a);
+        assertTrue(indexed.getAllParents(a).isEmpty());
+    }
+
+    @Test
+    public void indexedGraphFindsSameParents() {
+        DLGraph<String,String> indexed = new DLGraph<>(null, true);
+        for (DLGraph<String,String> g: List.of(graph1, indexed)) {
+            g.addNode(a);
+            g.addNode(b);
+            g.addNode(c);
+            g.addEdge(a, c, "AC1");
+            g.addEdge(b, c, "BC1");
+            g.addEdge(c, c, "CC1");
+            g.addEdge(c, a, "CA1");
+        }
+        for (Node<String> n: List.of(a, b, c)) {
+            assertEquals(graph1.getAllParents(n), indexed.getAllParents(n));
+            Set<Edge<String,String>> unindexedEdges = new HashSet<>();
+            Set<Edge<String,String>> indexedEdges = new HashSet<>();
+            graph1.forEachIncoming(n, (parent, e) -> unindexedEdges.add(e));
+            indexed.forEachIncoming(n, (parent, e) -> indexedEdges.add(e));
+            assertEquals(unindexedEdges, indexedEdges);
+        }
+        // reading the parents of an unindexed graph must not build an index
+        assertFalse(graph1.hasIncomingIndex());
+    }
+
+    @Test
+    public void indexedRemovalsKeepParents() {
+        DLGraph<String,String> indexed = new DLGraph<>(null, true);
+        List<Node<String>> nodes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) nodes.add(new Node<>("n" + i));
+        for (DLGraph<String,String> g: List.of(graph1, indexed)) {
+            for (Node<String> n: nodes) g.addNode(n);
+            for (Node<String> from: nodes) {
+                for (Node<String> to: nodes) g.addEdge(from, to, from.getData() + to.getData());
+            }
+            for (int i = 0; i < 20; i += 3) g.removeEdge(nodes.get(i), nodes.get(5), nodes.get(i).getData() + "n5");
+            g.removeNode(nodes.get(7));
+            g.removeNode(nodes.get(0));
+        }
+        for (Node<String> n: graph1.getAllNodes()) {
+            assertEquals(graph1.getAllParents(n), indexed.getAllParents(n));
+            Set<Edge<String,String>> unindexedEdges = new HashSet<>();
+            Set<Edge<String,String>> indexedEdges = new HashSet<>();
+            graph1.forEachIncoming(n, (parent, e) -> unindexedEdges.add(e));
+            indexed.forEachIncoming(n, (parent, e) -> indexedEdges.add(e));
+            assertEquals(unindexedEdges, indexedEdges);
+        }
+    }
+
+    @Test
+    public void removeKeepsEdgeOrder() {
+        DLGraph<String,String> ordered = new DLGraph<>(Comparator.comparing(Edge::getLabel));
+        ordered.addNode(a);
+        ordered.addNode(b);
+        ordered.addNode(c);
+        ordered.addEdge(a, c, "AC3");
+        ordered.addEdge(a, b, "AB2");
+        ordered.addEdge(a, c, "AC1");
+        ordered.removeNode(b);
+        ordered.addEdge(a, c, "AC2");
+        assertEquals(List.of(new Edge<>("AC1", c), new Edge<>("AC2", c), new Edge<>("AC3", c)),
+                new ArrayList<>(ordered.getEdgeView(a)));
+    }
+
+    @Test
+    public void getAllParentsFindsEveryParent() {
+        graph1.addNode(a);
+        graph1.addNode(b);
+        graph1.addNode(c);
+        graph1.addEdge(a, c, "AC1");
+        graph1.addEdge(b, c, "BC1");
+        graph1.addEdge(c, c, "CC1");
+        assertEquals(Set.of(a, b, c), graph1.getAllParents(c));
+        assertTrue(graph1.getAllParents(a).isEmpty());
+        graph1.removeEdge(b, c, "BC1");
+        graph1.addEdge(c, a, "CA1");
+        assertEquals(Set.of(a, c), graph1.getAllParents(c));
+        assertEquals(Set.of(c), graph1.getAllParents(a));
+    }
+
+    @Test
+    public void forEachIncomingSharesParentEdges() {
+        graph1.addNode(a);
+        graph1.addNode(b);
+        graph1.addEdge(a, b, "AB1");
+        graph1.addEdge(a, b, "AB2");
+        Map<Edge<String,String>, Node<String>> incoming = new HashMap<>();
+        graph1.forEachIncoming(b, (parent, e) -> incoming.put(e, parent));
+        assertEquals(Map.of(new Edge<>("AB1", b), a, new Edge<>("AB2", b), a), incoming);
+        for (Edge<String,String> e: graph1.getEdgeView(a)) {
+            for (Edge<String,String> shared: incoming.keySet()) {
+                if (shared.equals(e)) assertSame(e, shared);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getAllParentsNoNode() {
+        graph1.getAllParents(a);
+    }
+
+    @Test
+    public void builderBuildsSameGraph() {
+        DLGraph.Builder<String,String> builder = new DLGraph.Builder<>(2, 1, null);
+        assertEquals(0, builder.addNode(a));
+        assertEquals(1, builder.addNode(b));
+        assertEquals(0, builder.addNode(new Node<>("a")));
+        builder.addNode(c);
+        builder.addEdge(0, 1, "AB1");
+        builder.addEdge(a, b, "AB1");
+        builder.addEdges(a, List.of(new Edge<>("AC1", c), new Edge<>("AA1", a)));
+        builder.addEdges(c, List.of(new Edge<>("CB1", b)));
+        DLGraph<String,String> built = builder.build();
+        assertEquals(Set.of(a, b, c), built.getAllNodes());
+        assertEquals(Set.of(new Edge<>("AB1", b), new Edge<>("AC1", c), new Edge<>("AA1", a)), built.getAllEdges(a));
+        assertTrue(built.getAllEdges(b).isEmpty());
+        assertEquals(Set.of(new Edge<>("CB1", b)), built.getAllEdges(c));
+        assertTrue(built.addEdge(b, a, "BA1"));
+        assertEquals(Set.of(a, c), built.getAllParents(b));
+    }
+
+    @Test
+    public void builderBuildsIndexedGraph() {
+        DLGraph.Builder<String,String> builder = new DLGraph.Builder<>(0, 0, null, true);
+        builder.addNode(a);
+        builder.addNode(b);
+        builder.addEdge(a, b, "AB1");
+        builder.addEdge(b, b, "BB1");
+        DLGraph<String,String> built = builder.build();
+        assertTrue(built.hasIncomingIndex());
+        assertEquals(Set.of(a, b), built.getAllParents(b));
+        assertTrue(built.removeNode(a));
+        assertEquals(Set.of(b), built.getAllParents(b));
+        assertFalse(new DLGraph.Builder<String,String>(0, 0, null).build().hasIncomingIndex());
+    }
+
+    @Test
+    public void builderSortsOrderedGraph() {
+        DLGraph.Builder<String,String> builder = new DLGraph.Builder<>(0, 0, Comparator.comparing(Edge::getLabel));
+        builder.addNode(a);
+        builder.addNode(b);
+        for (String label: List.of("3", "1", "2", "1", "3")) builder.addEdge(a, b, label);
+        DLGraph<String,String> built = builder.build();
+        assertEquals(List.of(new Edge<>("1", b), new Edge<>("2", b), new Edge<>("3", b)),
+                new ArrayList<>(built.getEdgeView(a)));
+        built.addEdge(a, b, "0");
+        assertEquals(new Edge<>("0", b), built.getEdgeView(a).iterator().next());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void builderNoChild() {
+        DLGraph.Builder<String,String> builder = new DLGraph.Builder<>(1, 1, null);
+        builder.addNode(a);
+        builder.addEdge(a, b, "AB1");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void builderBuildsOnce() {
+        DLGraph.Builder<String,String> builder = new DLGraph.Builder<>(1, 1, null);
+        builder.addNode(a);
+        builder.build();
+        builder.addEdge(0, 0, "AA1");
+    }
 }
@@ -0,0 +1,138 @@
+package graph.junitTests;
+
+import graph.*;
+import org.junit.*;
+import org.junit.rules.Timeout;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * DiskGraph class.
+ */
+public class DiskGraphTest {
+
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private DLGraph<String,String> graph1;
+    private Path file;
+    private final Node<String> a = new Node<>("a");
+    private final Node<String> b = new Node<>("b");
+    private final Node<String> c = new Node<>("c");
+
+    @Before
+    public void setUp() throws Exception {
+        graph1 = new DLGraph<>();
+        graph1.addNode(a);
+        graph1.addNode(b);
+        graph1.addNode(c);
+        graph1.addEdge(a, b, "AB1");
+        graph1.addEdge(a, b, "AB2");
+        graph1.addEdge(a, c, "AC");
+        graph1.addEdge(b, c, "BC");
+        graph1.addEdge(c, c, "CC");
+        file = Files.createTempFile("graph", ".snapshot");
+        GraphSnapshot.write(graph1, file, GraphSnapshot.STRINGS, GraphSnapshot.STRINGS);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    private DiskGraph<String,String> open(long maxCachedEdges) throws IOException {
+        return DiskGraph.open(file, GraphSnapshot.STRINGS, GraphSnapshot.STRINGS, null, maxCachedEdges);
+    }
+
+    @Test
+    public void diskGraphHasSameNodesAndEdges() throws IOException {
+        try (DiskGraph<String,String> disk = open(100)) {
+            assertEquals(3, disk.size());
+            assertEquals(graph1.getAllNodes(), disk.getAllNodes());
+            for (Node<String> n: graph1.getAllNodes()) {
+                assertEquals(graph1.getAllEdges(n), disk.getAllEdges(n));
+                assertEquals(graph1.getAllChildren(n), disk.getAllChildren(n));
+            }
+            assertEquals(2, disk.numEdges(a, b));
+            assertTrue(disk.containsNode(c));
+            assertFalse(disk.containsNode(new Node<>("d")));
+        }
+    }
+
+    @Test
+    public void cacheStaysWithinBound() throws IOException {
+        try (DiskGraph<String,String> disk = open(3)) {
+            Set<Edge<String,String>> edgesOfA = disk.getEdgeView(a);
+            assertEquals(3, disk.cachedEdgeCount());
+            disk.getEdgeView(b);
+            assertEquals(1, disk.cachedEdgeCount());
+            disk.getEdgeView(b);
+            disk.getEdgeView(c);
+            assertEquals(2, disk.cachedEdgeCount());
+            assertEquals(1, disk.cacheHits());
+            assertEquals(3, disk.cacheMisses());
+            assertEquals(graph1.getAllEdges(a), new HashSet<>(edgesOfA));
+        }
+    }
+
+    @Test
+    public void nodesLargerThanTheCacheAreNotCached() throws IOException {
+        try (DiskGraph<String,String> disk = open(0)) {
+            List<String> labels = new ArrayList<>();
+            disk.forEachEdge(a, e -> labels.add(e.getLabel()));
+            Collections.sort(labels);
+            assertEquals(List.of("AB1", "AB2", "AC"), labels);
+            assertEquals(0, disk.cachedEdgeCount());
+        }
+    }
+
+    @Test
+    public void diskGraphHasNoMutators() {
+        // a disk graph is only a Graph, so it cannot be handed to code that changes a graph
+        assertFalse(MutableGraph.class.isAssignableFrom(DiskGraph.class));
+        assertTrue(Graph.class.isAssignableFrom(DiskGraph.class));
+    }
+
+    @Test
+    public void incomingEdgesAreReadWithoutTheCache() throws IOException {
+        try (DiskGraph<String,String> disk = open(100)) {
+            disk.getEdgeView(a);
+            for (Node<String> n: graph1.getAllNodes()) {
+                assertEquals(graph1.getAllParents(n), disk.getAllParents(n));
+                Set<Edge<String,String>> expected = new HashSet<>();
+                graph1.forEachIncoming(n, (parent, e) -> expected.add(new Edge<>(e.getLabel() + parent.getData(), n)));
+                Set<Edge<String,String>> actual = new HashSet<>();
+                disk.forEachIncoming(n, (parent, e) -> actual.add(new Edge<>(e.getLabel() + parent.getData(), n)));
+                assertEquals(expected, actual);
+            }
+            assertEquals(Set.of(a, b, c), disk.getAllParents(c));
+            assertEquals(3, disk.cachedEdgeCount());
+            assertEquals(0, disk.cacheHits());
+            assertEquals(1, disk.cacheMisses());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getEdgeViewNoNode() throws IOException {
+        try (DiskGraph<String,String> disk = open(100)) {
+            disk.getEdgeView(new Node<>("d"));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void corruptSnapshotIsRejected() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 6] ^= 1;
+        Files.write(file, bytes);
+        open(100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeCacheSize() throws IOException {
+        open(-1);
+    }
+}
@@ -0,0 +1,122 @@
+package graph.junitTests;
+
+import graph.*;
+import org.junit.*;
+import org.junit.rules.Timeout;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * FrozenGraph class.
+ */
+public class FrozenGraphTest {
+
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private DLGraph<String,String> graph1;
+    private FrozenGraph<String,String> frozen;
+    private final Node<String> a = new Node<>("a");
+    private final Node<String> b = new Node<>("b");
+    private final Node<String> c = new Node<>("c");
+
+    @Before
+    public void setUp() throws Exception {
+        graph1 = new DLGraph<>();
+        graph1.addNode(a);
+        graph1.addNode(b);
+        graph1.addNode(c);
+        graph1.addEdge(a, b, "AB1");
+        graph1.addEdge(a, b, "AB2");
+        graph1.addEdge(a, c, "AC");
+        graph1.addEdge(c, c, "CC");
+        frozen = graph1.freeze();
+    }
+
+    @Test
+    public void testFreezeEmptyGraph() {
+        FrozenGraph<String,String> empty = new DLGraph<String,String>().freeze();
+        assertTrue(empty.isEmpty());
+        assertEquals(0, empty.size());
+        assertEquals(0, empty.edgeCount());
+    }
+
+    @Test
+    public void testSameNodes() {
+        assertEquals(3, frozen.size());
+        assertFalse(frozen.isEmpty());
+        assertEquals(graph1.getAllNodes(), frozen.getAllNodes());
+        assertTrue(frozen.containsNode(a));
+        assertFalse(frozen.containsNode(new Node<>("d")));
+    }
+
+    @Test
+    public void testSameEdges() {
+        for (Node<String> n: graph1.getAllNodes()) {
+            assertEquals(graph1.getAllEdges(n), frozen.getAllEdges(n));
+            assertEquals(graph1.getAllChildren(n), frozen.getAllChildren(n));
+        }
+        assertEquals(2, frozen.numEdges(a, b));
+        assertEquals(0, frozen.numEdges(b, a));
+        assertEquals(1, frozen.numEdges(c, c));
+        assertEquals(4, frozen.edgeCount());
+    }
+
+    @Test
+    public void testIdBasedIteration() {
+        int id = frozen.idOf(a);
+        assertEquals(a, frozen.nodeOf(id));
+        assertEquals(-1, frozen.idOf(new Node<>("d")));
+        Set<Edge<String,String>> edges = new HashSet<>();
+        for (int k = frozen.edgeStart(id); k < frozen.edgeEnd(id); k++) {
+            Edge<String,String> e = new Edge<>(frozen.edgeLabel(k), frozen.nodeOf(frozen.edgeTarget(k)));
+            assertEquals(e, frozen.edge(k));
+            edges.add(e);
+        }
+        assertEquals(graph1.getAllEdges(a), edges);
+        int bId = frozen.idOf(b);
+        assertEquals(frozen.edgeStart(bId), frozen.edgeEnd(bId));
+    }
+
+    @Test
+    public void testLaterChangesNotReflected() {
+        graph1.addNode(new Node<>("d"));
+        graph1.addEdge(b, a, "BA");
+        assertEquals(3, frozen.size());
+        assertEquals(0, frozen.numEdges(b, a));
+    }
+
+    @Test
+    public void testFreezeFrozenGraph() { assertSame(frozen, frozen.freeze()); }
+
+    @Test
+    public void testSameParents() {
+        for (Node<String> n: graph1.getAllNodes()) {
+            assertEquals(graph1.getAllParents(n), frozen.getAllParents(n));
+            List<Edge<String,String>> incoming = new ArrayList<>();
+            frozen.forEachIncoming(n, (parent, e) -> {
+                assertTrue(graph1.getAllEdges(parent).contains(e));
+                incoming.add(e);
+            });
+            List<Edge<String,String>> expected = new ArrayList<>();
+            graph1.forEachIncoming(n, (parent, e) -> expected.add(e));
+            assertEquals(new HashSet<>(expected), new HashSet<>(incoming));
+            assertEquals(expected.size(), incoming.size());
+        }
+    }
+
+    @Test
+    public void frozenHasNoMutators() {
+        // a frozen graph is only a Graph, so it cannot be handed to code that changes a graph
+        assertFalse(MutableGraph.class.isAssignableFrom(FrozenGraph.class));
+        assertTrue(Graph.class.isAssignableFrom(FrozenGraph.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getAllEdgesNoNode() { frozen.getAllEdges(new Node<>("d")); }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void numEdgesNoChild() { frozen.numEdges(a, new Node<>("d")); }
+}
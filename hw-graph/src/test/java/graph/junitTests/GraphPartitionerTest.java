@@ -0,0 +1,135 @@
+package graph.junitTests;
+
+import graph.*;
+import org.junit.*;
+import org.junit.rules.Timeout;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * GraphPartitioner class.
+ */
+public class GraphPartitionerTest {
+
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private DLGraph<String,String> graph;
+
+    /**
+     * Builds two triangles of nodes a1..a3 and b1..b3, with edges both ways inside each
+     * triangle and one edge from a1 to b1 between them.
+     */
+    @Before
+    public void setUp() {
+        graph = new DLGraph<>(Comparator.comparing((Edge<String,String> e) -> e.getChild().getData())
+                .thenComparing(Edge::getLabel));
+        for (String prefix: List.of("a", "b")) {
+            for (int i = 1; i <= 3; i++) graph.addNode(new Node<>(prefix + i));
+            for (int i = 1; i <= 3; i++) {
+                for (int j = 1; j <= 3; j++) {
+                    if (i != j) graph.addEdge(new Node<>(prefix + i), new Node<>(prefix + j), prefix + i + j);
+                }
+            }
+        }
+        graph.addEdge(new Node<>("a1"), new Node<>("b1"), "bridge");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testByHashNoShards() {
+        GraphPartitioner.byHash(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testByCommunityNullGraph() {
+        GraphPartitioner.byCommunity(null, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSplitNullPartition() {
+        GraphPartitioner.split(graph, null);
+    }
+
+    @Test
+    public void testByHashIsStable() {
+        Partition<String> p = GraphPartitioner.byHash(4);
+        assertEquals(4, p.shardCount());
+        for (Node<String> n: graph.getAllNodes()) {
+            int shard = p.shardOf(n.getData());
+            assertTrue(shard >= 0 && shard < 4);
+            assertEquals(shard, GraphPartitioner.<String>byHash(4).shardOf(n.getData()));
+        }
+    }
+
+    @Test
+    public void testByCommunityKeepsTrianglesTogether() {
+        Partition<String> p = GraphPartitioner.byCommunity(graph, 2);
+        assertEquals(2, p.shardCount());
+        for (String prefix: List.of("a", "b")) {
+            assertEquals(p.shardOf(prefix + "1"), p.shardOf(prefix + "2"));
+            assertEquals(p.shardOf(prefix + "1"), p.shardOf(prefix + "3"));
+        }
+        assertNotEquals(p.shardOf("a1"), p.shardOf("b1"));
+        int unknown = p.shardOf("z");
+        assertTrue(unknown >= 0 && unknown < 2);
+    }
+
+    @Test
+    public void testSplitKeepsOwnedEdges() {
+        for (Partition<String> p: List.of(GraphPartitioner.<String>byHash(3), GraphPartitioner.byCommunity(graph, 3))) {
+            List<DLGraph<String,String>> shards = GraphPartitioner.split(graph, p);
+            assertEquals(3, shards.size());
+            for (Node<String> n: graph.getAllNodes()) {
+                for (int s = 0; s < shards.size(); s++) {
+                    DLGraph<String,String> shard = shards.get(s);
+                    if (s == p.shardOf(n.getData())) {
+                        assertEquals(new ArrayList<>(graph.getEdgeView(n)), new ArrayList<>(shard.getEdgeView(n)));
+                    } else if (shard.containsNode(n)) {
+                        assertTrue(shard.getAllEdges(n).isEmpty());
+                    }
+                }
+            }
+            for (DLGraph<String,String> shard: shards) assertEquals(graph.getEdgeOrder(), shard.getEdgeOrder());
+        }
+    }
+
+    @Test
+    public void testSplitKeepsChildrenAsNodes() {
+        Partition<String> p = GraphPartitioner.byCommunity(graph, 2);
+        DLGraph<String,String> shardOfA = GraphPartitioner.split(graph, p).get(p.shardOf("a1"));
+        assertTrue(shardOfA.containsNode(new Node<>("b1")));
+        assertFalse(shardOfA.containsNode(new Node<>("b2")));
+    }
+
+    @Test
+    public void testWriteShards() throws IOException {
+        Path directory = Files.createTempDirectory("shards");
+        Partition<String> p = GraphPartitioner.byHash(2);
+        try {
+            List<Path> files = GraphPartitioner.writeShards(graph, p, directory,
+                    GraphSnapshot.STRINGS, GraphSnapshot.STRINGS);
+            List<DLGraph<String,String>> shards = GraphPartitioner.split(graph, p);
+            assertEquals(2, files.size());
+            for (int s = 0; s < files.size(); s++) {
+                FrozenGraph<String,String> loaded = GraphSnapshot.load(files.get(s),
+                        GraphSnapshot.STRINGS, GraphSnapshot.STRINGS);
+                assertEquals(shards.get(s).getAllNodes(), loaded.getAllNodes());
+                for (Node<String> n: loaded.getAllNodes()) {
+                    assertEquals(shards.get(s).getAllEdges(n), loaded.getAllEdges(n));
+                }
+                Set<String> owned = new HashSet<>();
+                for (Node<String> n: graph.getNodeView()) {
+                    if (p.shardOf(n.getData()) == s) owned.add(n.getData());
+                }
+                assertEquals(owned, GraphPartitioner.loadOwners(files.get(s), GraphSnapshot.STRINGS));
+            }
+        } finally {
+            for (Path file: Files.newDirectoryStream(directory)) Files.delete(file);
+            Files.delete(directory);
+        }
+    }
+}
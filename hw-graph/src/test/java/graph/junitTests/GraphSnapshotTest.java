@@ -0,0 +1,111 @@
+package graph.junitTests;
+
+import graph.*;
+import org.junit.*;
+import org.junit.rules.Timeout;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * GraphSnapshot class.
+ */
+public class GraphSnapshotTest {
+
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private DLGraph<String,String> graph1;
+    private Path file;
+    private final Node<String> a = new Node<>("a");
+    private final Node<String> b = new Node<>("b");
+    private final Node<String> c = new Node<>("c\u00e9");
+
+    @Before
+    public void setUp() throws Exception {
+        graph1 = new DLGraph<>(Comparator.comparing((Edge<String,String> e) -> e.getChild().getData())
+                                         .thenComparing(Edge::getLabel));
+        graph1.addNode(a);
+        graph1.addNode(b);
+        graph1.addNode(c);
+        graph1.addEdge(a, c, "AC");
+        graph1.addEdge(a, b, "AB2");
+        graph1.addEdge(a, b, "AB1");
+        graph1.addEdge(c, c, "AB1");
+        file = Files.createTempFile("graph", ".snapshot");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void loadedGraphHasSameNodesAndEdges() throws IOException {
+        GraphSnapshot.write(graph1, file, GraphSnapshot.STRINGS, GraphSnapshot.STRINGS);
+        FrozenGraph<String,String> loaded = GraphSnapshot.load(file, GraphSnapshot.STRINGS, GraphSnapshot.STRINGS);
+        assertEquals(graph1.getAllNodes(), loaded.getAllNodes());
+        for (Node<String> n: graph1.getAllNodes()) {
+            assertEquals(new ArrayList<>(graph1.getEdgeView(n)), new ArrayList<>(loaded.getEdgeView(n)));
+        }
+        assertNull(loaded.getEdgeOrder());
+    }
+
+    @Test
+    public void loadedGraphKeepsEdgeOrder() throws IOException {
+        GraphSnapshot.write(graph1, file, GraphSnapshot.STRINGS, GraphSnapshot.STRINGS);
+        FrozenGraph<String,String> loaded = GraphSnapshot.load(file, GraphSnapshot.STRINGS, GraphSnapshot.STRINGS,
+                                                               graph1.getEdgeOrder());
+        assertEquals(graph1.getEdgeOrder(), loaded.getEdgeOrder());
+        assertEquals(List.of(new Edge<>("AB1", b), new Edge<>("AB2", b), new Edge<>("AC", c)),
+                     new ArrayList<>(loaded.getEdgeView(a)));
+    }
+
+    @Test
+    public void emptyGraphRoundTrips() throws IOException {
+        GraphSnapshot.write(new DLGraph<String,Double>(), file, GraphSnapshot.STRINGS, GraphSnapshot.DOUBLES);
+        assertTrue(GraphSnapshot.load(file, GraphSnapshot.STRINGS, GraphSnapshot.DOUBLES).isEmpty());
+    }
+
+    @Test
+    public void doubleLabelsRoundTrip() throws IOException {
+        DLGraph<String,Double> g = new DLGraph<>();
+        g.addNode(a);
+        g.addNode(b);
+        g.addEdge(a, b, 0.1 + 0.2);
+        GraphSnapshot.write(g, file, GraphSnapshot.STRINGS, GraphSnapshot.DOUBLES);
+        FrozenGraph<String,Double> loaded = GraphSnapshot.load(file, GraphSnapshot.STRINGS, GraphSnapshot.DOUBLES);
+        assertEquals(Set.of(new Edge<>(0.1 + 0.2, b)), loaded.getAllEdges(a));
+    }
+
+    @Test(expected = IOException.class)
+    public void corruptSnapshotIsRejected() throws IOException {
+        GraphSnapshot.write(graph1, file, GraphSnapshot.STRINGS, GraphSnapshot.STRINGS);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+        GraphSnapshot.load(file, GraphSnapshot.STRINGS, GraphSnapshot.STRINGS);
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedSnapshotIsRejected() throws IOException {
+        GraphSnapshot.write(graph1, file, GraphSnapshot.STRINGS, GraphSnapshot.STRINGS);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+        GraphSnapshot.load(file, GraphSnapshot.STRINGS, GraphSnapshot.STRINGS);
+    }
+
+    @Test(expected = IOException.class)
+    public void otherFileIsRejected() throws IOException {
+        Files.write(file, "a,b\nc,d\n".getBytes());
+        GraphSnapshot.load(file, GraphSnapshot.STRINGS, GraphSnapshot.STRINGS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void writeNullGraph() throws IOException {
+        GraphSnapshot.write(null, file, GraphSnapshot.STRINGS, GraphSnapshot.STRINGS);
+    }
+}
@@ -0,0 +1,83 @@
+package graph.junitTests;
+
+import graph.*;
+import org.junit.*;
+import org.junit.rules.Timeout;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that check that every implementation of the Graph
+ * interface answers the same read operations in the same way.
+ */
+public class GraphTest {
+
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private DLGraph<String,String> graph1;
+    private List<Graph<String,String>> graphs;
+    private final Node<String> a = new Node<>("a");
+    private final Node<String> b = new Node<>("b");
+    private final Node<String> c = new Node<>("c");
+    private final Node<String> d = new Node<>("d");
+
+    @Before
+    public void setUp() throws Exception {
+        graph1 = new DLGraph<>();
+        IntGraph<String,String> intGraph = new IntGraph<>();
+        for (Node<String> n: Arrays.asList(a, b, c)) {
+            graph1.addNode(n);
+            intGraph.addNode(n);
+        }
+        graph1.addEdge(a, b, "AB1");
+        graph1.addEdge(a, b, "AB2");
+        graph1.addEdge(a, c, "AC");
+        graph1.addEdge(c, c, "CC");
+        for (Node<String> n: graph1.getAllNodes()) {
+            for (Edge<String,String> e: graph1.getAllEdges(n)) intGraph.addEdge(n, e.getChild(), e.getLabel());
+        }
+        graphs = Arrays.asList(graph1, graph1.freeze(), intGraph);
+    }
+
+    @Test
+    public void testSameNodes() {
+        for (Graph<String,String> g: graphs) {
+            assertEquals(3, g.size());
+            assertFalse(g.isEmpty());
+            assertEquals(graph1.getAllNodes(), g.getAllNodes());
+            assertEquals(graph1.getAllNodes(), g.getNodeView());
+            assertTrue(g.containsNode(a));
+            assertFalse(g.containsNode(d));
+        }
+    }
+
+    @Test
+    public void testSameEdges() {
+        for (Graph<String,String> g: graphs) {
+            for (Node<String> n: graph1.getAllNodes()) {
+                assertEquals(graph1.getAllEdges(n), g.getAllEdges(n));
+                assertEquals(graph1.getAllEdges(n), g.getEdgeView(n));
+                assertEquals(graph1.getAllChildren(n), g.getAllChildren(n));
+                Set<Edge<String,String>> visited = new HashSet<>();
+                g.forEachEdge(n, visited::add);
+                assertEquals(graph1.getAllEdges(n), visited);
+            }
+            assertEquals(2, g.numEdges(a, b));
+            assertEquals(0, g.numEdges(b, a));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFrozenMissingNode() {
+        Graph<String,String> frozen = graphs.get(1);
+        frozen.getEdgeView(d);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIntGraphMissingNode() {
+        Graph<String,String> intGraph = graphs.get(2);
+        intGraph.forEachEdge(d, e -> { });
+    }
+}
@@ -0,0 +1,341 @@
+package graph.junitTests;
+
+import graph.*;
+import org.junit.*;
+import org.junit.rules.Timeout;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * IntGraph class.
+ */
+public class IntGraphTest {
+
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private IntGraph<String,String> graph1;
+    private final Node<String> a = new Node<>("a");
+    private final Node<String> b = new Node<>("b");
+    private final Node<String> c = new Node<>("c");
+
+    @Before
+    public void setUp() throws Exception {
+        graph1 = new IntGraph<>();
+    }
+
+    @Test
+    public void testEmptyOnConstruction() {
+        assertTrue(graph1.isEmpty());
+        assertEquals(0, graph1.size());
+        assertEquals(0, graph1.edgeCount());
+    }
+
+    @Test
+    public void testAddNode() {
+        assertTrue(graph1.addNode(a));
+        assertFalse(graph1.addNode(new Node<>("a")));
+        assertTrue(graph1.containsNode(a));
+        assertFalse(graph1.containsNode(b));
+        assertEquals(1, graph1.size());
+    }
+
+    @Test
+    public void testGetAllEdges() {
+        Set<Edge<String,String>> allEdges = new HashSet<>();
+        graph1.addNode(a);
+        graph1.addNode(b);
+        allEdges.add(new Edge<>("AB1", b));
+        allEdges.add(new Edge<>("AB2", b));
+        graph1.addEdge(a, b, "AB1");
+        graph1.addEdge(a, b, "AB2");
+        graph1.addEdge(a, b, "AB1");
+        assertEquals(allEdges, graph1.getAllEdges(a));
+        assertEquals(allEdges, graph1.getEdgeView(a));
+        assertEquals(2, graph1.numEdges(a, b));
+        assertEquals(0, graph1.numEdges(b, a));
+        assertEquals(2, graph1.edgeCount());
+    }
+
+    @Test
+    public void testSameAsDLGraph() {
+        DLGraph<String,String> expected = new DLGraph<>();
+        for (MutableGraph<String,String> g: List.of(expected, graph1)) {
+            g.addNode(a);
+            g.addNode(b);
+            g.addNode(c);
+            g.addEdge(a, b, "AB");
+            g.addEdge(a, c, "AC");
+            g.addEdge(c, c, "CC");
+            g.addEdge(c, a, "AB");
+        }
+        assertEquals(expected.getAllNodes(), graph1.getAllNodes());
+        assertEquals(expected.getNodeView(), graph1.getNodeView());
+        for (Node<String> n: expected.getAllNodes()) {
+            assertEquals(expected.getAllEdges(n), graph1.getAllEdges(n));
+            assertEquals(expected.getAllChildren(n), graph1.getAllChildren(n));
+        }
+        assertEquals(3, graph1.labelCount());
+    }
+
+    @Test
+    public void testIsNotADLGraph() {
+        // an IntGraph is its own MutableGraph, not a DLGraph whose operations it replaces
+        assertTrue(MutableGraph.class.isAssignableFrom(IntGraph.class));
+        assertFalse(DLGraph.class.isAssignableFrom(IntGraph.class));
+    }
+
+    @Test
+    public void testAddEdgeById() {
+        int aId = graph1.intern("a");
+        int bId = graph1.intern("b");
+        assertEquals(aId, graph1.intern("a"));
+        int label = graph1.internLabel("AB");
+        assertEquals(label, graph1.internLabel("AB"));
+        assertTrue(graph1.addEdge(aId, bId, label));
+        assertFalse(graph1.addEdge(aId, bId, label));
+        assertEquals(1, graph1.degree(aId));
+        assertEquals(bId, graph1.edgeTarget(aId, 0));
+        assertEquals("AB", graph1.labelOf(graph1.edgeLabel(aId, 0)));
+        assertEquals(new Edge<>("AB", b), graph1.edge(aId, 0));
+        assertEquals(a, graph1.nodeOf(graph1.idOf(a)));
+        assertEquals(-1, graph1.idOf(c));
+    }
+
+    @Test
+    public void testManyEdgesAfterTrim() {
+        for (int i = 0; i < 100; i++) graph1.addNode(new Node<>("n" + i));
+        for (int i = 0; i < 100; i++) {
+            for (int j = 0; j < 100; j += 3) graph1.addEdge(new Node<>("n" + i), new Node<>("n" + j), "L" + (i % 7));
+        }
+        graph1.trimToSize();
+        assertFalse(graph1.addEdge(graph1.intern("n1"), graph1.intern("n0"), graph1.internLabel("L1")));
+        assertTrue(graph1.addEdge(graph1.intern("n1"), graph1.intern("n1"), graph1.internLabel("L1")));
+        assertEquals(100 * 34 + 1, graph1.edgeCount());
+        assertEquals(35, graph1.getAllEdges(new Node<>("n1")).size());
+    }
+
+    @Test
+    public void testClearGraph() {
+        graph1.addNode(a);
+        graph1.addNode(b);
+        graph1.addEdge(a, b, "AB1");
+        graph1.clearGraph();
+        assertTrue(graph1.isEmpty());
+        assertEquals(0, graph1.edgeCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addEdgeNoParent() {
+        graph1.addNode(a);
+        graph1.addEdge(b, a, "BA1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addEdgeNoChild() {
+        graph1.addNode(a);
+        graph1.addEdge(a, b, "AB1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addEdgeByIdNoLabel() {
+        int aId = graph1.intern("a");
+        graph1.addEdge(aId, aId, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getAllEdgesNoNode() {
+        graph1.addNode(a);
+        graph1.getAllEdges(b);
+    }
+
+    @Test
+    public void testRemoveEdge() {
+        graph1.addNode(a);
+        graph1.addNode(b);
+        graph1.addEdge(a, b, "AB1");
+        graph1.addEdge(a, b, "AB2");
+        graph1.addEdge(a, a, "AA1");
+        assertTrue(graph1.removeEdge(a, b, "AB1"));
+        assertFalse(graph1.removeEdge(a, b, "AB1"));
+        assertFalse(graph1.removeEdge(a, b, "never interned"));
+        assertEquals(Set.of(new Edge<>("AB2", b), new Edge<>("AA1", a)), graph1.getAllEdges(a));
+        assertEquals(2, graph1.edgeCount());
+        assertTrue(graph1.addEdge(a, b, "AB1"));
+        assertEquals(3, graph1.edgeCount());
+    }
+
+    @Test
+    public void testRemoveEdgeMatchesSet() {
+        Random random = new Random(331);
+        Set<List<Integer>> expected = new HashSet<>();
+        for (int i = 0; i < 20; i++) graph1.intern("n" + i);
+        for (int i = 0; i < 4; i++) graph1.internLabel("l" + i);
+        for (int step = 0; step < 20000; step++) {
+            int from = random.nextInt(20);
+            int target = random.nextInt(20);
+            int label = random.nextInt(4);
+            List<Integer> edge = List.of(from, target, label);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(edge), graph1.addEdge(from, target, label));
+            } else {
+                assertEquals(expected.remove(edge), graph1.removeEdge(from, target, label));
+            }
+            if (step % 5000 == 0) graph1.trimToSize();
+        }
+        assertEquals(expected.size(), graph1.edgeCount());
+        for (List<Integer> edge: expected) {
+            assertFalse(graph1.addEdge(edge.get(0), edge.get(1), edge.get(2)));
+        }
+    }
+
+    @Test
+    public void testRemoveNode() {
+        graph1.addNode(a);
+        graph1.addNode(b);
+        graph1.addNode(c);
+        graph1.addEdge(a, b, "AB1");
+        graph1.addEdge(a, c, "AC1");
+        graph1.addEdge(b, b, "BB1");
+        graph1.addEdge(b, c, "BC1");
+        graph1.addEdge(c, b, "CB1");
+        graph1.addEdge(c, b, "CB2");
+        int cId = graph1.idOf(c);
+        assertTrue(graph1.removeNode(b));
+        assertFalse(graph1.removeNode(b));
+        assertFalse(graph1.containsNode(b));
+        assertEquals(Set.of(a, c), graph1.getAllNodes());
+        assertEquals(2, graph1.size());
+        assertEquals(1, graph1.edgeCount());
+        assertEquals(Set.of(new Edge<>("AC1", c)), graph1.getAllEdges(a));
+        assertTrue(graph1.getAllEdges(c).isEmpty());
+        assertEquals(Set.of(a), graph1.getAllParents(c));
+        // the ids of the other nodes do not change and the removed id is not reused
+        assertEquals(-1, graph1.idOf(b));
+        assertEquals(cId, graph1.idOf(c));
+        assertTrue(graph1.addNode(b));
+        assertEquals(3, graph1.idOf(b));
+        assertEquals(4, graph1.idBound());
+        assertTrue(graph1.getAllEdges(b).isEmpty());
+        assertTrue(graph1.addEdge(c, b, "CB1"));
+        assertEquals(Set.of(c), graph1.getAllParents(b));
+    }
+
+    @Test
+    public void testRemoveNodeAfterTrim() {
+        graph1.addNode(a);
+        graph1.addNode(b);
+        graph1.addEdge(a, b, "AB1");
+        graph1.addEdge(b, a, "BA1");
+        graph1.trimToSize();
+        assertTrue(graph1.removeNode(a));
+        graph1.addEdge(b, b, "BB1");
+        graph1.addEdge(b, b, "BB1");
+        assertEquals(Set.of(new Edge<>("BB1", b)), graph1.getAllEdges(b));
+        assertEquals(1, graph1.edgeCount());
+    }
+
+    @Test
+    public void testIndexedGraphFindsSameParents() {
+        IntGraph<String,String> indexed = new IntGraph<>(true);
+        assertTrue(indexed.hasIncomingIndex());
+        assertFalse(graph1.hasIncomingIndex());
+        for (IntGraph<String,String> g: List.of(graph1, indexed)) {
+            g.addNode(a);
+            g.addNode(b);
+            g.addNode(c);
+            g.addEdge(a, c, "AC1");
+            g.addEdge(b, c, "BC1");
+            g.addEdge(b, c, "BC2");
+            g.addEdge(c, c, "CC1");
+            g.addEdge(c, a, "CA1");
+            g.removeEdge(b, c, "BC1");
+        }
+        indexed.trimToSize();
+        for (Node<String> n: List.of(a, b, c)) {
+            assertEquals(graph1.getAllParents(n), indexed.getAllParents(n));
+            Set<Edge<String,String>> unindexedEdges = new HashSet<>();
+            Set<Edge<String,String>> indexedEdges = new HashSet<>();
+            graph1.forEachIncoming(n, (parent, e) -> unindexedEdges.add(e));
+            indexed.forEachIncoming(n, (parent, e) -> indexedEdges.add(e));
+            assertEquals(unindexedEdges, indexedEdges);
+        }
+    }
+
+    @Test
+    public void testIndexedRemoveNode() {
+        IntGraph<String,String> indexed = new IntGraph<>(true);
+        indexed.addNode(a);
+        indexed.addNode(b);
+        indexed.addNode(c);
+        indexed.addEdge(a, b, "AB1");
+        indexed.addEdge(a, c, "AC1");
+        indexed.addEdge(b, b, "BB1");
+        indexed.addEdge(b, c, "BC1");
+        indexed.addEdge(c, b, "CB1");
+        indexed.addEdge(c, b, "CB2");
+        assertTrue(indexed.removeNode(b));
+        assertEquals(Set.of(a, c), indexed.getAllNodes());
+        assertEquals(1, indexed.edgeCount());
+        assertEquals(Set.of(new Edge<>("AC1", c)), indexed.getAllEdges(a));
+        assertTrue(indexed.getAllEdges(c).isEmpty());
+        assertEquals(Set.of(a), indexed.getAllParents(c));
+        indexed.addNode(b);
+        indexed.addEdge(c, b, "CB1");
+        assertEquals(Set.of(c), indexed.getAllParents(b));
+        indexed.clearGraph();
+        assertTrue(indexed.hasIncomingIndex());
+        indexed.addNode(a);
+        assertTrue(indexed.getAllParents(a).isEmpty());
+    }
+
+    @Test
+    public void testIndexedRemovalsKeepParents() {
+        IntGraph<String,String> indexed = new IntGraph<>(true);
+        List<Node<String>> nodes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) nodes.add(new Node<>("n" + i));
+        for (IntGraph<String,String> g: List.of(graph1, indexed)) {
+            for (Node<String> n: nodes) g.addNode(n);
+            for (Node<String> from: nodes) {
+                for (Node<String> to: nodes) {
+                    if (from != nodes.get(19)) g.addEdge(from, to, "E" + (from.hashCode() + to.hashCode()) % 3);
+                }
+            }
+            g.trimToSize();
+            // n19 has no Edges, so its Edge array was trimmed to nothing
+            g.addEdge(nodes.get(19), nodes.get(0), "E0");
+            for (int i = 0; i < 20; i += 3) g.removeEdge(nodes.get(i), nodes.get(5), "E" + (nodes.get(i).hashCode() + nodes.get(5).hashCode()) % 3);
+            g.removeNode(nodes.get(7));
+            g.removeNode(nodes.get(0));
+        }
+        assertEquals(graph1.edgeCount(), indexed.edgeCount());
+        for (Node<String> n: graph1.getAllNodes()) {
+            assertEquals(graph1.getAllParents(n), indexed.getAllParents(n));
+            assertEquals(graph1.getAllEdges(n), indexed.getAllEdges(n));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddEdgeToRemovedId() {
+        graph1.addNode(a);
+        graph1.addNode(b);
+        int bId = graph1.idOf(b);
+        graph1.removeNode(b);
+        graph1.addEdge(graph1.idOf(a), bId, graph1.internLabel("AB1"));
+    }
+
+    @Test
+    public void testGetAllParents() {
+        graph1.addNode(a);
+        graph1.addNode(b);
+        graph1.addNode(c);
+        graph1.addEdge(a, c, "AC1");
+        graph1.addEdge(b, c, "BC1");
+        assertEquals(Set.of(a, b), graph1.getAllParents(c));
+        List<Edge<String,String>> incoming = new ArrayList<>();
+        graph1.forEachIncoming(c, (parent, e) -> incoming.add(e));
+        assertEquals(Set.of(new Edge<>("AC1", c), new Edge<>("BC1", c)), new HashSet<>(incoming));
+    }
+}
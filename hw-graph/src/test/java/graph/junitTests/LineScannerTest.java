@@ -0,0 +1,89 @@
+package graph.junitTests;
+
+import graph.*;
+import org.junit.*;
+import org.junit.rules.Timeout;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * LineScanner class.
+ */
+public class LineScannerTest {
+
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final String TEXT = "a,b\r\n\nc,d\nlast";
+    private static final List<String> LINES = List.of("a,b", "c,d", "last");
+
+    private Path file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = Files.createTempFile("lines", ".txt");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    private static List<String> lines(URL url) throws IOException {
+        List<String> lines = new ArrayList<>();
+        LineScanner.forEachLine(url, (bytes, start, end) -> {
+            byte[] line = new byte[end - start];
+            for (int i = 0; i < line.length; i++) line[i] = bytes.get(start + i);
+            lines.add(new String(line, StandardCharsets.UTF_8));
+        });
+        return lines;
+    }
+
+    @Test
+    public void mappedFileLines() throws IOException {
+        Files.write(file, TEXT.getBytes(StandardCharsets.UTF_8));
+        assertEquals(LINES, lines(file.toUri().toURL()));
+    }
+
+    @Test
+    public void streamedFileLines() throws IOException {
+        // a file inside a jar is not on the file system, so it is read through its stream
+        try (OutputStream out = Files.newOutputStream(file); ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("data.txt"));
+            zip.write(TEXT.getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        assertEquals(LINES, lines(new URL("jar:" + file.toUri() + "!/data.txt")));
+    }
+
+    @Test
+    public void emptyFileHasNoLines() throws IOException {
+        assertEquals(List.of(), lines(file.toUri().toURL()));
+    }
+
+    @Test
+    public void lastModifiedOfFile() throws IOException {
+        assertEquals(Files.getLastModifiedTime(file).toMillis(), LineScanner.lastModified(file.toUri().toURL()));
+    }
+
+    @Test(expected = IOException.class)
+    public void missingFile() throws IOException {
+        Files.delete(file);
+        lines(file.toUri().toURL());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nullHandler() throws IOException {
+        LineScanner.forEachLine(file.toUri().toURL(), null);
+    }
+}
@@ -0,0 +1,210 @@
+package graph.junitTests;
+
+import graph.*;
+import org.junit.*;
+import org.junit.rules.Timeout;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * ShardedGraphSearch class and its transports.
+ */
+public class ShardedGraphSearchTest {
+
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private DLGraph<String,String> graph;
+    private Partition<String> partition;
+    private ShardedGraphSearch<String,String> search;
+
+    /**
+     * Builds the chain n0 -> n1 -> ... -> n9, with a shortcut n2 -> n5 and an unreachable
+     * node z, split over three shards by hash.
+     */
+    @Before
+    public void setUp() {
+        graph = new DLGraph<>();
+        for (int i = 0; i < 10; i++) graph.addNode(new Node<>("n" + i));
+        graph.addNode(new Node<>("z"));
+        for (int i = 0; i < 9; i++) graph.addEdge(new Node<>("n" + i), new Node<>("n" + (i + 1)), "e" + i);
+        graph.addEdge(new Node<>("n2"), new Node<>("n5"), "shortcut");
+        partition = GraphPartitioner.byHash(3);
+        search = new ShardedGraphSearch<>(partition, localShards(graph, partition), null);
+    }
+
+    private static List<LocalShard<String,String>> localShards(Graph<String,String> g, Partition<String> p) {
+        List<LocalShard<String,String>> shards = new ArrayList<>();
+        List<DLGraph<String,String>> split = GraphPartitioner.split(g, p);
+        for (int s = 0; s < split.size(); s++) shards.add(new LocalShard<>(split.get(s), p, s));
+        return shards;
+    }
+
+    private static List<String> labels(List<Edge<String,String>> path) {
+        List<String> labels = new ArrayList<>();
+        for (Edge<String,String> e: path) labels.add(e.getLabel());
+        return labels;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongShardCount() {
+        new ShardedGraphSearch<>(GraphPartitioner.<String>byHash(2), localShards(graph, partition), null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingNode() throws IOException {
+        search.shortestPath("n0", "missing");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullNode() throws IOException {
+        search.shortestPath(null, "n0");
+    }
+
+    @Test
+    public void testContainsNode() throws IOException {
+        assertTrue(search.containsNode("n3"));
+        assertFalse(search.containsNode("missing"));
+    }
+
+    @Test
+    public void testShortestPathAcrossShards() throws IOException {
+        assertEquals(List.of("e0", "e1", "shortcut", "e5", "e6"), labels(search.shortestPath("n0", "n7")));
+        assertEquals(List.of("e3"), labels(search.shortestPath("n3", "n4")));
+    }
+
+    @Test
+    public void testSameNodeIsEmptyPath() throws IOException {
+        assertEquals(List.of(), search.shortestPath("n4", "n4"));
+    }
+
+    @Test
+    public void testUnreachable() throws IOException {
+        assertNull(search.shortestPath("n0", "z"));
+        assertNull(search.shortestPath("n9", "n0"));
+    }
+
+    @Test
+    public void testEdgeOrderPicksFirstEdge() throws IOException {
+        graph.addEdge(new Node<>("n0"), new Node<>("n1"), "a");
+        Comparator<Edge<String,String>> byLabel = Comparator.comparing(Edge::getLabel);
+        ShardedGraphSearch<String,String> ordered =
+                new ShardedGraphSearch<>(partition, localShards(graph, partition), byLabel);
+        assertEquals(List.of("a", "e1"), labels(ordered.shortestPath("n0", "n2")));
+    }
+
+    @Test
+    public void testSocketShardsFindSamePaths() throws IOException {
+        List<ShardServer<String,String>> servers = new ArrayList<>();
+        List<SocketShard<String,String>> shards = new ArrayList<>();
+        try {
+            List<DLGraph<String,String>> split = GraphPartitioner.split(graph, partition);
+            for (int s = 0; s < split.size(); s++) {
+                ShardServer<String,String> server = new ShardServer<>(split.get(s), partition, s, 0,
+                        GraphSnapshot.STRINGS, GraphSnapshot.STRINGS);
+                servers.add(server);
+                server.start();
+                shards.add(new SocketShard<>(server.getPort(), GraphSnapshot.STRINGS, GraphSnapshot.STRINGS));
+            }
+            ShardedGraphSearch<String,String> remote = new ShardedGraphSearch<>(partition, shards, null);
+            for (Node<String> from: graph.getAllNodes()) {
+                for (Node<String> to: graph.getAllNodes()) {
+                    assertEquals(search.shortestPath(from.getData(), to.getData()),
+                            remote.shortestPath(from.getData(), to.getData()));
+                }
+            }
+            assertFalse(remote.containsNode("missing"));
+        } finally {
+            for (SocketShard<String,String> shard: shards) shard.close();
+            for (ShardServer<String,String> server: servers) server.close();
+        }
+    }
+
+    /**
+     * Returns the id of a shard that holds a copy of a child owned by another shard, and the
+     * data of that child.
+     */
+    private Map.Entry<Integer, String> ghostNode() {
+        List<DLGraph<String,String>> split = GraphPartitioner.split(graph, partition);
+        for (int s = 0; s < split.size(); s++) {
+            for (Node<String> n: split.get(s).getNodeView()) {
+                if (partition.shardOf(n.getData()) != s) return Map.entry(s, n.getData());
+            }
+        }
+        throw new AssertionError("every child is owned by its parent's shard");
+    }
+
+    @Test
+    public void testLocalShardOnlyOwnsItsNodes() throws IOException {
+        Map.Entry<Integer, String> ghost = ghostNode();
+        LocalShard<String,String> shard = new LocalShard<>(GraphPartitioner.split(graph, partition).get(ghost.getKey()),
+                partition, ghost.getKey());
+        assertFalse(shard.containsNode(ghost.getValue()));
+        try {
+            shard.expand(List.of(ghost.getValue()));
+            fail("a copy of a node owned by another shard cannot be expanded");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testShardServerOnlyOwnsItsNodes() throws IOException {
+        Map.Entry<Integer, String> ghost = ghostNode();
+        try (ShardServer<String,String> server = new ShardServer<>(GraphPartitioner.split(graph, partition)
+                .get(ghost.getKey()), partition, ghost.getKey(), 0, GraphSnapshot.STRINGS, GraphSnapshot.STRINGS);
+             SocketShard<String,String> shard = new SocketShard<>(server.getPort(), GraphSnapshot.STRINGS,
+                     GraphSnapshot.STRINGS)) {
+            server.start();
+            assertFalse(shard.containsNode(ghost.getValue()));
+        }
+    }
+
+    @Test
+    public void testShardServerLoadedFromWrittenShard() throws IOException, InterruptedException {
+        Map.Entry<Integer, String> ghost = ghostNode();
+        Path directory = Files.createTempDirectory("shards");
+        try {
+            Path file = GraphPartitioner.writeShards(graph, partition, directory, GraphSnapshot.STRINGS,
+                    GraphSnapshot.STRINGS).get(ghost.getKey());
+            ShardServer<String,String> server = ShardServer.load(file, 0, GraphSnapshot.STRINGS, GraphSnapshot.STRINGS);
+            try (SocketShard<String,String> shard = new SocketShard<>(server.getPort(), GraphSnapshot.STRINGS,
+                    GraphSnapshot.STRINGS)) {
+                server.start();
+                assertFalse(shard.containsNode(ghost.getValue()));
+                for (Node<String> n: graph.getNodeView()) {
+                    if (partition.shardOf(n.getData()) == ghost.getKey()) {
+                        assertTrue(shard.containsNode(n.getData()));
+                        assertEquals(graph.getAllEdges(n).size(), shard.expand(List.of(n.getData())).get(0).size());
+                    }
+                }
+            } finally {
+                server.close();
+            }
+            // the acceptor stops once the server is closed, so main would return
+            server.awaitClose();
+        } finally {
+            for (Path file: Files.newDirectoryStream(directory)) Files.delete(file);
+            Files.delete(directory);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLocalShardIdOutsidePartition() {
+        new LocalShard<>(graph, partition, 3);
+    }
+
+    @Test(expected = IOException.class)
+    public void testSocketShardMissingNode() throws IOException {
+        try (ShardServer<String,String> server = new ShardServer<>(graph, 0, GraphSnapshot.STRINGS, GraphSnapshot.STRINGS);
+             SocketShard<String,String> shard = new SocketShard<>(server.getPort(), GraphSnapshot.STRINGS,
+                     GraphSnapshot.STRINGS)) {
+            server.start();
+            shard.expand(List.of("missing"));
+        }
+    }
+}
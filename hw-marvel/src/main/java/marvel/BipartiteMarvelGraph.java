@@ -0,0 +1,252 @@
+package marvel;
+
+import java.util.*;
+
+/**
+ * This class represents an immutable, undirected, bipartite graph of Marvel characters and the
+ * comic books they appear in, with an edge between every character and every book the
+ * character appears in. Unlike the graph built by MarvelPaths.buildGraph, which holds an edge
+ * between every pair of characters in a book, the size of this graph is linear in the number
+ * of lines of the data file.
+ *
+ * Characters and books are identified by dense integer ids assigned in alphabetical order, so
+ * comparing two ids of the same kind compares the names they stand for.
+ *
+ * Specification fields:
+ * @spec.specfield characters : sequence of Strings // The names of the characters, in alphabetical order.
+ * @spec.specfield books : sequence of Strings // The titles of the books, in alphabetical order.
+ * @spec.specfield appearances : set of (character, book) // The books each character appears in.
+ *
+ * Abstract Invariant:
+ * No character or book is null or duplicated, and every character appears in at least one book.
+ */
+public final class BipartiteMarvelGraph {
+
+    /**
+     * Holds the names of every character, in alphabetical order.
+     */
+    private final String[] characters;
+
+    /**
+     * Holds the titles of every book, in alphabetical order.
+     */
+    private final String[] books;
+
+    /**
+     * Holds, for every character id c, the index of the first book of c in bookIds.
+     * bookOffsets[characters.length] is bookIds.length.
+     */
+    private final int[] bookOffsets;
+
+    /**
+     * Holds the ids of the books of every character, grouped by character and in increasing
+     * order within each character.
+     */
+    private final int[] bookIds;
+
+    /**
+     * Holds, for every book id b, the index of the first character of b in characterIds.
+     * characterOffsets[books.length] is characterIds.length.
+     */
+    private final int[] characterOffsets;
+
+    /**
+     * Holds the ids of the characters of every book, grouped by book and in increasing order
+     * within each book.
+     */
+    private final int[] characterIds;
+
+    // Abstraction Function (this):
+    // BipartiteMarvelGraph, g, represents the characters characters[0..], the books books[0..]
+    // and an appearance (characters[c], books[bookIds[k]]) for every k with
+    // bookOffsets[c] <= k < bookOffsets[c + 1].
+
+    // Representation Invariant for every graph g:
+    // no field is null, characters and books are sorted and contain no duplicates
+    // bookOffsets.length == characters.length + 1, characterOffsets.length == books.length + 1
+    // both offset arrays start at 0 and are non-decreasing
+    // the ids of each character's books and of each book's characters are strictly increasing
+    // (c, b) is in bookIds exactly when (b, c) is in characterIds
+
+    /**
+     * @param casts a map with each book as a key and the list of distinct characters in each
+     *              book as the corresponding value
+     * @spec.requires casts != null, casts contains no null keys, values or characters, and no
+     *                list of characters is empty or contains duplicates
+     * @spec.effects Constructs a new BipartiteMarvelGraph holding every book of casts and
+     *               every character appearing in it
+     */
+    BipartiteMarvelGraph(Map<String, List<String>> casts) {
+        books = casts.keySet().toArray(new String[0]);
+        Arrays.sort(books);
+
+        Set<String> names = new HashSet<>();
+        int appearances = 0;
+        for (List<String> cast: casts.values()) {
+            names.addAll(cast);
+            appearances += cast.size();
+        }
+        characters = names.toArray(new String[0]);
+        Arrays.sort(characters);
+        Map<String, Integer> ids = new HashMap<>();
+        for (int c = 0; c < characters.length; c++) ids.put(characters[c], c);
+
+        characterOffsets = new int[books.length + 1];
+        characterIds = new int[appearances];
+        bookOffsets = new int[characters.length + 1];
+        for (int b = 0; b < books.length; b++) {
+            List<String> cast = casts.get(books[b]);
+            int start = characterOffsets[b];
+            for (int i = 0; i < cast.size(); i++) {
+                int c = ids.get(cast.get(i));
+                characterIds[start + i] = c;
+                bookOffsets[c + 1]++;
+            }
+            Arrays.sort(characterIds, start, start + cast.size());
+            characterOffsets[b + 1] = start + cast.size();
+        }
+
+        // books are visited in increasing id order, so each character's books come out sorted
+        for (int c = 0; c < characters.length; c++) bookOffsets[c + 1] += bookOffsets[c];
+        bookIds = new int[appearances];
+        int[] next = Arrays.copyOf(bookOffsets, characters.length);
+        for (int b = 0; b < books.length; b++) {
+            for (int k = characterOffsets[b]; k < characterOffsets[b + 1]; k++) {
+                bookIds[next[characterIds[k]]++] = b;
+            }
+        }
+        checkRep();
+    }
+
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert (characters != null && books != null && bookIds != null && characterIds != null);
+        assert (bookOffsets.length == characters.length + 1) : "every character needs a range of books";
+        assert (characterOffsets.length == books.length + 1) : "every book needs a range of characters";
+        assert (bookIds.length == characterIds.length) : "appearances must match in both directions";
+    }
+
+    /**
+     * Returns the number of characters in this graph
+     *
+     * @return number of characters
+     */
+    public int characterCount() {
+        return characters.length;
+    }
+
+    /**
+     * Returns the number of books in this graph
+     *
+     * @return number of books
+     */
+    public int bookCount() {
+        return books.length;
+    }
+
+    /**
+     * Returns the id of the given character
+     *
+     * @param name name of the character
+     * @return id of the character, or -1 if name is null or not a character in this graph
+     */
+    public int characterId(String name) {
+        if (name == null) return -1;
+        int id = Arrays.binarySearch(characters, name);
+        return id >= 0 ? id : -1;
+    }
+
+    /**
+     * Returns the name of the character with the given id
+     *
+     * @param id id of the character
+     * @spec.requires 0 &lt;= id &lt; characterCount()
+     * @return name of the character
+     */
+    public String character(int id) {
+        return characters[id];
+    }
+
+    /**
+     * Returns the title of the book with the given id
+     *
+     * @param id id of the book
+     * @spec.requires 0 &lt;= id &lt; bookCount()
+     * @return title of the book
+     */
+    public String book(int id) {
+        return books[id];
+    }
+
+    /**
+     * Returns the index of the first book of the given character. The books of the character
+     * are bookAt(k) for bookStart(id) &lt;= k &lt; bookEnd(id), in increasing id order.
+     *
+     * @param id id of the character
+     * @spec.requires 0 &lt;= id &lt; characterCount()
+     * @return index of the first book of the character
+     */
+    public int bookStart(int id) {
+        return bookOffsets[id];
+    }
+
+    /**
+     * Returns one past the index of the last book of the given character.
+     *
+     * @param id id of the character
+     * @spec.requires 0 &lt;= id &lt; characterCount()
+     * @return index just past the last book of the character
+     */
+    public int bookEnd(int id) {
+        return bookOffsets[id + 1];
+    }
+
+    /**
+     * Returns the id of the book at the given index
+     *
+     * @param k index of an appearance, between bookStart(c) and bookEnd(c) for some character c
+     * @spec.requires 0 &lt;= k &lt; number of appearances
+     * @return id of the book
+     */
+    public int bookAt(int k) {
+        return bookIds[k];
+    }
+
+    /**
+     * Returns the index of the first character of the given book. The characters of the book
+     * are characterAt(k) for characterStart(id) &lt;= k &lt; characterEnd(id), in increasing
+     * id order.
+     *
+     * @param id id of the book
+     * @spec.requires 0 &lt;= id &lt; bookCount()
+     * @return index of the first character of the book
+     */
+    public int characterStart(int id) {
+        return characterOffsets[id];
+    }
+
+    /**
+     * Returns one past the index of the last character of the given book.
+     *
+     * @param id id of the book
+     * @spec.requires 0 &lt;= id &lt; bookCount()
+     * @return index just past the last character of the book
+     */
+    public int characterEnd(int id) {
+        return characterOffsets[id + 1];
+    }
+
+    /**
+     * Returns the id of the character at the given index
+     *
+     * @param k index of an appearance, between characterStart(b) and characterEnd(b) for
+     *          some book b
+     * @spec.requires 0 &lt;= k &lt; number of appearances
+     * @return id of the character
+     */
+    public int characterAt(int k) {
+        return characterIds[k];
+    }
+}
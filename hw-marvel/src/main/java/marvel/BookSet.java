@@ -0,0 +1,167 @@
+package marvel;
+
+import java.util.*;
+
+/**
+ * This class represents an immutable, non-empty set of comic books, used as the label of an
+ * edge in the aggregated Marvel graph to hold every book two characters appear in together.
+ * Books are stored compactly as sorted integer ids into a table of book titles that is shared
+ * by every BookSet of the same graph. BookSets are ordered by comparing their alphabetically
+ * sorted titles one by one, so they are ordered by their first book before anything else.
+ *
+ * Specification fields:
+ * @spec.specfield books : set of Strings // The titles of the books in this set.
+ *
+ * Abstract Invariant:
+ * books is not empty and contains no null titles.
+ */
+public final class BookSet implements Iterable<String>, Comparable<BookSet> {
+
+    /**
+     * Holds the titles of every book of the graph in alphabetical order, shared between
+     * every BookSet of the graph.
+     */
+    private final String[] titles;
+
+    /**
+     * Holds the ids of the books in this set, in increasing order.
+     */
+    private final int[] ids;
+
+    // Abstraction Function (this):
+    // BookSet, s, represents the set of books {titles[ids[i]] | 0 <= i < ids.length}.
+
+    // Representation Invariant for every BookSet s:
+    // titles != null, ids != null and ids.length > 0
+    // titles is sorted and contains no null or duplicate titles
+    // ids is strictly increasing and every id is in [0, titles.length)
+
+    /**
+     * @param titles the titles of every book of the graph, in alphabetical order
+     * @param ids the ids of the books in this set, in increasing order
+     * @spec.requires titles and ids satisfy the representation invariant, and neither
+     *                array is modified after this call
+     * @spec.effects Constructs a new BookSet holding the books titles[ids[i]]
+     */
+    BookSet(String[] titles, int[] ids) {
+        this.titles = titles;
+        this.ids = ids;
+        checkRep();
+    }
+
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert (titles != null && ids != null && ids.length > 0) : "book set cannot be empty";
+        assert (ids[0] >= 0 && ids[ids.length - 1] < titles.length) : "book ids must be in the table";
+    }
+
+    /**
+     * Returns the alphabetically first book in this set
+     *
+     * @return title of the alphabetically first book
+     */
+    public String first() {
+        return titles[ids[0]];
+    }
+
+    /**
+     * Returns the number of books in this set
+     *
+     * @return number of books in this set
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Checks if the given book is in this set
+     *
+     * @param title title of the book
+     * @return true if this set contains the given book, false otherwise
+     */
+    public boolean contains(String title) {
+        if (title == null) return false;
+        int id = Arrays.binarySearch(titles, title);
+        return id >= 0 && Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    /**
+     * Returns the books in this set in alphabetical order
+     *
+     * @return new list of the titles of the books in this set, in alphabetical order
+     */
+    public List<String> toList() {
+        List<String> books = new ArrayList<>(ids.length);
+        for (int id: ids) books.add(titles[id]);
+        return books;
+    }
+
+    /**
+     * Returns an iterator over the books in this set in alphabetical order. The iterator
+     * does not support remove.
+     *
+     * @return iterator over the titles of the books in this set
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return Collections.unmodifiableList(toList()).iterator();
+    }
+
+    /**
+     * Compares this set with the given set by comparing their books in alphabetical order one
+     * by one, with a set that runs out of books first being the smaller one.
+     *
+     * @param other the BookSet compared with this set
+     * @return a negative integer, zero or a positive integer as this set is less than, equal
+     *         to, or greater than other
+     * @throws NullPointerException if other is null
+     */
+    @Override
+    public int compareTo(BookSet other) {
+        int common = Math.min(ids.length, other.ids.length);
+        for (int i = 0; i < common; i++) {
+            int order = titles[ids[i]].compareTo(other.titles[other.ids[i]]);
+            if (order != 0) return order;
+        }
+        return Integer.compare(ids.length, other.ids.length);
+    }
+
+    /**
+     * Standard equality operation.
+     *
+     * @param obj the object to be compared for equality
+     * @return true if and only if 'obj' is a BookSet holding the same books as 'this'
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof BookSet)) return false;
+        BookSet other = (BookSet) obj;
+        if (titles == other.titles) return Arrays.equals(ids, other.ids);
+        return toList().equals(other.toList());
+    }
+
+    /**
+     * Standard hashCode function.
+     *
+     * @return an int that all objects equal to this will also return
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int id: ids) hash = 31 * hash + titles[id].hashCode();
+        return hash;
+    }
+
+    /**
+     * Returns the books in this set
+     *
+     * @return the titles of the books in this set in alphabetical order, as a list
+     */
+    @Override
+    public String toString() {
+        return toList().toString();
+    }
+}
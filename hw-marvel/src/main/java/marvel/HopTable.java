@@ -0,0 +1,534 @@
+package marvel;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.zip.CRC32;
+import graph.*;
+
+/**
+ * This class represents an immutable table of the shortest paths between every pair of
+ * characters of a Marvel graph, precomputed by running a BFS from every character and stored
+ * in a file that is memory-mapped when loaded, so a table can answer path and distance
+ * queries right after startup without running a search.
+ *
+ * The table holds one row per source character, with the hop distance and the parent of
+ * every character on the shortest path from the source. The BFS visits characters in
+ * alphabetical order, so the paths are the same paths MarvelPaths.shortestPath returns.
+ * The file ends with a CRC32 checksum of everything before it, so truncated or corrupt
+ * tables are rejected when loaded.
+ *
+ * Specification fields:
+ * @spec.specfield characters : sequence of Strings // The characters of the graph, in alphabetical order.
+ * @spec.specfield paths : map from (String, String) to sequence of Strings // The shortest path between
+ *                                                                           each pair of characters.
+ *
+ * Abstract Invariant:
+ * No character is null or duplicated, and every path starts and ends at its pair of characters.
+ */
+public final class HopTable {
+
+    /**
+     * Holds the number that starts every hop table file.
+     */
+    private static final int MAGIC = 0x484F5053; // "HOPS"
+
+    /**
+     * Holds the version of the file format written by this class.
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * Holds the distance stored for characters 255 or more hops from the source, or that
+     * cannot be reached from it. The distance of such a character is found by walking parents.
+     */
+    private static final int FAR = 0xFF;
+
+    /**
+     * Holds the number of bytes the checksum is computed over at a time.
+     */
+    private static final int CHECKSUM_CHUNK = 1 << 20;
+
+    /**
+     * Holds the number of sources each parallel task runs a BFS from once it stops splitting.
+     */
+    private static final int SOURCES_PER_TASK = 64;
+
+    /**
+     * Holds the names of the characters, in alphabetical order.
+     */
+    private final String[] characters;
+
+    /**
+     * Holds the number of bytes each parent takes up in a row: 2 or 4.
+     */
+    private final int parentWidth;
+
+    /**
+     * Holds the number of bytes of a row: a distance byte and a parent for every character.
+     */
+    private final int rowBytes;
+
+    /**
+     * Holds the number of rows mapped by each segment.
+     */
+    private final int rowsPerSegment;
+
+    /**
+     * Holds the memory-mapped rows of the table, split into segments of rowsPerSegment rows
+     * since a single buffer cannot hold more than Integer.MAX_VALUE bytes.
+     */
+    private final MappedByteBuffer[] segments;
+
+    // Abstraction Function (this):
+    // HopTable, t, represents the characters characters[0..] and, for every pair of ids (s, v)
+    // where v can be reached from s, the path [characters[s], ..., characters[p], characters[v]]
+    // where p is the parent of v in row s and the path to p is found the same way, with the
+    // parent of s in row s being s itself.
+
+    // Representation Invariant for every HopTable t:
+    // characters != null, segments != null, characters is sorted with no null or duplicate names
+    // parentWidth is 2 or 4, and parentWidth is 4 whenever characters.length >= 0xFFFF
+    // rowBytes == characters.length * (1 + parentWidth)
+    // segments together hold characters.length rows of rowBytes bytes
+
+    /**
+     * @param characters the names of the characters, in alphabetical order
+     * @param parentWidth the number of bytes of each parent
+     * @param segments the memory-mapped rows of the table
+     * @param rowsPerSegment the number of rows in each segment
+     * @spec.requires the arguments satisfy the representation invariant
+     * @spec.effects Constructs a new HopTable reading its rows from segments
+     */
+    private HopTable(String[] characters, int parentWidth, MappedByteBuffer[] segments, int rowsPerSegment) {
+        this.characters = characters;
+        this.parentWidth = parentWidth;
+        this.rowBytes = characters.length * (1 + parentWidth);
+        this.segments = segments;
+        this.rowsPerSegment = rowsPerSegment;
+        checkRep();
+    }
+
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert (characters != null && segments != null);
+        assert (parentWidth == 2 || parentWidth == 4) : "parents take 2 or 4 bytes";
+        assert (parentWidth == 4 || characters.length < 0xFFFF) : "parents must fit in their width";
+    }
+
+    /**
+     * Builds the Marvel graph of the given file, precomputes its hop table and writes it to
+     * the given file.
+     * @param args optional arguments: the data file (default marvel.csv) and the table file
+     *             written (default marvel.hops)
+     * @throws IOException if the table file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        String filename = args.length > 0 ? args[0] : "marvel.csv";
+        Path table = Paths.get(args.length > 1 ? args[1] : "marvel.hops");
+        long start = System.nanoTime();
+        DLGraph<String,String> marvelGraph = MarvelPaths.buildGraphInParallel(filename);
+        write(marvelGraph, table);
+        System.out.printf("wrote %s for %d characters in %.1f s (%d bytes)%n", table,
+                marvelGraph.size(), (System.nanoTime() - start) / 1e9, Files.size(table));
+    }
+
+    /**
+     * Runs a BFS from every character of the given graph, in parallel, and writes the hop
+     * table of the graph to the given file, replacing the file if it exists. The table is
+     * written to a temporary file next to the given file and moved over it once complete, so
+     * the given file never holds a partly written table.
+     * @param g the graph whose table is computed
+     * @param file the file the table is written to
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if g or file is null
+     */
+    public static void write(Graph<String,String> g, Path file) throws IOException {
+        if (g == null || file == null) throw new IllegalArgumentException("Graph and file cannot be null.");
+
+        // characters are numbered alphabetically and the children of each one sorted by id, so
+        // the BFS of every source discovers each character through its alphabetically first parent
+        String[] characters = new String[g.size()];
+        int id = 0;
+        for (Node<String> n: g.getNodeView()) characters[id++] = n.getData();
+        Arrays.sort(characters);
+        Map<String, Integer> ids = new HashMap<>();
+        for (int c = 0; c < characters.length; c++) ids.put(characters[c], c);
+
+        int[] offsets = new int[characters.length + 1];
+        int[][] children = new int[characters.length][];
+        for (int c = 0; c < characters.length; c++) {
+            Set<Edge<String,String>> edges = g.getEdgeView(new Node<>(characters[c]));
+            int[] targets = new int[edges.size()];
+            int k = 0;
+            for (Edge<String,String> e: edges) targets[k++] = ids.get(e.getChild().getData());
+            Arrays.sort(targets);
+            int distinct = 0;
+            for (int i = 0; i < targets.length; i++) {
+                if (distinct == 0 || targets[distinct - 1] != targets[i]) targets[distinct++] = targets[i];
+            }
+            children[c] = Arrays.copyOf(targets, distinct);
+            offsets[c + 1] = offsets[c] + distinct;
+        }
+        int[] targets = new int[offsets[characters.length]];
+        for (int c = 0; c < characters.length; c++) {
+            System.arraycopy(children[c], 0, targets, offsets[c], children[c].length);
+        }
+        children = null;
+
+        int parentWidth = characters.length < 0xFFFF ? 2 : 4;
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(headerBytes);
+        header.writeInt(MAGIC);
+        header.writeInt(VERSION);
+        header.writeInt(characters.length);
+        header.writeInt(parentWidth);
+        for (String name: characters) header.writeUTF(name);
+        header.flush();
+
+        Path absolute = file.toAbsolutePath();
+        Path temporary = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                writeFully(out, ByteBuffer.wrap(headerBytes.toByteArray()), 0);
+                ForkJoinPool.commonPool().invoke(new RowTask(out, headerBytes.size(), offsets, targets,
+                                                             parentWidth, 0, characters.length));
+                // the rows are written out of order, so the checksum is computed once they are all written
+                long length = headerBytes.size() + (long) characters.length * characters.length * (1 + parentWidth);
+                ByteBuffer trailer = ByteBuffer.allocate(4).putInt(checksum(out, length));
+                trailer.flip();
+                writeFully(out, trailer, length);
+                out.force(false);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Loads the hop table in the given file by memory-mapping its rows, after checking the
+     * checksum of the whole file.
+     * @param file the file the table was written to by write
+     * @return the table in the file
+     * @throws IOException if the file cannot be read or is not a hop table file
+     * @throws IllegalArgumentException if file is null
+     */
+    public static HopTable load(Path file) throws IOException {
+        if (file == null) throw new IllegalArgumentException("File cannot be null.");
+        String[] characters;
+        int parentWidth;
+        long dataStart;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException(file + " is not a hop table file");
+            int version = in.readInt();
+            if (version != VERSION) throw new IOException("unsupported hop table version " + version);
+            characters = new String[in.readInt()];
+            parentWidth = in.readInt();
+            dataStart = 16;
+            for (int c = 0; c < characters.length; c++) {
+                characters[c] = in.readUTF();
+                dataStart += 2 + utfLength(characters[c]);
+            }
+        }
+
+        long rowBytes = (long) characters.length * (1 + parentWidth);
+        int rowsPerSegment = rowBytes == 0 ? 1 : (int) Math.max(1, Integer.MAX_VALUE / rowBytes);
+        MappedByteBuffer[] segments = new MappedByteBuffer[(characters.length + rowsPerSegment - 1) / rowsPerSegment];
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = dataStart + rowBytes * characters.length;
+            if (in.size() != length + 4) throw new IOException(file + " is truncated");
+            ByteBuffer trailer = ByteBuffer.allocate(4);
+            while (trailer.hasRemaining()) {
+                if (in.read(trailer, length + trailer.position()) < 0) throw new IOException(file + " is truncated");
+            }
+            if (checksum(in, length) != trailer.getInt(0)) throw new IOException(file + " is corrupt: checksum mismatch");
+            for (int i = 0; i < segments.length; i++) {
+                int rows = Math.min(rowsPerSegment, characters.length - i * rowsPerSegment);
+                segments[i] = in.map(FileChannel.MapMode.READ_ONLY,
+                                     dataStart + rowBytes * i * rowsPerSegment, rowBytes * rows);
+            }
+        }
+        return new HopTable(characters, parentWidth, segments, rowsPerSegment);
+    }
+
+    /**
+     * Returns the number of characters in this table
+     *
+     * @return number of characters
+     */
+    public int size() {
+        return characters.length;
+    }
+
+    /**
+     * Checks if the given character is in this table
+     *
+     * @param name name of the character
+     * @return true if the character is in this table, false otherwise
+     */
+    public boolean contains(String name) {
+        return name != null && Arrays.binarySearch(characters, name) >= 0;
+    }
+
+    /**
+     * Returns the number of hops on the shortest path between the given characters
+     *
+     * @param char1 the starting character
+     * @param char2 the destination character
+     * @return number of edges on the shortest path from char1 to char2, -1 if there is no path
+     * @throws IllegalArgumentException if either character is null or not in this table
+     */
+    public int distance(String char1, String char2) {
+        int source = idOf(char1);
+        int target = idOf(char2);
+        if (parent(source, target) < 0) return -1;
+        int hops = distanceByte(source, target);
+        if (hops < FAR) return hops;
+        hops = 0;
+        for (int v = target; v != source; v = parent(source, v)) hops++;
+        return hops;
+    }
+
+    /**
+     * Returns the characters on the shortest path between the given characters
+     *
+     * @param char1 the starting character
+     * @param char2 the destination character
+     * @return list of the characters on the path from char1 to char2, including both of them,
+     *         null if there is no path
+     * @throws IllegalArgumentException if either character is null or not in this table
+     */
+    public List<String> path(String char1, String char2) {
+        int source = idOf(char1);
+        int target = idOf(char2);
+        if (parent(source, target) < 0) return null;
+        LinkedList<String> path = new LinkedList<>();
+        for (int v = target; v != source; v = parent(source, v)) path.addFirst(characters[v]);
+        path.addFirst(characters[source]);
+        return new ArrayList<>(path);
+    }
+
+    /**
+     * Returns the id of the given character
+     *
+     * @param name name of the character
+     * @return id of the character
+     * @throws IllegalArgumentException if name is null or not in this table
+     */
+    private int idOf(String name) {
+        if (name == null) throw new IllegalArgumentException("Cannot give null characters.");
+        int id = Arrays.binarySearch(characters, name);
+        if (id < 0) throw new IllegalArgumentException("Table must contain the character " + name + ".");
+        return id;
+    }
+
+    /**
+     * Returns the stored distance of a character in the row of a source
+     *
+     * @param source id of the source character
+     * @param v id of the character
+     * @return stored distance of v from source, FAR if v is FAR or more hops away or unreachable
+     */
+    private int distanceByte(int source, int v) {
+        return segments[source / rowsPerSegment].get(rowStart(source) + v) & 0xFF;
+    }
+
+    /**
+     * Returns the parent of a character in the row of a source
+     *
+     * @param source id of the source character
+     * @param v id of the character
+     * @return id of the parent of v on the path from source, source if v is source, or -1 if v
+     *         cannot be reached from source
+     */
+    private int parent(int source, int v) {
+        MappedByteBuffer segment = segments[source / rowsPerSegment];
+        int at = rowStart(source) + characters.length + v * parentWidth;
+        if (parentWidth == 2) {
+            int parent = segment.getChar(at);
+            return parent == 0xFFFF ? -1 : parent;
+        }
+        return segment.getInt(at);
+    }
+
+    /**
+     * Returns the index of the row of a source within its segment
+     *
+     * @param source id of the source character
+     * @return index of the first byte of the row in its segment
+     */
+    private int rowStart(int source) {
+        return (source % rowsPerSegment) * rowBytes;
+    }
+
+    /**
+     * Returns the number of bytes DataOutputStream.writeUTF writes for the given string,
+     * excluding its 2-byte length.
+     *
+     * @param s the string written
+     * @return number of bytes of the modified UTF-8 encoding of s
+     */
+    private static int utfLength(String s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            if (ch >= 0x0001 && ch <= 0x007F) length++;
+            else if (ch <= 0x07FF) length += 2;
+            else length += 3;
+        }
+        return length;
+    }
+
+    /**
+     * Returns the CRC32 checksum of the first bytes of the given channel.
+     *
+     * @param channel the channel read
+     * @param length the number of bytes the checksum is computed over
+     * @return the checksum of bytes [0, length) of channel
+     * @throws IOException if the channel cannot be read or holds fewer than length bytes
+     */
+    private static int checksum(FileChannel channel, long length) throws IOException {
+        CRC32 checksum = new CRC32();
+        ByteBuffer chunk = ByteBuffer.allocate((int) Math.min(CHECKSUM_CHUNK, Math.max(length, 1)));
+        for (long position = 0; position < length; ) {
+            chunk.clear().limit((int) Math.min(chunk.capacity(), length - position));
+            int read = channel.read(chunk, position);
+            if (read < 0) throw new IOException("hop table is truncated");
+            chunk.flip();
+            checksum.update(chunk);
+            position += read;
+        }
+        return (int) checksum.getValue();
+    }
+
+    /**
+     * Writes all of the given buffer to the channel at the given position.
+     *
+     * @param out the channel written to
+     * @param buffer the bytes written
+     * @param position the position in the channel the bytes are written at
+     * @throws IOException if the channel cannot be written
+     */
+    private static void writeFully(FileChannel out, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) position += out.write(buffer, position);
+    }
+
+    /**
+     * A task computing and writing the rows of a range of sources, splitting itself in halves
+     * until the range is small enough. Each row is written at its own position of the channel,
+     * so tasks can write concurrently.
+     */
+    private static final class RowTask extends RecursiveAction {
+
+        /**
+         * Holds the channel the rows are written to.
+         */
+        private final FileChannel out;
+
+        /**
+         * Holds the position of the first row in the channel.
+         */
+        private final long dataStart;
+
+        /**
+         * Holds the index of the first child of every character in targets, with
+         * offsets[n] == targets.length.
+         */
+        private final int[] offsets;
+
+        /**
+         * Holds the children of every character, in increasing order per character.
+         */
+        private final int[] targets;
+
+        /**
+         * Holds the number of bytes of each parent.
+         */
+        private final int parentWidth;
+
+        /**
+         * Holds the first source of the range and one past its last source.
+         */
+        private final int from, to;
+
+        /**
+         * @param out the channel the rows are written to
+         * @param dataStart the position of the first row in the channel
+         * @param offsets the index of the first child of every character in targets
+         * @param targets the children of every character, in increasing order per character
+         * @param parentWidth the number of bytes of each parent
+         * @param from the first source of the range
+         * @param to one past the last source of the range
+         * @spec.effects Constructs a new RowTask for the sources in [from, to)
+         */
+        RowTask(FileChannel out, long dataStart, int[] offsets, int[] targets, int parentWidth, int from, int to) {
+            this.out = out;
+            this.dataStart = dataStart;
+            this.offsets = offsets;
+            this.targets = targets;
+            this.parentWidth = parentWidth;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SOURCES_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RowTask(out, dataStart, offsets, targets, parentWidth, from, middle),
+                          new RowTask(out, dataStart, offsets, targets, parentWidth, middle, to));
+                return;
+            }
+
+            int n = offsets.length - 1;
+            int[] queue = new int[n];
+            int[] parent = new int[n];
+            byte[] distance = new byte[n];
+            ByteBuffer row = ByteBuffer.allocate(n * (1 + parentWidth));
+            try {
+                for (int source = from; source < to; source++) {
+                    Arrays.fill(parent, -1);
+                    Arrays.fill(distance, (byte) FAR);
+                    parent[source] = source;
+                    distance[source] = 0;
+                    queue[0] = source;
+                    int head = 0;
+                    int tail = 1;
+                    while (head < tail) {
+                        int v = queue[head++];
+                        int hops = (distance[v] & 0xFF) + 1;
+                        for (int k = offsets[v]; k < offsets[v + 1]; k++) {
+                            int child = targets[k];
+                            if (parent[child] < 0) {
+                                parent[child] = v;
+                                distance[child] = (byte) Math.min(hops, FAR);
+                                queue[tail++] = child;
+                            }
+                        }
+                    }
+
+                    row.clear();
+                    row.put(distance);
+                    for (int v = 0; v < n; v++) {
+                        if (parentWidth == 2) row.putChar((char) parent[v]);
+                        else row.putInt(parent[v]);
+                    }
+                    row.flip();
+                    writeFully(out, row, dataStart + (long) source * row.capacity());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package marvel;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Supplier;
+import graph.*;
+
+/**
+ * This class measures how long MarvelPaths takes to build the Marvel graph and to answer
+ * shortest path queries between random pairs of characters, along with how many bytes are
+ * allocated per query.
+ */
+public class MarvelBenchmark {
+
+    // This is not an ADT
+
+    /**
+     * Holds the number of queries run before measuring, so that the JIT has compiled the
+     * search code before it is timed.
+     */
+    private static final int WARMUP_QUERIES = 20;
+
+    /**
+     * Holds the number of times each graph is built, so that builds can be timed both before
+     * and after the JIT has compiled the build code.
+     */
+    private static final int BUILD_ROUNDS = 3;
+
+    /**
+     * Runs the benchmark and prints the results.
+     * @param args optional arguments: the data file (default marvel.csv), the number of
+     *             measured queries (default 100), the random seed (default 331) and a
+     *             comma-separated list of the graph modes to compare, out of clique,
+     *             snapshot, int, aggregated and bipartite (default all of them)
+     * @throws IOException if the temporary snapshot file cannot be created or deleted
+     */
+    public static void main(String[] args) throws IOException {
+        String filename = args.length > 0 ? args[0] : "marvel.csv";
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 331;
+        List<String> modes = Arrays.asList((args.length > 3 ? args[3] : "clique,snapshot,int,aggregated,bipartite").split(","));
+
+        List<String[]> pairs = randomPairs(filename, WARMUP_QUERIES + queries, seed);
+        if (modes.contains("clique")) {
+            timeBuild("clique", () -> MarvelPaths.buildGraph(filename));
+            timeBuild("clique bulk", () -> MarvelPaths.buildGraphInBulk(filename));
+            DLGraph<String,String> marvelGraph = timeBuild("clique parallel",
+                    () -> MarvelPaths.buildGraphInParallel(filename));
+            runQueries("clique bfs", pairs, pair -> MarvelPaths.shortestPath(marvelGraph, pair[0], pair[1]));
+            runQueries("clique bidirectional bfs", pairs,
+                    pair -> MarvelPaths.bidirectionalShortestPath(marvelGraph, pair[0], pair[1]));
+        }
+        if (modes.contains("snapshot")) {
+            // the first build writes the snapshot and the later builds load it, as the CLI does
+            Path snapshot = Files.createTempFile("marvel-benchmark", ".graph");
+            Files.delete(snapshot);
+            try {
+                FrozenGraph<String,String> frozenGraph = timeBuild("snapshot load",
+                        () -> MarvelPaths.loadGraph(filename, snapshot));
+                runQueries("snapshot bfs", pairs, pair -> MarvelPaths.shortestPath(frozenGraph, pair[0], pair[1]));
+            } finally {
+                Files.deleteIfExists(snapshot);
+            }
+        }
+        if (modes.contains("int")) {
+            IntGraph<String,String> intGraph = timeBuild("int", () -> MarvelPaths.buildIntGraph(filename));
+            runQueries("int bfs", pairs, pair -> MarvelPaths.shortestPath(intGraph, pair[0], pair[1]));
+        }
+        if (modes.contains("aggregated")) {
+            DLGraph<String,BookSet> aggregatedGraph = timeBuild("aggregated",
+                    () -> MarvelPaths.buildAggregatedGraph(filename));
+            runQueries("aggregated bfs", pairs,
+                    pair -> MarvelPaths.shortestAggregatedPath(aggregatedGraph, pair[0], pair[1]));
+        }
+        if (modes.contains("bipartite")) {
+            BipartiteMarvelGraph bipartiteGraph = timeBuild("bipartite",
+                    () -> MarvelPaths.buildBipartiteGraph(filename));
+            runQueries("bipartite bfs", pairs,
+                    pair -> MarvelPaths.shortestBipartitePath(bipartiteGraph, pair[0], pair[1]));
+        }
+    }
+
+    /**
+     * Builds a graph BUILD_ROUNDS times and prints how long the first build took, before the
+     * JIT has compiled the build code, and how long the fastest build took.
+     * @param name the name of the graph mode printed with the build time
+     * @param build builds the graph
+     * @param <G> the type of the graph
+     * @return the graph built last
+     */
+    private static <G> G timeBuild(String name, Supplier<G> build) {
+        G graph = null;
+        long firstTime = 0;
+        long bestTime = Long.MAX_VALUE;
+        for (int round = 0; round < BUILD_ROUNDS; round++) {
+            graph = null; // lets the previous graph be collected while the next one is built
+            long buildStart = System.nanoTime();
+            graph = build.get();
+            long buildTime = System.nanoTime() - buildStart;
+            if (round == 0) firstTime = buildTime;
+            bestTime = Math.min(bestTime, buildTime);
+        }
+        System.out.printf("%s build: first %.1f ms, best %.1f ms%n", name, firstTime / 1e6, bestTime / 1e6);
+        return graph;
+    }
+
+    /**
+     * Picks random pairs of characters from the given file.
+     * @param filename the file whose characters are picked
+     * @param count the number of pairs to pick
+     * @param seed the seed of the random number generator
+     * @return list of count pairs of characters in the file, each as an array of length 2
+     */
+    private static List<String[]> randomPairs(String filename, int count, long seed) {
+        Set<String> names = new HashSet<>();
+        for (List<String> cast: MarvelParser.parseData(filename).values()) names.addAll(cast);
+        List<String> characters = new ArrayList<>(names);
+        Collections.sort(characters);
+        Random random = new Random(seed);
+        List<String[]> pairs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            pairs.add(new String[] {characters.get(random.nextInt(characters.size())),
+                                    characters.get(random.nextInt(characters.size()))});
+        }
+        return pairs;
+    }
+
+    /**
+     * Runs the given query on every pair, and prints the latency percentiles and the average
+     * number of bytes allocated per query, excluding the warm-up queries.
+     * @param name the name of the query printed with its results
+     * @param pairs the pairs of characters queried, including the warm-up pairs
+     * @param query the query to run on each pair
+     */
+    private static void runQueries(String name, List<String[]> pairs, Query query) {
+        for (int i = 0; i < WARMUP_QUERIES; i++) query.run(pairs.get(i));
+
+        int measured = pairs.size() - WARMUP_QUERIES;
+        long[] latencies = new long[measured];
+        long allocatedStart = allocatedBytes();
+        for (int i = 0; i < measured; i++) {
+            long start = System.nanoTime();
+            query.run(pairs.get(WARMUP_QUERIES + i));
+            latencies[i] = System.nanoTime() - start;
+        }
+        long allocated = allocatedBytes() - allocatedStart;
+
+        Arrays.sort(latencies);
+        System.out.printf("%s: p50 %.1f us, p99 %.1f us, max %.1f us, %d bytes allocated per query%n",
+                name, latencies[measured / 2] / 1e3, latencies[measured * 99 / 100] / 1e3,
+                latencies[measured - 1] / 1e3, allocated / measured);
+    }
+
+    /**
+     * Returns the number of bytes allocated so far by the current thread.
+     * @return bytes allocated by this thread, or 0 if the JVM cannot measure allocation
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    /**
+     * A shortest path query between a pair of characters.
+     */
+    private interface Query {
+        /**
+         * Runs this query.
+         * @param pair the start and destination characters
+         */
+        void run(String[] pair);
+    }
+}
@@ -12,8 +12,12 @@
 package marvel;
 
 import java.io.*;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.BiConsumer;
+import graph.LineScanner;
 
 /**
  * Parser utility to load the Marvel Comics dataset.
@@ -32,31 +36,93 @@ public class MarvelParser {
      *         in each book as the corresponding value
      */
     public static Map<String, List<String>> parseData(String filename) {
-        List<String> lines = readLines(filename);
-
         Map<String, List<String>> books = new HashMap<>();
-        for (String line: lines) {
-            String[] split = line.split(",");
-            String character = split[0];
-            String book = split[1];
+        // the casts of the books whose lines are not contiguous in the file, as sets, so a
+        // later run of lines is merged without searching the cast list
+        Map<String, Set<String>> mergedCasts = new HashMap<>();
+        streamData(filename, (book, cast) -> {
+            List<String> characters = books.putIfAbsent(book, cast);
+            if (characters != null) {
+                Set<String> merged = mergedCasts.computeIfAbsent(book, b -> new HashSet<>(characters));
+                for (String character: cast) {
+                    if (merged.add(character)) characters.add(character);
+                }
+            }
+        });
+        return books;
+    }
 
-            if (!books.containsKey(book)) books.put(book, new ArrayList<>());
+    /**
+     * Reads the Marvel Universe dataset in a single pass over its bytes and gives each book and
+     * the characters in it to the consumer as soon as the lines of the book have been read, so
+     * the file never has to be held in memory. When the file is on the file system, it is
+     * memory-mapped and its lines are tokenized in place in the mapped buffer. Each distinct
+     * name is decoded into a String only once, and characters are deduped per book without
+     * searching the book's cast.
+     *
+     * Lines of the same book are expected to be next to each other. A book whose lines are not
+     * contiguous is given to the consumer once per run of consecutive lines, each time with the
+     * characters of that run only.
+     *
+     * @spec.requires filename is a valid file in the resources/data folder
+     * @param filename the file that will be read
+     * @param consumer called with each book and the list of distinct characters of its run of
+     *                 lines, in the order they appear in the file; the consumer may keep the list
+     * @throws IllegalArgumentException if the file doesn't exist, has an invalid name, or has a
+     *                                  line without a comma
+     * @throws UncheckedIOException if the file can't be read
+     */
+    public static void streamData(String filename, BiConsumer<String, List<String>> consumer) {
+        CastReader reader = new CastReader(filename, consumer);
+        forEachLine(filename, reader);
+        reader.finish();
+    }
 
-            // doesn't allow for duplicates in character list for each book
-            if (!books.get(book).contains(character)) books.get(book).add(character);
+    /**
+     * Returns when the provided data file, which is located relative to the data/ folder in
+     * this parser's classpath, was last modified, so that data derived from it can be checked
+     * for being out of date.
+     *
+     * @param filename The file checked.
+     * @return the time the file was last modified, in milliseconds since the epoch, or 0 if
+     *         it is not known
+     * @throws IllegalArgumentException if the file doesn't exist or has an invalid name
+     * @throws UncheckedIOException if the file can't be read
+     */
+    public static long lastModified(String filename) {
+        try {
+            return LineScanner.lastModified(resource(filename));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        return books;
     }
 
     /**
-     * Reads all lines contained within the provided data file, which is located
-     * relative to the data/ folder in this parser's classpath.
+     * Passes every non-empty line of the provided data file, which is located relative to the
+     * data/ folder in this parser's classpath, to the handler, without the line terminator.
      *
      * @param filename The file to read.
-     * @throws IllegalArgumentException if the file doesn't exist, has an invalid name, or can't be read
-     * @return A new {@link List<String>} containing all lines in the file.
+     * @param handler The handler given each line.
+     * @throws IllegalArgumentException if the file doesn't exist or has an invalid name
+     * @throws UncheckedIOException if the file can't be read
      */
-    private static List<String> readLines(String filename) {
+    private static void forEachLine(String filename, LineScanner.LineHandler handler) {
+        try {
+            LineScanner.forEachLine(resource(filename), handler);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the location of the provided data file, which is located relative to the data/
+     * folder in this parser's classpath.
+     *
+     * @param filename The file located.
+     * @return the URL of the file
+     * @throws IllegalArgumentException if the file doesn't exist or has an invalid name
+     */
+    private static URL resource(String filename) {
         // You can use this code as an example for getting a file from the resources folder
         // in a project like this. If you access data files elsewhere in your code, you'll need
         // to use similar code. If you use this code elsewhere, don't forget:
@@ -65,13 +131,252 @@ public class MarvelParser {
         //   - If the class is in src/test, it'll get resources from src/test/resources
         //   - The "/" at the beginning of the path is important
         // Note: Most students won't re-write this code anywhere, this explanation is just for completeness.
-        InputStream stream = MarvelParser.class.getResourceAsStream("/data/" + filename);
-        if (stream == null) {
-            // stream is null if the file doesn't exist.
-            // We want to handle this case so we don't try to call
-            // readLines and have a null pointer exception.
+        URL url = MarvelParser.class.getResource("/data/" + filename);
+        if (url == null) {
+            // url is null if the file doesn't exist.
+            // We want to handle this case so we don't try to open
+            // the file and have a null pointer exception.
             throw new IllegalArgumentException("No such file: " + filename);
         }
-        return new BufferedReader(new InputStreamReader(stream)).lines().collect(Collectors.toList());
+        return url;
+    }
+
+    /**
+     * Returns the index of the first occurrence of a byte in a range of a buffer
+     *
+     * @param bytes the buffer searched
+     * @param b the byte searched for
+     * @param from the first index searched
+     * @param to one past the last index searched
+     * @return the index of the first occurrence of b in bytes[from..to), or -1 if there is none
+     */
+    private static int indexOf(ByteBuffer bytes, byte b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes.get(i) == b) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a copy of a range of a buffer
+     *
+     * @param bytes the buffer copied
+     * @param offset the index of the first byte copied
+     * @param length the number of bytes copied
+     * @return new array holding bytes[offset..offset + length)
+     */
+    private static byte[] copyOf(ByteBuffer bytes, int offset, int length) {
+        byte[] copy = new byte[length];
+        for (int i = 0; i < length; i++) copy[i] = bytes.get(offset + i);
+        return copy;
+    }
+
+    /**
+     * Collects the lines of the Marvel dataset into the cast of each run of lines of a book,
+     * giving each cast to a consumer once the run ends.
+     */
+    private static final class CastReader implements LineScanner.LineHandler {
+
+        /**
+         * Holds the name of the file read, for error messages.
+         */
+        private final String filename;
+
+        /**
+         * Holds the consumer given each book and its cast.
+         */
+        private final BiConsumer<String, List<String>> consumer;
+
+        /**
+         * Holds the names of the characters and books read so far.
+         */
+        private final Interner names = new Interner();
+
+        /**
+         * Holds, for each name id, the number of the last run of lines the name was added to
+         * the cast of.
+         */
+        private int[] seenInRun = new int[256];
+
+        /**
+         * Holds the number of the current run of lines.
+         */
+        private int run;
+
+        /**
+         * Holds the id of the book of the current run, or -1 before the first line.
+         */
+        private int currentBook = -1;
+
+        /**
+         * Holds the characters of the current run, or null before the first line.
+         */
+        private List<String> cast;
+
+        /**
+         * @param filename the name of the file read
+         * @param consumer the consumer given each book and its cast
+         * @spec.effects Constructs a new CastReader with no lines read
+         */
+        CastReader(String filename, BiConsumer<String, List<String>> consumer) {
+            this.filename = filename;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void line(ByteBuffer bytes, int start, int end) {
+            int comma = indexOf(bytes, (byte) ',', start, end);
+            if (comma < 0) {
+                throw new IllegalArgumentException("Line without a comma in " + filename + ": "
+                        + new String(copyOf(bytes, start, end - start), StandardCharsets.UTF_8));
+            }
+            int bookEnd = indexOf(bytes, (byte) ',', comma + 1, end);
+            int book = names.intern(bytes, comma + 1, (bookEnd < 0 ? end : bookEnd) - comma - 1);
+            int character = names.intern(bytes, start, comma - start);
+
+            if (book != currentBook) {
+                finish();
+                currentBook = book;
+                cast = new ArrayList<>();
+                run++;
+            }
+            if (character >= seenInRun.length) {
+                seenInRun = Arrays.copyOf(seenInRun, Math.max(2 * seenInRun.length, character + 1));
+            }
+            if (seenInRun[character] != run) {
+                seenInRun[character] = run;
+                cast.add(names.get(character));
+            }
+        }
+
+        /**
+         * Gives the cast of the current run, if any, to the consumer.
+         */
+        void finish() {
+            if (cast != null) consumer.accept(names.get(currentBook), cast);
+            cast = null;
+        }
+    }
+
+    /**
+     * A table of the names read from a data file, which decodes the bytes of each distinct name
+     * into a String once and numbers the names densely in the order they are first seen.
+     */
+    private static final class Interner {
+
+        /**
+         * Holds the id + 1 of the name in each slot of the hash table, or 0 for an empty slot.
+         */
+        private int[] slots = new int[1 << 10];
+
+        /**
+         * Holds the encoded bytes of every name, by id.
+         */
+        private byte[][] keys = new byte[1 << 9][];
+
+        /**
+         * Holds every name, by id.
+         */
+        private String[] values = new String[1 << 9];
+
+        /**
+         * Holds the number of names in the table.
+         */
+        private int size;
+
+        /**
+         * Returns the id of the name encoded by the given bytes, adding it if it is new.
+         *
+         * @param bytes the buffer holding the name
+         * @param offset the index of the first byte of the name
+         * @param length the number of bytes of the name
+         * @return id of the name
+         */
+        int intern(ByteBuffer bytes, int offset, int length) {
+            int mask = slots.length - 1;
+            for (int slot = hash(bytes, offset, length) & mask; ; slot = (slot + 1) & mask) {
+                int id = slots[slot] - 1;
+                if (id < 0) {
+                    id = add(bytes, offset, length);
+                    slots[slot] = id + 1;
+                    if (2 * size > slots.length) rehash();
+                    return id;
+                }
+                if (matches(keys[id], bytes, offset, length)) return id;
+            }
+        }
+
+        /**
+         * Returns the name with the given id
+         *
+         * @param id id of the name
+         * @spec.requires 0 &lt;= id &lt; number of names
+         * @return the name
+         */
+        String get(int id) {
+            return values[id];
+        }
+
+        /**
+         * Adds a new name to the table, without putting it in a slot.
+         *
+         * @param bytes the buffer holding the name
+         * @param offset the index of the first byte of the name
+         * @param length the number of bytes of the name
+         * @return id of the name
+         */
+        private int add(ByteBuffer bytes, int offset, int length) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, 2 * size);
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            keys[size] = copyOf(bytes, offset, length);
+            values[size] = new String(keys[size], StandardCharsets.UTF_8);
+            return size++;
+        }
+
+        /**
+         * Checks if the given key holds the given bytes
+         *
+         * @param key the bytes of a name in the table
+         * @param bytes the buffer holding the name looked up
+         * @param offset the index of the first byte of the name looked up
+         * @param length the number of bytes of the name looked up
+         * @return true if key and the name looked up are the same bytes, false otherwise
+         */
+        private static boolean matches(byte[] key, ByteBuffer bytes, int offset, int length) {
+            if (key.length != length) return false;
+            for (int i = 0; i < length; i++) {
+                if (key[i] != bytes.get(offset + i)) return false;
+            }
+            return true;
+        }
+
+        /**
+         * Returns the hash code of a name
+         *
+         * @param bytes the buffer holding the name
+         * @param offset the index of the first byte of the name
+         * @param length the number of bytes of the name
+         * @return hash code of the bytes of the name, with its high bits mixed into its low bits
+         */
+        private static int hash(ByteBuffer bytes, int offset, int length) {
+            int hash = 1;
+            for (int i = offset; i < offset + length; i++) hash = 31 * hash + bytes.get(i);
+            return hash ^ (hash >>> 16);
+        }
+
+        /**
+         * Doubles the size of the hash table and puts every name back in it.
+         */
+        private void rehash() {
+            slots = new int[2 * slots.length];
+            int mask = slots.length - 1;
+            for (int id = 0; id < size; id++) {
+                int slot = hash(ByteBuffer.wrap(keys[id]), 0, keys[id].length) & mask;
+                while (slots[slot] != 0) slot = (slot + 1) & mask;
+                slots[slot] = id + 1;
+            }
+        }
     }
 }
@@ -1,6 +1,11 @@
 package marvel;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.stream.IntStream;
 import graph.*;
 
 /**
@@ -11,14 +16,36 @@ public class MarvelPaths {
 
     // This is not an ADT
 
+    /**
+     * Holds the order the BFS visits the edges of each node in: alphabetically by child, then
+     * by label. The graphs built by buildGraph keep their edges in this order.
+     */
+    private static final EdgeComparator EDGE_ORDER = new EdgeComparator();
+
+    /**
+     * Holds the order the BFS visits the edges of each node of an aggregated graph in:
+     * alphabetically by child, then by book set. The graphs built by buildAggregatedGraph keep
+     * their edges in this order.
+     */
+    private static final Comparator<Edge<BookSet,String>> AGGREGATED_EDGE_ORDER =
+            Comparator.comparing((Edge<BookSet,String> e) -> e.getChild().getData()).thenComparing(Edge::getLabel);
+
     /**
      * Allows client to search for the shortest path between two marvel characters
      * using a BFS algorithm. If there is no path between the two marvel characters,
-     * method tells client that a path doesn't exist.
-     * @param args contains the supplied command-line arguments as an array of Strings
+     * method tells client that a path doesn't exist. The graph is loaded from the snapshot
+     * file marvel.graph in the working directory, which is written on the first run and
+     * whenever marvel.csv changes, and is searched by the ids of its nodes and edges, so a
+     * query only creates Edge objects for the path it returns. If the path of a hop table file
+     * written by HopTable is given, paths are looked up in the table instead of being searched
+     * for.
+     * @param args contains the supplied command-line arguments as an array of Strings: optionally,
+     *             the hop table file of marvel.csv
+     * @throws IOException if the hop table file cannot be read
      */
-    public static void main(String[] args) {
-        DLGraph<String,String> marvelGraph = MarvelPaths.buildGraph("marvel.csv");
+    public static void main(String[] args) throws IOException {
+        Graph<String,String> marvelGraph = MarvelPaths.loadGraph("marvel.csv", Paths.get("marvel.graph"));
+        HopTable table = args.length > 0 ? HopTable.load(Paths.get(args[0])) : null;
         Scanner input = new Scanner(System.in);
         boolean playAgain = true;
         System.out.println("Welcome to MarvelPaths!");
@@ -37,7 +64,9 @@ public class MarvelPaths {
                 System.out.println("Second character is not a valid marvel character");
             } else {
                 System.out.println("path from " + char1.getData() + " to " + char2.getData() + ":");
-                List<Edge<String,String>> bfs = MarvelPaths.shortestPath(marvelGraph, char1.getData(), char2.getData());
+                List<Edge<String,String>> bfs = table != null
+                        ? MarvelPaths.shortestPath(marvelGraph, table, char1.getData(), char2.getData())
+                        : MarvelPaths.shortestPath(marvelGraph, char1.getData(), char2.getData());
                 if (bfs == null) System.out.println("no path found");
                 else {
                     String parent = char1.getData();
@@ -65,7 +94,7 @@ public class MarvelPaths {
         if (filename == null) throw new IllegalArgumentException("File name cannot be null");
 
         Map<String, List<String>> books = MarvelParser.parseData(filename);
-        DLGraph<String,String> marvelGraph = new DLGraph<>();
+        DLGraph<String,String> marvelGraph = new DLGraph<>(EDGE_ORDER);
 
         for (String book: books.keySet()) {
             List<String> charsInBook = books.get(book);
@@ -83,17 +112,544 @@ public class MarvelPaths {
         return marvelGraph;
     }
 
+    /**
+     * Constructs the same graph as buildGraph, building the edges of different characters in
+     * parallel on the common fork-join pool. Each character's edges are collected into its own
+     * sorted set by a single task, so no set is shared between threads, and the sets are then
+     * added to the graph one character at a time. The graph built does not depend on how the
+     * characters were split between threads.
+     * @param filename the file that the graph is being created from
+     * @return DLGraph constructed from given file, empty graph if file is empty
+     * @throws IllegalArgumentException if filename is null
+     */
+    public static DLGraph<String,String> buildGraphInParallel(String filename) {
+        if (filename == null) throw new IllegalArgumentException("File name cannot be null");
+
+        Map<String, List<String>> books = MarvelParser.parseData(filename);
+        Map<String, List<String>> booksOf = new HashMap<>();
+        for (String book: books.keySet()) {
+            for (String character: books.get(book)) {
+                booksOf.computeIfAbsent(character, c -> new ArrayList<>()).add(book);
+            }
+        }
+        List<String> characters = new ArrayList<>(booksOf.keySet());
+        Map<String, Node<String>> nodes = new HashMap<>();
+        for (String character: characters) nodes.put(character, new Node<>(character));
+
+        // each task only writes the slots of its own characters
+        List<SortedSet<Edge<String,String>>> edges = new ArrayList<>(Collections.nCopies(characters.size(), null));
+        IntStream.range(0, characters.size()).parallel().forEach(i -> {
+            String character = characters.get(i);
+            SortedSet<Edge<String,String>> characterEdges = new TreeSet<>(EDGE_ORDER);
+            for (String book: booksOf.get(character)) {
+                for (String other: books.get(book)) {
+                    if (!other.equals(character)) characterEdges.add(new Edge<>(book, nodes.get(other)));
+                }
+            }
+            edges.set(i, characterEdges);
+        });
+
+        DLGraph<String,String> marvelGraph = new DLGraph<>(EDGE_ORDER);
+        for (String character: characters) marvelGraph.addNode(nodes.get(character));
+        for (int i = 0; i < characters.size(); i++) {
+            marvelGraph.addEdges(nodes.get(characters.get(i)), edges.get(i));
+        }
+        return marvelGraph;
+    }
+
+    /**
+     * Constructs the same graph as buildGraph with a DLGraph.Builder. Every character is added
+     * once, so the edges of a book are added by id without hashing a Node, and the builder is
+     * sized from the exact number of nodes and edges, so no map or array is resized while the
+     * graph is built.
+     * @param filename the file that the graph is being created from
+     * @return DLGraph constructed from given file, empty graph if file is empty
+     * @throws IllegalArgumentException if filename is null
+     */
+    public static DLGraph<String,String> buildGraphInBulk(String filename) {
+        if (filename == null) throw new IllegalArgumentException("File name cannot be null");
+
+        Map<String, List<String>> books = MarvelParser.parseData(filename);
+        Set<String> characters = new HashSet<>();
+        long edgeCount = 0;
+        for (List<String> charsInBook: books.values()) {
+            characters.addAll(charsInBook);
+            edgeCount += (long) charsInBook.size() * (charsInBook.size() - 1);
+        }
+        DLGraph.Builder<String,String> builder = new DLGraph.Builder<>(characters.size(),
+                (int) Math.min(edgeCount, Integer.MAX_VALUE - 8), EDGE_ORDER);
+        for (String book: books.keySet()) {
+            List<String> charsInBook = books.get(book);
+            int[] ids = new int[charsInBook.size()];
+            for (int i = 0; i < ids.length; i++) ids[i] = builder.addNode(new Node<>(charsInBook.get(i)));
+            for (int i = 0; i < ids.length - 1; i++) {
+                for (int j = i + 1; j < ids.length; j++) {
+                    builder.addEdge(ids[i], ids[j], book);
+                    builder.addEdge(ids[j], ids[i], book);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Loads the same graph as buildGraph from the given snapshot file, if the snapshot exists
+     * and is newer than the data file, so the data file does not have to be parsed again.
+     * Otherwise the graph is built with buildGraphInParallel and written to the snapshot file
+     * for the next load; if the snapshot cannot be written, the graph is still returned.
+     * @param filename the file that the graph is being created from
+     * @param snapshot the snapshot file of the graph
+     * @return read-only graph constructed from the given file, with each node's edges in the
+     *         order the BFS visits them
+     * @throws IllegalArgumentException if filename or snapshot is null
+     */
+    public static FrozenGraph<String,String> loadGraph(String filename, Path snapshot) {
+        if (filename == null || snapshot == null) throw new IllegalArgumentException("File names cannot be null");
+
+        try {
+            if (Files.isRegularFile(snapshot)
+                    && Files.getLastModifiedTime(snapshot).toMillis() >= MarvelParser.lastModified(filename)) {
+                return GraphSnapshot.load(snapshot, GraphSnapshot.STRINGS, GraphSnapshot.STRINGS, EDGE_ORDER);
+            }
+        } catch (IOException e) {
+            // an unreadable or corrupt snapshot is rebuilt
+        }
+        FrozenGraph<String,String> marvelGraph = buildGraphInParallel(filename).freeze();
+        try {
+            GraphSnapshot.write(marvelGraph, snapshot, GraphSnapshot.STRINGS, GraphSnapshot.STRINGS);
+        } catch (IOException e) {
+            // the snapshot is only an optimization
+        }
+        return marvelGraph;
+    }
+
+    /**
+     * Constructs the same graph as buildGraph, stored as an IntGraph. Characters and books are
+     * interned to integer ids once per book and edges are added by id, so the graph is built
+     * without hashing a Node or allocating an Edge per edge, and takes far less memory.
+     * @param filename the file that the graph is being created from
+     * @return IntGraph constructed from given file, empty graph if file is empty
+     * @throws IllegalArgumentException if filename is null
+     */
+    public static IntGraph<String,String> buildIntGraph(String filename) {
+        if (filename == null) throw new IllegalArgumentException("File name cannot be null");
+
+        Map<String, List<String>> books = MarvelParser.parseData(filename);
+        IntGraph<String,String> marvelGraph = new IntGraph<>();
+
+        for (String book: books.keySet()) {
+            List<String> charsInBook = books.get(book);
+            int label = marvelGraph.internLabel(book);
+            int[] ids = new int[charsInBook.size()];
+            for (int i = 0; i < ids.length; i++) ids[i] = marvelGraph.intern(charsInBook.get(i));
+            for (int i = 0; i < ids.length - 1; i++) {
+                for (int j = i + 1; j < ids.length; j++) {
+                    marvelGraph.addEdge(ids[i], ids[j], label);
+                    marvelGraph.addEdge(ids[j], ids[i], label);
+                }
+            }
+        }
+        marvelGraph.trimToSize();
+        return marvelGraph;
+    }
+
+    /**
+     * Constructs a directed, labeled graph based on the information in the file that holds a
+     * single edge per ordered pair of characters that appear in a book together, labeled by
+     * the set of every book they appear in together. The graph has the same nodes as the
+     * graph built by buildGraph and is searched with shortestAggregatedPath, but holds far
+     * fewer edges since buildGraph adds one edge per pair of characters per book.
+     * @param filename the file that the graph is being created from
+     * @return aggregated DLGraph constructed from given file, empty graph if file is empty
+     * @throws IllegalArgumentException if filename is null
+     */
+    public static DLGraph<String,BookSet> buildAggregatedGraph(String filename) {
+        if (filename == null) throw new IllegalArgumentException("File name cannot be null");
+
+        Map<String, List<String>> books = MarvelParser.parseData(filename);
+        String[] titles = books.keySet().toArray(new String[0]);
+        Arrays.sort(titles);
+
+        // interns characters to ids and collects the books of every character in title order
+        Map<String, Integer> charIds = new HashMap<>();
+        List<Node<String>> chars = new ArrayList<>();
+        List<List<Integer>> booksOfChar = new ArrayList<>();
+        int[][] casts = new int[titles.length][];
+        for (int b = 0; b < titles.length; b++) {
+            List<String> charsInBook = books.get(titles[b]);
+            casts[b] = new int[charsInBook.size()];
+            for (int i = 0; i < casts[b].length; i++) {
+                String name = charsInBook.get(i);
+                Integer id = charIds.get(name);
+                if (id == null) {
+                    id = chars.size();
+                    charIds.put(name, id);
+                    chars.add(new Node<>(name));
+                    booksOfChar.add(new ArrayList<>());
+                }
+                casts[b][i] = id;
+                booksOfChar.get(id).add(b);
+            }
+        }
+
+        DLGraph<String,BookSet> marvelGraph = new DLGraph<>(AGGREGATED_EDGE_ORDER);
+        for (Node<String> n: chars) marvelGraph.addNode(n);
+
+        // for every character c, gathers the shared books of every co-star d > c in
+        // scratch lists reused between characters, then adds the edges c-d and d-c
+        int[] lastSeen = new int[chars.size()];
+        int[][] shared = new int[chars.size()][];
+        int[] sharedCount = new int[chars.size()];
+        List<Integer> coStars = new ArrayList<>();
+        for (int c = 0; c < chars.size(); c++) {
+            coStars.clear();
+            for (int b: booksOfChar.get(c)) {
+                for (int d: casts[b]) {
+                    if (d <= c) continue;
+                    if (lastSeen[d] != c + 1) {
+                        lastSeen[d] = c + 1;
+                        sharedCount[d] = 0;
+                        if (shared[d] == null) shared[d] = new int[4];
+                        coStars.add(d);
+                    } else if (sharedCount[d] == shared[d].length) {
+                        shared[d] = Arrays.copyOf(shared[d], 2 * sharedCount[d]);
+                    }
+                    shared[d][sharedCount[d]++] = b;
+                }
+            }
+            for (int d: coStars) {
+                BookSet label = new BookSet(titles, Arrays.copyOf(shared[d], sharedCount[d]));
+                marvelGraph.addEdge(chars.get(c), chars.get(d), label);
+                marvelGraph.addEdge(chars.get(d), chars.get(c), label);
+            }
+        }
+        return marvelGraph;
+    }
+
+    /**
+     * Finds the shortest path between two nodes using a Breadth-First-Search(BFS) algorithm. A
+     * FrozenGraph that keeps its edges in the order the BFS visits them, as the graphs loaded by
+     * loadGraph do, is searched by the ids of its nodes and edges, so only the edges of the path
+     * returned are created as Edge objects.
+     * @param g the graph looked at to find path between two given characters
+     * @param char1 the starting character
+     * @param char2 the destination character
+     * @return list of edges containing the shortest path between the start and destination characters,
+     *         null if there is no path between two given characters
+     * @throws IllegalArgumentException if either given characters are null or do not exist in the graph
+     *                                  or if the graph is null
+     */
+    public static List<Edge<String,String>> shortestPath(Graph<String,String> g, String char1, String char2) {
+        if (g instanceof FrozenGraph && EDGE_ORDER.equals(g.getEdgeOrder())) {
+            return frozenBreadthFirstSearch((FrozenGraph<String,String>) g, char1, char2);
+        }
+        return breadthFirstSearch(g, char1, char2, EDGE_ORDER);
+    }
+
+    /**
+     * Returns a search over a graph split into shards by GraphPartitioner, which finds the same
+     * paths shortestPath finds in the whole graph: the edges of each character are visited
+     * alphabetically by child, then by book, whatever order the shards keep them in.
+     * @param partition the partition the graph was split by
+     * @param shards the transport to each shard, indexed by shard id
+     * @return search over the given shards
+     * @throws IllegalArgumentException if partition or shards is null, or if shards does not
+     *                                  have one transport per shard
+     */
+    public static ShardedGraphSearch<String,String> shardedSearch(Partition<String> partition,
+                                                                  List<? extends ShardTransport<String,String>> shards) {
+        return new ShardedGraphSearch<>(partition, shards, EDGE_ORDER);
+    }
+
+    /**
+     * Finds the shortest path between two nodes by walking the precomputed hop table of the
+     * graph, without searching the graph. Each edge is the alphabetically first edge between its
+     * two characters, so the path returned is the same path shortestPath returns.
+     * @param g the graph looked at to find path between two given characters
+     * @param table the hop table written by HopTable.write for g
+     * @param char1 the starting character
+     * @param char2 the destination character
+     * @spec.requires g has not been modified since table was written for it
+     * @return list of edges containing the shortest path between the start and destination characters,
+     *         null if there is no path between two given characters
+     * @throws IllegalArgumentException if either given characters are null or do not exist in the graph
+     *                                  or if the graph or table is null
+     */
+    public static List<Edge<String,String>> shortestPath(Graph<String,String> g, HopTable table,
+                                                         String char1, String char2) {
+        if (g == null || table == null) throw new IllegalArgumentException("Graph and table cannot be null.");
+        if (char1 == null || char2 == null) {
+            throw new IllegalArgumentException("Cannot give null characters.");
+        }
+        if (!(g.containsNode(new Node<>(char1)) && g.containsNode(new Node<>(char2)))) {
+            throw new IllegalArgumentException("Graph must contain start and destination nodes.");
+        }
+
+        List<String> characters = table.path(char1, char2);
+        if (characters == null) return null;
+        // in a graph kept in EDGE_ORDER the first edge to a child is the alphabetically first one
+        boolean presorted = EDGE_ORDER.equals(g.getEdgeOrder());
+        List<Edge<String,String>> path = new ArrayList<>(characters.size() - 1);
+        if (presorted && g instanceof FrozenGraph) {
+            // a frozen graph is scanned by id, so only the edges of the path are created
+            FrozenGraph<String,String> frozen = (FrozenGraph<String,String>) g;
+            for (int i = 0; i < characters.size() - 1; i++) {
+                int parent = frozen.idOf(new Node<>(characters.get(i)));
+                int child = frozen.idOf(new Node<>(characters.get(i + 1)));
+                int k = frozen.edgeStart(parent);
+                while (frozen.edgeTarget(k) != child) k++;
+                path.add(frozen.edge(k));
+            }
+            return path;
+        }
+        for (int i = 0; i < characters.size() - 1; i++) {
+            Node<String> child = new Node<>(characters.get(i + 1));
+            Edge<String,String> best = null;
+            for (Edge<String,String> e: g.getEdgeView(new Node<>(characters.get(i)))) {
+                if (e.getChild().equals(child) && (best == null || EDGE_ORDER.compare(e, best) < 0)) {
+                    best = e;
+                    if (presorted) break;
+                }
+            }
+            path.add(best);
+        }
+        return path;
+    }
+
+    /**
+     * Finds the shortest path between two nodes using a bidirectional Breadth-First-Search(BFS)
+     * algorithm, which searches from both characters at once until the two searches meet, and so
+     * explores far fewer nodes than shortestPath when the characters are far apart in a highly
+     * connected graph. The path returned is the same path shortestPath returns: of all the
+     * shortest paths, the one whose sequence of characters is alphabetically first, with each
+     * edge being the alphabetically first edge between its two characters.
+     * @param g the graph looked at to find path between two given characters
+     * @param char1 the starting character
+     * @param char2 the destination character
+     * @spec.requires for every edge of g, g also has an edge with the same label in the opposite
+     *                direction, as every graph built by buildGraph does
+     * @return list of edges containing the shortest path between the start and destination characters,
+     *         null if there is no path between two given characters
+     * @throws IllegalArgumentException if either given characters are null or do not exist in the graph
+     *                                  or if the graph is null
+     */
+    public static List<Edge<String,String>> bidirectionalShortestPath(Graph<String,String> g,
+                                                                      String char1, String char2) {
+        if (g == null) throw new IllegalArgumentException("Graph cannot be null.");
+        if (char1 == null || char2 == null) {
+            throw new IllegalArgumentException("Cannot give null characters.");
+        }
+        Node<String> start = new Node<>(char1);
+        Node<String> destination = new Node<>(char2);
+        if (!(g.containsNode(start) && g.containsNode(destination))) {
+            throw new IllegalArgumentException("Graph must contain start and destination nodes.");
+        }
+        if (start.equals(destination)) return new ArrayList<>();
+
+        // distance of every node reached from the start and from the destination
+        Map<Node<String>, Integer> fromStart = new HashMap<>();
+        Map<Node<String>, Integer> toDestination = new HashMap<>();
+        List<Node<String>> startFrontier = new ArrayList<>();
+        List<Node<String>> destinationFrontier = new ArrayList<>();
+        fromStart.put(start, 0);
+        toDestination.put(destination, 0);
+        startFrontier.add(start);
+        destinationFrontier.add(destination);
+        int startDepth = 0;
+        int destinationDepth = 0;
+
+        // expands whole layers of the smaller frontier until a layer reaches the other search.
+        // Once that happens the shortest path has length startDepth + destinationDepth and the
+        // nodes at startDepth from the start and destinationDepth from the destination are
+        // exactly the nodes of shortest paths at that distance from the start.
+        boolean met = false;
+        while (!met) {
+            if (startFrontier.isEmpty() || destinationFrontier.isEmpty()) return null;
+            boolean forward = startFrontier.size() <= destinationFrontier.size();
+            Map<Node<String>, Integer> reached = forward ? fromStart : toDestination;
+            Map<Node<String>, Integer> other = forward ? toDestination : fromStart;
+            int depth = (forward ? ++startDepth : ++destinationDepth);
+            List<Node<String>> next = new ArrayList<>();
+            for (Node<String> n: forward ? startFrontier : destinationFrontier) {
+                for (Edge<String,String> e: g.getEdgeView(n)) {
+                    if (!reached.containsKey(e.getChild())) {
+                        reached.put(e.getChild(), depth);
+                        next.add(e.getChild());
+                        if (other.containsKey(e.getChild())) met = true;
+                    }
+                }
+            }
+            if (forward) startFrontier = next;
+            else destinationFrontier = next;
+        }
+        int length = startDepth + destinationDepth;
+
+        // marks the nodes of shortest paths within startDepth of the start by walking back from
+        // the nodes where the searches met
+        Set<Node<String>> onPath = new HashSet<>();
+        List<Node<String>> layer = new ArrayList<>();
+        for (Map.Entry<Node<String>, Integer> entry: fromStart.entrySet()) {
+            Integer distance = toDestination.get(entry.getKey());
+            if (entry.getValue() == startDepth && distance != null && distance == destinationDepth) {
+                layer.add(entry.getKey());
+            }
+        }
+        onPath.addAll(layer);
+        for (int depth = startDepth - 1; depth >= 0; depth--) {
+            List<Node<String>> previous = new ArrayList<>();
+            for (Node<String> n: layer) {
+                for (Edge<String,String> e: g.getEdgeView(n)) {
+                    Integer distance = fromStart.get(e.getChild());
+                    if (distance != null && distance == depth && onPath.add(e.getChild())) {
+                        previous.add(e.getChild());
+                    }
+                }
+            }
+            layer = previous;
+        }
+
+        // walks from the start, always taking the alphabetically first edge to a node that is
+        // still on a shortest path to the destination
+        List<Edge<String,String>> path = new ArrayList<>(length);
+        Node<String> current = start;
+        for (int depth = 1; depth <= length; depth++) {
+            Edge<String,String> best = null;
+            for (Edge<String,String> e: g.getEdgeView(current)) {
+                boolean next;
+                if (depth <= startDepth) {
+                    next = onPath.contains(e.getChild()) && fromStart.get(e.getChild()) == depth;
+                } else {
+                    Integer distance = toDestination.get(e.getChild());
+                    next = distance != null && distance == length - depth;
+                }
+                if (next && (best == null || EDGE_ORDER.compare(e, best) < 0)) best = e;
+            }
+            path.add(best);
+            current = best.getChild();
+        }
+        return path;
+    }
+
+    /**
+     * Finds the shortest path between two nodes of a graph built by buildAggregatedGraph using
+     * a Breadth-First-Search(BFS) algorithm. The path is the same path shortestPath finds in the
+     * graph built by buildGraph from the same file, with every edge labeled by the
+     * alphabetically first book its characters appear in together.
+     * @param g the aggregated graph looked at to find path between two given characters
+     * @param char1 the starting character
+     * @param char2 the destination character
+     * @return list of edges containing the shortest path between the start and destination characters,
+     *         null if there is no path between two given characters
+     * @throws IllegalArgumentException if either given characters are null or do not exist in the graph
+     *                                  or if the graph is null
+     */
+    public static List<Edge<String,String>> shortestAggregatedPath(Graph<String,BookSet> g,
+                                                                   String char1, String char2) {
+        List<Edge<BookSet,String>> path = breadthFirstSearch(g, char1, char2, AGGREGATED_EDGE_ORDER);
+        if (path == null) return null;
+        List<Edge<String,String>> firstBooks = new ArrayList<>(path.size());
+        for (Edge<BookSet,String> e: path) firstBooks.add(new Edge<>(e.getLabel().first(), e.getChild()));
+        return firstBooks;
+    }
+
+    /**
+     * Constructs a bipartite graph of the characters and books in the file, with an edge between
+     * every character and every book the character appears in. The graph is searched with
+     * shortestBipartitePath and takes memory linear in the number of lines of the file, rather
+     * than quadratic in the number of characters of each book like the graph built by buildGraph.
+     * @param filename the file that the graph is being created from
+     * @return BipartiteMarvelGraph constructed from given file, empty graph if file is empty
+     * @throws IllegalArgumentException if filename is null
+     */
+    public static BipartiteMarvelGraph buildBipartiteGraph(String filename) {
+        if (filename == null) throw new IllegalArgumentException("File name cannot be null");
+        return new BipartiteMarvelGraph(MarvelParser.parseData(filename));
+    }
+
+    /**
+     * Finds the shortest path between two characters of a bipartite graph using a
+     * Breadth-First-Search(BFS) algorithm that expands from each character through its books.
+     * The path is the same path shortestPath finds in the graph built by buildGraph from the
+     * same file.
+     * @param g the bipartite graph looked at to find path between two given characters
+     * @param char1 the starting character
+     * @param char2 the destination character
+     * @return list of edges containing the shortest path between the start and destination characters,
+     *         null if there is no path between two given characters
+     * @throws IllegalArgumentException if either given characters are null or do not exist in the graph
+     *                                  or if the graph is null
+     */
+    public static List<Edge<String,String>> shortestBipartitePath(BipartiteMarvelGraph g, String char1, String char2) {
+        if (g == null) throw new IllegalArgumentException("Graph cannot be null.");
+        if (char1 == null || char2 == null) {
+            throw new IllegalArgumentException("Cannot give null characters.");
+        }
+        int start = g.characterId(char1);
+        int destination = g.characterId(char2);
+        if (start < 0 || destination < 0) {
+            throw new IllegalArgumentException("Graph must contain start and destination nodes.");
+        }
+
+        // parentBook[c] is the book c was discovered through, -1 if undiscovered
+        int[] parent = new int[g.characterCount()];
+        int[] parentBook = new int[g.characterCount()];
+        Arrays.fill(parentBook, -1);
+        boolean[] expandedBooks = new boolean[g.bookCount()];
+        int[] workList = new int[g.characterCount()];
+        int head = 0;
+        int tail = 0;
+
+        workList[tail++] = start;
+        parentBook[start] = g.bookCount();
+
+        while (head < tail) {
+            int current = workList[head++];
+            if (current == destination) {
+                LinkedList<Edge<String,String>> path = new LinkedList<>();
+                for (int c = destination; c != start; c = parent[c]) {
+                    path.addFirst(new Edge<>(g.book(parentBook[c]), new Node<>(g.character(c))));
+                }
+                return new ArrayList<>(path);
+            }
+
+            // books are visited in alphabetical order, so each new character is reached through
+            // the alphabetically first book it shares with the current character. A book that was
+            // already expanded has no undiscovered characters left.
+            int discovered = tail;
+            for (int k = g.bookStart(current); k < g.bookEnd(current); k++) {
+                int book = g.bookAt(k);
+                if (expandedBooks[book]) continue;
+                expandedBooks[book] = true;
+                for (int j = g.characterStart(book); j < g.characterEnd(book); j++) {
+                    int child = g.characterAt(j);
+                    if (parentBook[child] < 0) {
+                        parent[child] = current;
+                        parentBook[child] = book;
+                        workList[tail++] = child;
+                    }
+                }
+            }
+            Arrays.sort(workList, discovered, tail);
+        }
+        return null;
+    }
+
     /**
      * Finds the shortest path between two nodes using a Breadth-First-Search(BFS) algorithm
+     * that visits the edges of every node in the given order. The edges of a node are only
+     * sorted if the graph does not already keep them in that order.
      * @param g the graph looked at to find path between two given characters
      * @param char1 the starting character
      * @param char2 the destination character
+     * @param edgeOrder the order the edges of each node are visited in
+     * @param <E> represents the label type of the edges in the graph
      * @return list of edges containing the shortest path between the start and destination characters,
      *         null if there is no path between two given characters
      * @throws IllegalArgumentException if either given characters are null or do not exist in the graph
      *                                  or if the graph is null
      */
-    public static List<Edge<String,String>> shortestPath(DLGraph<String,String> g, String char1, String char2) {
+    private static <E> List<Edge<E,String>> breadthFirstSearch(Graph<String,E> g, String char1, String char2,
+                                                               Comparator<Edge<E,String>> edgeOrder) {
         if (g == null) throw new IllegalArgumentException("Graph cannot be null.");
         if (char1 == null || char2 == null) {
             throw new IllegalArgumentException("Cannot give null characters.");
@@ -104,25 +660,37 @@ public class MarvelPaths {
             throw new IllegalArgumentException("Graph must contain start and destination nodes.");
         }
 
-        Queue<Node<String>> workList = new LinkedList<>();
-        Map<Node<String>, List<Edge<String,String>>> path = new HashMap<>();
+        // each discovered node maps to the edge it was discovered through and that edge's parent;
+        // the path itself is only built once the destination is dequeued
+        Queue<Node<String>> workList = new ArrayDeque<>();
+        Map<Node<String>, Node<String>> parents = new HashMap<>();
+        Map<Node<String>, Edge<E,String>> parentEdges = new HashMap<>();
 
         workList.add(start);
-        path.put(start, new ArrayList<>());
+        parents.put(start, start);
 
         while (!workList.isEmpty()) {
             Node<String> parent = workList.remove();
-            if (parent.equals(destination)) return new ArrayList<>(path.get(parent));
+            if (parent.equals(destination)) {
+                LinkedList<Edge<E,String>> path = new LinkedList<>();
+                for (Node<String> n = destination; !n.equals(start); n = parents.get(n)) {
+                    path.addFirst(parentEdges.get(n));
+                }
+                return new ArrayList<>(path);
+            }
 
-            List<Edge<String,String>> sortedEdges = new ArrayList<>(g.getAllEdges(parent));
-            sortedEdges.sort(new EdgeComparator());
+            // graphs that already keep their edges in BFS order are iterated without copying
+            Collection<Edge<E,String>> sortedEdges = g.getEdgeView(parent);
+            if (!edgeOrder.equals(g.getEdgeOrder())) {
+                List<Edge<E,String>> copy = new ArrayList<>(sortedEdges);
+                copy.sort(edgeOrder);
+                sortedEdges = copy;
+            }
 
-            for (Edge<String,String> e: sortedEdges) {
-                if (!path.containsKey(e.getChild())) {
-                    List<Edge<String,String>> currentPath = new ArrayList<>(path.get(parent));
-                    List<Edge<String,String>> newPath = new ArrayList<>(currentPath);
-                    newPath.add(e);
-                    path.put(e.getChild(), newPath);
+            for (Edge<E,String> e: sortedEdges) {
+                if (!parents.containsKey(e.getChild())) {
+                    parents.put(e.getChild(), parent);
+                    parentEdges.put(e.getChild(), e);
                     workList.add(e.getChild());
                 }
             }
@@ -130,6 +698,60 @@ public class MarvelPaths {
         return null;
     }
 
+    /**
+     * Finds the shortest path between two nodes of a FrozenGraph whose edges are kept in
+     * EDGE_ORDER, as breadthFirstSearch does, but by the ids of the nodes and edges: the search
+     * keeps the parent and the edge of every discovered node in int arrays, and only the edges
+     * of the path returned are created as Edge objects.
+     * @param g the graph looked at to find path between two given characters
+     * @param char1 the starting character
+     * @param char2 the destination character
+     * @spec.requires EDGE_ORDER.equals(g.getEdgeOrder())
+     * @return list of edges containing the shortest path between the start and destination characters,
+     *         null if there is no path between two given characters
+     * @throws IllegalArgumentException if either given characters are null or do not exist in the graph
+     */
+    private static List<Edge<String,String>> frozenBreadthFirstSearch(FrozenGraph<String,String> g,
+                                                                      String char1, String char2) {
+        if (char1 == null || char2 == null) {
+            throw new IllegalArgumentException("Cannot give null characters.");
+        }
+        int start = g.idOf(new Node<>(char1));
+        int destination = g.idOf(new Node<>(char2));
+        if (start < 0 || destination < 0) {
+            throw new IllegalArgumentException("Graph must contain start and destination nodes.");
+        }
+
+        // the edge index every discovered node was reached through, -1 if it is undiscovered
+        // and edgeCount() for the start
+        int[] parentEdge = new int[g.size()];
+        int[] parent = new int[g.size()];
+        int[] workList = new int[g.size()];
+        Arrays.fill(parentEdge, -1);
+        int head = 0;
+        int tail = 0;
+        workList[tail++] = start;
+        parentEdge[start] = g.edgeCount();
+
+        while (head < tail) {
+            int current = workList[head++];
+            if (current == destination) {
+                LinkedList<Edge<String,String>> path = new LinkedList<>();
+                for (int n = destination; n != start; n = parent[n]) path.addFirst(g.edge(parentEdge[n]));
+                return new ArrayList<>(path);
+            }
+            for (int k = g.edgeStart(current); k < g.edgeEnd(current); k++) {
+                int child = g.edgeTarget(k);
+                if (parentEdge[child] < 0) {
+                    parentEdge[child] = k;
+                    parent[child] = current;
+                    workList[tail++] = child;
+                }
+            }
+        }
+        return null;
+    }
+
     /**
      * Implements a Comparator to compare two edges
      */
@@ -0,0 +1,51 @@
+package marvel.junitTests;
+
+import marvel.*;
+import org.junit.*;
+import org.junit.rules.Timeout;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * MarvelParser class.
+ */
+public class MarvelParserTest {
+
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    @Test
+    public void streamDataGivesEveryRunOfLines() {
+        List<String> books = new ArrayList<>();
+        List<List<String>> casts = new ArrayList<>();
+        MarvelParser.streamData("splitBooks.csv", (book, cast) -> {
+            books.add(book);
+            casts.add(cast);
+        });
+        assertEquals(List.of("BOOK-1", "BOOK-2", "BOOK-1", "BOOK-3"), books);
+        assertEquals(List.of(List.of("A", "B"), List.of("C"), List.of("B", "D"), List.of("A")), casts);
+    }
+
+    @Test
+    public void parseDataMergesRunsOfTheSameBook() {
+        Map<String, List<String>> books = MarvelParser.parseData("splitBooks.csv");
+        assertEquals(Map.of("BOOK-1", List.of("A", "B", "D"), "BOOK-2", List.of("C"), "BOOK-3", List.of("A")), books);
+    }
+
+    @Test
+    public void parseDataEmptyFile() {
+        assertEquals(new HashMap<>(), MarvelParser.parseData("empty.csv"));
+    }
+
+    @Test
+    public void parseDataWholeDataset() {
+        Map<String, List<String>> books = MarvelParser.parseData("marvel.csv");
+        assertEquals(12844, books.size());
+        for (List<String> cast: books.values()) assertEquals(cast.size(), new HashSet<>(cast).size());
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void parseDataNoSuchFile() { MarvelParser.parseData("noSuchFile.csv"); }
+}
@@ -4,6 +4,11 @@ import graph.*;
 import marvel.*;
 import org.junit.*;
 import org.junit.rules.Timeout;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+import static org.junit.Assert.*;
 
 
 /**
@@ -22,6 +27,341 @@ public class MarvelPathsTest {
         testGraph = MarvelPaths.buildGraph("nbaPlayers.csv");
     }
 
+    @Test
+    public void intGraphFindsSamePaths() {
+        DLGraph<String,String> staff = MarvelPaths.buildGraph("staffSuperheroes.csv");
+        IntGraph<String,String> compact = MarvelPaths.buildIntGraph("staffSuperheroes.csv");
+        assertEquals(staff.getAllNodes(), compact.getAllNodes());
+        for (Node<String> from: staff.getAllNodes()) {
+            assertEquals(staff.getAllEdges(from), compact.getAllEdges(from));
+            for (Node<String> to: staff.getAllNodes()) {
+                assertEquals(MarvelPaths.shortestPath(staff, from.getData(), to.getData()),
+                        MarvelPaths.shortestPath(compact, from.getData(), to.getData()));
+            }
+        }
+    }
+
+    @Test
+    public void bidirectionalSearchFindsSamePaths() {
+        for (String file: List.of("staffSuperheroes.csv", "nbaPlayers.csv")) {
+            DLGraph<String,String> g = MarvelPaths.buildGraph(file);
+            for (Node<String> from: g.getAllNodes()) {
+                for (Node<String> to: g.getAllNodes()) {
+                    assertEquals(MarvelPaths.shortestPath(g, from.getData(), to.getData()),
+                            MarvelPaths.bidirectionalShortestPath(g, from.getData(), to.getData()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void bidirectionalSearchBreaksTiesAlphabetically() {
+        DLGraph<String,String> g = new DLGraph<>();
+        for (String name: List.of("A", "B", "C", "D", "E")) g.addNode(new Node<>(name));
+        String[][] edges = {{"A", "C", "x"}, {"A", "B", "y"}, {"B", "E", "z"}, {"C", "E", "a"},
+                            {"A", "D", "b"}, {"D", "E", "c"}, {"B", "E", "w"}};
+        for (String[] e: edges) {
+            g.addEdge(new Node<>(e[0]), new Node<>(e[1]), e[2]);
+            g.addEdge(new Node<>(e[1]), new Node<>(e[0]), e[2]);
+        }
+        List<Edge<String,String>> path = MarvelPaths.bidirectionalShortestPath(g, "A", "E");
+        assertEquals(List.of(new Edge<>("y", new Node<>("B")), new Edge<>("w", new Node<>("E"))), path);
+        assertEquals(MarvelPaths.shortestPath(g, "E", "A"), MarvelPaths.bidirectionalShortestPath(g, "E", "A"));
+    }
+
+    @Test
+    public void bidirectionalSearchNoPath() {
+        DLGraph<String,String> g = new DLGraph<>();
+        g.addNode(new Node<>("A"));
+        g.addNode(new Node<>("B"));
+        assertNull(MarvelPaths.bidirectionalShortestPath(g, "A", "B"));
+        assertEquals(new ArrayList<>(), MarvelPaths.bidirectionalShortestPath(g, "A", "A"));
+    }
+
+    @Test
+    public void parallelBuildMatchesBuildGraph() {
+        for (String file: List.of("staffSuperheroes.csv", "nbaPlayers.csv", "empty.csv")) {
+            DLGraph<String,String> g = MarvelPaths.buildGraph(file);
+            DLGraph<String,String> parallel = MarvelPaths.buildGraphInParallel(file);
+            assertEquals(g.getAllNodes(), parallel.getAllNodes());
+            for (Node<String> n: g.getAllNodes()) {
+                assertEquals(new ArrayList<>(g.getEdgeView(n)), new ArrayList<>(parallel.getEdgeView(n)));
+            }
+        }
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void parallelBuildNullFile() { MarvelPaths.buildGraphInParallel(null); }
+
+    @Test
+    public void bulkBuildMatchesBuildGraph() {
+        for (String file: List.of("staffSuperheroes.csv", "nbaPlayers.csv", "empty.csv")) {
+            DLGraph<String,String> g = MarvelPaths.buildGraph(file);
+            DLGraph<String,String> bulk = MarvelPaths.buildGraphInBulk(file);
+            assertEquals(g.getAllNodes(), bulk.getAllNodes());
+            for (Node<String> n: g.getAllNodes()) {
+                assertEquals(new ArrayList<>(g.getEdgeView(n)), new ArrayList<>(bulk.getEdgeView(n)));
+            }
+        }
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void bulkBuildNullFile() { MarvelPaths.buildGraphInBulk(null); }
+
+    @Test
+    public void shardedSearchFindsSamePaths() throws IOException {
+        for (String file: List.of("staffSuperheroes.csv", "nbaPlayers.csv")) {
+            DLGraph<String,String> g = MarvelPaths.buildGraph(file);
+            for (Partition<String> p: List.of(GraphPartitioner.<String>byHash(3), GraphPartitioner.byCommunity(g, 3))) {
+                List<LocalShard<String,String>> shards = new ArrayList<>();
+                List<DLGraph<String,String>> split = GraphPartitioner.split(g, p);
+                for (int s = 0; s < split.size(); s++) shards.add(new LocalShard<>(split.get(s), p, s));
+                ShardedGraphSearch<String,String> search = MarvelPaths.shardedSearch(p, shards);
+                for (Node<String> from: g.getAllNodes()) {
+                    for (Node<String> to: g.getAllNodes()) {
+                        assertEquals(MarvelPaths.shortestPath(g, from.getData(), to.getData()),
+                                search.shortestPath(from.getData(), to.getData()));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shardedSearchOverSocketsFindsSamePaths() throws IOException {
+        DLGraph<String,String> g = MarvelPaths.buildGraph("staffSuperheroes.csv");
+        // shards kept in insertion order, so the search has to sort the edges it is sent
+        IntGraph<String,String> unsorted = MarvelPaths.buildIntGraph("staffSuperheroes.csv");
+        Partition<String> p = GraphPartitioner.byCommunity(g, 2);
+        List<ShardServer<String,String>> servers = new ArrayList<>();
+        List<SocketShard<String,String>> shards = new ArrayList<>();
+        try {
+            List<DLGraph<String,String>> split = GraphPartitioner.split(unsorted, p);
+            for (int s = 0; s < split.size(); s++) {
+                ShardServer<String,String> server = new ShardServer<>(split.get(s), p, s, 0,
+                        GraphSnapshot.STRINGS, GraphSnapshot.STRINGS);
+                servers.add(server);
+                server.start();
+                shards.add(new SocketShard<>(server.getPort(), GraphSnapshot.STRINGS, GraphSnapshot.STRINGS));
+            }
+            ShardedGraphSearch<String,String> search = MarvelPaths.shardedSearch(p, shards);
+            for (Node<String> from: g.getAllNodes()) {
+                for (Node<String> to: g.getAllNodes()) {
+                    assertEquals(MarvelPaths.shortestPath(g, from.getData(), to.getData()),
+                            search.shortestPath(from.getData(), to.getData()));
+                }
+            }
+        } finally {
+            for (SocketShard<String,String> shard: shards) shard.close();
+            for (ShardServer<String,String> server: servers) server.close();
+        }
+    }
+
+    @Test
+    public void loadGraphWritesAndReadsSnapshot() throws IOException {
+        Path snapshot = Files.createTempFile("marvel", ".graph");
+        try {
+            Files.delete(snapshot);
+            DLGraph<String,String> g = MarvelPaths.buildGraph("staffSuperheroes.csv");
+            Graph<String,String> built = MarvelPaths.loadGraph("staffSuperheroes.csv", snapshot);
+            assertTrue(Files.exists(snapshot));
+            Graph<String,String> loaded = MarvelPaths.loadGraph("staffSuperheroes.csv", snapshot);
+            for (Graph<String,String> other: List.of(built, loaded)) {
+                assertEquals(g.getAllNodes(), other.getAllNodes());
+                for (Node<String> n: g.getAllNodes()) {
+                    assertEquals(new ArrayList<>(g.getEdgeView(n)), new ArrayList<>(other.getEdgeView(n)));
+                }
+            }
+        } finally {
+            Files.deleteIfExists(snapshot);
+        }
+    }
+
+    @Test
+    public void loadedGraphFindsSamePaths() throws IOException {
+        Path snapshot = Files.createTempFile("marvel", ".graph");
+        Path tableFile = Files.createTempFile("marvel", ".hops");
+        try {
+            Files.delete(snapshot);
+            DLGraph<String,String> g = MarvelPaths.buildGraph("staffSuperheroes.csv");
+            MarvelPaths.loadGraph("staffSuperheroes.csv", snapshot);
+            FrozenGraph<String,String> loaded = MarvelPaths.loadGraph("staffSuperheroes.csv", snapshot);
+            HopTable.write(g, tableFile);
+            HopTable table = HopTable.load(tableFile);
+            for (Node<String> from: g.getAllNodes()) {
+                for (Node<String> to: g.getAllNodes()) {
+                    List<Edge<String,String>> path = MarvelPaths.shortestPath(g, from.getData(), to.getData());
+                    assertEquals(path, MarvelPaths.shortestPath(loaded, from.getData(), to.getData()));
+                    if (path != null) {
+                        assertEquals(path, MarvelPaths.shortestPath(loaded, table, from.getData(), to.getData()));
+                    }
+                }
+            }
+        } finally {
+            Files.deleteIfExists(snapshot);
+            Files.deleteIfExists(tableFile);
+        }
+    }
+
+    @Test
+    public void diskGraphFindsSamePaths() throws IOException {
+        DLGraph<String,String> g = MarvelPaths.buildGraph("staffSuperheroes.csv");
+        Path snapshot = Files.createTempFile("marvel", ".graph");
+        try {
+            GraphSnapshot.write(g, snapshot, GraphSnapshot.STRINGS, GraphSnapshot.STRINGS);
+            try (DiskGraph<String,String> disk = DiskGraph.open(snapshot, GraphSnapshot.STRINGS,
+                    GraphSnapshot.STRINGS, g.getEdgeOrder(), 10)) {
+                for (Node<String> from: g.getAllNodes()) {
+                    for (Node<String> to: g.getAllNodes()) {
+                        assertEquals(MarvelPaths.shortestPath(g, from.getData(), to.getData()),
+                                     MarvelPaths.shortestPath(disk, from.getData(), to.getData()));
+                    }
+                }
+                assertTrue(disk.cachedEdgeCount() <= 10);
+            }
+        } finally {
+            Files.delete(snapshot);
+        }
+    }
+
+    @Test
+    public void hopTableFindsSamePaths() throws IOException {
+        for (String file: List.of("staffSuperheroes.csv", "nbaPlayers.csv")) {
+            DLGraph<String,String> g = MarvelPaths.buildGraph(file);
+            Path tableFile = Files.createTempFile("marvel", ".hops");
+            try {
+                HopTable.write(g, tableFile);
+                HopTable table = HopTable.load(tableFile);
+                assertEquals(g.size(), table.size());
+                for (Node<String> from: g.getAllNodes()) {
+                    for (Node<String> to: g.getAllNodes()) {
+                        List<Edge<String,String>> path = MarvelPaths.shortestPath(g, from.getData(), to.getData());
+                        assertEquals(path, MarvelPaths.shortestPath(g, table, from.getData(), to.getData()));
+                        assertEquals(path == null ? -1 : path.size(), table.distance(from.getData(), to.getData()));
+                    }
+                }
+            } finally {
+                Files.delete(tableFile);
+            }
+        }
+    }
+
+    @Test
+    public void hopTableNoPath() throws IOException {
+        DLGraph<String,String> g = new DLGraph<>();
+        g.addNode(new Node<>("A"));
+        g.addNode(new Node<>("B"));
+        Path tableFile = Files.createTempFile("marvel", ".hops");
+        try {
+            HopTable.write(g, tableFile);
+            HopTable table = HopTable.load(tableFile);
+            assertNull(MarvelPaths.shortestPath(g, table, "A", "B"));
+            assertEquals(-1, table.distance("A", "B"));
+            assertEquals(List.of("A"), table.path("A", "A"));
+            assertEquals(new ArrayList<>(), MarvelPaths.shortestPath(g, table, "A", "A"));
+        } finally {
+            Files.delete(tableFile);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void corruptHopTableIsRejected() throws IOException {
+        Path tableFile = Files.createTempFile("marvel", ".hops");
+        try {
+            HopTable.write(MarvelPaths.buildGraph("staffSuperheroes.csv"), tableFile);
+            byte[] bytes = Files.readAllBytes(tableFile);
+            bytes[bytes.length - 8] ^= 1;
+            Files.write(tableFile, bytes);
+            HopTable.load(tableFile);
+        } finally {
+            Files.delete(tableFile);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedHopTableIsRejected() throws IOException {
+        Path tableFile = Files.createTempFile("marvel", ".hops");
+        try {
+            HopTable.write(MarvelPaths.buildGraph("staffSuperheroes.csv"), tableFile);
+            byte[] bytes = Files.readAllBytes(tableFile);
+            Files.write(tableFile, Arrays.copyOf(bytes, bytes.length - 3));
+            HopTable.load(tableFile);
+        } finally {
+            Files.delete(tableFile);
+        }
+    }
+
+    @Test
+    public void aggregatedGraphFindsSamePaths() {
+        for (String file: List.of("staffSuperheroes.csv", "nbaPlayers.csv")) {
+            DLGraph<String,String> clique = MarvelPaths.buildGraph(file);
+            DLGraph<String,BookSet> aggregated = MarvelPaths.buildAggregatedGraph(file);
+            assertEquals(clique.getAllNodes(), aggregated.getAllNodes());
+            for (Node<String> from: clique.getAllNodes()) {
+                assertEquals(clique.getAllChildren(from), aggregated.getAllChildren(from));
+                for (Node<String> to: clique.getAllNodes()) {
+                    assertEquals(1, aggregated.numEdges(from, to) + (clique.numEdges(from, to) == 0 ? 1 : 0));
+                    assertEquals(MarvelPaths.shortestPath(clique, from.getData(), to.getData()),
+                            MarvelPaths.shortestAggregatedPath(aggregated, from.getData(), to.getData()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void aggregatedGraphHoldsAllSharedBooks() {
+        DLGraph<String,BookSet> aggregated = MarvelPaths.buildAggregatedGraph("staffSuperheroes.csv");
+        Node<String> ernst = new Node<>("Ernst-the-Bicycling-Wizard");
+        Node<String> notkin = new Node<>("Notkin-of-the-Superhuman-Beard");
+        for (Edge<BookSet,String> e: aggregated.getAllEdges(ernst)) {
+            if (e.getChild().equals(notkin)) {
+                assertEquals(List.of("CSE331", "CSE403"), e.getLabel().toList());
+                assertEquals("CSE331", e.getLabel().first());
+                assertTrue(e.getLabel().contains("CSE403"));
+                assertFalse(e.getLabel().contains("CSE401"));
+            }
+        }
+    }
+
+    @Test
+    public void bipartiteGraphFindsSamePaths() {
+        for (String file: List.of("staffSuperheroes.csv", "nbaPlayers.csv")) {
+            DLGraph<String,String> clique = MarvelPaths.buildGraph(file);
+            BipartiteMarvelGraph bipartite = MarvelPaths.buildBipartiteGraph(file);
+            assertEquals(clique.size(), bipartite.characterCount());
+            for (Node<String> from: clique.getAllNodes()) {
+                for (Node<String> to: clique.getAllNodes()) {
+                    assertEquals(MarvelPaths.shortestPath(clique, from.getData(), to.getData()),
+                            MarvelPaths.shortestBipartitePath(bipartite, from.getData(), to.getData()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void bipartiteGraphLinksCharactersAndBooks() {
+        BipartiteMarvelGraph bipartite = MarvelPaths.buildBipartiteGraph("staffSuperheroes.csv");
+        assertEquals(4, bipartite.characterCount());
+        assertEquals(5, bipartite.bookCount());
+        int grossman = bipartite.characterId("Grossman-the-Youngest-of-them-all");
+        assertEquals("Grossman-the-Youngest-of-them-all", bipartite.character(grossman));
+        assertEquals(-1, bipartite.characterId("CSE331"));
+        List<String> books = new ArrayList<>();
+        for (int k = bipartite.bookStart(grossman); k < bipartite.bookEnd(grossman); k++) {
+            books.add(bipartite.book(bipartite.bookAt(k)));
+        }
+        assertEquals(List.of("CSE331", "CSE332", "CSE341"), books);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void bipartiteBfsWithCharacterNotInGraph() {
+        MarvelPaths.shortestBipartitePath(MarvelPaths.buildBipartiteGraph("nbaPlayers.csv"),
+                "SHAQUILLE-ONEAL", "MICHAEL-JORDAN");
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void buildAggregatedGraphNullFile() { MarvelPaths.buildAggregatedGraph(null); }
+
     @Test (expected = IllegalArgumentException.class)
     public void buildGraphNullFile() { MarvelPaths.buildGraph(null); }
 
@@ -15,6 +15,10 @@ import pathfinder.parser.*;
 import pathfinder.datastructures.*;
 import graph.*;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.util.*;
 
 /**
@@ -34,11 +38,66 @@ public class CampusMap implements ModelAPI {
      */
     private final String campusPaths = "campus_paths.csv";
 
+    /**
+     * Encodes and decodes the Points of campus graph snapshots as their two coordinates.
+     */
+    private static final GraphSnapshot.Codec<Point> POINTS = new GraphSnapshot.Codec<>() {
+        @Override
+        public void write(DataOutput out, Point value) throws IOException {
+            out.writeDouble(value.getX());
+            out.writeDouble(value.getY());
+        }
+
+        @Override
+        public Point read(ByteBuffer in) {
+            return new Point(in.getDouble(), in.getDouble());
+        }
+    };
+
     /**
      * Stores the campus graph with nodes represented by Points and edges represented by
      * Doubles storing the distance between two Points.
      */
-    private DLGraph<Point, Double> campusGraph;
+    private Graph<Point, Double> campusGraph;
+
+    /**
+     * Stores the engine that finds shortest paths in the campus graph.
+     */
+    private DijkstraEngine<Point> campusEngine;
+
+    /**
+     * Stores the largest factor the straight-line distance between two Points, in map
+     * coordinates, can be scaled by and never exceed the length of a path between them.
+     */
+    private double maxHeuristicScale;
+
+    /**
+     * Stores the factor A* scales the straight-line distance to the destination by.
+     */
+    private volatile double heuristicScale;
+
+    /**
+     * Stores the table of the shortest paths from every building, null until it is first used
+     * or after it is disabled.
+     */
+    private volatile RouteTable<Point> routeTable;
+
+    /**
+     * Stores whether paths are looked up in the route table rather than searched for.
+     */
+    private volatile boolean routeTableEnabled = true;
+
+    /**
+     * Stores the number of paths the route cache holds unless setRouteCache is called.
+     */
+    public static final int DEFAULT_ROUTE_CACHE_SIZE = 256;
+
+    /**
+     * Stores the cache of the paths most recently looked up between buildings, null if the
+     * cache is disabled.
+     */
+    private volatile RouteCache<Point> routeCache =
+            new RouteCache<>(DEFAULT_ROUTE_CACHE_SIZE, RouteCache.EvictionPolicy.LRU);
 
     /**
      * Stores the names of every building on campus, mapping the short name of a building
@@ -61,26 +120,134 @@ public class CampusMap implements ModelAPI {
      * @spec.effects stores the campus building and path data in a graph
      */
     public CampusMap()
+    {
+        this(false);
+    }
+
+    /**
+     * Constructs a new CampusMap using the campus building and path data given in
+     * the files, optionally storing the campus graph as a compact IntGraph.
+     *
+     * @param compactGraph true to store the campus graph as an IntGraph, which holds Points
+     *                     and distances as integer ids and takes less memory, false to store
+     *                     it as a DLGraph
+     * @spec.requires "campus_buildings.csv" is a valid, non-null csv file
+     * @spec.requires "campus_paths.csv" is a valid, non-null csv file
+     * @spec.effects stores the campus building and path data in a graph
+     */
+    public CampusMap(boolean compactGraph)
+    {
+        loadBuildings();
+        campusGraph = buildGraph(compactGraph);
+        buildEngine();
+    }
+
+    /**
+     * Constructs a new CampusMap using the campus building and path data given in
+     * the files, loading the campus graph from the given snapshot file if it exists and is
+     * newer than the path data, so the path data does not have to be parsed again. Otherwise
+     * the graph is built from the path data and written to the snapshot file for the next
+     * CampusMap; if the snapshot cannot be written, the map is still constructed.
+     *
+     * @param snapshot the snapshot file of the campus graph
+     * @spec.requires "campus_buildings.csv" is a valid, non-null csv file
+     * @spec.requires "campus_paths.csv" is a valid, non-null csv file
+     * @spec.effects stores the campus building and path data in a read-only graph
+     * @throws IllegalArgumentException if snapshot is null
+     */
+    public CampusMap(java.nio.file.Path snapshot)
+    {
+        if (snapshot == null) throw new IllegalArgumentException("Snapshot cannot be null.");
+        loadBuildings();
+        try {
+            if (Files.isRegularFile(snapshot) && Files.getLastModifiedTime(snapshot).toMillis()
+                    >= CampusPathsParser.lastModified(campusPaths)) {
+                campusGraph = GraphSnapshot.load(snapshot, POINTS, GraphSnapshot.DOUBLES);
+                buildEngine();
+                return;
+            }
+        } catch (IOException e) {
+            // an unreadable or corrupt snapshot is rebuilt
+        }
+        campusGraph = buildGraph(false).freeze();
+        buildEngine();
+        try {
+            GraphSnapshot.write(campusGraph, snapshot, POINTS, GraphSnapshot.DOUBLES);
+        } catch (IOException e) {
+            // the snapshot is only an optimization
+        }
+    }
+
+    /**
+     * Builds the engine that searches the campus graph and the largest heuristic scale that
+     * is consistent with the campus path data, which A* uses until setHeuristicScale is called.
+     *
+     * @spec.requires campusGraph has been set
+     * @spec.effects sets campusEngine, maxHeuristicScale and heuristicScale for campusGraph
+     */
+    private void buildEngine()
+    {
+        campusEngine = new DijkstraEngine<>(campusGraph);
+        maxHeuristicScale = campusEngine.maxHeuristicScale(CampusMap::straightLineDistance);
+        // with no path between distinct points any scale is consistent, but an infinite one is not usable
+        heuristicScale = Double.isInfinite(maxHeuristicScale) ? 0 : maxHeuristicScale;
+    }
+
+    /**
+     * Returns the straight-line distance between two Points in map coordinates.
+     *
+     * @param p1 the first Point
+     * @param p2 the second Point
+     * @return the Euclidean distance between p1 and p2
+     */
+    private static double straightLineDistance(Point p1, Point p2)
+    {
+        double dx = p1.getX() - p2.getX();
+        double dy = p1.getY() - p2.getY();
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * Reads the campus building data and stores the name and location of every building.
+     *
+     * @spec.effects sets buildingNames and buildingLocations from "campus_buildings.csv"
+     */
+    private void loadBuildings()
     {
         List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings(campusBuildings);
-        List<CampusPath> paths = CampusPathsParser.parseCampusPaths(campusPaths);
-        campusGraph = new DLGraph<>();
         buildingNames = new HashMap<>();
         buildingLocations = new HashMap<>();
         for (CampusBuilding building : buildings)
         {
             buildingNames.put(building.getShortName(), building.getLongName());
-            Point bCoords = new Point(building.getX(), building.getY());
-            buildingLocations.put(building.getShortName(), bCoords);
-            campusGraph.addNode(new Node<>(bCoords));
+            buildingLocations.put(building.getShortName(), new Point(building.getX(), building.getY()));
+        }
+    }
+
+    /**
+     * Builds the campus graph from the locations of the buildings and the campus path data.
+     *
+     * @param compactGraph true to build the graph as an IntGraph, false to build it as a DLGraph
+     * @spec.requires buildingLocations has been set
+     * @return graph holding every building and every point and path of the path data
+     */
+    private MutableGraph<Point, Double> buildGraph(boolean compactGraph)
+    {
+        List<CampusPath> paths = CampusPathsParser.parseCampusPaths(campusPaths);
+        MutableGraph<Point, Double> graph = compactGraph ? new IntGraph<>() : new DLGraph<>();
+        for (Point bCoords : buildingLocations.values())
+        {
+            graph.addNode(new Node<>(bCoords));
         }
         for (CampusPath path : paths) {
             Point first = new Point(path.getX1(), path.getY1());
             Point second = new Point(path.getX2(), path.getY2());
-            campusGraph.addNode(new Node<>(first));
-            campusGraph.addNode(new Node<>(second));
-            campusGraph.addEdge(new Node<>(first), new Node<>(second), path.getDistance());
+            graph.addNode(new Node<>(first));
+            graph.addNode(new Node<>(second));
+            graph.addEdge(new Node<>(first), new Node<>(second), path.getDistance());
         }
+        if (graph instanceof IntGraph) ((IntGraph<Point, Double>) graph).trimToSize();
+        return graph;
     }
 
     /**
@@ -120,7 +287,135 @@ public class CampusMap implements ModelAPI {
     }
 
     /**
-     * Determines the shortest path between two buildings on campus using Dijkstra's algorithm.
+     * Returns the campus graph, so that PathfinderBenchmark can compare searches of it.
+     * @return the campus graph
+     */
+    Graph<Point, Double> campusGraph() {
+        return campusGraph;
+    }
+
+    /**
+     * Returns the location of a building, so that PathfinderBenchmark can compare searches
+     * between buildings.
+     * @param shortName the short name of the building
+     * @return the location of the building, null if there is no such building
+     */
+    Point buildingLocation(String shortName) {
+        return buildingLocations.get(shortName);
+    }
+
+    /**
+     * Returns the factor A* scales the straight-line distance to the destination by.
+     * @return the heuristic scale, which starts as the largest scale consistent with the
+     *         campus path data
+     */
+    public double getHeuristicScale() {
+        return heuristicScale;
+    }
+
+    /**
+     * Sets the factor A* scales the straight-line distance to the destination by. Paths are
+     * lengths in feet while Points are in map coordinates, so the factor converts between the
+     * two; it cannot exceed the smallest ratio of the length of a path to the straight-line
+     * distance between its ends, so that A* still finds the shortest path. Smaller factors
+     * expand more of the campus.
+     * @param scale the new heuristic scale
+     * @spec.modifies this
+     * @spec.effects sets the heuristic scale to the given scale
+     * @throws IllegalArgumentException if scale is negative, not a number, or larger than the
+     *         largest scale consistent with the campus path data
+     */
+    public void setHeuristicScale(double scale) {
+        if (!(scale >= 0 && scale <= maxHeuristicScale)) {
+            throw new IllegalArgumentException("Heuristic scale must be in [0, " + maxHeuristicScale + "].");
+        }
+        heuristicScale = scale;
+    }
+
+    /**
+     * Returns whether paths between buildings are looked up in the route table.
+     * @return true if the route table is enabled, which it is until setRouteTableEnabled(false)
+     *         is called
+     */
+    public boolean isRouteTableEnabled() {
+        return routeTableEnabled;
+    }
+
+    /**
+     * Enables or disables the route table, which holds the shortest path tree of every building
+     * so that a path between buildings is looked up instead of searched for. Disabling the table
+     * frees its memory, and every path is then searched for with A*, including those asked for
+     * with SearchMode.ROUTE_TABLE; enabling it again rebuilds it on first use.
+     * @param enabled true to look paths up in the route table, false to search for them
+     * @spec.modifies this
+     * @spec.effects enables the route table if enabled is true, disables it otherwise
+     */
+    public synchronized void setRouteTableEnabled(boolean enabled) {
+        routeTableEnabled = enabled;
+        if (!enabled) routeTable = null;
+    }
+
+    /**
+     * Returns an estimate of the memory held by the route table.
+     * @return the estimated number of bytes held by the route table, 0 if it has not been built
+     *         or is disabled
+     */
+    public long routeTableBytes() {
+        RouteTable<Point> table = routeTable;
+        return table == null ? 0 : table.memoryBytes();
+    }
+
+    /**
+     * Replaces the route cache, which holds the paths most recently looked up between buildings
+     * so that a path between a popular pair is shared rather than looked up again. The cache
+     * only holds paths looked up with SearchMode.ROUTE_TABLE, which the two-argument
+     * findShortestPath does; the searches of the other modes are never cached. The cache starts
+     * with DEFAULT_ROUTE_CACHE_SIZE paths and evicts the least recently used path.
+     * @param maxSize the most paths the new cache holds, or 0 to disable the cache
+     * @param policy the policy the new cache evicts paths by
+     * @spec.modifies this
+     * @spec.effects replaces the route cache with a new empty one, with new counters, or
+     *               disables it if maxSize is 0
+     * @throws IllegalArgumentException if maxSize is negative or policy is null
+     */
+    public void setRouteCache(int maxSize, RouteCache.EvictionPolicy policy) {
+        if (maxSize < 0) throw new IllegalArgumentException("Cache size cannot be negative.");
+        if (policy == null) throw new IllegalArgumentException("Policy cannot be null.");
+        routeCache = maxSize == 0 ? null : new RouteCache<>(maxSize, policy);
+    }
+
+    /**
+     * Returns the route cache, whose size, policy and hit, miss and eviction counters can be
+     * read while it is in use.
+     * @return the route cache, null if it is disabled
+     */
+    public RouteCache<Point> getRouteCache() {
+        return routeCache;
+    }
+
+    /**
+     * Returns the route table, building it if it has not been built. The shortest path trees
+     * of the buildings are computed in parallel, one search per building.
+     * @return the table of the shortest paths from every building, null if it is disabled
+     */
+    private RouteTable<Point> routeTable() {
+        RouteTable<Point> table = routeTable;
+        if (table == null) {
+            synchronized (this) {
+                table = routeTable;
+                if (table == null && routeTableEnabled) {
+                    table = new RouteTable<>(campusEngine, buildingLocations.values());
+                    routeTable = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Determines the shortest path between two buildings on campus, looking it up in the route
+     * table unless the table is disabled, in which case it is searched for with A*. Either way
+     * it is the path Dijkstra's algorithm returns.
      * @param startShortName The short name of the building at the beginning of this path.
      * @param endShortName   The short name of the building at the end of this path.
      * @return a Path of Points representing the shortest path between two buildings
@@ -129,16 +424,84 @@ public class CampusMap implements ModelAPI {
      */
     @Override
     public Path<Point> findShortestPath(String startShortName, String endShortName) {
-        if (startShortName == null || endShortName == null) {
-            throw new IllegalArgumentException("Names cannot be null.");
+        return findShortestPath(startShortName, endShortName, SearchMode.ROUTE_TABLE, null);
+    }
+
+    /**
+     * Determines the shortest path between two buildings on campus using the given algorithm.
+     * @param startShortName The short name of the building at the beginning of this path.
+     * @param endShortName   The short name of the building at the end of this path.
+     * @param mode           The algorithm searched with.
+     * @return a Path of Points representing the shortest path between two buildings
+     * @throws IllegalArgumentException if either given name or mode is null or either given
+     *         name doesn't exist in the campus buildings graph.
+     */
+    @Override
+    public Path<Point> findShortestPath(String startShortName, String endShortName, SearchMode mode) {
+        return findShortestPath(startShortName, endShortName, mode, null);
+    }
+
+    /**
+     * Determines the shortest path between two buildings on campus using the given algorithm,
+     * recording how many points it expanded and how long it took.
+     * @param startShortName The short name of the building at the beginning of this path.
+     * @param endShortName   The short name of the building at the end of this path.
+     * @param mode           The algorithm searched with.
+     * @param stats          Records the search, or null.
+     * @spec.modifies stats
+     * @return a Path of Points representing the shortest path between two buildings
+     * @throws IllegalArgumentException if either given name or mode is null or either given
+     *         name doesn't exist in the campus buildings graph.
+     */
+    public Path<Point> findShortestPath(String startShortName, String endShortName, SearchMode mode,
+                                        SearchStats stats) {
+        if (startShortName == null || endShortName == null || mode == null) {
+            throw new IllegalArgumentException("Names and mode cannot be null.");
         }
-        if (!(shortNameExists(startShortName) && shortNameExists(startShortName))) {
+        if (!(shortNameExists(startShortName) && shortNameExists(endShortName))) {
             throw new IllegalArgumentException("Given names do not exist in campus buildings.");
         }
-        return DijkstrasAlgorithm.dijkstrasPath(campusGraph, buildingLocations.get(startShortName),
-                                                buildingLocations.get(endShortName));
-
+        if (mode != SearchMode.ROUTE_TABLE) return search(startShortName, endShortName, mode, stats);
+        RouteCache<Point> cache = routeCache;
+        if (cache == null) return lookUp(startShortName, endShortName, stats);
+        long start = System.nanoTime();
+        int searches = stats == null ? 0 : stats.getSearches();
+        Path<Point> path = cache.get(startShortName, endShortName, () -> lookUp(startShortName, endShortName, stats));
+        // a path found in the cache was neither looked up nor searched for, so it is recorded here
+        if (stats != null && stats.getSearches() == searches) stats.record(0, System.nanoTime() - start);
+        return path;
     }
 
+    /**
+     * Looks up the shortest path between two buildings in the route table, searching for it
+     * with A* if the route table is disabled.
+     * @param startShortName the short name of an existing building at the beginning of the path
+     * @param endShortName   the short name of an existing building at the end of the path
+     * @param stats          Records the lookup or search, or null.
+     * @spec.modifies stats
+     * @return a Path of Points representing the shortest path between two buildings
+     */
+    private Path<Point> lookUp(String startShortName, String endShortName, SearchStats stats) {
+        long start = System.nanoTime();
+        RouteTable<Point> table = routeTable();
+        if (table == null) return search(startShortName, endShortName, SearchMode.A_STAR, stats);
+        Path<Point> path = table.path(buildingLocations.get(startShortName), buildingLocations.get(endShortName));
+        if (stats != null) stats.record(0, System.nanoTime() - start);
+        return path;
+    }
 
+    /**
+     * Searches the campus graph for the shortest path between two buildings.
+     * @param startShortName the short name of an existing building at the beginning of the path
+     * @param endShortName   the short name of an existing building at the end of the path
+     * @param mode           DIJKSTRA to search with Dijkstra's algorithm, otherwise A*.
+     * @param stats          Records the search, or null.
+     * @spec.modifies stats
+     * @return a Path of Points representing the shortest path between two buildings
+     */
+    private Path<Point> search(String startShortName, String endShortName, SearchMode mode, SearchStats stats) {
+        double scale = heuristicScale;
+        return campusEngine.shortestPath(buildingLocations.get(startShortName), buildingLocations.get(endShortName),
+                mode != SearchMode.DIJKSTRA ? (p, dest) -> scale * straightLineDistance(p, dest) : null, stats);
+    }
 }
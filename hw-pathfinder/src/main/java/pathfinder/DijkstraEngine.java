@@ -0,0 +1,594 @@
+package pathfinder;
+
+import java.util.*;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToDoubleBiFunction;
+import pathfinder.datastructures.Path;
+import graph.*;
+
+/**
+ * <b>DijkstraEngine</b> answers repeated shortest path queries on one graph with Dijkstra's
+ * algorithm. Unlike DijkstrasAlgorithm.dijkstrasPath, which queues a new Path for every edge
+ * it relaxes, the engine numbers the Nodes of the graph once, keeps the Edges in flat arrays
+ * indexed by those numbers, and searches with a distance and an incoming Edge per Node and an indexed
+ * binary heap that lowers the key of a queued Node in place. The Path is only built for the
+ * destination, once it is reached. Given a heuristic, the engine searches with A* instead.
+ *
+ * The engine is a copy of the graph when it was constructed; later changes to the graph are
+ * not seen. Queries do not change the graph the engine holds, so it can be queried by many
+ * threads at once. Each thread keeps its own search arrays and reuses them for its later
+ * queries, so a query only touches the Nodes it reaches.
+ *
+ * @param <N> represents the Node type in the graph
+ */
+public class DijkstraEngine<N> {
+
+    /**
+     * Holds the data of every Node, indexed by Node id.
+     */
+    private final List<N> nodes;
+
+    /**
+     * Holds the id of every Node.
+     */
+    private final Map<N, Integer> ids;
+
+    /**
+     * Holds where the Edges of each Node start in targets and weights; the Edges of Node i are
+     * at indices offsets[i] to offsets[i + 1] - 1.
+     */
+    private final int[] offsets;
+
+    /**
+     * Holds the id of the child of every Edge.
+     */
+    private final int[] targets;
+
+    /**
+     * Holds the weight of every Edge.
+     */
+    private final double[] weights;
+
+    /**
+     * Holds the arrays each thread searches with, reused by every search of that thread.
+     */
+    private final ThreadLocal<SearchState> searchStates;
+
+    // Abstraction Function:
+    //  A DijkstraEngine represents the graph whose Nodes hold nodes.get(0) ... nodes.get(n - 1),
+    //  where n = nodes.size(), and which has, for every Node i and every k in
+    //  [offsets[i], offsets[i + 1]), an Edge from Node i to Node targets[k] with weight weights[k].
+    //
+    // Representation Invariant:
+    //  ids.get(nodes.get(i)) == i for every i in [0, n) && ids.size() == n
+    //  && offsets.length == n + 1 && offsets[0] == 0 && offsets is non-decreasing
+    //  && targets.length == weights.length == offsets[n]
+    //  && every element of targets is in [0, n) && every element of weights is finite and >= 0
+
+    /**
+     * @param g the graph searched
+     * @spec.effects Constructs a new engine searching a copy of g
+     * @throws IllegalArgumentException if g is null or has an Edge whose weight is null,
+     *                                  negative or not finite
+     */
+    public DijkstraEngine(Graph<N, Double> g) {
+        if (g == null) throw new IllegalArgumentException("Cannot have null graph");
+        int n = g.size();
+        nodes = new ArrayList<>(n);
+        ids = new HashMap<>();
+        for (Node<N> node: g.getNodeView()) {
+            ids.put(node.getData(), nodes.size());
+            nodes.add(node.getData());
+        }
+
+        offsets = new int[n + 1];
+        int edgeCount = 0;
+        for (int i = 0; i < n; i++) {
+            edgeCount += g.getEdgeView(new Node<>(nodes.get(i))).size();
+            offsets[i + 1] = edgeCount;
+        }
+        targets = new int[edgeCount];
+        weights = new double[edgeCount];
+        for (int i = 0; i < n; i++) {
+            int k = offsets[i];
+            for (Edge<Double, N> e: g.getEdgeView(new Node<>(nodes.get(i)))) {
+                Double weight = e.getLabel();
+                if (weight == null || !(weight >= 0) || weight.isInfinite()) {
+                    throw new IllegalArgumentException("Edge weights must be finite and non-negative.");
+                }
+                targets[k] = ids.get(e.getChild().getData());
+                weights[k] = weight;
+                k++;
+            }
+        }
+        searchStates = ThreadLocal.withInitial(() -> new SearchState(n));
+        checkRep();
+    }
+
+    /**
+     * Returns the shortest path between two nodes
+     * @param start start point for the path
+     * @param dest end point for the path
+     * @return shortest path between start and dest, with the same cost as the path
+     *         DijkstrasAlgorithm.dijkstrasPath finds, null if no path found
+     * @throws IllegalArgumentException if start or dest is null or not in the graph
+     */
+    public Path<N> shortestPath(N start, N dest) {
+        return shortestPath(start, dest, null, null);
+    }
+
+    /**
+     * Returns the shortest path between two nodes, searching with A* if a heuristic is given.
+     * A* visits the Nodes in order of their distance from start plus the heuristic's estimate
+     * of their distance to dest, so it reaches dest after expanding fewer Nodes the closer the
+     * estimates are. The heuristic must be consistent: for every Edge from u to v of weight w,
+     * heuristic(u, dest) &lt;= w + heuristic(v, dest), as any heuristic scaled by at most
+     * maxHeuristicScale is.
+     *
+     * Of several shortest paths, the one returned reaches every Node on it through the first
+     * of the Edges that reach it at that distance, taking the Nodes in the order of the graph's
+     * Node view and their Edges in the order of its Edge views when the engine was built. So a
+     * consistent heuristic returns the same path as no heuristic on a graph with positive weights.
+     *
+     * @param start start point for the path
+     * @param dest end point for the path
+     * @param heuristic estimates the distance from a node to dest, or null to search with
+     *                  Dijkstra's algorithm
+     * @param stats records how many nodes were expanded and how long the search took, or null
+     * @spec.requires heuristic is null or consistent and never negative
+     * @spec.modifies stats
+     * @return shortest path between start and dest, null if no path found
+     * @throws IllegalArgumentException if start or dest is null or not in the graph
+     */
+    public Path<N> shortestPath(N start, N dest, ToDoubleBiFunction<? super N, ? super N> heuristic,
+                                SearchStats stats) {
+        long startTime = System.nanoTime();
+        if (start == null || dest == null) throw new IllegalArgumentException("Cannot have null start or end nodes.");
+        Integer source = ids.get(start);
+        Integer target = ids.get(dest);
+        if (source == null || target == null) throw new IllegalArgumentException("Given nodes must be contained in graph.");
+
+        SearchState state = searchStates.get();
+        int expanded = search(state, source, target, heuristic, dest);
+        // a reached target is always expanded before the queue runs out
+        Path<N> path = state.reached(target) ? buildPath(source, target, i -> state.via[i]) : null;
+        if (stats != null) stats.record(expanded, System.nanoTime() - startTime);
+        return path;
+    }
+
+    /**
+     * Runs Dijkstra's algorithm, or A* if a heuristic is given, from a Node until the target
+     * is expanded or every Node reachable from the Node is, leaving the distance of every Node
+     * reached and the Edge it was reached through in the given search arrays.
+     * @param state the search arrays searched with
+     * @param source the id of the start Node
+     * @param target the id of the destination Node, or -1 to expand every reachable Node
+     * @param heuristic estimates the distance from a node to dest, or null
+     * @param dest the data of the destination Node, if a heuristic is given
+     * @spec.requires target is not -1 if heuristic is not null
+     * @spec.modifies state
+     * @return the number of Nodes expanded
+     */
+    private int search(SearchState state, int source, int target,
+                       ToDoubleBiFunction<? super N, ? super N> heuristic, N dest) {
+        state.begin();
+        double[] dist = state.dist;
+        double[] remaining = state.remaining;
+        double[] estimate = state.estimate;
+        int[] via = state.via;
+        IndexedHeap active = state.active;
+
+        state.reach(source, heuristic == null ? 0 : heuristic.applyAsDouble(nodes.get(source), dest));
+        dist[source] = 0;
+        estimate[source] = remaining[source];
+        via[source] = -1;
+        active.update(source);
+
+        int expanded = 0;
+        while (!active.isEmpty()) {
+            int min = active.removeMin();
+            expanded++;
+            if (min == target) break;
+            for (int k = offsets[min]; k < offsets[min + 1]; k++) {
+                int child = targets[k];
+                if (!state.reached(child)) {
+                    state.reach(child, heuristic == null ? 0 : heuristic.applyAsDouble(nodes.get(child), dest));
+                }
+                double candidate = dist[min] + weights[k];
+                if (candidate < dist[child]) {
+                    dist[child] = candidate;
+                    estimate[child] = candidate + remaining[child];
+                    via[child] = k;
+                    active.update(child);
+                } else if (candidate == dist[child] && k < via[child] && active.contains(child)) {
+                    via[child] = k;
+                }
+            }
+        }
+        return expanded;
+    }
+
+    /**
+     * Returns the shortest path tree of a Node: the Edge through which every Node is reached
+     * by the shortest path from it that shortestPath(start, dest) returns. Every path of the
+     * tree can be rebuilt with treePath.
+     * @param source the id of the root of the tree
+     * @spec.requires source is in [0, size())
+     * @return array holding, at index i, the index of the Edge Node i is reached through, or
+     *         -1 if Node i is source or cannot be reached from it
+     */
+    int[] shortestPathTree(int source) {
+        SearchState state = searchStates.get();
+        search(state, source, -1, null, null);
+        int[] tree = new int[nodes.size()];
+        for (int i = 0; i < tree.length; i++) tree[i] = state.reached(i) ? state.via[i] : -1;
+        tree[source] = -1;
+        return tree;
+    }
+
+    /**
+     * Returns the path from the root of a shortest path tree to a Node of the tree
+     * @param source the id of the root of the tree
+     * @param target the id of the destination Node
+     * @param via gives the index of the Edge each Node is reached through, as shortestPathTree does
+     * @spec.requires source and target are in [0, size())
+     * @return the path from source to target in the tree, null if target is not in the tree
+     */
+    Path<N> treePath(int source, int target, IntUnaryOperator via) {
+        if (target != source && via.applyAsInt(target) < 0) return null;
+        return buildPath(source, target, via);
+    }
+
+    /**
+     * Returns the id of a Node
+     * @param data the data of the Node
+     * @return the id of the Node holding data, -1 if there is none
+     */
+    int idOf(N data) {
+        Integer id = ids.get(data);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the number of Nodes of the graph searched
+     * @return the number of Nodes
+     */
+    int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Returns the number of Edges of the graph searched
+     * @return the number of Edges
+     */
+    int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Returns the largest factor the given heuristic can be scaled by and stay consistent on
+     * this graph: the smallest ratio of the weight of an Edge to the heuristic's estimate of the
+     * distance between its two Nodes, less a relative margin of 1e-9 for rounding. A heuristic
+     * that estimates the distance between two Nodes by a metric, such as the straight-line
+     * distance between two points, is consistent on this graph when scaled by at most this
+     * factor.
+     *
+     * @param heuristic estimates the distance between two nodes, never negative and 0 between
+     *                  a node and itself
+     * @return the largest consistent scale, positive infinity if the heuristic estimates 0 for
+     *         the Nodes of every Edge
+     * @throws IllegalArgumentException if heuristic is null
+     */
+    public double maxHeuristicScale(ToDoubleBiFunction<? super N, ? super N> heuristic) {
+        if (heuristic == null) throw new IllegalArgumentException("Heuristic cannot be null.");
+        double scale = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < nodes.size(); i++) {
+            for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+                double estimate = heuristic.applyAsDouble(nodes.get(i), nodes.get(targets[k]));
+                if (estimate > 0) scale = Math.min(scale, weights[k] / estimate);
+            }
+        }
+        return scale * (1 - 1e-9);
+    }
+
+    /**
+     * Builds the Path a search found by following the Edges back from its destination
+     * @param source the id of the start Node
+     * @param target the id of the destination Node
+     * @param via gives the index of the Edge each Node on the path was reached through
+     * @return the path from source to target
+     */
+    private Path<N> buildPath(int source, int target, IntUnaryOperator via) {
+        List<Integer> steps = new ArrayList<>();
+        for (int i = target; i != source; i = edgeSource(via.applyAsInt(i))) steps.add(i);
+        Path<N> path = new Path<>(nodes.get(source));
+        for (int s = steps.size() - 1; s >= 0; s--) {
+            int i = steps.get(s);
+            path = path.extend(nodes.get(i), weights[via.applyAsInt(i)]);
+        }
+        return path;
+    }
+
+    /**
+     * Returns the Node an Edge starts at
+     * @param edge the index of the Edge
+     * @spec.requires edge is in [0, targets.length)
+     * @return the id of the Node whose Edges include edge
+     */
+    private int edgeSource(int edge) {
+        // finds the last Node whose Edges start at or before edge; Nodes without Edges share offsets
+        int low = 0;
+        int high = nodes.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (offsets[mid] <= edge) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert (offsets.length == nodes.size() + 1 && offsets[0] == 0) : "offsets must cover every node";
+        assert (targets.length == weights.length && targets.length == offsets[nodes.size()]) : "edge arrays must match";
+        if (DLGraph.DEBUG) {
+            for (int i = 0; i < nodes.size(); i++) {
+                assert (ids.get(nodes.get(i)) == i) : "node ids must match";
+                assert (offsets[i] <= offsets[i + 1]) : "offsets must be non-decreasing";
+            }
+            for (int k = 0; k < targets.length; k++) {
+                assert (targets[k] >= 0 && targets[k] < nodes.size()) : "edge must point to a node";
+                assert (weights[k] >= 0 && !Double.isInfinite(weights[k])) : "weights must be finite and non-negative";
+            }
+        }
+    }
+
+    /**
+     * The arrays a thread searches with, indexed by Node id. Only the entries of the Nodes
+     * reached by the current search are valid; a Node is reached by the current search if its
+     * stamp is the current generation, so that starting a search does not touch every Node.
+     */
+    private static class SearchState {
+
+        /**
+         * Holds the distance of every reached Node from the start.
+         */
+        final double[] dist;
+
+        /**
+         * Holds the heuristic's estimate of the distance of every reached Node to the destination.
+         */
+        final double[] remaining;
+
+        /**
+         * Holds dist plus remaining for every reached Node, which the queue is ordered by.
+         */
+        final double[] estimate;
+
+        /**
+         * Holds the index of the Edge every reached Node was reached through.
+         */
+        final int[] via;
+
+        /**
+         * Holds the generation of the search that last reached every Node.
+         */
+        final int[] stamp;
+
+        /**
+         * Holds the queue of the current search.
+         */
+        final IndexedHeap active;
+
+        /**
+         * Holds the generation of the current search.
+         */
+        int generation;
+
+        /**
+         * @param size the number of Nodes searched
+         * @spec.effects Constructs new search arrays for the given number of Nodes
+         */
+        SearchState(int size) {
+            dist = new double[size];
+            remaining = new double[size];
+            estimate = new double[size];
+            via = new int[size];
+            stamp = new int[size];
+            active = new IndexedHeap(estimate, dist);
+        }
+
+        /**
+         * Starts a new search, for which no Node is reached and the queue is empty
+         * @spec.modifies this
+         */
+        void begin() {
+            active.clear();
+            generation++;
+            if (generation == 0) {
+                // after 2^32 searches, the stamps of old searches could match again
+                Arrays.fill(stamp, 0);
+                generation = 1;
+            }
+        }
+
+        /**
+         * Returns whether the current search has reached a Node
+         * @param id the id of the Node
+         * @return true if the Node was reached, false otherwise
+         */
+        boolean reached(int id) {
+            return stamp[id] == generation;
+        }
+
+        /**
+         * Marks a Node reached by the current search, at an unknown distance
+         * @param id the id of the Node
+         * @param estimate the heuristic's estimate of its distance to the destination
+         * @spec.modifies this
+         */
+        void reach(int id, double estimate) {
+            stamp[id] = generation;
+            dist[id] = Double.POSITIVE_INFINITY;
+            remaining[id] = estimate;
+            this.estimate[id] = Double.POSITIVE_INFINITY;
+        }
+    }
+
+    /**
+     * A binary min-heap of Node ids ordered by their keys, then by their tie keys, which knows
+     * where each id is so that the key of a queued id can be lowered in place.
+     */
+    private static class IndexedHeap {
+
+        /**
+         * Holds the key of every id, read but not changed by the heap.
+         */
+        private final double[] keys;
+
+        /**
+         * Holds the key ordering ids of equal keys, read but not changed by the heap.
+         */
+        private final double[] tieKeys;
+
+        /**
+         * Holds the queued ids in heap order in indices 0 to size - 1.
+         */
+        private final int[] heap;
+
+        /**
+         * Holds the index in heap of every queued id, or -1 for ids not queued.
+         */
+        private final int[] position;
+
+        /**
+         * Holds the number of queued ids.
+         */
+        private int size;
+
+        /**
+         * @param keys the key of every id, which may only be lowered while the id is queued
+         * @param tieKeys the key ordering ids of equal keys, which may only be lowered while
+         *                the id is queued
+         * @spec.requires keys.length == tieKeys.length
+         * @spec.effects Constructs a new empty heap of the ids 0 to keys.length - 1
+         */
+        IndexedHeap(double[] keys, double[] tieKeys) {
+            this.keys = keys;
+            this.tieKeys = tieKeys;
+            this.heap = new int[keys.length];
+            this.position = new int[keys.length];
+            Arrays.fill(position, -1);
+        }
+
+        /**
+         * Returns whether no id is queued
+         * @return true if the heap is empty, false otherwise
+         */
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        /**
+         * Returns whether an id is queued
+         * @param id the id looked for
+         * @return true if id is queued, false otherwise
+         */
+        boolean contains(int id) {
+            return position[id] >= 0;
+        }
+
+        /**
+         * Removes every queued id
+         * @spec.modifies this
+         */
+        void clear() {
+            for (int i = 0; i < size; i++) position[heap[i]] = -1;
+            size = 0;
+        }
+
+        /**
+         * Queues an id, or moves an id already queued after its key was lowered
+         * @param id the id queued
+         * @spec.modifies this
+         * @spec.effects queues id by its current key
+         */
+        void update(int id) {
+            if (position[id] < 0) {
+                heap[size] = id;
+                position[id] = size;
+                size++;
+            }
+            siftUp(position[id]);
+        }
+
+        /**
+         * Removes and returns the queued id with the smallest key
+         * @spec.requires the heap is not empty
+         * @spec.modifies this
+         * @return the id removed
+         */
+        int removeMin() {
+            int min = heap[0];
+            position[min] = -1;
+            size--;
+            if (size > 0) {
+                heap[0] = heap[size];
+                position[heap[0]] = 0;
+                siftDown(0);
+            }
+            return min;
+        }
+
+        /**
+         * Returns whether one id comes before another
+         * @param id1 the first id
+         * @param id2 the second id
+         * @return true if id1 has a smaller key, or an equal key and a smaller tie key
+         */
+        private boolean before(int id1, int id2) {
+            return keys[id1] < keys[id2] || (keys[id1] == keys[id2] && tieKeys[id1] < tieKeys[id2]);
+        }
+
+        /**
+         * Moves the id at the given index up until its parent does not come after it
+         * @param index the index in heap of the id moved
+         */
+        private void siftUp(int index) {
+            int id = heap[index];
+            while (index > 0) {
+                int up = (index - 1) / 2;
+                if (!before(id, heap[up])) break;
+                heap[index] = heap[up];
+                position[heap[index]] = index;
+                index = up;
+            }
+            heap[index] = id;
+            position[id] = index;
+        }
+
+        /**
+         * Moves the id at the given index down until neither child comes before it
+         * @param index the index in heap of the id moved
+         */
+        private void siftDown(int index) {
+            int id = heap[index];
+            while (true) {
+                int down = 2 * index + 1;
+                if (down >= size) break;
+                if (down + 1 < size && before(heap[down + 1], heap[down])) down++;
+                if (!before(heap[down], id)) break;
+                heap[index] = heap[down];
+                position[heap[index]] = index;
+                index = down;
+            }
+            heap[index] = id;
+            position[id] = index;
+        }
+    }
+}
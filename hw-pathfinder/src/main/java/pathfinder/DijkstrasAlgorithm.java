@@ -23,7 +23,7 @@ public class DijkstrasAlgorithm {
      * @return shortest path calculated from Dijkstra's algorithm between start and end
      *         points in graph, null if no path found
      */
-    public static <N> Path<N> dijkstrasPath(DLGraph<N, Double> g, N start, N dest) {
+    public static <N> Path<N> dijkstrasPath(Graph<N, Double> g, N start, N dest) {
         if (g == null) throw new IllegalArgumentException("Cannot have null graph");
         if (start == null || dest == null) throw new IllegalArgumentException("Cannot have null start or end nodes.");
         if (!(g.containsNode(new Node<>(start)) && g.containsNode(new Node<>(dest)))) {
@@ -40,8 +40,7 @@ public class DijkstrasAlgorithm {
             Node<N> minDestNode = new Node<>(minPath.getEnd());
             if (minDest.equals(dest)) return minPath;
             if (!finished.contains(minDestNode)) {
-                List<Edge<Double, N>> allEdges = new ArrayList<>(g.getAllEdges(minDestNode));
-                for (Edge<Double, N> e: allEdges) {
+                for (Edge<Double, N> e: g.getEdgeView(minDestNode)) {
                     if (!finished.contains(e.getChild())) {
                         Path<N> newPath = minPath.extend(e.getChild().getData(), e.getLabel());
                         active.add(newPath);
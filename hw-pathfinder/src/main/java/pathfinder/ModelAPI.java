@@ -71,4 +71,22 @@ public interface ModelAPI {
     // You'll need to change this return type to use the generic Path once you've
     // updated the Path ADT to be generic.
 
+    /**
+     * Finds the shortest path, by distance, between the two provided buildings, searching with
+     * the given algorithm. Every mode returns the same path as findShortestPath(String, String).
+     *
+     * @param startShortName The short name of the building at the beginning of this path.
+     * @param endShortName   The short name of the building at the end of this path.
+     * @param mode           The algorithm searched with.
+     * @return A path between {@code startBuilding} and {@code endBuilding}, or {@literal null}
+     * if none exists.
+     * @throws IllegalArgumentException if {@code startBuilding} or {@code endBuilding} are
+     *                                  {@literal null}, or not valid short names of buildings in
+     *                                  this campus map, or if {@code mode} is {@literal null}.
+     */
+    public default Path<Point> findShortestPath(String startShortName, String endShortName, SearchMode mode) {
+        if (mode == null) throw new IllegalArgumentException("Mode cannot be null.");
+        return findShortestPath(startShortName, endShortName);
+    }
+
 }
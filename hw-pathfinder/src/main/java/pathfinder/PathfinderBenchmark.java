@@ -0,0 +1,155 @@
+package pathfinder;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+/**
+ * This class measures how long the shortest path searches of the campus map take over every
+ * pair of buildings in the campus data, along with how many bytes are allocated and how many
+ * points are expanded per query, and checks that every search finds paths of the same cost as
+ * DijkstrasAlgorithm and that A*, the route table and the route cache find the same paths as
+ * the engine's Dijkstra search.
+ */
+public class PathfinderBenchmark {
+
+    // This is not an ADT
+
+    /**
+     * Holds the number of times every pair is searched by each search. The first round runs
+     * before the JIT has compiled the search code; the fastest round is reported.
+     */
+    private static final int ROUNDS = 5;
+
+    /**
+     * Runs the benchmark and prints the results.
+     * @param args optional argument: a comma-separated list of the searches to compare, out of
+     *             dijkstras, engine, astar, table and cache (default all of them)
+     */
+    public static void main(String[] args) {
+        List<String> modes = Arrays.asList((args.length > 0 ? args[0] : "dijkstras,engine,astar,table,cache").split(","));
+        CampusMap map = new CampusMap();
+        // the table is measured on its own, and the cache only in its own mode
+        map.setRouteCache(0, RouteCache.EvictionPolicy.LRU);
+        List<String> buildings = new ArrayList<>(map.buildingNames().keySet());
+        Collections.sort(buildings);
+        List<String[]> names = new ArrayList<>();
+        List<Point[]> pairs = new ArrayList<>();
+        for (String from: buildings) {
+            for (String to: buildings) {
+                names.add(new String[] {from, to});
+                pairs.add(new Point[] {map.buildingLocation(from), map.buildingLocation(to)});
+            }
+        }
+        System.out.println(buildings.size() + " buildings, " + pairs.size() + " pairs");
+
+        double[] expected = new double[pairs.size()];
+        for (int i = 0; i < pairs.size(); i++) {
+            Path<Point> path = DijkstrasAlgorithm.dijkstrasPath(map.campusGraph(), pairs.get(i)[0], pairs.get(i)[1]);
+            expected[i] = path == null ? -1 : path.getCost();
+        }
+        if (modes.contains("dijkstras")) {
+            runPairs("dijkstras", expected, null,
+                    i -> DijkstrasAlgorithm.dijkstrasPath(map.campusGraph(), pairs.get(i)[0], pairs.get(i)[1]));
+        }
+        if (modes.contains("engine") || modes.contains("astar") || modes.contains("table")
+                || modes.contains("cache")) {
+            List<Path<Point>> enginePaths = new ArrayList<>();
+            SearchStats dijkstraStats = new SearchStats();
+            SearchStats aStarStats = new SearchStats();
+            for (String[] pair: names) {
+                enginePaths.add(map.findShortestPath(pair[0], pair[1], SearchMode.DIJKSTRA, dijkstraStats));
+                map.findShortestPath(pair[0], pair[1], SearchMode.A_STAR, aStarStats);
+            }
+            System.out.printf("heuristic scale %.4f; points expanded per query: dijkstra %d, a* %d%n",
+                    map.getHeuristicScale(), dijkstraStats.getTotalExpandedNodes() / pairs.size(),
+                    aStarStats.getTotalExpandedNodes() / pairs.size());
+            if (modes.contains("engine")) {
+                runPairs("engine", expected, null,
+                        i -> map.findShortestPath(names.get(i)[0], names.get(i)[1], SearchMode.DIJKSTRA));
+            }
+            if (modes.contains("astar")) {
+                runPairs("astar", expected, enginePaths,
+                        i -> map.findShortestPath(names.get(i)[0], names.get(i)[1], SearchMode.A_STAR));
+            }
+            if (modes.contains("table")) {
+                long start = System.nanoTime();
+                map.findShortestPath(names.get(0)[0], names.get(0)[1], SearchMode.ROUTE_TABLE);
+                System.out.printf("table: built in %.1f ms, %d bytes%n",
+                        (System.nanoTime() - start) / 1e6, map.routeTableBytes());
+                runPairs("table", expected, enginePaths,
+                        i -> map.findShortestPath(names.get(i)[0], names.get(i)[1], SearchMode.ROUTE_TABLE));
+            }
+            if (modes.contains("cache")) {
+                // a cache that holds every pair, so every round after the first only hits
+                map.setRouteCache(pairs.size(), RouteCache.EvictionPolicy.LRU);
+                runPairs("cache", expected, enginePaths, i -> map.findShortestPath(names.get(i)[0], names.get(i)[1]));
+                System.out.println("cache: " + map.getRouteCache());
+            }
+        }
+    }
+
+    /**
+     * Searches every pair ROUNDS times and prints how long the first and the fastest round took
+     * and the average number of bytes allocated per query in the fastest round.
+     * @param name the name of the search printed with its results
+     * @param expected the cost of the path between each pair, -1 if there is none
+     * @param expectedPaths the path between each pair, or null to only check costs
+     * @param query the search run on each pair
+     * @throws IllegalStateException if the search finds a path of a different cost, or a
+     *         different path than the one expected
+     */
+    private static void runPairs(String name, double[] expected, List<Path<Point>> expectedPaths, Query query) {
+        long first = 0;
+        long best = Long.MAX_VALUE;
+        long bestAllocated = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long allocatedStart = allocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < expected.length; i++) {
+                Path<Point> path = query.run(i);
+                double cost = path == null ? -1 : path.getCost();
+                if (Math.abs(cost - expected[i]) > 1e-9 * Math.max(1, expected[i])) {
+                    throw new IllegalStateException(name + " found a path of cost " + cost + " instead of " + expected[i]);
+                }
+                if (expectedPaths != null && !Objects.equals(path, expectedPaths.get(i))) {
+                    throw new IllegalStateException(name + " found a different path for pair " + i);
+                }
+            }
+            long time = System.nanoTime() - start;
+            long allocated = allocatedBytes() - allocatedStart;
+            if (round == 0) first = time;
+            if (time < best) {
+                best = time;
+                bestAllocated = allocated;
+            }
+        }
+        System.out.printf("%s: first round %.1f ms, best round %.1f ms (%.1f us per query), %d bytes allocated per query%n",
+                name, first / 1e6, best / 1e6, best / 1e3 / expected.length, bestAllocated / expected.length);
+    }
+
+    /**
+     * Returns the number of bytes allocated so far by the current thread.
+     * @return bytes allocated by this thread, or 0 if the JVM cannot measure allocation
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    /**
+     * A shortest path query between a pair of buildings.
+     */
+    private interface Query {
+        /**
+         * Runs this query.
+         * @param pair the index of the pair of buildings searched
+         * @return the path found, null if there is none
+         */
+        Path<Point> run(int pair);
+    }
+}
@@ -0,0 +1,211 @@
+package pathfinder;
+
+import java.util.*;
+import java.util.function.Supplier;
+import pathfinder.datastructures.Path;
+import graph.DLGraph;
+
+/**
+ * <b>RouteCache</b> holds the paths most recently found between pairs of buildings, keyed by
+ * the short names of the buildings, so that a path between a popular pair is found once and
+ * then shared. The cache holds at most a fixed number of paths and, when full, evicts either
+ * the path used least recently or the path added first, and it counts how often a path was
+ * found in it, searched for, and evicted.
+ *
+ * A RouteCache can be used by many threads at once. Paths are immutable, so a cached path
+ * is returned to every thread that asks for it. A path that is not cached is searched for
+ * outside the lock of the cache, so threads that miss do not wait on one another.
+ *
+ * Specification fields:
+ * @spec.specfield maxSize : int // The most paths the cache holds at once.
+ * @spec.specfield policy : EvictionPolicy // Which path is evicted when the cache is full.
+ * @spec.specfield hits : long // The number of paths found in the cache.
+ * @spec.specfield misses : long // The number of paths not found in the cache.
+ * @spec.specfield evictions : long // The number of paths evicted from the cache.
+ *
+ * @param <N> represents the Node type of the paths
+ */
+public class RouteCache<N> {
+
+    /**
+     * <b>EvictionPolicy</b> selects the path a full RouteCache evicts to make room for another.
+     */
+    public enum EvictionPolicy {
+
+        /**
+         * Evicts the path that was found or added least recently.
+         */
+        LRU,
+
+        /**
+         * Evicts the path that was added first, however often it is found.
+         */
+        FIFO
+    }
+
+    /**
+     * Holds the most paths the cache holds at once.
+     */
+    private final int maxSize;
+
+    /**
+     * Holds the policy the cache evicts paths by.
+     */
+    private final EvictionPolicy policy;
+
+    /**
+     * Holds the cached paths by pair of buildings, in the order they are evicted in.
+     */
+    private final LinkedHashMap<List<String>, Path<N>> paths;
+
+    /**
+     * Holds the number of times a path was found in the cache, not found, and evicted.
+     */
+    private long hits, misses, evictions;
+
+    // Abstraction Function:
+    //  A RouteCache with policy policy holds, for every entry (List.of(start, end), path) of
+    //  paths, path as the path from building start to building end; the entry evicted next is
+    //  the first entry of paths. hits, misses and evictions are the counters of the cache.
+    //
+    // Representation Invariant:
+    //  policy != null && paths != null && maxSize > 0 && paths.size() <= maxSize
+    //  && no key or value of paths is null && every key of paths has two elements
+    //  && hits >= 0 && misses >= 0 && evictions >= 0
+
+    /**
+     * @param maxSize the most paths the cache holds at once
+     * @param policy the policy the cache evicts paths by
+     * @spec.effects Constructs a new empty cache
+     * @throws IllegalArgumentException if maxSize &lt;= 0 or policy is null
+     */
+    public RouteCache(int maxSize, EvictionPolicy policy) {
+        if (maxSize <= 0) throw new IllegalArgumentException("Cache size must be positive.");
+        if (policy == null) throw new IllegalArgumentException("Policy cannot be null.");
+        this.maxSize = maxSize;
+        this.policy = policy;
+        // access order moves a path to the end of the map every time it is found
+        this.paths = new LinkedHashMap<>(16, 0.75f, policy == EvictionPolicy.LRU) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<String>, Path<N>> eldest) {
+                if (size() <= RouteCache.this.maxSize) return false;
+                evictions++;
+                return true;
+            }
+        };
+        checkRep();
+    }
+
+    /**
+     * Returns the path between two buildings, searching for it and caching it if it is not
+     * cached. A path that is not found by the search is not cached.
+     * @param start the short name of the building at the beginning of the path
+     * @param end the short name of the building at the end of the path
+     * @param search finds the path from start to end, or null if there is none
+     * @spec.modifies this
+     * @spec.effects counts a hit if the path is cached and a miss otherwise, caches the path
+     *               found by search, and evicts a path if the cache was full
+     * @return the cached path from start to end, or the path search finds if none is cached
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public Path<N> get(String start, String end, Supplier<Path<N>> search) {
+        if (start == null || end == null || search == null) {
+            throw new IllegalArgumentException("Arguments cannot be null.");
+        }
+        List<String> key = List.of(start, end);
+        synchronized (this) {
+            Path<N> path = paths.get(key);
+            if (path != null) {
+                hits++;
+                return path;
+            }
+            misses++;
+        }
+        Path<N> path = search.get();
+        if (path != null) {
+            synchronized (this) {
+                // a thread that missed at the same time may have cached the same path already
+                paths.putIfAbsent(key, path);
+                checkRep();
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Removes every path from the cache, keeping its counters.
+     * @spec.modifies this
+     * @spec.effects empties the cache
+     */
+    public synchronized void clear() {
+        paths.clear();
+    }
+
+    /**
+     * Returns the number of paths in the cache
+     * @return the number of paths cached
+     */
+    public synchronized int size() {
+        return paths.size();
+    }
+
+    /**
+     * Returns the most paths the cache holds at once
+     * @return the bound on the number of cached paths
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the policy the cache evicts paths by
+     * @return the eviction policy of the cache
+     */
+    public EvictionPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Returns the number of times a path was asked for and found in the cache
+     * @return number of cache hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of times a path was asked for and searched for
+     * @return number of cache misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of paths evicted to make room for others
+     * @return number of cache evictions
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "RouteCache[" + paths.size() + "/" + maxSize + " " + policy + ", hits=" + hits
+                + ", misses=" + misses + ", evictions=" + evictions + "]";
+    }
+
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert (policy != null && paths != null) : "fields cannot be null";
+        assert (maxSize > 0 && paths.size() <= maxSize) : "cache must stay within its bound";
+        assert (hits >= 0 && misses >= 0 && evictions >= 0) : "counters cannot be negative";
+        if (DLGraph.DEBUG) {
+            for (Map.Entry<List<String>, Path<N>> entry: paths.entrySet()) {
+                assert (entry.getKey().size() == 2 && entry.getValue() != null) : "entries must be pairs and paths";
+            }
+        }
+    }
+}
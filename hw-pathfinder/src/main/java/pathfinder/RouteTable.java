@@ -0,0 +1,181 @@
+package pathfinder;
+
+import java.util.*;
+import java.util.stream.IntStream;
+import pathfinder.datastructures.Path;
+import graph.DLGraph;
+
+/**
+ * <b>RouteTable</b> holds the shortest path from each of a fixed set of sources, such as the
+ * buildings of a campus, to every Node of a graph, so that a path from a source is found by
+ * looking it up instead of searching the graph. The table keeps one shortest path tree per
+ * source, computed by a DijkstraEngine with one search per source run in parallel on the
+ * common fork-join pool. A tree only holds the Edge each Node is reached through, as a char
+ * per Node when the graph has fewer than 65535 Edges and as an int otherwise, and a path is
+ * rebuilt from its tree when it is looked up. The paths are the paths the engine's
+ * shortestPath returns.
+ *
+ * A RouteTable is immutable and can be read by many threads at once.
+ *
+ * @param <N> represents the Node type in the graph
+ */
+public class RouteTable<N> {
+
+    /**
+     * Holds the largest number of Edges whose indices, plus one, fit in a char.
+     */
+    private static final int MAX_COMPACT_EDGES = Character.MAX_VALUE - 1;
+
+    /**
+     * Holds the engine the trees were computed by, which rebuilds the paths.
+     */
+    private final DijkstraEngine<N> engine;
+
+    /**
+     * Holds the index in the table of every source.
+     */
+    private final Map<N, Integer> sources;
+
+    /**
+     * Holds the Node id of every source, by index in the table.
+     */
+    private final int[] sourceIds;
+
+    /**
+     * Holds the tree of every source, by index in the table, with every Edge index stored plus
+     * one so that 0 marks Nodes the source does not reach; null if the trees are held as ints.
+     */
+    private final char[][] compactTrees;
+
+    /**
+     * Holds the tree of every source, by index in the table, as shortestPathTree returns it;
+     * null if the trees are held as chars.
+     */
+    private final int[][] trees;
+
+    // Abstraction Function:
+    //  A RouteTable maps every source s and Node n of the graph of engine to the path
+    //  engine.shortestPath(s, n): the path along which the tree of s reaches n, where the tree
+    //  of s is trees[sources.get(s)], or compactTrees[sources.get(s)] with every entry less one.
+    //
+    // Representation Invariant:
+    //  engine != null && sources != null && exactly one of compactTrees and trees is null
+    //  && sourceIds, and the non-null one of compactTrees and trees, have sources.size() elements
+    //  && every tree has engine.size() elements
+    //  && sourceIds[sources.get(s)] == engine.idOf(s) for every source s
+
+    /**
+     * @param engine the engine that searches the graph
+     * @param sources the Nodes the table holds the paths from
+     * @spec.effects Constructs a new table of the shortest paths from every Node in sources
+     * @throws IllegalArgumentException if engine or sources is null, or a source is null or
+     *                                  not in the graph of engine
+     */
+    public RouteTable(DijkstraEngine<N> engine, Collection<? extends N> sources) {
+        if (engine == null || sources == null) throw new IllegalArgumentException("Arguments cannot be null.");
+        this.engine = engine;
+        this.sources = new HashMap<>();
+        List<Integer> ids = new ArrayList<>();
+        for (N source: sources) {
+            if (source == null) throw new IllegalArgumentException("Sources cannot be null.");
+            int id = engine.idOf(source);
+            if (id < 0) throw new IllegalArgumentException("Sources must be contained in graph.");
+            if (this.sources.putIfAbsent(source, ids.size()) == null) ids.add(id);
+        }
+        sourceIds = ids.stream().mapToInt(Integer::intValue).toArray();
+
+        int[][] computed = new int[sourceIds.length][];
+        // every search uses the search arrays of its own thread, so the searches share nothing
+        IntStream.range(0, sourceIds.length).parallel()
+                .forEach(i -> computed[i] = engine.shortestPathTree(sourceIds[i]));
+        if (engine.edgeCount() <= MAX_COMPACT_EDGES) {
+            compactTrees = new char[computed.length][];
+            for (int i = 0; i < computed.length; i++) {
+                char[] tree = new char[computed[i].length];
+                for (int n = 0; n < tree.length; n++) tree[n] = (char) (computed[i][n] + 1);
+                compactTrees[i] = tree;
+            }
+            trees = null;
+        } else {
+            compactTrees = null;
+            trees = computed;
+        }
+        checkRep();
+    }
+
+    /**
+     * Returns whether the table holds the paths from a Node
+     * @param source the data of the Node
+     * @return true if source is a source of this table, false otherwise
+     */
+    public boolean hasSource(N source) {
+        return sources.containsKey(source);
+    }
+
+    /**
+     * Returns the number of sources of this table
+     * @return the number of distinct sources
+     */
+    public int sourceCount() {
+        return sourceIds.length;
+    }
+
+    /**
+     * Returns the shortest path from a source to a Node
+     * @param source the start of the path, a source of this table
+     * @param dest the end of the path
+     * @return the path engine.shortestPath(source, dest) returns, null if there is no path
+     * @throws IllegalArgumentException if source is not a source of this table, or dest is
+     *                                  null or not in the graph
+     */
+    public Path<N> path(N source, N dest) {
+        Integer index = source == null ? null : sources.get(source);
+        if (index == null) throw new IllegalArgumentException("Table does not hold paths from " + source);
+        int target = dest == null ? -1 : engine.idOf(dest);
+        if (target < 0) throw new IllegalArgumentException("Given nodes must be contained in graph.");
+        if (compactTrees != null) {
+            char[] tree = compactTrees[index];
+            return engine.treePath(sourceIds[index], target, n -> tree[n] - 1);
+        }
+        int[] tree = trees[index];
+        return engine.treePath(sourceIds[index], target, n -> tree[n]);
+    }
+
+    /**
+     * Returns an estimate of the memory held by this table, not counting the engine or the
+     * data of the sources: the trees and their array headers, the source ids, and the map of
+     * sources at 48 bytes per entry
+     * @return the estimated number of bytes held by this table
+     */
+    public long memoryBytes() {
+        long bytes = arrayBytes(sourceIds.length, 4) + arrayBytes(sourceIds.length, 8);
+        for (int i = 0; i < sourceIds.length; i++) {
+            bytes += compactTrees != null ? arrayBytes(compactTrees[i].length, 2) : arrayBytes(trees[i].length, 4);
+        }
+        return bytes + 48L * sources.size();
+    }
+
+    /**
+     * Returns the size of an array, with a 16 byte header and padding to 8 bytes
+     * @param length the number of elements
+     * @param elementBytes the size of an element
+     * @return the estimated number of bytes the array takes
+     */
+    private static long arrayBytes(int length, int elementBytes) {
+        return (16 + (long) length * elementBytes + 7) / 8 * 8;
+    }
+
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert (engine != null && sources != null) : "fields cannot be null";
+        assert ((compactTrees == null) != (trees == null)) : "trees must be held one way";
+        assert (sourceIds.length == sources.size()) : "every source must have an id";
+        if (DLGraph.DEBUG) {
+            for (Map.Entry<N, Integer> source: sources.entrySet()) {
+                assert (sourceIds[source.getValue()] == engine.idOf(source.getKey())) : "source ids must match";
+            }
+        }
+    }
+}
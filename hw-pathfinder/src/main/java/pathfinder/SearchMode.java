@@ -0,0 +1,26 @@
+package pathfinder;
+
+/**
+ * <b>SearchMode</b> selects the algorithm a ModelAPI uses to find the shortest path between
+ * two buildings. Every mode finds the same path; they differ only in how much of the campus
+ * they search to find it.
+ */
+public enum SearchMode {
+
+    /**
+     * Dijkstra's algorithm, which expands the campus outward from the start in every direction.
+     */
+    DIJKSTRA,
+
+    /**
+     * A* with a straight-line distance heuristic, which expands the campus toward the
+     * destination first.
+     */
+    A_STAR,
+
+    /**
+     * A lookup in a table of the shortest path trees of every building, which is built on first
+     * use and searches nothing afterward.
+     */
+    ROUTE_TABLE
+}
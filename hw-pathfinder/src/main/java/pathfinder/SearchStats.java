@@ -0,0 +1,102 @@
+package pathfinder;
+
+/**
+ * <b>SearchStats</b> records how much work a shortest path search did, so that searches such
+ * as Dijkstra's algorithm and A* can be compared on the same queries. A SearchStats holds the
+ * numbers of the last search recorded in it and the totals of every search recorded in it.
+ * It is not safe to share between threads that search at the same time.
+ *
+ * Specification fields:
+ * @spec.specfield expandedNodes : int // The number of Nodes the last search expanded.
+ * @spec.specfield nanos : long // How long the last search took, in nanoseconds.
+ * @spec.specfield searches : int // The number of searches recorded.
+ * @spec.specfield totalExpandedNodes : long // The number of Nodes every search expanded.
+ * @spec.specfield totalNanos : long // How long every search took, in nanoseconds.
+ */
+public class SearchStats {
+
+    /**
+     * Holds the number of Nodes the last search expanded.
+     */
+    private int expandedNodes;
+
+    /**
+     * Holds how long the last search took, in nanoseconds.
+     */
+    private long nanos;
+
+    /**
+     * Holds the number of searches recorded.
+     */
+    private int searches;
+
+    /**
+     * Holds the number of Nodes every search expanded.
+     */
+    private long totalExpandedNodes;
+
+    /**
+     * Holds how long every search took, in nanoseconds.
+     */
+    private long totalNanos;
+
+    /**
+     * Records a search
+     * @param expandedNodes the number of Nodes the search expanded
+     * @param nanos how long the search took, in nanoseconds
+     * @spec.modifies this
+     * @spec.effects sets the last search to the one given and adds it to the totals
+     */
+    public void record(int expandedNodes, long nanos) {
+        this.expandedNodes = expandedNodes;
+        this.nanos = nanos;
+        searches++;
+        totalExpandedNodes += expandedNodes;
+        totalNanos += nanos;
+    }
+
+    /**
+     * Returns the number of Nodes the last search expanded
+     * @return the number of Nodes removed from the queue by the last search, 0 if none was recorded
+     */
+    public int getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    /**
+     * Returns how long the last search took
+     * @return the duration of the last search in nanoseconds, 0 if none was recorded
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Returns the number of searches recorded
+     * @return the number of searches recorded
+     */
+    public int getSearches() {
+        return searches;
+    }
+
+    /**
+     * Returns the number of Nodes every search expanded
+     * @return the total number of Nodes expanded by the searches recorded
+     */
+    public long getTotalExpandedNodes() {
+        return totalExpandedNodes;
+    }
+
+    /**
+     * Returns how long every search took
+     * @return the total duration of the searches recorded in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    @Override
+    public String toString() {
+        return searches + " searches, " + totalExpandedNodes + " nodes expanded, " + totalNanos / 1000 + " us";
+    }
+}
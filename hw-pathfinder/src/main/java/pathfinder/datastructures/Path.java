@@ -12,6 +12,7 @@
 package pathfinder.datastructures;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
@@ -22,11 +23,14 @@ import java.util.List;
  */
 public class Path<T> implements Iterable<Path<T>.Segment> {
 
+    // A path is stored as a persistent list: a non-empty path holds only its last segment and
+    // the path it extends, which it shares with every other path extending the same prefix, so
+    // extending a path takes constant time and space however long the path is.
+
     // AF(this) =
     //      first point in the path => start
-    //      each "step" along the path between points => elements of list path, where
-    //          path.get(0) is the first step from the start point to an intermediate point, and
-    //          path.get(path.size() - 1) is the final step from an intermediate point to the end
+    //      each "step" along the path between points => the segments of prefix followed by last,
+    //          where an empty path (last == null) has no steps
     //      total cost along the path => cost
     //      the destination point in this path, opposite the start point => getEnd()
 
@@ -34,23 +38,50 @@ public class Path<T> implements Iterable<Path<T>.Segment> {
     //      cost >= 0 &&
     //      Double.isFinite(cost) &&
     //      start != null &&
-    //      path != null &&
-    //      path does not contain null elements
+    //      (last == null) == (prefix == null) == (length == 0) &&
+    //      if last != null:
+    //          prefix.start == start && prefix.length == length - 1 &&
+    //          prefix.getEnd() == last.getStart() &&
+    //          cost == prefix.cost + last.cost &&
+    //          segmentsHash == 31 * prefix.segmentsHash + last.hashCode()
+    //      else:
+    //          cost == 0 && segmentsHash == 1
 
     /**
      * The total cost along all the segments in this path.
      */
-    private double cost;
+    private final double cost;
 
     /**
      * The point at the beginning of this path.
      */
-    private T start;
+    private final T start;
+
+    /**
+     * The last segment of this path, or null if this path has no segments.
+     */
+    private final Segment last;
+
+    /**
+     * The path this path extends by its last segment, or null if this path has no segments.
+     */
+    private final Path<T> prefix;
 
     /**
-     * The ordered sequence of segments representing a path between points.
+     * The number of segments in this path.
      */
-    private List<Segment> path;
+    private final int length;
+
+    /**
+     * The hash code of the list of the segments of this path, as List#hashCode computes it.
+     */
+    private final int segmentsHash;
+
+    /**
+     * The segments of this path in order, built the first time this path is iterated over.
+     * Only ever set to lists of the same segments, so threads that race to build it agree.
+     */
+    private volatile List<Segment> segments;
 
     /**
      * Creates a new, empty path containing a start point. Essentially this represents a path
@@ -61,7 +92,26 @@ public class Path<T> implements Iterable<Path<T>.Segment> {
     public Path(T start) {
         this.start = start;
         this.cost = 0;
-        this.path = new ArrayList<>();
+        this.last = null;
+        this.prefix = null;
+        this.length = 0;
+        this.segmentsHash = 1;
+        checkRep();
+    }
+
+    /**
+     * Creates a new path extending the given path by one segment.
+     *
+     * @param prefix The path extended.
+     * @param last   The segment appended to prefix.
+     */
+    private Path(Path<T> prefix, Segment last) {
+        this.start = prefix.start;
+        this.cost = prefix.cost + last.getCost();
+        this.last = last;
+        this.prefix = prefix;
+        this.length = prefix.length + 1;
+        this.segmentsHash = 31 * prefix.segmentsHash + last.hashCode();
         checkRep();
     }
 
@@ -70,24 +120,15 @@ public class Path<T> implements Iterable<Path<T>.Segment> {
      * in this path and terminating at {@code newEnd}. The cost of adding this additional segment
      * to the existing path is {@code segmentCost}. Thus, the returned Path represents a path
      * from {@code this.getStart()} to {@code newEnd}, with a cost of {@code this.getCost() +
-     * segmentCost}.
+     * segmentCost}. This path is not changed, and shares its segments with the returned path,
+     * so extending a path takes constant time however long it is.
      *
      * @param newEnd      The point being added at the end of the segment being appended to this path
      * @param segmentCost The cost of the segment being added to the end of this path.
      * @return A new path representing the current path with the given segment appended to the end.
      */
     public Path<T> extend(T newEnd, double segmentCost) {
-        checkRep();
-        //
-        Path<T> extendedPath = new Path<>(start);
-        extendedPath.path.addAll(this.path);
-        extendedPath.path.add(new Segment(this.getEnd(), newEnd, segmentCost));
-        extendedPath.cost = this.cost + segmentCost;
-        //
-        extendedPath.checkRep();
-        checkRep();
-        //
-        return extendedPath;
+        return new Path<>(this, new Segment(this.getEnd(), newEnd, segmentCost));
     }
 
     /**
@@ -109,10 +150,10 @@ public class Path<T> implements Iterable<Path<T>.Segment> {
      * contains no segments (i.e. this path is from the start point to itself).
      */
     public T getEnd() {
-        if(path.size() == 0) {
+        if(last == null) {
             return start;
         }
-        return path.get(path.size() - 1).getEnd();
+        return last.getEnd();
     }
 
     /**
@@ -127,7 +168,7 @@ public class Path<T> implements Iterable<Path<T>.Segment> {
         // Create a wrapping iterator to guarantee exceptional behavior on Iterator#remove.
         return new Iterator<>() {
 
-            private Iterator<Segment> backingIterator = path.iterator();
+            private Iterator<Segment> backingIterator = orderedSegments().iterator();
 
             @Override
             public boolean hasNext() {
@@ -146,17 +187,40 @@ public class Path<T> implements Iterable<Path<T>.Segment> {
         };
     }
 
+    /**
+     * Returns the segments of this path in order, walking back from the last segment the
+     * first time this is called.
+     *
+     * @return list of the segments of this path from the start point to the end point, which
+     *         must not be modified
+     */
+    private List<Segment> orderedSegments() {
+        List<Segment> ordered = segments;
+        if(ordered == null) {
+            ordered = new ArrayList<>(Collections.nCopies(length, null));
+            Path<T> p = this;
+            for(int i = length - 1; i >= 0; i--) {
+                ordered.set(i, p.last);
+                p = p.prefix;
+            }
+            segments = ordered;
+        }
+        return ordered;
+    }
+
     /**
      * Ensures that the representation invariant has not been violated. Returns normally if
-     * there is no violation.
+     * there is no violation. Only this path and the path it extends are checked, as the rest
+     * of the prefix was checked when it was built.
      */
     private void checkRep() {
         assert cost >= 0;
         assert Double.isFinite(cost);
         assert start != null;
-        assert path != null;
-        for(Segment segment : path) {
-            assert segment != null;
+        assert (last == null) == (prefix == null) && (last == null) == (length == 0);
+        if(last != null) {
+            assert prefix.start == start && prefix.length == length - 1;
+            assert prefix.getEnd() == last.getStart();
         }
     }
 
@@ -173,18 +237,20 @@ public class Path<T> implements Iterable<Path<T>.Segment> {
         if(this == obj) {
             return true;
         }
-        if(this.getClass() != obj.getClass()) {
+        if(obj == null || this.getClass() != obj.getClass()) {
             return false;
         }
         Path<?> other = (Path<?>) obj;
-        if(this.path.size() != other.path.size()) {
+        if(this.length != other.length || this.segmentsHash != other.segmentsHash) {
             return false;
         }
-        if(this.path.size() == 0 && !this.start.equals(other.start)) {
+        if(this.length == 0 && !this.start.equals(other.start)) {
             return false;
         }
-        for(int i = 0; i < this.path.size(); i++) {
-            if(!this.path.get(i).equals(other.path.get(i))) {
+        // compares from the end back, stopping early where the two paths share a prefix
+        Path<?> p = other;
+        for(Path<T> q = this; q.last != null && q != p; q = q.prefix, p = p.prefix) {
+            if(!q.last.equals(p.last)) {
                 return false;
             }
         }
@@ -193,14 +259,14 @@ public class Path<T> implements Iterable<Path<T>.Segment> {
 
     @Override
     public int hashCode() {
-        return (31 * start.hashCode()) + path.hashCode();
+        return (31 * start.hashCode()) + segmentsHash;
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append(start.toString());
-        for(Segment segment : path) {
+        for(Segment segment : this) {
             sb.append(" =(");
             sb.append(String.format("%.3f", segment.getCost()));
             sb.append(")=> ");
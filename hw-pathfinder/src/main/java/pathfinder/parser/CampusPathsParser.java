@@ -11,12 +11,13 @@
 
 package pathfinder.parser;
 
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import graph.LineScanner;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * A utility class capable of parsing data in campus buildings and
@@ -24,6 +25,19 @@ import java.util.stream.Collectors;
  */
 public class CampusPathsParser {
 
+    /**
+     * Holds the largest integer such that it and every smaller integer are exact doubles.
+     */
+    private static final long MAX_EXACT_DIGITS = 1L << 53;
+
+    /**
+     * Holds the powers of ten that doubles represent exactly.
+     */
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
     /**
      * Parses the campus buildings file (in src/main/resources/data/) and
      * returns a list of objects containing all the data in that file.
@@ -35,25 +49,18 @@ public class CampusPathsParser {
      */
     public static List<CampusBuilding> parseCampusBuildings(String file) {
         List<CampusBuilding> buildings = new ArrayList<>();
-        List<String> lines = readLines(file);
-        //
-        for (String line : lines) {
-            String[] fields = line.split(",");
-            if (fields.length != 4) {
+        int[] fields = new int[5];
+        forEachLine(file, (bytes, start, end) -> {
+            if (splitFields(bytes, start, end, fields) != 4) {
                 throw new ParserException("Wrong number of fields in line.");
             }
-            String shortName = fields[0];
-            String longName = fields[1];
-            double x, y;
-            try {
-                x = Double.parseDouble(fields[2]);
-                y = Double.parseDouble(fields[3]);
-            } catch (NumberFormatException e) {
-                throw new ParserException("Cannot parse x/y coordinates as numbers", e);
-            }
+            String shortName = decode(bytes, fields[0], fields[1] - 1);
+            String longName = decode(bytes, fields[1], fields[2] - 1);
+            double x = parseDouble(bytes, fields[2], fields[3] - 1);
+            double y = parseDouble(bytes, fields[3], end);
             //
             buildings.add(new CampusBuilding(shortName, longName, x, y));
-        }
+        });
         //
         return buildings;
     }
@@ -69,45 +76,150 @@ public class CampusPathsParser {
      */
     public static List<CampusPath> parseCampusPaths(String file) {
         List<CampusPath> paths = new ArrayList<>();
-        List<String> lines = readLines(file);
-        //
-        for (String line : lines) {
-            String[] fields = line.split(",");
-            if (fields.length != 5) {
+        int[] fields = new int[6];
+        forEachLine(file, (bytes, start, end) -> {
+            if (splitFields(bytes, start, end, fields) != 5) {
                 throw new ParserException("Wrong number of fields in line");
             }
-            double x1, x2, y1, y2, distance;
-            try {
-                x1 = Double.parseDouble(fields[0]);
-                y1 = Double.parseDouble(fields[1]);
-                x2 = Double.parseDouble(fields[2]);
-                y2 = Double.parseDouble(fields[3]);
-                distance = Double.parseDouble(fields[4]);
-            } catch (NumberFormatException e) {
-                throw new ParserException("Cannot parse x/y coordinates as numbers", e);
-            }
+            double x1 = parseDouble(bytes, fields[0], fields[1] - 1);
+            double y1 = parseDouble(bytes, fields[1], fields[2] - 1);
+            double x2 = parseDouble(bytes, fields[2], fields[3] - 1);
+            double y2 = parseDouble(bytes, fields[3], fields[4] - 1);
+            double distance = parseDouble(bytes, fields[4], end);
             //
             paths.add(new CampusPath(x1, y1, x2, y2, distance));
-        }
+        });
         //
         return paths;
     }
 
     /**
-     * Reads all lines contained within the provided data file, which is located
-     * relative to the data/ folder in this parser's classpath.
+     * Returns when the provided data file, which is located relative to the data/ folder in
+     * this parser's classpath, was last modified, so that data derived from it can be checked
+     * for being out of date.
+     *
+     * @param file The simple filename of a campus data file.
+     * @return the time the file was last modified, in milliseconds since the epoch, or 0 if
+     *         it is not known
+     * @throws ParserException if the file doesn't exist, has an invalid name, or can't be read
+     */
+    public static long lastModified(String file) {
+        try {
+            return LineScanner.lastModified(resource(file));
+        } catch (IOException e) {
+            throw new ParserException("Cannot read file: " + file, e);
+        }
+    }
+
+    /**
+     * Passes every non-empty line of the provided data file, which is located relative to the
+     * data/ folder in this parser's classpath, to the handler, without the line terminator. A
+     * file on the file system is memory-mapped, so its fields are tokenized in place without
+     * creating a String per line.
      *
      * @param filename The file to read.
+     * @param handler The handler given each line.
      * @throws ParserException if the file doesn't exist, has an invalid name, or can't be read
-     * @return A new {@link List<String>} containing all lines in the file.
      */
-    private static List<String> readLines(String filename) {
+    private static void forEachLine(String filename, LineScanner.LineHandler handler) {
+        try {
+            LineScanner.forEachLine(resource(filename), handler);
+        } catch (IOException e) {
+            throw new ParserException("Cannot read file: " + filename, e);
+        }
+    }
+
+    /**
+     * Returns the location of the provided data file, which is located relative to the data/
+     * folder in this parser's classpath.
+     *
+     * @param filename The file located.
+     * @return the URL of the file
+     * @throws ParserException if the file doesn't exist
+     */
+    private static URL resource(String filename) {
         // See MarvelParser.java (from hw-marvel) for an explanation of this code
-        InputStream stream = CampusPathsParser.class.getResourceAsStream("/data/" + filename);
-        if (stream == null) {
+        URL url = CampusPathsParser.class.getResource("/data/" + filename);
+        if (url == null) {
             throw new ParserException("No such file: " + filename);
         }
-        return new BufferedReader(new InputStreamReader(stream)).lines().collect(Collectors.toList());
+        return url;
+    }
+
+    /**
+     * Finds the comma-separated fields of a line. Field i starts at fields[i] and ends just
+     * before fields[i + 1] - 1 (the comma after it), except for the last field, which ends at
+     * the end of the line.
+     *
+     * @param bytes the buffer holding the line
+     * @param start the index of the first byte of the line
+     * @param end one past the index of the last byte of the line
+     * @param fields the array the start of each field is stored in
+     * @return the number of fields of the line, or fields.length if it has at least that many
+     */
+    private static int splitFields(ByteBuffer bytes, int start, int end, int[] fields) {
+        int count = 0;
+        fields[count++] = start;
+        for (int i = start; i < end && count < fields.length; i++) {
+            if (bytes.get(i) == ',') fields[count++] = i + 1;
+        }
+        return count;
+    }
+
+    /**
+     * Decodes a range of a buffer as a UTF-8 string
+     *
+     * @param bytes the buffer holding the string
+     * @param start the index of the first byte of the string
+     * @param end one past the index of the last byte of the string
+     * @return the decoded string
+     */
+    private static String decode(ByteBuffer bytes, int start, int end) {
+        byte[] copy = new byte[end - start];
+        for (int i = 0; i < copy.length; i++) copy[i] = bytes.get(start + i);
+        return new String(copy, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses a range of a buffer as a decimal number. Plain numbers whose digits, read as an
+     * integer, fit in the 53 bits of a double, with at most 22 digits after the point, are
+     * parsed in place: both their digits and the power of ten they are divided by are exact
+     * doubles, so one division rounds them exactly as Double.parseDouble would. Any other
+     * number is handed to Double.parseDouble.
+     *
+     * @param bytes the buffer holding the number
+     * @param start the index of the first byte of the number
+     * @param end one past the index of the last byte of the number
+     * @return the number
+     * @throws ParserException if the range is not a number
+     */
+    private static double parseDouble(ByteBuffer bytes, int start, int end) {
+        int i = start;
+        boolean negative = i < end && bytes.get(i) == '-';
+        if (negative) i++;
+        long digits = 0;
+        int fractionDigits = -1;
+        boolean plain = i < end;
+        for (; i < end && plain; i++) {
+            byte b = bytes.get(i);
+            if (b >= '0' && b <= '9' && digits <= MAX_EXACT_DIGITS) {
+                digits = 10 * digits + (b - '0');
+                if (fractionDigits >= 0) fractionDigits++;
+            } else if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                plain = false;
+            }
+        }
+        if (plain && digits <= MAX_EXACT_DIGITS && fractionDigits != 0 && fractionDigits < POWERS_OF_TEN.length) {
+            double value = fractionDigits > 0 ? digits / POWERS_OF_TEN[fractionDigits] : digits;
+            return negative ? -value : value;
+        }
+        try {
+            return Double.parseDouble(decode(bytes, start, end));
+        } catch (NumberFormatException e) {
+            throw new ParserException("Cannot parse x/y coordinates as numbers", e);
+        }
     }
 
     /**
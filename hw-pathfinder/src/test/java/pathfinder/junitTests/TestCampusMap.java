@@ -0,0 +1,138 @@
+package pathfinder.junitTests;
+
+import pathfinder.*;
+import org.junit.*;
+import org.junit.rules.Timeout;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the search modes of the
+ * CampusMap class.
+ */
+public class TestCampusMap {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static CampusMap map;
+
+    @BeforeClass
+    public static void setUpClass() {
+        map = new CampusMap();
+    }
+
+    @Test
+    public void aStarFindsSamePathsAsDijkstra() {
+        SearchStats dijkstra = new SearchStats();
+        SearchStats aStar = new SearchStats();
+        for (String from: map.buildingNames().keySet()) {
+            for (String to: map.buildingNames().keySet()) {
+                Path<Point> expected = map.findShortestPath(from, to, SearchMode.DIJKSTRA, dijkstra);
+                assertEquals(expected, map.findShortestPath(from, to, SearchMode.A_STAR, aStar));
+                assertEquals(expected, map.findShortestPath(from, to));
+            }
+        }
+        assertEquals(dijkstra.getSearches(), aStar.getSearches());
+        assertTrue(aStar.getTotalExpandedNodes() < dijkstra.getTotalExpandedNodes());
+    }
+
+    @Test
+    public void routeTableFindsSamePathsAsDijkstra() {
+        SearchStats table = new SearchStats();
+        for (String from: map.buildingNames().keySet()) {
+            for (String to: map.buildingNames().keySet()) {
+                assertEquals(map.findShortestPath(from, to, SearchMode.DIJKSTRA),
+                        map.findShortestPath(from, to, SearchMode.ROUTE_TABLE, table));
+            }
+        }
+        assertEquals(0, table.getTotalExpandedNodes());
+        assertTrue(map.routeTableBytes() > 0);
+    }
+
+    @Test
+    public void disabledRouteTableSearches() {
+        CampusMap searched = new CampusMap();
+        searched.setRouteCache(0, RouteCache.EvictionPolicy.LRU);
+        assertNull(searched.getRouteCache());
+        assertTrue(searched.isRouteTableEnabled());
+        searched.findShortestPath("CSE", "MGH");
+        assertTrue(searched.routeTableBytes() > 0);
+        searched.setRouteTableEnabled(false);
+        assertEquals(0, searched.routeTableBytes());
+        SearchStats stats = new SearchStats();
+        assertEquals(map.findShortestPath("CSE", "MGH", SearchMode.DIJKSTRA),
+                searched.findShortestPath("CSE", "MGH", SearchMode.ROUTE_TABLE, stats));
+        assertTrue(stats.getExpandedNodes() > 0);
+        assertEquals(0, searched.routeTableBytes());
+    }
+
+    @Test
+    public void routeCacheSharesPaths() {
+        CampusMap cached = new CampusMap();
+        cached.setRouteCache(2, RouteCache.EvictionPolicy.LRU);
+        RouteCache<Point> cache = cached.getRouteCache();
+        Path<Point> path = cached.findShortestPath("CSE", "MGH");
+        SearchStats stats = new SearchStats();
+        assertSame(path, cached.findShortestPath("CSE", "MGH", SearchMode.ROUTE_TABLE, stats));
+        assertEquals(1, stats.getSearches());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        // explicit searches bypass the cache
+        assertEquals(path, cached.findShortestPath("CSE", "MGH", SearchMode.A_STAR));
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void routeCacheEvictsLeastRecentlyUsed() {
+        CampusMap cached = new CampusMap();
+        cached.setRouteCache(2, RouteCache.EvictionPolicy.LRU);
+        RouteCache<Point> cache = cached.getRouteCache();
+        cached.findShortestPath("CSE", "MGH");
+        cached.findShortestPath("CSE", "KNE");
+        cached.findShortestPath("CSE", "MGH");
+        cached.findShortestPath("MGH", "KNE");
+        assertEquals(1, cache.getEvictions());
+        cached.findShortestPath("CSE", "MGH");
+        assertEquals(2, cache.getHits());
+        cached.findShortestPath("CSE", "KNE");
+        assertEquals(4, cache.getMisses());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void routeCacheEvictsFirstIn() {
+        CampusMap cached = new CampusMap();
+        cached.setRouteCache(2, RouteCache.EvictionPolicy.FIFO);
+        RouteCache<Point> cache = cached.getRouteCache();
+        cached.findShortestPath("CSE", "MGH");
+        cached.findShortestPath("CSE", "KNE");
+        cached.findShortestPath("CSE", "MGH");
+        cached.findShortestPath("MGH", "KNE");
+        cached.findShortestPath("CSE", "MGH");
+        assertEquals(1, cache.getHits());
+        assertEquals(4, cache.getMisses());
+        assertEquals(2, cache.getEvictions());
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void negativeRouteCacheSize() {
+        map.setRouteCache(-1, RouteCache.EvictionPolicy.LRU);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void heuristicScaleAboveData() {
+        map.setHeuristicScale(map.getHeuristicScale() * 2);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void nullSearchMode() {
+        map.findShortestPath("CSE", "MGH", null);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void unknownEndBuilding() {
+        map.findShortestPath("CSE", "NOT A BUILDING", SearchMode.A_STAR);
+    }
+}
@@ -0,0 +1,108 @@
+package pathfinder.junitTests;
+
+import graph.*;
+import pathfinder.*;
+import org.junit.*;
+import org.junit.rules.Timeout;
+import pathfinder.datastructures.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a stress test that runs many Dijkstra searches on a ConcurrentGraph while
+ * other threads close and reopen paths in it, and checks that every search sees one consistent
+ * version of the graph.
+ */
+public class TestConcurrentDijkstras {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(30); // 30 seconds max per method tested
+
+    private static final int SIDE = 12;
+    private static final int READERS = 6;
+    private static final int QUERIES = 150;
+    private static final int START = 0;
+    private static final int DEST = SIDE * SIDE - 1;
+
+    private ConcurrentGraph<Integer,Double> grid;
+
+    @Before
+    public void setUp() throws Exception {
+        grid = new ConcurrentGraph<>();
+        for (int i = 0; i < SIDE * SIDE; i++) grid.addNode(new Node<>(i));
+        for (int i = 0; i < SIDE * SIDE; i++) {
+            if (i % SIDE < SIDE - 1) connect(i, i + 1);
+            if (i + SIDE < SIDE * SIDE) connect(i, i + SIDE);
+        }
+    }
+
+    private void connect(int from, int to) {
+        grid.addEdge(new Node<>(from), new Node<>(to), 1.0);
+        grid.addEdge(new Node<>(to), new Node<>(from), 1.0);
+    }
+
+    @Test
+    public void readersSeeConsistentVersionsWhileWritersChangeGraph() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(READERS + 2);
+        CountDownLatch readersDone = new CountDownLatch(READERS);
+        List<Future<?>> tasks = new ArrayList<>();
+
+        // closes and reopens a shortcut straight from START to DEST
+        tasks.add(pool.submit(() -> {
+            Node<Integer> start = new Node<>(START);
+            Node<Integer> dest = new Node<>(DEST);
+            while (readersDone.getCount() > 0) {
+                grid.addEdge(start, dest, 0.5);
+                grid.removeEdge(start, dest, 0.5);
+            }
+            return null;
+        }));
+        // closes and reopens random street segments, always reopening them with the same cost
+        tasks.add(pool.submit(() -> {
+            Random random = new Random(331);
+            while (readersDone.getCount() > 0) {
+                int from = random.nextInt(SIDE * SIDE - 1);
+                int to = from % SIDE < SIDE - 1 ? from + 1 : from + SIDE;
+                if (to >= SIDE * SIDE) continue;
+                grid.removeEdge(new Node<>(from), new Node<>(to), 1.0);
+                grid.addEdge(new Node<>(from), new Node<>(to), 1.0);
+            }
+            return null;
+        }));
+        for (int r = 0; r < READERS; r++) {
+            tasks.add(pool.submit(() -> {
+                try {
+                    for (int q = 0; q < QUERIES; q++) {
+                        Graph<Integer,Double> version = grid.snapshot();
+                        Path<Integer> path = DijkstrasAlgorithm.dijkstrasPath(version, START, DEST);
+                        assertNotNull(path);
+                        for (Path<Integer>.Segment s: path) {
+                            assertTrue(version.getEdgeView(new Node<>(s.getStart()))
+                                    .contains(new Edge<>(s.getCost(), new Node<>(s.getEnd()))));
+                        }
+                        boolean shortcut = version.numEdges(new Node<>(START), new Node<>(DEST)) > 0;
+                        if (shortcut) {
+                            assertEquals(0.5, path.getCost(), 0);
+                        } else {
+                            assertTrue(path.getCost() >= 2 * (SIDE - 1));
+                        }
+                    }
+                } finally {
+                    readersDone.countDown();
+                }
+                return null;
+            }));
+        }
+        try {
+            for (Future<?> task: tasks) task.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AssertionError) throw (AssertionError) e.getCause();
+            throw e;
+        } finally {
+            pool.shutdownNow();
+        }
+        assertTrue(grid.version() > 0);
+        assertEquals(SIDE * SIDE, grid.size());
+    }
+}
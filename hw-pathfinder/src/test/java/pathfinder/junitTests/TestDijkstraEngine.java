@@ -0,0 +1,162 @@
+package pathfinder.junitTests;
+
+import graph.*;
+import pathfinder.*;
+import org.junit.*;
+import org.junit.rules.Timeout;
+import pathfinder.datastructures.Path;
+import java.util.*;
+import java.util.function.ToDoubleBiFunction;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * DijkstraEngine class.
+ */
+public class TestDijkstraEngine {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private DLGraph<String,Double> testGraph;
+    private final Node<String> a = new Node<>("a");
+    private final Node<String> b = new Node<>("b");
+    private final Node<String> c = new Node<>("c");
+    private final Node<String> d = new Node<>("d");
+
+    @Before
+    public void setUp() throws Exception {
+        testGraph = new DLGraph<>();
+        for (Node<String> n: List.of(a, b, c, d)) testGraph.addNode(n);
+        testGraph.addEdge(a, b, 5.0);
+        testGraph.addEdge(a, c, 1.0);
+        testGraph.addEdge(c, b, 1.5);
+        testGraph.addEdge(b, a, 2.0);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void engineOnNullGraph() {
+        new DijkstraEngine<String>(null);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void engineWithNegativeWeight() {
+        testGraph.addEdge(d, a, -1.0);
+        new DijkstraEngine<>(testGraph);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void engineWithNullStart() {
+        new DijkstraEngine<>(testGraph).shortestPath(null, "b");
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void engineWithEndNotInGraph() {
+        new DijkstraEngine<>(testGraph).shortestPath("a", "e");
+    }
+
+    @Test
+    public void engineFindsCheapestPath() {
+        DijkstraEngine<String> engine = new DijkstraEngine<>(testGraph);
+        Path<String> path = engine.shortestPath("a", "b");
+        assertEquals(2.5, path.getCost(), 1e-9);
+        assertEquals(DijkstrasAlgorithm.dijkstrasPath(testGraph, "a", "b"), path);
+        assertEquals(new Path<>("c"), engine.shortestPath("c", "c"));
+        assertNull(engine.shortestPath("a", "d"));
+    }
+
+    @Test
+    public void engineIgnoresLaterChanges() {
+        DijkstraEngine<String> engine = new DijkstraEngine<>(testGraph);
+        testGraph.addEdge(a, d, 1.0);
+        assertNull(engine.shortestPath("a", "d"));
+    }
+
+    @Test
+    public void aStarFindsSamePathsWithFewerExpansions() {
+        // points on a line, where every edge is twice as long as the distance between its ends
+        DLGraph<Integer,Double> line = new DLGraph<>();
+        for (int i = 0; i <= 20; i++) line.addNode(new Node<>(i));
+        for (int i = 0; i < 20; i++) {
+            line.addEdge(new Node<>(i), new Node<>(i + 1), 2.0);
+            line.addEdge(new Node<>(i + 1), new Node<>(i), 2.0);
+        }
+        DijkstraEngine<Integer> engine = new DijkstraEngine<>(line);
+        ToDoubleBiFunction<Integer,Integer> distance = (p, q) -> Math.abs(p - q);
+        double scale = engine.maxHeuristicScale(distance);
+        assertEquals(2.0, scale, 1e-6);
+        assertTrue(scale <= 2.0);
+
+        SearchStats dijkstra = new SearchStats();
+        SearchStats aStar = new SearchStats();
+        Path<Integer> expected = engine.shortestPath(10, 20, null, dijkstra);
+        assertEquals(expected, engine.shortestPath(10, 20, (p, q) -> scale * distance.applyAsDouble(p, q), aStar));
+        assertEquals(20.0, expected.getCost(), 1e-9);
+        assertEquals(11, aStar.getExpandedNodes());
+        assertTrue(dijkstra.getExpandedNodes() > aStar.getExpandedNodes());
+        assertEquals(1, aStar.getSearches());
+    }
+
+    @Test
+    public void aStarBreaksTiesLikeDijkstra() {
+        Random random = new Random(331);
+        DLGraph<Integer,Double> grid = new DLGraph<>();
+        int side = 12;
+        for (int i = 0; i < side * side; i++) grid.addNode(new Node<>(i));
+        for (int i = 0; i < side * side; i++) {
+            for (int j: new int[] {i + 1, i + side}) {
+                if (j < side * side && (j != i + 1 || j % side != 0)) {
+                    // integer weights of at least the grid distance leave many paths of equal cost
+                    double w = 1 + random.nextInt(2);
+                    grid.addEdge(new Node<>(i), new Node<>(j), w);
+                    grid.addEdge(new Node<>(j), new Node<>(i), w);
+                }
+            }
+        }
+        DijkstraEngine<Integer> engine = new DijkstraEngine<>(grid);
+        ToDoubleBiFunction<Integer,Integer> manhattan =
+                (p, q) -> Math.abs(p / side - q / side) + Math.abs(p % side - q % side);
+        double scale = engine.maxHeuristicScale(manhattan);
+        for (int from = 0; from < side * side; from += 7) {
+            for (int to = 0; to < side * side; to++) {
+                assertEquals(engine.shortestPath(from, to),
+                        engine.shortestPath(from, to, (p, q) -> scale * manhattan.applyAsDouble(p, q), null));
+            }
+        }
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void maxHeuristicScaleOfNull() {
+        new DijkstraEngine<>(testGraph).maxHeuristicScale(null);
+    }
+
+    @Test
+    public void engineMatchesDijkstrasOnRandomGraph() {
+        Random random = new Random(331);
+        DLGraph<Integer,Double> g = new DLGraph<>();
+        for (int i = 0; i < 60; i++) g.addNode(new Node<>(i));
+        for (int k = 0; k < 300; k++) {
+            g.addEdge(new Node<>(random.nextInt(60)), new Node<>(random.nextInt(60)), (double) random.nextInt(20));
+        }
+        DijkstraEngine<Integer> engine = new DijkstraEngine<>(g);
+        for (int from = 0; from < 60; from++) {
+            for (int to = 0; to < 60; to++) {
+                Path<Integer> expected = DijkstrasAlgorithm.dijkstrasPath(g, from, to);
+                Path<Integer> actual = engine.shortestPath(from, to);
+                if (expected == null) {
+                    assertNull(actual);
+                } else {
+                    assertEquals(expected.getCost(), actual.getCost(), 1e-9);
+                    assertEquals(Integer.valueOf(from), actual.getStart());
+                    assertEquals(Integer.valueOf(to), actual.getEnd());
+                    double cost = 0;
+                    for (Path<Integer>.Segment s: actual) {
+                        assertTrue(g.getAllChildren(new Node<>(s.getStart())).contains(new Node<>(s.getEnd())));
+                        cost += s.getCost();
+                    }
+                    assertEquals(actual.getCost(), cost, 1e-9);
+                }
+            }
+        }
+    }
+}
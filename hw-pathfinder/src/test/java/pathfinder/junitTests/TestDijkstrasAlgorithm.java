@@ -4,6 +4,11 @@ import graph.*;
 import pathfinder.*;
 import org.junit.*;
 import org.junit.rules.Timeout;
+import pathfinder.datastructures.Path;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
 
 /**
  * This class contains a set of test cases that can be used to test the implementation of the
@@ -53,4 +58,24 @@ public class TestDijkstrasAlgorithm {
     public void dijkstrasWithEndNotInGraph() {
         shortestPath.dijkstrasPath(testGraph, b.getData(), c.getData());
     }
+
+    @Test
+    public void dijkstrasOnDiskGraph() throws IOException {
+        testGraph.addNode(c);
+        testGraph.addEdge(a, b, 5.0);
+        testGraph.addEdge(a, c, 1.0);
+        testGraph.addEdge(c, b, 1.5);
+        java.nio.file.Path snapshot = Files.createTempFile("campus", ".graph");
+        try {
+            GraphSnapshot.write(testGraph, snapshot, GraphSnapshot.STRINGS, GraphSnapshot.DOUBLES);
+            try (DiskGraph<String,Double> disk = DiskGraph.open(snapshot, GraphSnapshot.STRINGS,
+                    GraphSnapshot.DOUBLES, null, 1)) {
+                Path<String> path = DijkstrasAlgorithm.dijkstrasPath(disk, a.getData(), b.getData());
+                assertEquals(2.5, path.getCost(), 1e-9);
+                assertEquals(DijkstrasAlgorithm.dijkstrasPath(testGraph, a.getData(), b.getData()), path);
+            }
+        } finally {
+            Files.delete(snapshot);
+        }
+    }
 }
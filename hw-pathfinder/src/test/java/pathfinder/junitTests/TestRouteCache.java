@@ -0,0 +1,82 @@
+package pathfinder.junitTests;
+
+import pathfinder.*;
+import org.junit.*;
+import org.junit.rules.Timeout;
+import pathfinder.datastructures.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * RouteCache class.
+ */
+public class TestRouteCache {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    @Test (expected = IllegalArgumentException.class)
+    public void cacheOfSizeZero() {
+        new RouteCache<String>(0, RouteCache.EvictionPolicy.LRU);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void cacheWithNullPolicy() {
+        new RouteCache<String>(1, null);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void getWithNullSearch() {
+        new RouteCache<String>(1, RouteCache.EvictionPolicy.LRU).get("a", "b", null);
+    }
+
+    @Test
+    public void missingPathIsNotCached() {
+        RouteCache<String> cache = new RouteCache<>(1, RouteCache.EvictionPolicy.LRU);
+        assertNull(cache.get("a", "b", () -> null));
+        assertNull(cache.get("a", "b", () -> null));
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void pairsAreOrdered() {
+        RouteCache<String> cache = new RouteCache<>(4, RouteCache.EvictionPolicy.LRU);
+        Path<String> ab = new Path<>("a").extend("b", 1.0);
+        Path<String> ba = new Path<>("b").extend("a", 1.0);
+        assertSame(ab, cache.get("a", "b", () -> ab));
+        assertSame(ba, cache.get("b", "a", () -> ba));
+        assertSame(ab, cache.get("a", "b", () -> ba));
+        assertEquals(1, cache.getHits());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void threadsShareCachedPaths() throws InterruptedException {
+        RouteCache<String> cache = new RouteCache<>(8, RouteCache.EvictionPolicy.LRU);
+        AtomicInteger searches = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    String end = String.valueOf(i % 16);
+                    Path<String> path = cache.get("s", end, () -> {
+                        searches.incrementAndGet();
+                        return new Path<>("s").extend(end, 1.0);
+                    });
+                    assertEquals(end, path.getEnd());
+                }
+            }));
+        }
+        for (Thread thread: threads) thread.start();
+        for (Thread thread: threads) thread.join();
+        assertEquals(4000, cache.getHits() + cache.getMisses());
+        assertEquals(searches.get(), cache.getMisses());
+        assertTrue(cache.size() <= 8);
+        assertTrue(cache.getEvictions() <= cache.getMisses() - cache.size());
+    }
+}
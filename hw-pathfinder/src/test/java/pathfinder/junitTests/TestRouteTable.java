@@ -0,0 +1,86 @@
+package pathfinder.junitTests;
+
+import graph.*;
+import pathfinder.*;
+import org.junit.*;
+import org.junit.rules.Timeout;
+import pathfinder.datastructures.Path;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * RouteTable class.
+ */
+public class TestRouteTable {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private DLGraph<String,Double> testGraph;
+    private DijkstraEngine<String> engine;
+
+    @Before
+    public void setUp() throws Exception {
+        testGraph = new DLGraph<>();
+        for (String n: List.of("a", "b", "c", "d")) testGraph.addNode(new Node<>(n));
+        testGraph.addEdge(new Node<>("a"), new Node<>("b"), 5.0);
+        testGraph.addEdge(new Node<>("a"), new Node<>("c"), 1.0);
+        testGraph.addEdge(new Node<>("c"), new Node<>("b"), 1.5);
+        testGraph.addEdge(new Node<>("b"), new Node<>("a"), 2.0);
+        engine = new DijkstraEngine<>(testGraph);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void tableOnNullEngine() {
+        new RouteTable<String>(null, List.of("a"));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void tableWithSourceNotInGraph() {
+        new RouteTable<>(engine, List.of("a", "e"));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void pathFromNonSource() {
+        new RouteTable<>(engine, List.of("a")).path("b", "a");
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void pathToNodeNotInGraph() {
+        new RouteTable<>(engine, List.of("a")).path("a", "e");
+    }
+
+    @Test
+    public void tableFindsEnginePaths() {
+        RouteTable<String> table = new RouteTable<>(engine, List.of("a", "b", "a"));
+        assertEquals(2, table.sourceCount());
+        assertTrue(table.hasSource("b"));
+        assertFalse(table.hasSource("c"));
+        assertEquals(engine.shortestPath("a", "b"), table.path("a", "b"));
+        assertEquals(new Path<>("a"), table.path("a", "a"));
+        assertEquals(engine.shortestPath("b", "c"), table.path("b", "c"));
+        assertNull(table.path("a", "d"));
+        assertTrue(table.memoryBytes() > 0);
+    }
+
+    @Test
+    public void tableMatchesEngineOnRandomGraph() {
+        Random random = new Random(331);
+        DLGraph<Integer,Double> g = new DLGraph<>();
+        for (int i = 0; i < 60; i++) g.addNode(new Node<>(i));
+        for (int k = 0; k < 300; k++) {
+            // integer weights leave many paths of equal cost, which the table must break the same way
+            g.addEdge(new Node<>(random.nextInt(60)), new Node<>(random.nextInt(60)), (double) random.nextInt(5));
+        }
+        DijkstraEngine<Integer> randomEngine = new DijkstraEngine<>(g);
+        List<Integer> sources = new ArrayList<>();
+        for (int i = 0; i < 60; i += 3) sources.add(i);
+        RouteTable<Integer> table = new RouteTable<>(randomEngine, sources);
+        for (int from: sources) {
+            for (int to = 0; to < 60; to++) {
+                assertEquals(randomEngine.shortestPath(from, to), table.path(from, to));
+            }
+        }
+    }
+}
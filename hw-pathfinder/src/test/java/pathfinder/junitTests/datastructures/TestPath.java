@@ -5,7 +5,10 @@ import org.junit.Test;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
@@ -106,4 +109,57 @@ public class TestPath {
         assertEquals(path2.hashCode(), path2.hashCode());
         assertEquals(path3.hashCode(), path3.hashCode());
     }
+
+    @Test
+    public void testExtendSharesButDoesNotChangePrefix() {
+        Path<Point> base = new Path<>(new Point(0, 0)).extend(new Point(1, 0), 1.0);
+        Path<Point> up = base.extend(new Point(1, 1), 1.0);
+        Path<Point> right = base.extend(new Point(2, 0), 3.0);
+        assertEquals(new Point(1, 0), base.getEnd());
+        assertEquals(1.0, base.getCost(), EPSILON);
+        assertEquals(2.0, up.getCost(), EPSILON);
+        assertEquals(4.0, right.getCost(), EPSILON);
+        assertNotEquals(up, right);
+
+        List<Point> ends = new ArrayList<>();
+        for (Path<Point>.Segment segment : right) {
+            ends.add(segment.getEnd());
+        }
+        assertEquals(Arrays.asList(new Point(1, 0), new Point(2, 0)), ends);
+        assertEquals(1, countSegments(base));
+    }
+
+    @Test
+    public void testSeparatelyBuiltPathsEqual() {
+        Path<Point> shared = new Path<>(new Point(0, 0));
+        Path<Point> copy = new Path<>(new Point(0, 0));
+        for (int i = 1; i <= 50; i++) {
+            shared = shared.extend(new Point(i, 0), i);
+            copy = copy.extend(new Point(i, 0), i);
+        }
+        assertEquals(shared, copy);
+        assertEquals(shared.hashCode(), copy.hashCode());
+        assertEquals(shared.toString(), copy.toString());
+        assertNotEquals(shared, copy.extend(new Point(51, 0), 1.0));
+        assertNotEquals(null, shared);
+    }
+
+    @Test
+    public void testLongPathExtendsInConstantTime() {
+        Path<Point> path = new Path<>(new Point(0, 0));
+        for (int i = 1; i <= 200000; i++) {
+            path = path.extend(new Point(i, 0), 1.0);
+        }
+        assertEquals(200000, path.getCost(), EPSILON);
+        assertEquals(200000, countSegments(path));
+        assertEquals(new Point(200000, 0), path.getEnd());
+    }
+
+    private static int countSegments(Path<Point> path) {
+        int count = 0;
+        for (Path<Point>.Segment segment : path) {
+            count++;
+        }
+        return count;
+    }
 }